@@ -0,0 +1,89 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.checksum;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Checksum;
+
+import io.zeebe.broker.util.Checksums;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares appending a block (modelled as a copy into the write buffer) with appending it and
+ * updating the checksum of the segment, for each supported checksum algorithm.
+ * <p>
+ * CRC32C requires a JVM which provides {@code java.util.zip.CRC32C} (Java 9+).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ChecksumBenchmark
+{
+    @Param({"128", "1024", "65536"})
+    protected int blockSize;
+
+    protected byte[] block;
+    protected byte[] writeBuffer;
+
+    protected Checksum crc32;
+    protected Checksum crc32c;
+
+    @Setup
+    public void setUp()
+    {
+        block = new byte[blockSize];
+        new Random(42).nextBytes(block);
+
+        writeBuffer = new byte[blockSize];
+
+        crc32 = Checksums.newChecksum(Checksums.ALGORITHM_CRC32);
+        crc32c = Checksums.newChecksum(Checksums.ALGORITHM_CRC32C);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] append()
+    {
+        System.arraycopy(block, 0, writeBuffer, 0, blockSize);
+        return writeBuffer;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long appendWithCrc32()
+    {
+        return appendWithChecksum(crc32);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long appendWithCrc32c()
+    {
+        return appendWithChecksum(crc32c);
+    }
+
+    protected long appendWithChecksum(Checksum checksum)
+    {
+        System.arraycopy(block, 0, writeBuffer, 0, blockSize);
+        checksum.update(writeBuffer, 0, blockSize);
+        return checksum.getValue();
+    }
+}
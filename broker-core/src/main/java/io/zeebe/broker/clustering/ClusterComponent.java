@@ -27,6 +27,7 @@ import io.zeebe.broker.clustering.management.memberList.MemberListService;
 import io.zeebe.broker.clustering.management.service.ClusterManagerContextService;
 import io.zeebe.broker.clustering.management.service.ClusterManagerService;
 import io.zeebe.broker.system.*;
+import io.zeebe.broker.system.threads.PartitionSchedulers;
 import io.zeebe.broker.transport.TransportServiceNames;
 import io.zeebe.broker.transport.cfg.TransportComponentCfg;
 import io.zeebe.servicecontainer.ServiceContainer;
@@ -43,7 +44,7 @@ public class ClusterComponent implements Component
 
         initMemberList(serviceContainer);
         initGossip(serviceContainer, config);
-        initClusterManager(serviceContainer, config);
+        initClusterManager(serviceContainer, config, context.getPartitionSchedulers());
     }
 
     protected void initMemberList(final ServiceContainer serviceContainer)
@@ -63,9 +64,9 @@ public class ClusterComponent implements Component
             .install();
     }
 
-    protected void initClusterManager(final ServiceContainer serviceContainer, final TransportComponentCfg config)
+    protected void initClusterManager(final ServiceContainer serviceContainer, final TransportComponentCfg config, final PartitionSchedulers partitionSchedulers)
     {
-        final ClusterManagerContextService clusterManagementContextService = new ClusterManagerContextService();
+        final ClusterManagerContextService clusterManagementContextService = new ClusterManagerContextService(partitionSchedulers);
         serviceContainer.createService(CLUSTER_MANAGER_CONTEXT_SERVICE, clusterManagementContextService)
             .dependency(TransportServiceNames.bufferingServerTransport(MANAGEMENT_API_SERVER_NAME), clusterManagementContextService.getManagementApiTransportInjector())
             .dependency(TransportServiceNames.clientTransport(MANAGEMENT_API_CLIENT_NAME), clusterManagementContextService.getManagementClientInjector())
@@ -74,6 +75,7 @@ public class ClusterComponent implements Component
             .dependency(LOG_STREAMS_MANAGER_SERVICE, clusterManagementContextService.getLogStreamsManagerInjector())
             .dependency(WORKFLOW_REQUEST_MESSAGE_HANDLER_SERVICE, clusterManagementContextService.getWorkflowRequestMessageHandlerInjector())
             .dependency(GOSSIP_SERVICE, clusterManagementContextService.getGossipInjector())
+            .dependency(CLIENT_API_MESSAGE_HANDLER, clusterManagementContextService.getClientApiMessageHandlerInjector())
             .install();
 
         final ClusterManagerService clusterManagerService = new ClusterManagerService(serviceContainer, config);
@@ -30,6 +30,7 @@ import org.agrona.DirectBuffer;
 public class RequestTopologyHandler extends AbstractControlMessageHandler
 {
     protected final ClusterManager clusterManager;
+    protected final TopologyRequest request = new TopologyRequest();
 
     public RequestTopologyHandler(final ServerOutput output, final ClusterManager clusterManager)
     {
@@ -49,7 +50,13 @@ public class RequestTopologyHandler extends AbstractControlMessageHandler
         final int requestStreamId = metadata.getRequestStreamId();
         final long requestId = metadata.getRequestId();
 
-        final ActorFuture<Topology> topologyActorFuture = clusterManager.requestTopology();
+        request.reset();
+        if (buffer.capacity() > 0)
+        {
+            request.wrap(buffer);
+        }
+
+        final ActorFuture<Topology> topologyActorFuture = clusterManager.requestTopology(request.getEpoch(), request.getVersion(), request.getWaitTimeout());
         actor.runOnCompletion(topologyActorFuture, ((topology, throwable) ->
         {
             if (throwable == null)
@@ -19,17 +19,39 @@ package io.zeebe.broker.clustering.handler;
 
 import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.msgpack.property.ArrayProperty;
+import io.zeebe.msgpack.property.BooleanProperty;
+import io.zeebe.msgpack.property.LongProperty;
 
 
+/**
+ * The topology as seen by a single broker. The version is incremented on every change of the
+ * broker's member list and is only comparable within the same epoch, i.e. as long as the broker
+ * is not restarted.
+ *
+ * <p>If {@link #isDelta()} is set, the brokers list only contains the brokers which changed since
+ * the version requested by the client and the removed brokers contain the brokers which left the
+ * cluster since then.
+ */
 public class Topology extends UnpackedObject
 {
     protected ArrayProperty<TopologyBroker> brokersProp = new ArrayProperty<>("brokers",
                                                                               new TopologyBroker());
 
+    protected LongProperty versionProp = new LongProperty("version", 0L);
+    protected LongProperty epochProp = new LongProperty("epoch", 0L);
+    protected BooleanProperty deltaProp = new BooleanProperty("delta", false);
+
+    protected ArrayProperty<TopologyBroker> removedBrokersProp = new ArrayProperty<>("removedBrokers",
+                                                                                     new TopologyBroker());
+
     public Topology()
     {
         this
-            .declareProperty(brokersProp);
+            .declareProperty(brokersProp)
+            .declareProperty(versionProp)
+            .declareProperty(epochProp)
+            .declareProperty(deltaProp)
+            .declareProperty(removedBrokersProp);
     }
 
     public ArrayProperty<TopologyBroker> brokers()
@@ -37,4 +59,42 @@ public class Topology extends UnpackedObject
         return brokersProp;
     }
 
+    public ArrayProperty<TopologyBroker> removedBrokers()
+    {
+        return removedBrokersProp;
+    }
+
+    public long getVersion()
+    {
+        return versionProp.getValue();
+    }
+
+    public Topology setVersion(long version)
+    {
+        versionProp.setValue(version);
+        return this;
+    }
+
+    public long getEpoch()
+    {
+        return epochProp.getValue();
+    }
+
+    public Topology setEpoch(long epoch)
+    {
+        epochProp.setValue(epoch);
+        return this;
+    }
+
+    public boolean isDelta()
+    {
+        return deltaProp.getValue();
+    }
+
+    public Topology setDelta(boolean delta)
+    {
+        deltaProp.setValue(delta);
+        return this;
+    }
+
 }
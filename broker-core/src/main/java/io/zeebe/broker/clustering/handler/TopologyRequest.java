@@ -0,0 +1,59 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.handler;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.LongProperty;
+
+/**
+ * Optional payload of a topology request. A client which already knows a topology of the broker
+ * sends its epoch and version to receive only the changes since then. With a wait timeout, the
+ * broker holds the request until the topology changes or the timeout elapses.
+ */
+public class TopologyRequest extends UnpackedObject
+{
+    protected LongProperty versionProp = new LongProperty("version", 0L);
+    protected LongProperty epochProp = new LongProperty("epoch", 0L);
+    protected LongProperty waitTimeoutProp = new LongProperty("waitTimeout", 0L);
+
+    public TopologyRequest()
+    {
+        this
+            .declareProperty(versionProp)
+            .declareProperty(epochProp)
+            .declareProperty(waitTimeoutProp);
+    }
+
+    public long getVersion()
+    {
+        return versionProp.getValue();
+    }
+
+    public long getEpoch()
+    {
+        return epochProp.getValue();
+    }
+
+    /**
+     * @return the time in milliseconds the broker may wait for a topology change before it responds
+     */
+    public long getWaitTimeout()
+    {
+        return waitTimeoutProp.getValue();
+    }
+}
@@ -20,6 +20,7 @@ package io.zeebe.broker.clustering.management;
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.handler.Topology;
 import io.zeebe.broker.clustering.management.handler.ClusterManagerFragmentHandler;
+import io.zeebe.broker.clustering.management.load.LeaderBalanceMonitor;
 import io.zeebe.broker.clustering.management.memberList.ClusterMemberListManager;
 import io.zeebe.broker.clustering.management.memberList.MemberRaftComposite;
 import io.zeebe.broker.clustering.management.message.CreatePartitionRequest;
@@ -27,10 +28,12 @@ import io.zeebe.broker.clustering.management.message.InvitationRequest;
 import io.zeebe.broker.clustering.management.message.InvitationResponse;
 import io.zeebe.broker.clustering.raft.RaftPersistentFileStorage;
 import io.zeebe.broker.clustering.raft.RaftService;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.broker.logstreams.LogStreamsManager;
 import io.zeebe.broker.transport.TransportServiceNames;
 import io.zeebe.broker.transport.cfg.SocketBindingCfg;
 import io.zeebe.broker.transport.cfg.TransportComponentCfg;
+import io.zeebe.broker.util.ParallelismLimiter;
 import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.protocol.Protocol;
@@ -40,8 +43,12 @@ import io.zeebe.raft.state.RaftState;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.transport.*;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
 import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
@@ -49,8 +56,10 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.zeebe.broker.clustering.ClusterServiceNames.RAFT_SERVICE_GROUP;
@@ -76,6 +85,20 @@ public class ClusterManager extends Actor
 
     private final LogStreamsManager logStreamsManager;
     private final ClusterMemberListManager clusterMemberListManager;
+    private final LeaderBalanceMonitor leaderBalanceMonitor;
+
+    /**
+     * The system partition is recovered first, since the other partitions are managed by it.
+     */
+    static final Comparator<RaftPersistentFileStorage> RECOVERY_ORDER =
+        Comparator.comparing((RaftPersistentFileStorage storage) -> storage.getPartitionId() != Protocol.SYSTEM_PARTITION)
+            .thenComparingInt(RaftPersistentFileStorage::getPartitionId);
+
+    private final List<Metric> recoveryMetrics = new ArrayList<>();
+    private final ParallelismLimiter recoveryLimiter;
+    private int remainingRecoveries;
+    private int recoveredPartitions;
+    private long recoveryStartTime;
 
     public ClusterManager(final ClusterManagerContext context,
                           final ServiceContainer serviceContainer,
@@ -90,6 +113,11 @@ public class ClusterManager extends Actor
 
         this.invitationResponse = new InvitationResponse();
         this.clusterMemberListManager = new ClusterMemberListManager(context, actor, transportComponentCfg, this::inviteUpdatedMember);
+        this.leaderBalanceMonitor = new LeaderBalanceMonitor(transportComponentCfg.managementApi.toSocketAddress(transportComponentCfg.host),
+                                                             transportComponentCfg.management.leaderImbalanceThreshold,
+                                                             context.getActorScheduler().getMetricsManager());
+
+        this.recoveryLimiter = new ParallelismLimiter(actor, transportComponentCfg.management.getRecoveryParallelism());
     }
 
     public void close()
@@ -109,7 +137,7 @@ public class ClusterManager extends Actor
 
         clusterMemberListManager.publishNodeAPIAddresses();
 
-        final LogStreamsManager logStreamManager = context.getLogStreamsManager();
+        actor.runAtFixedRate(Duration.ofSeconds(transportComponentCfg.management.loadPublishInterval), this::publishLoad);
 
         final File storageDirectory = new File(transportComponentCfg.management.directory);
 
@@ -127,43 +155,28 @@ public class ClusterManager extends Actor
             }
         }
 
-        final SocketBindingCfg replicationApi = transportComponentCfg.replicationApi;
-        final SocketAddress socketAddress = new SocketAddress(replicationApi.getHost(transportComponentCfg.host), replicationApi.port);
         final File[] storageFiles = storageDirectory.listFiles();
 
         if (storageFiles != null && storageFiles.length > 0)
         {
+            final List<RaftPersistentFileStorage> storages = new ArrayList<>();
             for (int i = 0; i < storageFiles.length; i++)
             {
                 final File storageFile = storageFiles[i];
-                final RaftPersistentFileStorage storage = new RaftPersistentFileStorage(storageFile.getAbsolutePath());
-
-                final DirectBuffer topicName = storage.getTopicName();
-                final int partitionId = storage.getPartitionId();
-
-                ActorFuture<LogStream> logStream = logStreamManager.getLogStream(partitionId);
-
-                if (logStream == null)
-                {
-                    final String directory = storage.getLogDirectory();
-                    logStream = logStreamManager.createLogStream(topicName, partitionId, directory);
-                }
-
-                actor.runOnCompletion(logStream, (log, t) ->
-                {
-                    storage.setLogStream(log);
+                storages.add(new RaftPersistentFileStorage(storageFile.getAbsolutePath()));
+            }
 
-                    createRaft(socketAddress, log, storage.getMembers(), storage);
-                });
+            LOG.info("Recover {} partitions with a parallelism of {}", storages.size(), recoveryLimiter.getParallelism());
 
-            }
+            recoveryStartTime = System.nanoTime();
+            recoverPartitions(storages);
         }
         else
         {
             if (transportComponentCfg.gossip.initialContactPoints.length == 0)
             {
                 LOG.debug("Broker bootstraps the system topic");
-                createPartition(Protocol.SYSTEM_TOPIC_BUF, Protocol.SYSTEM_PARTITION);
+                createPartition(Protocol.SYSTEM_TOPIC_BUF, Protocol.SYSTEM_PARTITION, null);
             }
         }
     }
@@ -203,6 +216,138 @@ public class ClusterManager extends Actor
         });
     }
 
+    @Override
+    protected void onActorClosing()
+    {
+        leaderBalanceMonitor.close();
+
+        recoveryMetrics.forEach(Metric::close);
+        recoveryMetrics.clear();
+    }
+
+    /**
+     * Recovers the partitions in {@link #RECOVERY_ORDER}, but not more than the configured number at the same time.
+     * Opening a log stream rebuilds its block index from the log, so recovering all partitions at once
+     * would let them compete for the disk and the actor threads. The replay of the stream processors is
+     * bounded by the {@link io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory}.
+     */
+    private void recoverPartitions(List<RaftPersistentFileStorage> storages)
+    {
+        storages.sort(RECOVERY_ORDER);
+        remainingRecoveries = storages.size();
+
+        for (RaftPersistentFileStorage storage : storages)
+        {
+            recoveryLimiter.submit(() -> recoverPartition(storage));
+        }
+    }
+
+    private ActorFuture<Void> recoverPartition(RaftPersistentFileStorage storage)
+    {
+        final CompletableActorFuture<Void> recoveredFuture = new CompletableActorFuture<>();
+
+        final long startTime = System.nanoTime();
+        final DirectBuffer topicName = storage.getTopicName();
+        final int partitionId = storage.getPartitionId();
+
+        final ActorFuture<LogStream> logStream = logStreamsManager.getLogStream(partitionId);
+
+        if (logStream != null)
+        {
+            openRecoveredPartition(storage, logStream, startTime, recoveredFuture);
+        }
+        else
+        {
+            final String directory = storage.getLogDirectory();
+
+            // the log is verified before it is opened since opening it reads the complete log to build the block index
+            actor.runOnCompletion(logStreamsManager.verifyChecksums(directory), (v, verificationFailure) ->
+            {
+                if (verificationFailure == null)
+                {
+                    openRecoveredPartition(storage, logStreamsManager.createLogStream(topicName, partitionId, directory, storage.getLogSettings()), startTime, recoveredFuture);
+                }
+                else
+                {
+                    LOG.error("Failed to recover partition {}, its log is corrupted", partitionId, verificationFailure);
+                    onPartitionRecovered(null, startTime, verificationFailure, recoveredFuture);
+                }
+            });
+        }
+
+        return recoveredFuture;
+    }
+
+    private void openRecoveredPartition(RaftPersistentFileStorage storage, ActorFuture<LogStream> logStream, long startTime, CompletableActorFuture<Void> recoveredFuture)
+    {
+        final int partitionId = storage.getPartitionId();
+
+        actor.runOnCompletion(logStream, (log, logStreamFailure) ->
+        {
+            if (logStreamFailure == null)
+            {
+                storage.setLogStream(log);
+
+                final ActorFuture<Void> raftFuture = createRaft(getReplicationAddress(), log, storage.getMembers(), storage);
+
+                actor.runOnCompletion(raftFuture, (v, raftFailure) -> onPartitionRecovered(log, startTime, raftFailure, recoveredFuture));
+            }
+            else
+            {
+                LOG.error("Failed to open log stream of partition {}", partitionId, logStreamFailure);
+                onPartitionRecovered(null, startTime, logStreamFailure, recoveredFuture);
+            }
+        });
+    }
+
+    private void onPartitionRecovered(LogStream logStream, long startTime, Throwable failure, CompletableActorFuture<Void> recoveredFuture)
+    {
+        remainingRecoveries--;
+
+        if (failure == null)
+        {
+            final long recoveryTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            LOG.debug("Recovered partition {} in {} ms", logStream.getLogName(), recoveryTime);
+
+            final Metric recoveryMetric = context.getActorScheduler().getMetricsManager()
+                .newMetric("partition_recovery_time_ms")
+                .type("gauge")
+                .label("topic", BufferUtil.bufferAsString(logStream.getTopicName()))
+                .label("partition", String.valueOf(logStream.getPartitionId()))
+                .create();
+            recoveryMetric.setOrdered(recoveryTime);
+            recoveryMetrics.add(recoveryMetric);
+
+            recoveredPartitions++;
+        }
+        else if (logStream != null)
+        {
+            LOG.error("Failed to recover partition {}", logStream.getLogName(), failure);
+        }
+
+        if (remainingRecoveries == 0)
+        {
+            LOG.info("Recovered {} partitions in {} ms", recoveredPartitions, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - recoveryStartTime));
+        }
+
+        // a failed partition doesn't block the recovery of the others
+        recoveredFuture.complete(null);
+    }
+
+    private SocketAddress getReplicationAddress()
+    {
+        final SocketBindingCfg replicationApi = transportComponentCfg.replicationApi;
+        return new SocketAddress(replicationApi.getHost(transportComponentCfg.host), replicationApi.port);
+    }
+
+    private void publishLoad()
+    {
+        final long load = context.getPartitionLoadMonitor().sample(ActorClock.currentTimeMillis());
+
+        clusterMemberListManager.publishMemberLoad(load);
+        leaderBalanceMonitor.check(context.getMemberListService(), context.getPartitionLoadMonitor());
+    }
+
     private void inviteUpdatedMember(SocketAddress updatedMember)
     {
         LOG.debug("Send raft invitations to member {}.", updatedMember);
@@ -234,7 +379,8 @@ public class ClusterManager extends Actor
         final InvitationRequest invitationRequest = new InvitationRequest().topicName(logStream.getTopicName())
                                                                            .partitionId(logStream.getPartitionId())
                                                                            .term(raft.getTerm())
-                                                                           .members(members);
+                                                                           .members(members)
+                                                                           .logSettings(logStreamsManager.getLogSettings(logStream.getPartitionId()));
 
         LOG.debug("Send invitation request to {} for partition {} in term {}", member, logStream.getPartitionId(), raft.getTerm());
 
@@ -255,7 +401,7 @@ public class ClusterManager extends Actor
         });
     }
 
-    public void createRaft(final SocketAddress socketAddress, final LogStream logStream, final List<SocketAddress> members)
+    public ActorFuture<Void> createRaft(final SocketAddress socketAddress, final LogStream logStream, final List<SocketAddress> members)
     {
         final FsLogStorage logStorage = (FsLogStorage) logStream.getLogStorage();
         final String path = logStorage.getConfig()
@@ -265,22 +411,24 @@ public class ClusterManager extends Actor
         final RaftPersistentFileStorage storage = new RaftPersistentFileStorage(String.format("%s%s.meta", directory, logStream.getLogName()));
         storage.setLogStream(logStream)
                .setLogDirectory(path)
+               .setLogSettings(logStreamsManager.getLogSettings(logStream.getPartitionId()))
                .save();
 
-        createRaft(socketAddress, logStream, members, storage);
+        return createRaft(socketAddress, logStream, members, storage);
     }
 
-    public void createRaft(final SocketAddress socketAddress, final LogStream logStream, final List<SocketAddress> members,
-                           final RaftPersistentStorage persistentStorage)
+    public ActorFuture<Void> createRaft(final SocketAddress socketAddress, final LogStream logStream, final List<SocketAddress> members,
+                                        final RaftPersistentStorage persistentStorage)
     {
         final ServiceName<Raft> raftServiceName = raftServiceName(logStream.getLogName());
-        final RaftService raftService = new RaftService(transportComponentCfg.raft, socketAddress, logStream, members, persistentStorage, clusterMemberListManager, clusterMemberListManager, raftServiceName);
-
-        serviceContainer.createService(raftServiceName, raftService)
-                        .group(RAFT_SERVICE_GROUP)
-                        .dependency(TransportServiceNames.clientTransport(TransportServiceNames.REPLICATION_API_CLIENT_NAME),
-                                    raftService.getClientTransportInjector())
-                        .install();
+        final RaftService raftService = new RaftService(transportComponentCfg.raft, socketAddress, logStream, members, persistentStorage, clusterMemberListManager, clusterMemberListManager, raftServiceName,
+                                                        context.getPartitionSchedulers().getScheduler(logStream.getPartitionId()));
+
+        return serviceContainer.createService(raftServiceName, raftService)
+                               .group(RAFT_SERVICE_GROUP)
+                               .dependency(TransportServiceNames.clientTransport(TransportServiceNames.REPLICATION_API_CLIENT_NAME),
+                                           raftService.getClientTransportInjector())
+                               .install();
     }
 
     protected boolean partitionExists(int partitionId)
@@ -291,23 +439,21 @@ public class ClusterManager extends Actor
     /**
      * Creates log stream and sets up raft service to participate in raft group
      */
-    protected void createPartition(DirectBuffer topicName, int partitionId)
+    protected void createPartition(DirectBuffer topicName, int partitionId, LogStreamSettings logSettings)
     {
-        createPartition(topicName, partitionId, Collections.emptyList());
+        createPartition(topicName, partitionId, Collections.emptyList(), logSettings);
     }
 
     /**
      * Creates log stream and sets up raft service to participate in raft group
      */
-    protected void createPartition(DirectBuffer topicName, int partitionId, List<SocketAddress> members)
+    protected void createPartition(DirectBuffer topicName, int partitionId, List<SocketAddress> members, LogStreamSettings logSettings)
     {
-        final ActorFuture<LogStream> logStream = logStreamsManager.createLogStream(topicName, partitionId);
+        final ActorFuture<LogStream> logStream = logStreamsManager.createLogStream(topicName, partitionId, logSettings);
 
         actor.runOnCompletion(logStream, (log, t) ->
         {
-            final SocketBindingCfg replicationApi = transportComponentCfg.replicationApi;
-            final SocketAddress socketAddress = new SocketAddress(replicationApi.getHost(transportComponentCfg.host), replicationApi.port);
-            createRaft(socketAddress, log, members);
+            createRaft(getReplicationAddress(), log, members);
         });
     }
 
@@ -322,7 +468,7 @@ public class ClusterManager extends Actor
         final DirectBuffer topicName = invitationRequest.topicName();
         final int partitionId = invitationRequest.partitionId();
 
-        createPartition(topicName, partitionId, new ArrayList<>(invitationRequest.members()));
+        createPartition(topicName, partitionId, new ArrayList<>(invitationRequest.members()), invitationRequest.logSettings());
 
         invitationResponse.reset();
         response.reset()
@@ -346,7 +492,7 @@ public class ClusterManager extends Actor
         if (!partitionExists(partitionId))
         {
             LOG.debug("Creating partition {}", createPartitionRequest.getPartitionId());
-            createPartition(createPartitionRequest.getTopicName(), partitionId);
+            createPartition(createPartitionRequest.getTopicName(), partitionId, createPartitionRequest.getLogSettings());
         }
         else
         {
@@ -366,6 +512,14 @@ public class ClusterManager extends Actor
         return clusterMemberListManager.createTopology();
     }
 
+    /**
+     * @see ClusterMemberListManager#awaitTopology(long, long, long)
+     */
+    public ActorFuture<Topology> requestTopology(long epoch, long version, long waitTimeout)
+    {
+        return clusterMemberListManager.awaitTopology(epoch, version, waitTimeout);
+    }
+
     /**
      * This method is called, if a new RAFT is added to the service group.
      */
@@ -417,6 +571,8 @@ public class ClusterManager extends Actor
                     break;
                 }
             }
+
+            logStreamsManager.removeLogStream(partitionId);
         });
     }
 }
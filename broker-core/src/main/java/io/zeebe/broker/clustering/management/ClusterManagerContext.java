@@ -17,9 +17,11 @@
  */
 package io.zeebe.broker.clustering.management;
 
+import io.zeebe.broker.clustering.management.load.PartitionLoadMonitor;
 import io.zeebe.broker.clustering.management.memberList.MemberListService;
 import io.zeebe.broker.logstreams.LogStreamsManager;
 import io.zeebe.broker.system.deployment.handler.WorkflowRequestMessageHandler;
+import io.zeebe.broker.system.threads.PartitionSchedulers;
 import io.zeebe.gossip.Gossip;
 import io.zeebe.transport.BufferingServerTransport;
 import io.zeebe.transport.ClientTransport;
@@ -28,6 +30,7 @@ import io.zeebe.util.sched.ActorScheduler;
 public class ClusterManagerContext
 {
     private ActorScheduler actorScheduler;
+    private PartitionSchedulers partitionSchedulers;
     private LogStreamsManager logStreamsManager;
     private WorkflowRequestMessageHandler workflowRequestMessageHandler;
     private ClientTransport managementClient;
@@ -35,6 +38,7 @@ public class ClusterManagerContext
     private BufferingServerTransport serverTransport;
     private Gossip gossip;
     private MemberListService memberListService;
+    private PartitionLoadMonitor partitionLoadMonitor;
 
     public ActorScheduler getActorScheduler()
     {
@@ -46,6 +50,16 @@ public class ClusterManagerContext
         this.actorScheduler = actorScheduler;
     }
 
+    public PartitionSchedulers getPartitionSchedulers()
+    {
+        return partitionSchedulers;
+    }
+
+    public void setPartitionSchedulers(PartitionSchedulers partitionSchedulers)
+    {
+        this.partitionSchedulers = partitionSchedulers;
+    }
+
     public Gossip getGossip()
     {
         return gossip;
@@ -116,4 +130,14 @@ public class ClusterManagerContext
         this.workflowRequestMessageHandler = workflowRequestMessageHandler;
     }
 
+    public PartitionLoadMonitor getPartitionLoadMonitor()
+    {
+        return partitionLoadMonitor;
+    }
+
+    public void setPartitionLoadMonitor(PartitionLoadMonitor partitionLoadMonitor)
+    {
+        this.partitionLoadMonitor = partitionLoadMonitor;
+    }
+
 }
@@ -23,11 +23,12 @@ import io.zeebe.util.sched.future.ActorFuture;
 import org.agrona.DirectBuffer;
 
 import io.zeebe.broker.clustering.member.Member;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.transport.*;
 
 public interface PartitionManager
 {
-    ActorFuture<ClientResponse> createPartitionRemote(SocketAddress remote, DirectBuffer topicName, int partitionId);
+    ActorFuture<ClientResponse> createPartitionRemote(SocketAddress remote, DirectBuffer topicName, int partitionId, LogStreamSettings logSettings);
 
     Iterator<Member> getKnownMembers();
 }
@@ -22,6 +22,7 @@ import io.zeebe.broker.clustering.management.memberList.MemberListService;
 import io.zeebe.broker.clustering.management.memberList.MemberRaftComposite;
 import io.zeebe.broker.clustering.management.message.CreatePartitionRequest;
 import io.zeebe.broker.clustering.member.Member;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.transport.*;
 import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.collection.IntIterator;
@@ -46,13 +47,14 @@ public class PartitionManagerImpl implements PartitionManager
     }
 
     @Override
-    public ActorFuture<ClientResponse> createPartitionRemote(SocketAddress remote, DirectBuffer topicName, int partitionId)
+    public ActorFuture<ClientResponse> createPartitionRemote(SocketAddress remote, DirectBuffer topicName, int partitionId, LogStreamSettings logSettings)
     {
         final DirectBuffer nameBuffer = BufferUtil.cloneBuffer(topicName);
 
         messageWriter
             .partitionId(partitionId)
-            .topicName(nameBuffer);
+            .topicName(nameBuffer)
+            .logSettings(logSettings);
 
         final RemoteAddress remoteAddress = transport.registerRemoteAddress(remote);
 
@@ -124,6 +126,12 @@ public class PartitionManagerImpl implements PartitionManager
         {
             return memberRaftComposite.getLeadingPartitions();
         }
+
+        @Override
+        public long getLoad()
+        {
+            return memberRaftComposite.getLoad();
+        }
     }
 
 }
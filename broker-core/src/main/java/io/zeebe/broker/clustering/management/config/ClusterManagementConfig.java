@@ -21,6 +21,28 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class ClusterManagementConfig extends DirectoryConfiguration
 {
+    /**
+     * The interval in seconds in which the load of the broker is published to the other members.
+     */
+    public int loadPublishInterval = 5;
+
+    /**
+     * The fraction by which the load of a broker must exceed the average load of the cluster
+     * before the leadership of one of its partitions should be moved.
+     */
+    public double leaderImbalanceThreshold = 0.5;
+
+    /**
+     * The number of partitions which are recovered at the same time on startup, and the number of
+     * stream processors which replay their log at the same time; 0 uses the number of available processors.
+     */
+    public int recoveryParallelism = 0;
+
+    public int getRecoveryParallelism()
+    {
+        return recoveryParallelism > 0 ? recoveryParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
     @Override
     protected String componentDirectoryName()
     {
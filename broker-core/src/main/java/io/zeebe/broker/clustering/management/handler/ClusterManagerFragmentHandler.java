@@ -18,7 +18,9 @@
 package io.zeebe.broker.clustering.management.handler;
 
 import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
 
+import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.management.ClusterManager;
 import io.zeebe.broker.system.deployment.handler.WorkflowRequestMessageHandler;
 import io.zeebe.clustering.management.CreatePartitionRequestDecoder;
@@ -34,6 +36,8 @@ import io.zeebe.transport.ServerRequestHandler;
 
 public class ClusterManagerFragmentHandler implements ServerMessageHandler, ServerRequestHandler
 {
+    private static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
     protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
 
     private final ClusterManager clusterManager;
@@ -64,6 +68,13 @@ public class ClusterManagerFragmentHandler implements ServerMessageHandler, Serv
                 }
                 case CreateWorkflowRequestEncoder.TEMPLATE_ID:
                 {
+                    if (messageHeaderDecoder.version() < CreateWorkflowRequestEncoder.SCHEMA_VERSION)
+                    {
+                        // sent by a broker of an older version which creates the workflow per partition
+                        LOG.warn("Ignore create workflow request of unsupported version {}", messageHeaderDecoder.version());
+                        return true;
+                    }
+
                     return workflowRequestMessageHandler.onCreateWorkflowRequest(buffer, offset, length, remoteAddress, requestId);
                 }
                 case CreatePartitionRequestDecoder.TEMPLATE_ID:
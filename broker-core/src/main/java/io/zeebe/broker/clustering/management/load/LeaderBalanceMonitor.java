@@ -0,0 +1,219 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.load;
+
+import java.util.Iterator;
+import java.util.List;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.clustering.management.load.PartitionLoadMonitor.PartitionLoad;
+import io.zeebe.broker.clustering.management.memberList.MemberListService;
+import io.zeebe.broker.clustering.management.memberList.MemberRaftComposite;
+import io.zeebe.broker.clustering.management.memberList.RaftStateComposite;
+import io.zeebe.protocol.Protocol;
+import io.zeebe.raft.state.RaftState;
+import io.zeebe.transport.SocketAddress;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import org.slf4j.Logger;
+
+/**
+ * Compares the load of the local broker with the average load of the cluster. If the local broker
+ * is hot, it determines the leading partition and the follower to which the leadership should be moved
+ * to even out the load across the brokers.
+ * <p>
+ * Note that the raft implementation does not support transferring the leadership yet. The determined
+ * moves are therefore only logged and exposed as metric, while the {@link io.zeebe.broker.system.log.LoadAwareSelectionStrategy}
+ * keeps new partitions away from hot brokers.
+ */
+public class LeaderBalanceMonitor
+{
+    private static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+    private final SocketAddress localMember;
+    private final double imbalanceThreshold;
+
+    private final Metric loadMetric;
+    private final Metric imbalanceMetric;
+    private final Metric leaderMovesMetric;
+
+    private long leaderMoves;
+
+    private int proposedPartition = -1;
+    private final SocketAddress proposedTarget = new SocketAddress();
+
+    public LeaderBalanceMonitor(SocketAddress localMember, double imbalanceThreshold, MetricsManager metricsManager)
+    {
+        this.localMember = localMember;
+        this.imbalanceThreshold = imbalanceThreshold;
+
+        loadMetric = metricsManager.newMetric("broker_load_commands_per_second")
+            .type("gauge")
+            .create();
+
+        imbalanceMetric = metricsManager.newMetric("cluster_load_imbalance_percent")
+            .type("gauge")
+            .create();
+
+        leaderMovesMetric = metricsManager.newMetric("leader_rebalance_proposals_count")
+            .type("counter")
+            .create();
+    }
+
+    /**
+     * @return the partition which should be led by another member, or <code>-1</code> if the
+     *  load is balanced or no partition can be moved
+     */
+    public int check(MemberListService memberListService, PartitionLoadMonitor partitionLoadMonitor)
+    {
+        final long localLoad = partitionLoadMonitor.getLoad();
+        loadMetric.setOrdered(localLoad);
+
+        long totalLoad = 0;
+        long maxLoad = 0;
+        int memberCount = 0;
+
+        final Iterator<MemberRaftComposite> members = memberListService.iterator();
+        while (members.hasNext())
+        {
+            final long load = members.next().getLoad();
+            totalLoad += load;
+            maxLoad = Math.max(maxLoad, load);
+            memberCount += 1;
+        }
+
+        if (memberCount < 2 || totalLoad == 0)
+        {
+            imbalanceMetric.setOrdered(0);
+            return reset();
+        }
+
+        final long averageLoad = totalLoad / memberCount;
+        imbalanceMetric.setOrdered(averageLoad > 0 ? (maxLoad - averageLoad) * 100 / averageLoad : 0);
+
+        final long excessLoad = localLoad - averageLoad;
+        if (excessLoad <= averageLoad * imbalanceThreshold)
+        {
+            return reset();
+        }
+
+        // move the partition which brings the local load closest to the average
+        final List<PartitionLoad> partitionLoads = partitionLoadMonitor.getPartitionLoads();
+        if (partitionLoads.size() < 2)
+        {
+            return reset();
+        }
+
+        PartitionLoad selectedPartition = null;
+        MemberRaftComposite selectedTarget = null;
+
+        for (int i = 0; i < partitionLoads.size(); i++)
+        {
+            final PartitionLoad partitionLoad = partitionLoads.get(i);
+            final int partitionId = partitionLoad.getPartitionId();
+
+            if (partitionId == Protocol.SYSTEM_PARTITION || partitionLoad.getRate() == 0)
+            {
+                continue;
+            }
+
+            final MemberRaftComposite target = findLeastLoadedFollower(memberListService, partitionId, averageLoad);
+            if (target == null)
+            {
+                continue;
+            }
+
+            if (selectedPartition == null ||
+                Math.abs(excessLoad - partitionLoad.getRate()) < Math.abs(excessLoad - selectedPartition.getRate()))
+            {
+                selectedPartition = partitionLoad;
+                selectedTarget = target;
+            }
+        }
+
+        if (selectedPartition == null)
+        {
+            return reset();
+        }
+
+        final int partitionId = selectedPartition.getPartitionId();
+        if (partitionId != proposedPartition || !proposedTarget.equals(selectedTarget.getMember()))
+        {
+            proposedPartition = partitionId;
+            proposedTarget.wrap(selectedTarget.getMember());
+
+            leaderMoves += 1;
+            leaderMovesMetric.setOrdered(leaderMoves);
+
+            LOG.info("Broker load of {} commands/s exceeds the cluster average of {} commands/s. " +
+                "Leadership of partition {} ({} commands/s) should move to member {} ({} commands/s).",
+                localLoad, averageLoad, partitionId, selectedPartition.getRate(), proposedTarget, selectedTarget.getLoad());
+        }
+
+        return partitionId;
+    }
+
+    private MemberRaftComposite findLeastLoadedFollower(MemberListService memberListService, int partitionId, long averageLoad)
+    {
+        MemberRaftComposite leastLoadedFollower = null;
+
+        final Iterator<MemberRaftComposite> members = memberListService.iterator();
+        while (members.hasNext())
+        {
+            final MemberRaftComposite member = members.next();
+
+            if (!member.getMember().equals(localMember) &&
+                member.getLoad() < averageLoad &&
+                isFollower(member, partitionId) &&
+                (leastLoadedFollower == null || member.getLoad() < leastLoadedFollower.getLoad()))
+            {
+                leastLoadedFollower = member;
+            }
+        }
+
+        return leastLoadedFollower;
+    }
+
+    private static boolean isFollower(MemberRaftComposite member, int partitionId)
+    {
+        final List<RaftStateComposite> rafts = member.getRafts();
+        for (int i = 0; i < rafts.size(); i++)
+        {
+            final RaftStateComposite raft = rafts.get(i);
+            if (raft.getPartition() == partitionId)
+            {
+                return raft.getRaftState() == RaftState.FOLLOWER;
+            }
+        }
+        return false;
+    }
+
+    private int reset()
+    {
+        proposedPartition = -1;
+        proposedTarget.reset();
+        return -1;
+    }
+
+    public void close()
+    {
+        loadMetric.close();
+        imbalanceMetric.close();
+        leaderMovesMetric.close();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.load;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the commands which are written to the partitions led by this broker and
+ * derives the load of the broker (commands per second) from it.
+ * <p>
+ * The counters are incremented by the client api thread and sampled by the cluster manager.
+ */
+public class PartitionLoadMonitor
+{
+    private final List<PartitionLoad> partitionLoads = new CopyOnWriteArrayList<>();
+
+    private long lastSampleTime = -1;
+    private long load;
+
+    /**
+     * @return the load counter of the partition, which should be incremented for every written command
+     */
+    public synchronized PartitionLoad register(int partitionId)
+    {
+        PartitionLoad partitionLoad = getPartitionLoad(partitionId);
+
+        if (partitionLoad == null)
+        {
+            partitionLoad = new PartitionLoad(partitionId);
+            partitionLoads.add(partitionLoad);
+        }
+
+        return partitionLoad;
+    }
+
+    public synchronized void unregister(int partitionId)
+    {
+        partitionLoads.removeIf(partitionLoad -> partitionLoad.getPartitionId() == partitionId);
+    }
+
+    public PartitionLoad getPartitionLoad(int partitionId)
+    {
+        for (int i = 0; i < partitionLoads.size(); i++)
+        {
+            final PartitionLoad partitionLoad = partitionLoads.get(i);
+            if (partitionLoad.getPartitionId() == partitionId)
+            {
+                return partitionLoad;
+            }
+        }
+        return null;
+    }
+
+    public List<PartitionLoad> getPartitionLoads()
+    {
+        return partitionLoads;
+    }
+
+    /**
+     * Calculates the command rate of every partition since the last sample.
+     *
+     * @return the load of the broker, i.e. the sum of the rates of all partitions
+     */
+    public long sample(long now)
+    {
+        final long elapsed = lastSampleTime >= 0 ? now - lastSampleTime : 0;
+        lastSampleTime = now;
+
+        long totalLoad = 0;
+        for (int i = 0; i < partitionLoads.size(); i++)
+        {
+            totalLoad += partitionLoads.get(i).sample(elapsed);
+        }
+
+        load = totalLoad;
+        return totalLoad;
+    }
+
+    /**
+     * @return the commands per second of all partitions at the last sample
+     */
+    public long getLoad()
+    {
+        return load;
+    }
+
+    public static class PartitionLoad
+    {
+        private final int partitionId;
+        private final AtomicLong commandCount = new AtomicLong();
+
+        private long lastCommandCount;
+        private long rate;
+
+        public PartitionLoad(int partitionId)
+        {
+            this.partitionId = partitionId;
+        }
+
+        public int getPartitionId()
+        {
+            return partitionId;
+        }
+
+        /**
+         * Must only be called by a single thread.
+         */
+        public void recordCommand()
+        {
+            commandCount.lazySet(commandCount.get() + 1);
+        }
+
+        long sample(long elapsedMillis)
+        {
+            final long currentCommandCount = commandCount.get();
+
+            if (elapsedMillis > 0)
+            {
+                rate = (currentCommandCount - lastCommandCount) * 1000 / elapsedMillis;
+            }
+
+            lastCommandCount = currentCommandCount;
+            return rate;
+        }
+
+        /**
+         * @return the commands per second at the last sample
+         */
+        public long getRate()
+        {
+            return rate;
+        }
+    }
+}
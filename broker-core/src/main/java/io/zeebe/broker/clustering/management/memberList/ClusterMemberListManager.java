@@ -35,6 +35,7 @@ import io.zeebe.transport.SocketAddress;
 import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
 import org.slf4j.Logger;
@@ -51,6 +52,7 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
     public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
     public static final DirectBuffer API_EVENT_TYPE = BufferUtil.wrapString("apis");
     public static final DirectBuffer MEMBER_RAFT_STATES_EVENT_TYPE = BufferUtil.wrapString("memberRaftStates");
+    public static final DirectBuffer MEMBER_LOAD_EVENT_TYPE = BufferUtil.wrapString("memberLoad");
 
     private final ClusterManagerContext context;
     private TransportComponentCfg transportComponentCfg;
@@ -61,6 +63,7 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
     // buffers
     private final ExpandableArrayBuffer apiAddressBuffer;
     private final ExpandableArrayBuffer memberRaftStatesBuffer;
+    private final ExpandableArrayBuffer memberLoadBuffer;
 
     private final ActorControl actor;
 
@@ -87,6 +90,8 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
                .addCustomEventListener(API_EVENT_TYPE, new APIEventListener());
         context.getGossip()
                .addCustomEventListener(MEMBER_RAFT_STATES_EVENT_TYPE, new MemberRaftStatesEventListener());
+        context.getGossip()
+               .addCustomEventListener(MEMBER_LOAD_EVENT_TYPE, new MemberLoadEventListener());
 
         // sync handlers
         context.getGossip()
@@ -94,10 +99,11 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
         context.getGossip()
                .registerSyncRequestHandler(MEMBER_RAFT_STATES_EVENT_TYPE, new MemberRaftStatesSyncHandler(actorControl, context));
 
-        topologyCreator = new TopologyCreator(context);
+        topologyCreator = new TopologyCreator(context, actorControl);
 
         this.apiAddressBuffer = new ExpandableArrayBuffer();
         this.memberRaftStatesBuffer = new ExpandableArrayBuffer();
+        this.memberLoadBuffer = new ExpandableArrayBuffer();
     }
 
     public void publishNodeAPIAddresses()
@@ -111,12 +117,39 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
         gossip.publishEvent(API_EVENT_TYPE, payload);
     }
 
+    /**
+     * Updates the load of the local member and publishes it to the other members.
+     * The load is published periodically, so no sync handler is required.
+     */
+    public void publishMemberLoad(long load)
+    {
+        final MemberRaftComposite member = context.getMemberListService()
+                                                  .getMember(transportComponentCfg.managementApi.toSocketAddress(transportComponentCfg.host));
+        member.setLoad(load);
+
+        final int length = writeLoadIntoBuffer(load, memberLoadBuffer);
+
+        context.getGossip()
+               .publishEvent(MEMBER_LOAD_EVENT_TYPE, memberLoadBuffer, 0, length);
+    }
+
     public ActorFuture<Topology> createTopology()
     {
         return actor.call(topologyCreator::createTopology);
 
     }
 
+    /**
+     * Requests the changes of the topology since the given version. If there are none, the future is
+     * completed on the next change or after the wait timeout (in milliseconds).
+     */
+    public ActorFuture<Topology> awaitTopology(long epoch, long version, long waitTimeout)
+    {
+        final CompletableActorFuture<Topology> future = new CompletableActorFuture<>();
+        actor.call(() -> topologyCreator.awaitTopology(epoch, version, waitTimeout, future));
+        return future;
+    }
+
     private class MembershipListener implements GossipMembershipListener
     {
         @Override
@@ -136,6 +169,7 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
                 }
                 context.getMemberListService()
                        .add(memberRaftComposite);
+                topologyCreator.onMemberChanged(memberRaftComposite);
             });
         }
 
@@ -151,6 +185,7 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
 
                 LOG.trace("Remove member {} from member list.", removedMember);
                 deadMembers.add(removedMember);
+                topologyCreator.onMemberRemoved(removedMember);
 
                 deactivateRemote(context.getManagementClient(), removedMember.getManagementApi());
                 deactivateRemote(context.getReplicationClient(), removedMember.getReplicationApi());
@@ -195,6 +230,11 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
 
                 LOG.trace("Setting API's for member {} was {}successful.", savedSocketAddress, success ? "" : "not ");
 
+                if (success)
+                {
+                    topologyCreator.onMemberChanged(context.getMemberListService().getMember(managementApi));
+                }
+
                 updatedMemberConsumer.accept(savedSocketAddress);
 
                 context.getManagementClient().registerRemoteAddress(managementApi);
@@ -222,7 +262,10 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
                 }
                 else
                 {
-                    updateMemberWithNewRaftState(member, savedBuffer);
+                    if (updateMemberWithNewRaftState(member, savedBuffer))
+                    {
+                        topologyCreator.onMemberChanged(member);
+                    }
 
                     LOG.trace("Handled raft state change event for member {} - local member state: {}", savedSocketAddress, context.getMemberListService());
                 }
@@ -230,6 +273,26 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
         }
     }
 
+    private final class MemberLoadEventListener implements GossipCustomEventListener
+    {
+        @Override
+        public void onEvent(SocketAddress socketAddress, DirectBuffer directBuffer)
+        {
+            final long load = readLoadFromBuffer(directBuffer);
+            final SocketAddress savedSocketAddress = new SocketAddress(socketAddress);
+            actor.call(() ->
+            {
+                final MemberRaftComposite member = context.getMemberListService()
+                                                          .getMember(savedSocketAddress);
+
+                if (member != null)
+                {
+                    member.setLoad(load);
+                }
+            });
+        }
+    }
+
     @Override
     public void onOpenLogStreamService(LogStream logStream)
     {
@@ -258,7 +321,10 @@ public class ClusterMemberListManager implements RaftStateListener, OnOpenLogStr
                                                   .getMember(transportComponentCfg.managementApi.toSocketAddress(transportComponentCfg.host));
 
         // update raft state in member list
-        member.updateRaft(partitionId, savedTopicName, raftState);
+        if (member.updateRaft(partitionId, savedTopicName, raftState))
+        {
+            topologyCreator.onMemberChanged(member);
+        }
 
         LOG.trace("On raft state change for {} - local member states: {}", member.getMember(), context.getMemberListService());
 
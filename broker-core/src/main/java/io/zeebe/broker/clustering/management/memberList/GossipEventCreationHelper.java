@@ -19,6 +19,7 @@ package io.zeebe.broker.clustering.management.memberList;
 
 import static org.agrona.BitUtil.SIZE_OF_BYTE;
 import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 import java.nio.ByteOrder;
 import java.util.List;
@@ -104,8 +105,12 @@ public final class GossipEventCreationHelper
         return offset;
     }
 
-    public static void updateMemberWithNewRaftState(MemberRaftComposite memberRaftComposite, DirectBuffer memberRaftStatesBuffer)
+    /**
+     * @return true if the raft state of at least one partition changed
+     */
+    public static boolean updateMemberWithNewRaftState(MemberRaftComposite memberRaftComposite, DirectBuffer memberRaftStatesBuffer)
     {
+        boolean changed = false;
         int offset = 0;
         final int count = memberRaftStatesBuffer.getInt(offset, ByteOrder.LITTLE_ENDIAN);
         offset += SIZE_OF_INT;
@@ -125,7 +130,19 @@ public final class GossipEventCreationHelper
             final byte state = memberRaftStatesBuffer.getByte(offset);
             offset += SIZE_OF_BYTE;
 
-            memberRaftComposite.updateRaft(partition, topicBuffer, state == (byte) 1 ? RaftState.LEADER : RaftState.FOLLOWER);
+            changed |= memberRaftComposite.updateRaft(partition, topicBuffer, state == (byte) 1 ? RaftState.LEADER : RaftState.FOLLOWER);
         }
+        return changed;
+    }
+
+    public static int writeLoadIntoBuffer(long load, MutableDirectBuffer directBuffer)
+    {
+        directBuffer.putLong(0, load, ByteOrder.LITTLE_ENDIAN);
+        return SIZE_OF_LONG;
+    }
+
+    public static long readLoadFromBuffer(DirectBuffer directBuffer)
+    {
+        return directBuffer.getLong(0, ByteOrder.LITTLE_ENDIAN);
     }
 }
@@ -37,6 +37,10 @@ public class MemberRaftComposite
     private SocketAddress replicationApi;
     private SocketAddress managementApi;
 
+    private volatile long load;
+
+    private long topologyVersion;
+
     private final List<RaftStateComposite> rafts;
 
     public MemberRaftComposite(SocketAddress member)
@@ -50,23 +54,23 @@ public class MemberRaftComposite
         return member;
     }
 
-    public void updateRaft(int partition, DirectBuffer topicName, RaftState raftState)
+    /**
+     * @return true if the raft state of the partition changed
+     */
+    public boolean updateRaft(int partition, DirectBuffer topicName, RaftState raftState)
     {
-        boolean updated = false;
         for (RaftStateComposite raft : rafts)
         {
             if (raft.getPartition() == partition)
             {
+                final boolean changed = raft.getRaftState() != raftState;
                 raft.setRaftState(raftState);
-                updated = true;
-                break;
+                return changed;
             }
         }
 
-        if (!updated)
-        {
-            rafts.add(new RaftStateComposite(partition, topicName, raftState));
-        }
+        rafts.add(new RaftStateComposite(partition, topicName, raftState));
+        return true;
     }
 
     public List<RaftStateComposite> getRafts()
@@ -129,6 +133,32 @@ public class MemberRaftComposite
         this.managementApi = managementApi;
     }
 
+    /**
+     * @return the commands per second which are written to the partitions led by this member
+     */
+    public long getLoad()
+    {
+        return load;
+    }
+
+    public void setLoad(long load)
+    {
+        this.load = load;
+    }
+
+    /**
+     * @return the topology version in which this member was changed the last time
+     */
+    public long getTopologyVersion()
+    {
+        return topologyVersion;
+    }
+
+    public void setTopologyVersion(long topologyVersion)
+    {
+        this.topologyVersion = topologyVersion;
+    }
+
     @Override
     public String toString()
     {
@@ -23,41 +23,127 @@ import io.zeebe.broker.clustering.handler.TopologyBroker;
 import io.zeebe.broker.clustering.management.ClusterManagerContext;
 import io.zeebe.msgpack.value.ValueArray;
 import io.zeebe.transport.SocketAddress;
-import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.ScheduledTimer;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 import org.slf4j.Logger;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Creates the topology of this broker and keeps track of its changes. Every change of a member
+ * increments the topology version, so that clients which already know a version only receive the
+ * changed members (delta). Clients can wait for the next change (long polling) which lets the
+ * broker push topology changes, e.g. a new leader of a partition, as soon as they happen.
+ *
+ * <p>Must only be accessed by the actor of the cluster member list manager.
+ */
 public class TopologyCreator
 {
     public static final Logger LOG = Loggers.CLUSTERING_LOGGER;
 
+    /**
+     * Number of removed members which are remembered to answer delta requests. If a client knows
+     * an older version, it receives the full topology.
+     */
+    public static final int MAX_TRACKED_REMOVALS = 64;
+
+    public static final Duration MAX_WAIT_TIMEOUT = Duration.ofSeconds(30);
+
     private final ClusterManagerContext clusterManagerContext;
+    private final ActorControl actor;
+
+    /**
+     * Identifies the lifetime of this broker, versions of different epochs are not comparable
+     */
+    private final long epoch;
+    private long version = 0;
 
-    public TopologyCreator(ClusterManagerContext clusterManagerContext)
+    private final Deque<RemovedMember> removedMembers = new ArrayDeque<>();
+    private long removalsTruncatedVersion = 0;
+
+    private final List<TopologyWaiter> waiters = new ArrayList<>();
+    private boolean isNotificationScheduled = false;
+
+    public TopologyCreator(ClusterManagerContext clusterManagerContext, ActorControl actor)
     {
         this.clusterManagerContext = clusterManagerContext;
+        this.actor = actor;
+
+        long epoch = 0;
+        while (epoch == 0)
+        {
+            epoch = ThreadLocalRandom.current().nextLong();
+        }
+        this.epoch = epoch;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public void onMemberChanged(MemberRaftComposite member)
+    {
+        member.setTopologyVersion(++version);
+        scheduleWaiterNotification();
+    }
+
+    public void onMemberRemoved(MemberRaftComposite member)
+    {
+        ++version;
+
+        final SocketAddress clientApi = member.getClientApi();
+        if (clientApi != null)
+        {
+            if (removedMembers.size() >= MAX_TRACKED_REMOVALS)
+            {
+                removalsTruncatedVersion = removedMembers.removeFirst().version;
+            }
+            removedMembers.addLast(new RemovedMember(new SocketAddress(clientApi), version));
+        }
+
+        scheduleWaiterNotification();
     }
 
     public Topology createTopology()
+    {
+        return createTopology(0, 0);
+    }
+
+    /**
+     * @return the changes since the given version, or the full topology if the version is unknown
+     */
+    public Topology createTopology(long knownEpoch, long knownVersion)
     {
         LOG.trace("Received topology request.");
 
+        final boolean isDelta = knownEpoch == epoch && knownVersion <= version && knownVersion >= removalsTruncatedVersion;
+        final long sinceVersion = isDelta ? knownVersion : -1;
+
+        final Topology topology = new Topology();
+        topology.setEpoch(epoch)
+                .setVersion(version)
+                .setDelta(isDelta);
+
         final Iterator<MemberRaftComposite> iterator = clusterManagerContext.getMemberListService()
                                                                             .iterator();
-        final Topology topology = new Topology();
         while (iterator.hasNext())
         {
             final MemberRaftComposite next = iterator.next();
 
-            final ValueArray<TopologyBroker> brokers = topology.brokers();
-
             final SocketAddress clientApi = next.getClientApi();
 
-            if (clientApi != null)
+            if (clientApi != null && next.getTopologyVersion() > sinceVersion)
             {
-                final TopologyBroker nextTopologyBroker = brokers.add();
+                final TopologyBroker nextTopologyBroker = topology.brokers().add();
                 nextTopologyBroker.setHost(clientApi.getHostBuffer(), 0, clientApi.hostLength())
                                   .setPort(clientApi.port());
 
@@ -65,7 +151,9 @@ public class TopologyCreator
                 while (raftTupleIt.hasNext())
                 {
                     final RaftStateComposite nextRaftState = raftTupleIt.next();
-                    final DirectBuffer topicName = BufferUtil.cloneBuffer(nextRaftState.getTopicName());
+
+                    // the topic name is immutable, so it can be referenced until the topology is serialized
+                    final DirectBuffer topicName = nextRaftState.getTopicName();
 
                     nextTopologyBroker.partitionStates()
                                       .add()
@@ -76,8 +164,108 @@ public class TopologyCreator
             }
         }
 
+        if (isDelta)
+        {
+            final ValueArray<TopologyBroker> removedBrokers = topology.removedBrokers();
+            for (RemovedMember removedMember : removedMembers)
+            {
+                if (removedMember.version > knownVersion)
+                {
+                    final SocketAddress clientApi = removedMember.clientApi;
+                    removedBrokers.add()
+                                  .setHost(clientApi.getHostBuffer(), 0, clientApi.hostLength())
+                                  .setPort(clientApi.port());
+                }
+            }
+        }
+
         // DO NOT LOG TOPOLOGY SEE https://github.com/zeebe-io/zeebe/issues/616
         // LOG.debug("Send topology {} as response.", topology);
         return topology;
     }
+
+    /**
+     * Completes the future with the changes since the given version. If the version is the current
+     * one, the future is completed on the next change or when the wait timeout (in milliseconds)
+     * elapses, whatever comes first.
+     */
+    public void awaitTopology(long knownEpoch, long knownVersion, long waitTimeout, CompletableActorFuture<Topology> future)
+    {
+        if (waitTimeout <= 0 || knownEpoch != epoch || knownVersion != version)
+        {
+            future.complete(createTopology(knownEpoch, knownVersion));
+        }
+        else
+        {
+            final TopologyWaiter waiter = new TopologyWaiter(knownEpoch, knownVersion, future);
+            final Duration timeout = Duration.ofMillis(Math.min(waitTimeout, MAX_WAIT_TIMEOUT.toMillis()));
+
+            waiter.timer = actor.runDelayed(timeout, () ->
+            {
+                if (waiters.remove(waiter))
+                {
+                    waiter.complete();
+                }
+            });
+
+            waiters.add(waiter);
+        }
+    }
+
+    /**
+     * Notifies the waiters after the current job, so that multiple changes are sent as one delta
+     */
+    private void scheduleWaiterNotification()
+    {
+        if (!waiters.isEmpty() && !isNotificationScheduled)
+        {
+            isNotificationScheduled = true;
+            actor.run(this::notifyWaiters);
+        }
+    }
+
+    private void notifyWaiters()
+    {
+        isNotificationScheduled = false;
+
+        for (int i = 0; i < waiters.size(); i++)
+        {
+            final TopologyWaiter waiter = waiters.get(i);
+            waiter.timer.cancel();
+            waiter.complete();
+        }
+        waiters.clear();
+    }
+
+    private static final class RemovedMember
+    {
+        private final SocketAddress clientApi;
+        private final long version;
+
+        RemovedMember(SocketAddress clientApi, long version)
+        {
+            this.clientApi = clientApi;
+            this.version = version;
+        }
+    }
+
+    private final class TopologyWaiter
+    {
+        private final long knownEpoch;
+        private final long knownVersion;
+        private final CompletableActorFuture<Topology> future;
+        private ScheduledTimer timer;
+
+        TopologyWaiter(long knownEpoch, long knownVersion, CompletableActorFuture<Topology> future)
+        {
+            this.knownEpoch = knownEpoch;
+            this.knownVersion = knownVersion;
+            this.future = future;
+        }
+
+        void complete()
+        {
+            future.complete(createTopology(knownEpoch, knownVersion));
+        }
+    }
 }
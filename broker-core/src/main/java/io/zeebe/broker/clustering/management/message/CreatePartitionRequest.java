@@ -21,6 +21,8 @@ import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.clustering.management.CreatePartitionRequestDecoder;
 import io.zeebe.clustering.management.CreatePartitionRequestEncoder;
 import io.zeebe.clustering.management.MessageHeaderDecoder;
@@ -39,6 +41,7 @@ public class CreatePartitionRequest implements BufferReader, BufferWriter
 
     protected DirectBuffer topicName = new UnsafeBuffer(0, 0);
     protected int partitionId = CreatePartitionRequestEncoder.partitionIdNullValue();
+    protected final LogStreamSettings logSettings = new LogStreamSettings();
 
     @Override
     public int getLength()
@@ -61,6 +64,12 @@ public class CreatePartitionRequest implements BufferReader, BufferWriter
         return this;
     }
 
+    public CreatePartitionRequest logSettings(LogStreamSettings logSettings)
+    {
+        this.logSettings.wrap(logSettings);
+        return this;
+    }
+
     public DirectBuffer getTopicName()
     {
         return topicName;
@@ -71,6 +80,11 @@ public class CreatePartitionRequest implements BufferReader, BufferWriter
         return partitionId;
     }
 
+    public LogStreamSettings getLogSettings()
+    {
+        return logSettings;
+    }
+
     @Override
     public void write(MutableDirectBuffer buffer, int offset)
     {
@@ -82,6 +96,10 @@ public class CreatePartitionRequest implements BufferReader, BufferWriter
 
         bodyEncoder.wrap(buffer, offset + headerEncoder.encodedLength())
             .partitionId(partitionId)
+            .logSegmentSize(logSettings.getLogSegmentSize())
+            .indexBlockSize(logSettings.getIndexBlockSize())
+            .writeBufferSize(logSettings.getWriteBufferSize())
+            .compactionPolicy((short) logSettings.getCompactionPolicy().ordinal())
             .putTopicName(topicName, 0, topicName.capacity());
     }
 
@@ -99,6 +117,12 @@ public class CreatePartitionRequest implements BufferReader, BufferWriter
 
         partitionId = bodyDecoder.partitionId();
 
+        logSettings
+            .logSegmentSize(bodyDecoder.logSegmentSize())
+            .indexBlockSize(bodyDecoder.indexBlockSize())
+            .writeBufferSize(bodyDecoder.writeBufferSize())
+            .compactionPolicy(LogCompactionPolicy.fromOrdinal(bodyDecoder.compactionPolicy()));
+
         offset += headerDecoder.blockLength();
 
         final int topicNameLength = bodyDecoder.topicNameLength();
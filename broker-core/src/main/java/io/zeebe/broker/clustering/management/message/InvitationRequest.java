@@ -32,6 +32,8 @@ import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.clustering.management.InvitationRequestDecoder;
 import io.zeebe.clustering.management.InvitationRequestDecoder.MembersDecoder;
 import io.zeebe.clustering.management.InvitationRequestEncoder;
@@ -54,6 +56,7 @@ public class InvitationRequest implements BufferWriter, BufferReader
     protected int partitionId = partitionIdNullValue();
     protected int term = termNullValue();
     protected List<SocketAddress> members = new CopyOnWriteArrayList<>();
+    protected final LogStreamSettings logSettings = new LogStreamSettings();
 
     public int partitionId()
     {
@@ -100,6 +103,17 @@ public class InvitationRequest implements BufferWriter, BufferReader
         return this;
     }
 
+    public LogStreamSettings logSettings()
+    {
+        return logSettings;
+    }
+
+    public InvitationRequest logSettings(final LogStreamSettings logSettings)
+    {
+        this.logSettings.wrap(logSettings);
+        return this;
+    }
+
     @Override
     public int getLength()
     {
@@ -140,6 +154,10 @@ public class InvitationRequest implements BufferWriter, BufferReader
         final MembersEncoder encoder = bodyEncoder.wrap(buffer, offset)
             .partitionId(partitionId)
             .term(term)
+            .logSegmentSize(logSettings.getLogSegmentSize())
+            .indexBlockSize(logSettings.getIndexBlockSize())
+            .writeBufferSize(logSettings.getWriteBufferSize())
+            .compactionPolicy((short) logSettings.getCompactionPolicy().ordinal())
             .membersCount(size);
 
         for (int i = 0; i < size; i++)
@@ -167,6 +185,12 @@ public class InvitationRequest implements BufferWriter, BufferReader
         partitionId = bodyDecoder.partitionId();
         term = bodyDecoder.term();
 
+        logSettings
+            .logSegmentSize(bodyDecoder.logSegmentSize())
+            .indexBlockSize(bodyDecoder.indexBlockSize())
+            .writeBufferSize(bodyDecoder.writeBufferSize())
+            .compactionPolicy(LogCompactionPolicy.fromOrdinal(bodyDecoder.compactionPolicy()));
+
         members.clear();
 
         final Iterator<MembersDecoder> iterator = bodyDecoder.members().iterator();
@@ -202,6 +226,7 @@ public class InvitationRequest implements BufferWriter, BufferReader
         partitionId = partitionIdNullValue();
         term = termNullValue();
         members.clear();
+        logSettings.reset();
     }
 
 }
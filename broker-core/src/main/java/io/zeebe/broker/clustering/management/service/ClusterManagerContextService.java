@@ -21,6 +21,8 @@ import io.zeebe.broker.clustering.management.ClusterManagerContext;
 import io.zeebe.broker.clustering.management.memberList.MemberListService;
 import io.zeebe.broker.logstreams.LogStreamsManager;
 import io.zeebe.broker.system.deployment.handler.WorkflowRequestMessageHandler;
+import io.zeebe.broker.system.threads.PartitionSchedulers;
+import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
 import io.zeebe.gossip.Gossip;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.BufferingServerTransport;
@@ -37,9 +39,17 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
     private final Injector<WorkflowRequestMessageHandler> workflowRequestMessageHandlerInjector = new Injector<>();
     private final Injector<MemberListService> memberListServiceInjector = new Injector<>();
     private final Injector<Gossip> gossipInjector = new Injector<>();
+    private final Injector<ClientApiMessageHandler> clientApiMessageHandlerInjector = new Injector<>();
+
+    private final PartitionSchedulers partitionSchedulers;
 
     private ClusterManagerContext context;
 
+    public ClusterManagerContextService(PartitionSchedulers partitionSchedulers)
+    {
+        this.partitionSchedulers = partitionSchedulers;
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
@@ -52,12 +62,14 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
         context = new ClusterManagerContext();
         context.setGossip(gossipInjector.getValue());
         context.setActorScheduler(actorScheduler);
+        context.setPartitionSchedulers(partitionSchedulers);
         context.setManagementClient(clientTransport);
         context.setReplicationClient(replicationClientInjector.getValue());
         context.setServerTransport(serverTransport);
         context.setMemberListService(memberListServiceInjector.getValue());
         context.setLogStreamsManager(logStreamsManager);
         context.setWorkflowRequestMessageHandler(workflowRequestMessageHandler);
+        context.setPartitionLoadMonitor(clientApiMessageHandlerInjector.getValue().getPartitionLoadMonitor());
     }
 
     @Override
@@ -106,4 +118,9 @@ public class ClusterManagerContextService implements Service<ClusterManagerConte
         return workflowRequestMessageHandlerInjector;
     }
 
+    public Injector<ClientApiMessageHandler> getClientApiMessageHandlerInjector()
+    {
+        return clientApiMessageHandlerInjector;
+    }
+
 }
@@ -26,4 +26,13 @@ public interface Member
     SocketAddress getManagementAddress();
 
     IntIterator getLeadingPartitions();
+
+    /**
+     * @return the commands per second which are written to the partitions led by this member,
+     *  as published via gossip
+     */
+    default long getLoad()
+    {
+        return 0;
+    }
 }
@@ -28,8 +28,11 @@ import java.util.List;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.msgpack.property.ArrayProperty;
+import io.zeebe.msgpack.property.EnumProperty;
 import io.zeebe.msgpack.property.IntegerProperty;
 import io.zeebe.msgpack.property.StringProperty;
 import io.zeebe.transport.SocketAddress;
@@ -44,6 +47,10 @@ public class RaftConfigurationMetadata extends UnpackedObject
     protected IntegerProperty termProp = new IntegerProperty("term", 0);
     protected StringProperty votedForHostProp = new StringProperty("votedForHost", "");
     protected IntegerProperty votedForPortProp = new IntegerProperty("votedForPort", 0);
+    protected IntegerProperty logSegmentSizeProp = new IntegerProperty("logSegmentSize", 0);
+    protected IntegerProperty indexBlockSizeProp = new IntegerProperty("indexBlockSize", 0);
+    protected IntegerProperty writeBufferSizeProp = new IntegerProperty("writeBufferSize", 0);
+    protected EnumProperty<LogCompactionPolicy> compactionPolicyProp = new EnumProperty<>("compactionPolicy", LogCompactionPolicy.class, LogCompactionPolicy.DEFAULT);
 
     protected ArrayProperty<RaftConfigurationMetadataMember> membersProp = new ArrayProperty<>(
         "members",
@@ -58,6 +65,10 @@ public class RaftConfigurationMetadata extends UnpackedObject
         declareProperty(votedForHostProp);
         declareProperty(votedForPortProp);
         declareProperty(membersProp);
+        declareProperty(logSegmentSizeProp);
+        declareProperty(indexBlockSizeProp);
+        declareProperty(writeBufferSizeProp);
+        declareProperty(compactionPolicyProp);
     }
 
     public DirectBuffer getTopicName()
@@ -130,6 +141,25 @@ public class RaftConfigurationMetadata extends UnpackedObject
         }
     }
 
+    public void getLogSettings(final LogStreamSettings logSettings)
+    {
+        logSettings
+            .logSegmentSize(logSegmentSizeProp.getValue())
+            .indexBlockSize(indexBlockSizeProp.getValue())
+            .writeBufferSize(writeBufferSizeProp.getValue())
+            .compactionPolicy(compactionPolicyProp.getValue());
+    }
+
+    public void setLogSettings(final LogStreamSettings logSettings)
+    {
+        ensureNotNull("Log settings", logSettings);
+
+        logSegmentSizeProp.setValue(logSettings.getLogSegmentSize());
+        indexBlockSizeProp.setValue(logSettings.getIndexBlockSize());
+        writeBufferSizeProp.setValue(logSettings.getWriteBufferSize());
+        compactionPolicyProp.setValue(logSettings.getCompactionPolicy());
+    }
+
     public List<SocketAddress> getMembers()
     {
         final List<SocketAddress> members = new ArrayList<>();
@@ -24,6 +24,7 @@ import java.io.*;
 import java.nio.file.*;
 import java.util.*;
 
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.raft.RaftPersistentStorage;
 import io.zeebe.transport.SocketAddress;
@@ -246,6 +247,24 @@ public class RaftPersistentFileStorage implements RaftPersistentStorage
         return this;
     }
 
+    /**
+     * @return the log settings the partition was created with; unspecified if the storage
+     *         was written before log settings were persisted
+     */
+    public LogStreamSettings getLogSettings()
+    {
+        final LogStreamSettings logSettings = new LogStreamSettings();
+        configuration.getLogSettings(logSettings);
+        return logSettings;
+    }
+
+    public RaftPersistentFileStorage setLogSettings(final LogStreamSettings logSettings)
+    {
+        configuration.setLogSettings(logSettings);
+
+        return this;
+    }
+
     public RaftPersistentFileStorage setLogDirectory(final String logDirectory)
     {
         configuration.setLogDirectory(logDirectory);
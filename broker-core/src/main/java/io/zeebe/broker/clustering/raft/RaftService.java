@@ -18,6 +18,7 @@
 package io.zeebe.broker.clustering.raft;
 
 import static io.zeebe.broker.clustering.ClusterServiceNames.CLUSTER_MANAGER_SERVICE;
+import static io.zeebe.broker.logstreams.LogStreamServiceNames.followerLogStreamServiceName;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.logStreamServiceName;
 
 import java.util.List;
@@ -55,11 +56,12 @@ public class RaftService extends Actor implements Service<Raft>, RaftStateListen
     private final RaftPersistentStorage persistentStorage;
     private final RaftStateListener raftStateListener;
     private final ServiceName<LogStream> logStreamServiceName;
+    private final ServiceName<LogStream> followerLogStreamServiceName;
     private final OnOpenLogStreamListener onOpenLogStreamListener;
     private final ServiceName<Raft> raftServiceName;
 
     private Injector<ClientTransport> clientTransportInjector = new Injector<>();
-    private ActorScheduler actorScheduler;
+    private final ActorScheduler actorScheduler;
     private Raft raft;
 
     private CompletableActorFuture<Void> raftServiceCloseFuture;
@@ -70,7 +72,7 @@ public class RaftService extends Actor implements Service<Raft>, RaftStateListen
     public RaftService(final RaftConfiguration configuration, final SocketAddress socketAddress, final LogStream logStream,
                        final List<SocketAddress> members, final RaftPersistentStorage persistentStorage,
                        RaftStateListener raftStateListener, OnOpenLogStreamListener onOpenLogStreamListener,
-                       ServiceName<Raft> raftServiceName)
+                       ServiceName<Raft> raftServiceName, ActorScheduler actorScheduler)
     {
         this.configuration = configuration;
         this.socketAddress = socketAddress;
@@ -79,8 +81,10 @@ public class RaftService extends Actor implements Service<Raft>, RaftStateListen
         this.persistentStorage = persistentStorage;
         this.raftStateListener = raftStateListener;
         this.logStreamServiceName = logStreamServiceName(logStream.getLogName());
+        this.followerLogStreamServiceName = followerLogStreamServiceName(logStream.getLogName());
         this.onOpenLogStreamListener = onOpenLogStreamListener;
         this.raftServiceName = raftServiceName;
+        this.actorScheduler = actorScheduler;
     }
 
     @Override
@@ -110,8 +114,6 @@ public class RaftService extends Actor implements Service<Raft>, RaftStateListen
     @Override
     public void start(final ServiceStartContext startContext)
     {
-        this.actorScheduler = startContext.getScheduler();
-
         raftServiceOpenFuture = new CompletableActorFuture<>();
         actorScheduler.submitActor(this);
 
@@ -174,6 +176,8 @@ public class RaftService extends Actor implements Service<Raft>, RaftStateListen
 
             if (currentRaftState == RaftState.LEADER)
             {
+                removeFollowerLogStreamService();
+
                 Loggers.CLUSTERING_LOGGER.debug("Start log stream...topic {}", BufferUtil.bufferAsString(raft.getLogStream().getTopicName()));
                 final LogStream logStream = raft.getLogStream();
                 final LogStreamService service = new LogStreamService(logStream);
@@ -206,12 +210,52 @@ public class RaftService extends Actor implements Service<Raft>, RaftStateListen
 
                 });
             }
-            else if (currentRaftState == RaftState.FOLLOWER &&
-                     startContext.hasService(logStreamServiceName))
+            else if (currentRaftState == RaftState.FOLLOWER)
             {
-                startContext.removeService(logStreamServiceName);
+                if (startContext.hasService(logStreamServiceName))
+                {
+                    startContext.removeService(logStreamServiceName);
+                }
+
+                installFollowerLogStreamService();
             }
 
         });
     }
+
+    /**
+     * Exposes the replicated log stream of a workflow topic to read-only consumers (e.g. topic subscriptions)
+     * while this broker is follower of the partition.
+     */
+    private void installFollowerLogStreamService()
+    {
+        final LogStream logStream = raft.getLogStream();
+
+        if (!Protocol.SYSTEM_TOPIC_BUF.equals(logStream.getTopicName()) &&
+            !startContext.hasService(followerLogStreamServiceName))
+        {
+            final ActorFuture<Void> future =
+                startContext
+                    .createService(followerLogStreamServiceName, new LogStreamService(logStream))
+                    .dependency(raftServiceName)
+                    .group(LogStreamServiceNames.WORKFLOW_FOLLOWER_STREAM_GROUP)
+                    .install();
+
+            actor.runOnCompletion(future, (v, throwable) ->
+            {
+                if (throwable != null)
+                {
+                    LOG.error("Failed to install follower log stream service '{}'", followerLogStreamServiceName, throwable);
+                }
+            });
+        }
+    }
+
+    private void removeFollowerLogStreamService()
+    {
+        if (startContext.hasService(followerLogStreamServiceName))
+        {
+            startContext.removeService(followerLogStreamServiceName);
+        }
+    }
 }
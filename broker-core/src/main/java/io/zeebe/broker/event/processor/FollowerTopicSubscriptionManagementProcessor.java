@@ -0,0 +1,259 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
+import io.zeebe.logstreams.impl.service.StreamProcessorService;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.servicecontainer.ServiceContainer;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Serves topic subscriptions from the committed log of a partition that this broker follows.
+ *
+ * <p>
+ * In contrast to the leader, subscribe requests are not written to the log but handled directly.
+ * Acknowledgements are still sent to the leader. They are replicated to the follower and consumed
+ * here to track the last acknowledged position per subscription and to release the prefetch
+ * capacity of the follower's push processors.
+ */
+public class FollowerTopicSubscriptionManagementProcessor extends TopicSubscriptionManagementProcessor
+{
+    /**
+     * Subscribers of a follower are not created by an event in the log. To avoid clashes with the keys
+     * of subscribers on the leader (i.e. positions), keys are generated from a separate range.
+     */
+    protected static final long FOLLOWER_SUBSCRIBER_KEY_OFFSET = 1L << 62;
+
+    protected final AckedProcessor ackedProcessor = new AckedProcessor();
+
+    protected long nextSubscriberKey = FOLLOWER_SUBSCRIBER_KEY_OFFSET;
+
+    public FollowerTopicSubscriptionManagementProcessor(
+            CommandResponseWriter responseWriter,
+            ErrorResponseWriter errorWriter,
+            Supplier<SubscribedEventWriter> eventWriterFactory,
+            StreamProcessorServiceFactory streamProcessorServiceFactory,
+            ServiceContainer serviceContainer,
+            SubscriptionCfg config)
+    {
+        super(responseWriter, errorWriter, eventWriterFactory, streamProcessorServiceFactory, serviceContainer, config);
+    }
+
+    @Override
+    protected EventProcessor onSubscriberEvent(LoggedEvent event)
+    {
+        // subscribers are opened by the leader
+        return null;
+    }
+
+    @Override
+    protected EventProcessor onSubscriptionEvent(LoggedEvent event)
+    {
+        subscriptionEvent.reset();
+        subscriptionEvent.wrap(event.getValueBuffer(), event.getValueOffset(), event.getValueLength());
+
+        if (subscriptionEvent.getState() == TopicSubscriptionState.ACKNOWLEDGED)
+        {
+            return ackedProcessor;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Opens a push processor for the given subscriber on the follower's log stream and
+     * responds to the request when the processor is open.
+     *
+     * @param subscriberEventBuffer a copy of the SUBSCRIBE command
+     */
+    public void subscribeAsync(int requestStreamId, long requestId, DirectBuffer subscriberEventBuffer)
+    {
+        actor.call(() ->
+        {
+            final TopicSubscriberEvent subscriberEvent = new TopicSubscriberEvent();
+            subscriberEvent.wrap(subscriberEventBuffer, 0, subscriberEventBuffer.capacity());
+
+            final DirectBuffer subscriptionName = subscriberEvent.getName();
+
+            if (subscriptionName.capacity() > MAXIMUM_SUBSCRIPTION_NAME_LENGTH)
+            {
+                sendErrorResponse(requestStreamId, requestId, "Cannot open topic subscription " + subscriberEvent.getNameAsString() +
+                        ". Subscription name must be " + MAXIMUM_SUBSCRIPTION_NAME_LENGTH + " characters or shorter.");
+                return;
+            }
+
+            final long resumePosition = determineResumePosition(
+                    subscriptionName,
+                    subscriberEvent.getStartPosition(),
+                    subscriberEvent.getForceStart());
+
+            final TopicSubscriptionPushProcessor processor = new TopicSubscriptionPushProcessor(
+                requestStreamId,
+                nextSubscriberKey++,
+                resumePosition,
+                subscriptionName,
+                subscriberEvent.getPrefetchCapacity(),
+                eventWriterFactory.get(),
+                config.catchUpBatchSize,
+                Duration.ofMillis(config.catchUpPauseMs));
+
+            final ActorFuture<StreamProcessorService> openFuture = openPushProcessorAsync(processor);
+
+            actor.runOnCompletion(openFuture, (service, throwable) ->
+            {
+                if (throwable == null)
+                {
+                    registerPushProcessor(processor);
+
+                    subscriberEvent
+                        .setStartPosition(processor.getStartPosition())
+                        .setState(TopicSubscriberState.SUBSCRIBED);
+
+                    sendResponse(() -> responseWriter
+                        .partitionId(logStreamPartitionId)
+                        .eventWriter(subscriberEvent)
+                        .key(processor.getSubscriptionId())
+                        .tryWriteResponse(requestStreamId, requestId));
+
+                    Loggers.SERVICES_LOGGER.debug("Topic push processor for follower partition {} successfully opened. Send response for request {}", logStreamPartitionId, requestId);
+                    processor.enable();
+                }
+                else
+                {
+                    sendErrorResponse(requestStreamId, requestId, throwable.getMessage());
+                }
+            });
+        });
+    }
+
+    /**
+     * Closes all push processors, e.g. because this broker is no longer follower of the partition.
+     */
+    public ActorFuture<Void> closeAllPushProcessorsAsync()
+    {
+        final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
+
+        actor.call(() ->
+        {
+            final Iterator<TopicSubscriptionPushProcessor> subscriptionsIt = subscriptionRegistry.iterateSubscriptions();
+
+            while (subscriptionsIt.hasNext())
+            {
+                final TopicSubscriptionPushProcessor processor = subscriptionsIt.next();
+                subscriptionsIt.remove();
+                closePushProcessor(processor);
+            }
+
+            future.complete(null);
+        });
+
+        return future;
+    }
+
+    protected void sendErrorResponse(int requestStreamId, long requestId, String error)
+    {
+        sendResponse(() -> errorWriter
+            .errorCode(ErrorCode.REQUEST_PROCESSING_FAILURE)
+            .errorMessage(error)
+            .tryWriteResponse(requestStreamId, requestId));
+    }
+
+    protected void sendResponse(BooleanSupplier supplier)
+    {
+        actor.runUntilDone(() ->
+        {
+            if (supplier.getAsBoolean())
+            {
+                actor.done();
+            }
+            else
+            {
+                actor.yield();
+            }
+        });
+    }
+
+    @Override
+    protected String pushProcessorName(TopicSubscriptionPushProcessor processor)
+    {
+        return String.format("topic-push-follower.%s", processor.getNameAsString());
+    }
+
+    public static boolean isFollowerSubscriberKey(long subscriberKey)
+    {
+        return subscriberKey >= FOLLOWER_SUBSCRIBER_KEY_OFFSET;
+    }
+
+    public static MetadataFilter filter()
+    {
+        return (m) -> EventType.SUBSCRIPTION_EVENT == m.getEventType();
+    }
+
+    public static DirectBuffer copyCommand(DirectBuffer buffer, int offset, int length)
+    {
+        final UnsafeBuffer copy = new UnsafeBuffer(new byte[length]);
+        copy.putBytes(0, buffer, offset, length);
+        return copy;
+    }
+
+    protected class AckedProcessor implements EventProcessor
+    {
+        @Override
+        public void processEvent()
+        {
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            final TopicSubscriptionPushProcessor subscriptionProcessor = subscriptionRegistry.getProcessorByName(subscriptionEvent.getName());
+
+            if (subscriptionProcessor != null)
+            {
+                subscriptionProcessor.onAck(subscriptionEvent.getAckPosition());
+            }
+
+            return true;
+        }
+
+        @Override
+        public void updateState()
+        {
+            putAck(subscriptionEvent.getName(), subscriptionEvent.getAckPosition());
+        }
+    }
+}
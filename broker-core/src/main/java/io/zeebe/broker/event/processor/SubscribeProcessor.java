@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.event.processor;
 
+import java.time.Duration;
+
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
 import io.zeebe.logstreams.log.LogStreamWriter;
 import io.zeebe.logstreams.log.LoggedEvent;
@@ -139,7 +141,9 @@ public class SubscribeProcessor implements EventProcessor
                 resumePosition,
                 subscriptionName,
                 subscriberEvent.getPrefetchCapacity(),
-                manager.getEventWriterFactory().get());
+                manager.getEventWriterFactory().get(),
+                manager.getConfig().catchUpBatchSize,
+                Duration.ofMillis(manager.getConfig().catchUpPauseMs));
 
             final ActorFuture<StreamProcessorService> future = manager.openPushProcessorAsync(processor);
 
@@ -21,6 +21,17 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class SubscriptionCfg extends DirectoryConfiguration
 {
+    /**
+     * number of events a subscription pushes before it pauses while it catches up with the log,
+     * 0 disables the limit
+     */
+    public int catchUpBatchSize = 1000;
+
+    /**
+     * milliseconds a subscription pauses after each batch while it catches up with the log
+     */
+    public int catchUpPauseMs = 5;
+
     @Override
     protected String componentDirectoryName()
     {
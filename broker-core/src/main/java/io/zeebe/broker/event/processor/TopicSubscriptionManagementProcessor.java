@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.function.Supplier;
 
 import io.zeebe.broker.Loggers;
+import io.zeebe.broker.logstreams.LogRetention;
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.broker.transport.clientapi.*;
 import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
@@ -50,6 +51,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
 
     protected LogStream logStream;
     protected int logStreamPartitionId;
+    protected LogRetention retention;
 
     protected final SubscriptionRegistry subscriptionRegistry = new SubscriptionRegistry();
 
@@ -58,9 +60,10 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     protected final Supplier<SubscribedEventWriter> eventWriterFactory;
     protected final StreamProcessorServiceFactory streamProcessorServiceFactory;
     protected final ServiceContainer serviceContext;
+    protected final SubscriptionCfg config;
     protected final Bytes2LongZbMap ackMap;
 
-    private ActorControl actor;
+    protected ActorControl actor;
 
     protected final AckProcessor ackProcessor = new AckProcessor();
     protected final SubscribeProcessor subscribeProcessor = new SubscribeProcessor(MAXIMUM_SUBSCRIPTION_NAME_LENGTH, this);
@@ -76,7 +79,8 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             ErrorResponseWriter errorWriter,
             Supplier<SubscribedEventWriter> eventWriterFactory,
             StreamProcessorServiceFactory streamProcessorServiceFactory,
-            ServiceContainer serviceContainer)
+            ServiceContainer serviceContainer,
+            SubscriptionCfg config)
     {
         this.responseWriter = responseWriter;
         this.errorWriter = errorWriter;
@@ -85,6 +89,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         this.snapshotResource = new ZbMapSnapshotSupport<>(ackMap);
         this.serviceContext = serviceContainer;
         this.streamProcessorServiceFactory = streamProcessorServiceFactory;
+        this.config = config;
     }
 
     public Supplier<SubscribedEventWriter> getEventWriterFactory()
@@ -92,6 +97,11 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         return eventWriterFactory;
     }
 
+    public SubscriptionCfg getConfig()
+    {
+        return config;
+    }
+
     @Override
     public void onOpen(StreamProcessorContext context)
     {
@@ -101,6 +111,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         this.logStreamPartitionId = logStream.getPartitionId();
 
         this.logStream = logStream;
+        this.retention = streamProcessorServiceFactory.getLogRetention(logStream.getLogName());
     }
 
     @Override
@@ -214,7 +225,10 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
 
     protected ActorFuture<Void> closePushProcessor(TopicSubscriptionPushProcessor processor)
     {
-        final ServiceName<StreamProcessorService> pushProcessorServiceName = LogStreamServiceNames.streamProcessorService(logStream.getLogName(), pushProcessorName(processor));
+        final String processorName = pushProcessorName(processor);
+        retention.release(processorName);
+
+        final ServiceName<StreamProcessorService> pushProcessorServiceName = LogStreamServiceNames.streamProcessorService(logStream.getLogName(), processorName);
         return serviceContext.removeService(pushProcessorServiceName);
     }
 
@@ -262,6 +276,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     public void registerPushProcessor(TopicSubscriptionPushProcessor processor)
     {
         subscriptionRegistry.addSubscription(processor);
+        retention.retain(pushProcessorName(processor), processor.getStartPosition());
     }
 
     public void onClientChannelCloseAsync(int channelId)
@@ -315,6 +330,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             if (subscriptionProcessor != null)
             {
                 subscriptionProcessor.onAck(subscriptionEvent.getAckPosition());
+                retention.retain(pushProcessorName(subscriptionProcessor), subscriptionEvent.getAckPosition() + 1);
             }
 
             if (metadata.getRequestId() >= 0)
@@ -362,6 +378,9 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
                 Loggers.SERVICES_LOGGER.debug("Topic push processor for partition {} successfully opened. Send response for request {}", logStreamPartitionId, metadata.getRequestId());
                 final TopicSubscriptionPushProcessor pushProcessor = subscriptionRegistry.getProcessorByName(subscriberEvent.getName());
                 pushProcessor.enable();
+
+                // the actual start position is known once the push processor is open
+                retention.retain(pushProcessorName(pushProcessor), pushProcessor.getStartPosition());
             }
 
             return responseWritten;
@@ -389,7 +408,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         }
     }
 
-    private static String pushProcessorName(final TopicSubscriptionPushProcessor processor)
+    protected String pushProcessorName(final TopicSubscriptionPushProcessor processor)
     {
         return String.format("topic-push.%s", processor.getNameAsString());
     }
@@ -17,8 +17,11 @@
  */
 package io.zeebe.broker.event.processor;
 
+import java.time.Duration;
+
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
 import io.zeebe.broker.logstreams.processor.NoopSnapshotSupport;
+import io.zeebe.broker.logstreams.processor.SchedulingClass;
 import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LogStreamReader;
@@ -35,6 +38,15 @@ import org.agrona.DirectBuffer;
 
 import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
 
+/**
+ * Pushes the events of a partition to a topic subscriber.
+ *
+ * <p>
+ * A subscriber which starts behind the log (i.e. before the commit position at the time the
+ * processor is opened) catches up as background work: the processor runs with low priority
+ * and pauses after each batch of events, so that command processing is not slowed down.
+ * When it has caught up, the processor runs with regular priority again.
+ */
 public class TopicSubscriptionPushProcessor implements StreamProcessor, EventProcessor
 {
 
@@ -55,13 +67,22 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
     protected LongRingBuffer pendingEvents;
     private StreamProcessorContext context;
 
+    protected final int catchUpBatchSize;
+    protected final Duration catchUpPause;
+    protected long catchUpPosition;
+    protected boolean catchingUp;
+    protected boolean catchUpPaused;
+    protected int eventsInBatch;
+
     public TopicSubscriptionPushProcessor(
             int clientStreamId,
             long subscriberKey,
             long startPosition,
             DirectBuffer name,
             int prefetchCapacity,
-            SubscribedEventWriter channelWriter)
+            SubscribedEventWriter channelWriter,
+            int catchUpBatchSize,
+            Duration catchUpPause)
     {
         this.channelWriter = channelWriter;
         this.clientStreamId = clientStreamId;
@@ -69,6 +90,8 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         this.startPosition = startPosition;
         this.name = cloneBuffer(name);
         this.nameString = name.getStringWithoutLengthUtf8(0, name.capacity());
+        this.catchUpBatchSize = catchUpBatchSize;
+        this.catchUpPause = catchUpPause;
 
         if (prefetchCapacity > 0)
         {
@@ -86,6 +109,17 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         this.logStreamPartitionId = logStream.getPartitionId();
 
         setToStartPosition(logReader);
+
+        catchUpPosition = logStream.getCommitPosition();
+        catchingUp = startPosition < catchUpPosition;
+        catchUpPaused = false;
+        eventsInBatch = 0;
+
+        if (catchingUp)
+        {
+            context.getActorControl().setPriority(SchedulingClass.BACKGROUND.getPriority());
+        }
+
         context.suspendController();
     }
 
@@ -163,9 +197,45 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
             }
         }
 
+        if (success && catchingUp)
+        {
+            onCatchUpEventPushed();
+        }
+
         return success;
     }
 
+    protected void onCatchUpEventPushed()
+    {
+        if (event.getPosition() >= catchUpPosition)
+        {
+            catchingUp = false;
+            context.getActorControl().setPriority(SchedulingClass.DEFAULT.getPriority());
+        }
+        else if (catchUpBatchSize > 0 && ++eventsInBatch >= catchUpBatchSize)
+        {
+            eventsInBatch = 0;
+            catchUpPaused = true;
+
+            context.suspendController();
+            context.getActorControl().runDelayed(catchUpPause, () ->
+            {
+                catchUpPaused = false;
+                resumeIfPossible();
+            });
+        }
+    }
+
+    protected void resumeIfPossible()
+    {
+        final boolean saturated = recordsPendingEvents() && pendingEvents.isSaturated();
+
+        if (!saturated && !catchUpPaused)
+        {
+            context.resumeController();
+        }
+    }
+
     public int getChannelId()
     {
         return clientStreamId;
@@ -183,10 +253,7 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
             if (recordsPendingEvents())
             {
                 pendingEvents.consumeAscendingUntilInclusive(eventPosition);
-                if (!pendingEvents.isSaturated())
-                {
-                    this.context.resumeController();
-                }
+                resumeIfPossible();
             }
         });
     }
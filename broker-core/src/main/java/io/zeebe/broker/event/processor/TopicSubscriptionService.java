@@ -24,27 +24,35 @@ import io.zeebe.broker.logstreams.processor.StreamProcessorIds;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.system.ConfigurationManager;
 import io.zeebe.broker.transport.clientapi.*;
+import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.*;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
+import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.slf4j.Logger;
 
-public class TopicSubscriptionService extends Actor implements Service<TopicSubscriptionService>, TransportListener
+public class TopicSubscriptionService extends Actor implements Service<TopicSubscriptionService>, TransportListener, FollowerCommandHandler
 {
     private static final Logger LOG = Loggers.SERVICES_LOGGER;
 
+    protected static final String FOLLOWER_MANAGEMENT_PROCESSOR_NAME = "topic-management-follower";
+
     protected final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
     protected final Injector<StreamProcessorServiceFactory> streamProcessorServiceFactoryInjector = new Injector<>();
+    protected final Injector<ClientApiMessageHandler> clientApiMessageHandlerInjector = new Injector<>();
 
     protected final SubscriptionCfg config;
     protected final ServiceContainer serviceContainer;
 
     protected Int2ObjectHashMap<TopicSubscriptionManagementProcessor> managersByLog = new Int2ObjectHashMap<>();
+    protected Int2ObjectHashMap<FollowerTopicSubscriptionManagementProcessor> followerManagersByLog = new Int2ObjectHashMap<>();
     protected ServerOutput serverOutput;
     protected StreamProcessorServiceFactory streamProcessorServiceFactory;
 
@@ -53,6 +61,11 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
         .onRemove((logStreamServiceName, logStream) -> onStreamRemoved(logStream))
         .build();
 
+    protected final ServiceGroupReference<LogStream> followerLogStreamsGroupReference = ServiceGroupReference.<LogStream>create()
+        .onAdd(this::onFollowerStreamAdded)
+        .onRemove((logStreamServiceName, logStream) -> onFollowerStreamRemoved(logStream))
+        .build();
+
     public TopicSubscriptionService(ConfigurationManager configurationManager, ServiceContainer serviceContainer)
     {
         config = configurationManager.readEntry("subscriptions", SubscriptionCfg.class);
@@ -77,11 +90,21 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
         return streamProcessorServiceFactoryInjector;
     }
 
+    public Injector<ClientApiMessageHandler> getClientApiMessageHandlerInjector()
+    {
+        return clientApiMessageHandlerInjector;
+    }
+
     public ServiceGroupReference<LogStream> getLogStreamsGroupReference()
     {
         return logStreamsGroupReference;
     }
 
+    public ServiceGroupReference<LogStream> getFollowerLogStreamsGroupReference()
+    {
+        return followerLogStreamsGroupReference;
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
@@ -94,11 +117,15 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
         startContext.async(registration);
 
         startContext.getScheduler().submitActor(this);
+
+        clientApiMessageHandlerInjector.getValue().setFollowerCommandHandler(this);
     }
 
     @Override
     public void stop(ServiceStopContext stopContext)
     {
+        clientApiMessageHandlerInjector.getValue().setFollowerCommandHandler(null);
+
         actor.close();
     }
 
@@ -109,15 +136,17 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
             final TopicSubscriptionManagementProcessor streamProcessor = new TopicSubscriptionManagementProcessor(
                 new CommandResponseWriter(serverOutput),
                 new ErrorResponseWriter(serverOutput),
-                () -> new SubscribedEventWriter(serverOutput),
+                () -> new SubscribedEventWriter(serverOutput, streamProcessorServiceFactory.getEventTracer()),
                 streamProcessorServiceFactory,
-                serviceContainer
+                serviceContainer,
+                config
                 );
 
             final ActorFuture<StreamProcessorService> openFuture = streamProcessorServiceFactory.createService(logStream)
                 .processor(streamProcessor)
                 .processorId(StreamProcessorIds.TOPIC_SUBSCRIPTION_MANAGEMENT_PROCESSOR_ID)
                 .processorName("topic-management")
+                .ownedEventTypes(EventType.SUBSCRIBER_EVENT, EventType.SUBSCRIPTION_EVENT)
                 .eventFilter(TopicSubscriptionManagementProcessor.filter())
                 .build();
 
@@ -140,13 +169,121 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
         actor.call(() -> managersByLog.remove(logStream.getPartitionId()));
     }
 
+    public void onFollowerStreamAdded(ServiceName<LogStream> logStreamServiceName, LogStream logStream)
+    {
+        actor.call(() ->
+        {
+            final FollowerTopicSubscriptionManagementProcessor streamProcessor = new FollowerTopicSubscriptionManagementProcessor(
+                new CommandResponseWriter(serverOutput),
+                new ErrorResponseWriter(serverOutput),
+                () -> new SubscribedEventWriter(serverOutput, streamProcessorServiceFactory.getEventTracer()),
+                streamProcessorServiceFactory,
+                serviceContainer,
+                config
+                );
+
+            final ActorFuture<StreamProcessorService> openFuture = streamProcessorServiceFactory.createService(logStream)
+                .processor(streamProcessor)
+                .processorId(StreamProcessorIds.TOPIC_SUBSCRIPTION_MANAGEMENT_PROCESSOR_ID)
+                .processorName(FOLLOWER_MANAGEMENT_PROCESSOR_NAME)
+                .eventFilter(FollowerTopicSubscriptionManagementProcessor.filter())
+                .readOnly(true)
+                .build();
+
+            actor.runOnCompletion(openFuture, (aVoid, throwable) ->
+            {
+                if (throwable == null)
+                {
+                    followerManagersByLog.put(logStream.getPartitionId(), streamProcessor);
+                }
+                else
+                {
+                    LOG.error("Failed to create follower topic subscription stream processor service for log stream service '{}'", logStreamServiceName);
+                }
+            });
+        });
+    }
+
+    public void onFollowerStreamRemoved(LogStream logStream)
+    {
+        actor.call(() ->
+        {
+            final FollowerTopicSubscriptionManagementProcessor manager = followerManagersByLog.remove(logStream.getPartitionId());
+
+            if (manager != null)
+            {
+                // the push processors read from the management processor's state, so close them first
+                final ActorFuture<Void> closeFuture = manager.closeAllPushProcessorsAsync();
+                actor.runOnCompletion(closeFuture, (aVoid, throwable) -> removeFollowerManagementProcessor(logStream));
+            }
+        });
+    }
+
+    private void removeFollowerManagementProcessor(LogStream logStream)
+    {
+        final ServiceName<StreamProcessorService> serviceName =
+                LogStreamServiceNames.streamProcessorService(logStream.getLogName(), FOLLOWER_MANAGEMENT_PROCESSOR_NAME);
+
+        final ActorFuture<Void> removeFuture = serviceContainer.removeService(serviceName);
+        actor.runOnCompletion(removeFuture, (aVoid, throwable) ->
+        {
+            if (throwable != null)
+            {
+                LOG.error("Failed to remove follower topic subscription stream processor service '{}'", serviceName, throwable);
+            }
+        });
+    }
+
     public void onClientChannelCloseAsync(int channelId)
     {
         actor.call(() ->
         {
             // TODO(menski): probably not garbage free
             managersByLog.forEach((partitionId, manager) -> manager.onClientChannelCloseAsync(channelId));
+            followerManagersByLog.forEach((partitionId, manager) -> manager.onClientChannelCloseAsync(channelId));
+        });
+    }
+
+    @Override
+    public boolean handlesCommand(EventType eventType)
+    {
+        return eventType == EventType.SUBSCRIBER_EVENT;
+    }
+
+    /**
+     * Invoked by the client api message handler for a subscribe command on a partition
+     * which this broker does not lead.
+     */
+    @Override
+    public boolean onCommand(int partitionId, EventType eventType, RemoteAddress requestAddress, long requestId, DirectBuffer buffer, int offset, int length)
+    {
+        final DirectBuffer command = FollowerTopicSubscriptionManagementProcessor.copyCommand(buffer, offset, length);
+        final int requestStreamId = requestAddress.getStreamId();
+
+        actor.call(() ->
+        {
+            final FollowerTopicSubscriptionManagementProcessor manager = followerManagersByLog.get(partitionId);
+
+            if (manager != null)
+            {
+                manager.subscribeAsync(requestStreamId, requestId, command);
+            }
+            else
+            {
+                final ErrorResponseWriter errorWriter = new ErrorResponseWriter(serverOutput);
+                final boolean written = errorWriter
+                    .errorCode(ErrorCode.PARTITION_NOT_FOUND)
+                    .errorMessage("Cannot execute command. Partition with id '%d' not found", partitionId)
+                    .tryWriteResponse(requestStreamId, requestId);
+
+                if (!written)
+                {
+                    LOG.debug("Failed to write partition not found response for follower subscription request {}", requestId);
+                }
+            }
         });
+
+        return true;
     }
 
     @Override
@@ -157,7 +294,16 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
 
     public ActorFuture<Void> closeSubscriptionAsync(final int partitionId, final long subscriberKey)
     {
-        final TopicSubscriptionManagementProcessor managementProcessor = getManager(partitionId);
+        final TopicSubscriptionManagementProcessor managementProcessor;
+
+        if (FollowerTopicSubscriptionManagementProcessor.isFollowerSubscriberKey(subscriberKey))
+        {
+            managementProcessor = followerManagersByLog.get(partitionId);
+        }
+        else
+        {
+            managementProcessor = getManager(partitionId);
+        }
 
         if (managementProcessor != null)
         {
@@ -17,13 +17,27 @@
  */
 package io.zeebe.broker.incident.index;
 
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static org.agrona.BitUtil.SIZE_OF_SHORT;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Iterator;
 
+import io.zeebe.broker.incident.data.IncidentEvent;
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
 import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
 import io.zeebe.map.Long2BytesZbMap;
+import io.zeebe.map.iterator.Long2BytesZbMapEntry;
+import io.zeebe.msgpack.UnpackedObject;
 
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -34,21 +48,55 @@ import org.agrona.concurrent.UnsafeBuffer;
  * <li>incident state
  * <li>incident event position
  * <li>failure event position
+ * <li>incident event length
+ * <li>incident event (max 384 bytes)
+ * <li>failure event key
+ * <li>failure event length
+ * <li>failure event without payload (max 192 bytes)
+ *
+ * <p>
+ * The events are kept inline so that an incident can be resolved or deleted
+ * without reading the log. If an event exceeds its inline capacity then its
+ * length is stored as {@link #NOT_INLINED} and it must be read from the log
+ * stream at the stored position instead.
+ *
+ * <p>
+ * The snapshot of the map starts with a version header. A snapshot without
+ * the header was written by a previous version which stored only the state
+ * and the positions. It is migrated on recovery without inlined events.
  */
 public class IncidentMap
 {
+    public static final int INCIDENT_EVENT_MAX_LENGTH = 384;
+    public static final int FAILURE_EVENT_MAX_LENGTH = 192;
+
+    public static final int NOT_INLINED = -1;
+
     private static final int STATE_OFFSET = 0;
     private static final int INCIDENT_EVENT_POSITION_OFFSET = STATE_OFFSET + SIZE_OF_SHORT;
     private static final int FAILURE_EVENT_POSITION_OFFSET = INCIDENT_EVENT_POSITION_OFFSET + SIZE_OF_LONG;
 
-    private static final int INDEX_VALUE_SIZE = SIZE_OF_SHORT + 2 * SIZE_OF_LONG;
+    private static final int INCIDENT_EVENT_LENGTH_OFFSET = FAILURE_EVENT_POSITION_OFFSET + SIZE_OF_LONG;
+    private static final int INCIDENT_EVENT_OFFSET = INCIDENT_EVENT_LENGTH_OFFSET + SIZE_OF_INT;
+    private static final int FAILURE_EVENT_KEY_OFFSET = INCIDENT_EVENT_OFFSET + INCIDENT_EVENT_MAX_LENGTH;
+    private static final int FAILURE_EVENT_LENGTH_OFFSET = FAILURE_EVENT_KEY_OFFSET + SIZE_OF_LONG;
+    private static final int FAILURE_EVENT_OFFSET = FAILURE_EVENT_LENGTH_OFFSET + SIZE_OF_INT;
+
+    private static final int INDEX_VALUE_SIZE = FAILURE_EVENT_OFFSET + FAILURE_EVENT_MAX_LENGTH;
+
+    private static final int LEGACY_INDEX_VALUE_SIZE = INCIDENT_EVENT_LENGTH_OFFSET;
+
+    private static final long SNAPSHOT_MAGIC = 0x5A42_494E_4344_4D50L;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_LENGTH = SIZE_OF_LONG + SIZE_OF_INT;
 
     private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
 
     private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[INDEX_VALUE_SIZE]);
 
     private final Long2BytesZbMap map;
-    private final ZbMapSnapshotSupport<Long2BytesZbMap> snapshotSupport;
+    private final ZbMapSnapshotSupport<Long2BytesZbMap> mapSnapshotSupport;
+    private final VersionedSnapshotSupport snapshotSupport = new VersionedSnapshotSupport();
 
     private long key;
     private boolean isRead = false;
@@ -56,12 +104,12 @@ public class IncidentMap
     public IncidentMap()
     {
         this.map = new Long2BytesZbMap(INDEX_VALUE_SIZE);
-        this.snapshotSupport = new ZbMapSnapshotSupport<>(map);
+        this.mapSnapshotSupport = new ZbMapSnapshotSupport<>(map);
     }
 
-    public Long2BytesZbMap getMap()
+    public ComposableSnapshotSupport getSnapshotSupport()
     {
-        return map;
+        return snapshotSupport;
     }
 
     public void reset()
@@ -103,10 +151,51 @@ public class IncidentMap
         return isRead ? buffer.getLong(FAILURE_EVENT_POSITION_OFFSET, BYTE_ORDER) : -1L;
     }
 
+    public long getFailureEventKey()
+    {
+        return isRead ? buffer.getLong(FAILURE_EVENT_KEY_OFFSET, BYTE_ORDER) : -1L;
+    }
+
+    /**
+     * @return <code>true</code>, if the incident event is stored inline and
+     *         was read into the given object
+     */
+    public boolean readIncidentEvent(IncidentEvent incidentEvent)
+    {
+        return readEvent(INCIDENT_EVENT_LENGTH_OFFSET, INCIDENT_EVENT_OFFSET, incidentEvent);
+    }
+
+    /**
+     * @return <code>true</code>, if the failure event is stored inline and
+     *         was read into the given object. The payload of the failure event is
+     *         not stored.
+     */
+    public boolean readFailureEvent(WorkflowInstanceEvent failureEvent)
+    {
+        return readEvent(FAILURE_EVENT_LENGTH_OFFSET, FAILURE_EVENT_OFFSET, failureEvent);
+    }
+
+    private boolean readEvent(int lengthOffset, int eventOffset, UnpackedObject event)
+    {
+        final int length = isRead ? buffer.getInt(lengthOffset, BYTE_ORDER) : NOT_INLINED;
+
+        if (length > 0)
+        {
+            event.reset();
+            event.wrap(buffer, eventOffset, length);
+        }
+        return length > 0;
+    }
+
     public IncidentMap newIncident(long incidentKey)
     {
         key = incidentKey;
         isRead = true;
+
+        buffer.putInt(INCIDENT_EVENT_LENGTH_OFFSET, NOT_INLINED, BYTE_ORDER);
+        buffer.putLong(FAILURE_EVENT_KEY_OFFSET, -1L, BYTE_ORDER);
+        buffer.putInt(FAILURE_EVENT_LENGTH_OFFSET, NOT_INLINED, BYTE_ORDER);
+
         return this;
     }
 
@@ -137,6 +226,41 @@ public class IncidentMap
         return this;
     }
 
+    public IncidentMap setIncidentEvent(IncidentEvent incidentEvent)
+    {
+        ensureRead();
+        writeEvent(INCIDENT_EVENT_LENGTH_OFFSET, INCIDENT_EVENT_OFFSET, INCIDENT_EVENT_MAX_LENGTH, incidentEvent);
+        return this;
+    }
+
+    /**
+     * Note that the payload of the given event is replaced to keep the entry
+     * small. It is not required to resolve an incident.
+     */
+    public IncidentMap setFailureEvent(long failureEventKey, WorkflowInstanceEvent failureEvent)
+    {
+        ensureRead();
+        buffer.putLong(FAILURE_EVENT_KEY_OFFSET, failureEventKey, BYTE_ORDER);
+        failureEvent.setPayload(WorkflowInstanceEvent.NO_PAYLOAD);
+        writeEvent(FAILURE_EVENT_LENGTH_OFFSET, FAILURE_EVENT_OFFSET, FAILURE_EVENT_MAX_LENGTH, failureEvent);
+        return this;
+    }
+
+    private void writeEvent(int lengthOffset, int eventOffset, int maxLength, UnpackedObject event)
+    {
+        final int length = event.getEncodedLength();
+
+        if (length <= maxLength)
+        {
+            event.write(buffer, eventOffset);
+            buffer.putInt(lengthOffset, length, BYTE_ORDER);
+        }
+        else
+        {
+            buffer.putInt(lengthOffset, NOT_INLINED, BYTE_ORDER);
+        }
+    }
+
     private void ensureRead()
     {
         if (!isRead)
@@ -150,4 +274,95 @@ public class IncidentMap
         map.close();
     }
 
+    private class VersionedSnapshotSupport implements ComposableSnapshotSupport
+    {
+        @Override
+        public long writeSnapshot(OutputStream outputStream) throws Exception
+        {
+            final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+            dataOutputStream.writeLong(SNAPSHOT_MAGIC);
+            dataOutputStream.writeInt(SNAPSHOT_VERSION);
+            dataOutputStream.flush();
+
+            return SNAPSHOT_HEADER_LENGTH + mapSnapshotSupport.writeSnapshot(outputStream);
+        }
+
+        @Override
+        public void recoverFromSnapshot(InputStream inputStream) throws Exception
+        {
+            final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, SIZE_OF_LONG);
+            final byte[] magic = new byte[SIZE_OF_LONG];
+            final int magicLength = readFully(pushbackInputStream, magic);
+
+            if (magicLength == SIZE_OF_LONG && ByteBuffer.wrap(magic).getLong() == SNAPSHOT_MAGIC)
+            {
+                final int version = new DataInputStream(pushbackInputStream).readInt();
+                if (version != SNAPSHOT_VERSION)
+                {
+                    throw new IllegalStateException("Unsupported incident map snapshot version: " + version);
+                }
+
+                mapSnapshotSupport.recoverFromSnapshot(pushbackInputStream);
+            }
+            else
+            {
+                pushbackInputStream.unread(magic, 0, magicLength);
+                recoverFromLegacySnapshot(pushbackInputStream);
+            }
+        }
+
+        @Override
+        public long snapshotSize()
+        {
+            return SNAPSHOT_HEADER_LENGTH + mapSnapshotSupport.snapshotSize();
+        }
+
+        @Override
+        public void reset()
+        {
+            mapSnapshotSupport.reset();
+        }
+    }
+
+    private void recoverFromLegacySnapshot(InputStream inputStream) throws Exception
+    {
+        final Long2BytesZbMap legacyMap = new Long2BytesZbMap(LEGACY_INDEX_VALUE_SIZE);
+        try
+        {
+            new ZbMapSnapshotSupport<>(legacyMap).recoverFromSnapshot(inputStream);
+
+            mapSnapshotSupport.reset();
+
+            final Iterator<Long2BytesZbMapEntry> iterator = legacyMap.iterator();
+            while (iterator.hasNext())
+            {
+                final Long2BytesZbMapEntry entry = iterator.next();
+
+                newIncident(entry.getKey());
+                buffer.putBytes(0, entry.getValue(), 0, LEGACY_INDEX_VALUE_SIZE);
+                write();
+            }
+            reset();
+        }
+        finally
+        {
+            legacyMap.close();
+        }
+    }
+
+    private static int readFully(InputStream inputStream, byte[] bytes) throws IOException
+    {
+        int length = 0;
+        while (length < bytes.length)
+        {
+            final int read = inputStream.read(bytes, length, bytes.length - length);
+            if (read < 0)
+            {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
 }
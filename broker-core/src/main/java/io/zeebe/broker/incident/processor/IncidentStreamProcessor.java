@@ -21,6 +21,7 @@ import io.zeebe.broker.incident.data.ErrorType;
 import io.zeebe.broker.incident.data.IncidentEvent;
 import io.zeebe.broker.incident.data.IncidentState;
 import io.zeebe.broker.incident.index.IncidentMap;
+import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
 import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
@@ -53,15 +54,34 @@ public class IncidentStreamProcessor
     private final IncidentMap incidentMap = new IncidentMap();
     private final Long2LongZbMap resolvingEvents = new Long2LongZbMap();
 
+    private final IncidentEvent inlinedIncidentEvent = new IncidentEvent();
+
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment env)
+    {
+        return registerWith(env, env.newStreamProcessor()).build();
+    }
+
+    /**
+     * Registers the incident processors and state with the given builder. The builder may be shared with other
+     * components to process the partition in a single stream processor.
+     */
+    public TypedEventStreamProcessorBuilder registerWith(TypedStreamEnvironment env, TypedEventStreamProcessorBuilder streamProcessorBuilder)
     {
         final TypedStreamReader reader = env.buildStreamReader();
 
-        TypedEventStreamProcessorBuilder builder = env.newStreamProcessor()
+        TypedEventStreamProcessorBuilder builder = streamProcessorBuilder
             .withStateResource(activityInstanceMap)
             .withStateResource(failedTaskMap)
-            .withStateResource(incidentMap.getMap())
-            .withStateResource(resolvingEvents);
+            .withStateResource(incidentMap.getSnapshotSupport())
+            .withStateResource(resolvingEvents)
+            .withListener(new StreamProcessorLifecycleAware()
+            {
+                @Override
+                public void onClose()
+                {
+                    incidentMap.close();
+                }
+            });
 
 
         // incident events
@@ -93,7 +113,7 @@ public class IncidentStreamProcessor
             .onEvent(EventType.TASK_EVENT, TaskState.RETRIES_UPDATED, taskIncidentResolvedProcessor)
             .onEvent(EventType.TASK_EVENT, TaskState.CANCELED, taskIncidentResolvedProcessor);
 
-        return builder.build();
+        return builder;
     }
 
     private final class CreateIncidentProcessor implements TypedEventProcessor<IncidentEvent>
@@ -137,7 +157,7 @@ public class IncidentStreamProcessor
                     .setState(STATE_CREATED)
                     .setIncidentEventPosition(event.getPosition())
                     .setFailureEventPosition(incidentEvent.getFailureEventPosition())
-                    .write();
+                    .setIncidentEvent(incidentEvent);
 
                 if (isTaskIncident)
                 {
@@ -145,8 +165,11 @@ public class IncidentStreamProcessor
                 }
                 else
                 {
+                    // the failure event is inlined when the incident is resolved the first time
                     activityInstanceMap.put(incidentEvent.getActivityInstanceKey(), event.getKey());
                 }
+
+                incidentMap.write();
             }
         }
     }
@@ -189,9 +212,12 @@ public class IncidentStreamProcessor
     private final class ResolveIncidentProcessor implements TypedEventProcessor<IncidentEvent>
     {
         private final TypedStreamReader reader;
+        private final WorkflowInstanceEvent inlinedFailureEvent = new WorkflowInstanceEvent();
 
         private boolean onResolving;
-        private TypedEvent<WorkflowInstanceEvent> failureEvent;
+        private boolean isFailureEventInlined;
+        private WorkflowInstanceEvent failureEvent;
+        private long failureEventKey;
         private long incidentKey;
 
         ResolveIncidentProcessor(TypedStreamReader reader)
@@ -210,8 +236,22 @@ public class IncidentStreamProcessor
             if (incidentMap.getState() == STATE_CREATED)
             {
                 // re-write the failure event with new payload
-                failureEvent = reader.readValue(incidentMap.getFailureEventPosition(), WorkflowInstanceEvent.class);
-                failureEvent.getValue().setPayload(event.getValue().getPayload());
+                isFailureEventInlined = incidentMap.readFailureEvent(inlinedFailureEvent);
+
+                if (isFailureEventInlined)
+                {
+                    failureEvent = inlinedFailureEvent;
+                    failureEventKey = incidentMap.getFailureEventKey();
+                }
+                else
+                {
+                    final TypedEvent<WorkflowInstanceEvent> persistedFailureEvent =
+                            reader.readValue(incidentMap.getFailureEventPosition(), WorkflowInstanceEvent.class);
+
+                    failureEvent = persistedFailureEvent.getValue();
+                    failureEventKey = persistedFailureEvent.getKey();
+                }
+                failureEvent.setPayload(event.getValue().getPayload());
 
                 onResolving = true;
             }
@@ -229,8 +269,8 @@ public class IncidentStreamProcessor
             if (onResolving)
             {
                 position = writer.writeFollowupEvent(
-                    failureEvent.getKey(),
-                    failureEvent.getValue(),
+                    failureEventKey,
+                    failureEvent,
                     this::setIncidentKey);
             }
             else
@@ -250,6 +290,12 @@ public class IncidentStreamProcessor
         {
             if (onResolving)
             {
+                if (!isFailureEventInlined)
+                {
+                    // keep the failure event inline so that a further resolve attempt doesn't read the log again
+                    incidentMap.setFailureEvent(failureEventKey, failureEvent);
+                }
+
                 incidentMap
                     .setState(STATE_RESOLVING)
                     .write();
@@ -286,7 +332,7 @@ public class IncidentStreamProcessor
         private final TypedStreamReader reader;
 
         private boolean isDeleted;
-        private TypedEvent<IncidentEvent> incidentToWrite;
+        private IncidentEvent incidentToWrite;
 
         DeleteIncidentProcessor(TypedStreamReader reader)
         {
@@ -304,24 +350,23 @@ public class IncidentStreamProcessor
 
             if (incidentEventPosition > 0)
             {
-                final TypedEvent<IncidentEvent> priorIncidentEvent =
-                        reader.readValue(incidentEventPosition, IncidentEvent.class);
+                final IncidentEvent priorIncidentEvent = readIncidentEvent(reader);
 
-                priorIncidentEvent.getValue().setState(IncidentState.DELETED);
+                priorIncidentEvent.setState(IncidentState.DELETED);
                 incidentToWrite = priorIncidentEvent;
                 isDeleted = true;
             }
             else
             {
                 event.getValue().setState(IncidentState.DELETE_REJECTED);
-                incidentToWrite = event;
+                incidentToWrite = event.getValue();
             }
         }
 
         @Override
         public long writeEvent(TypedEvent<IncidentEvent> event, TypedStreamWriter writer)
         {
-            return writer.writeFollowupEvent(incidentToWrite.getKey(), incidentToWrite.getValue());
+            return writer.writeFollowupEvent(event.getKey(), incidentToWrite);
         }
 
         @Override
@@ -352,7 +397,8 @@ public class IncidentStreamProcessor
         private final TypedStreamReader reader;
 
         private boolean isResolved;
-        private TypedEvent<IncidentEvent> incidentEvent;
+        private long incidentKey;
+        private IncidentEvent incidentEvent;
 
         ActivityIncidentResolvedProcessor(TypedStreamReader reader)
         {
@@ -365,7 +411,7 @@ public class IncidentStreamProcessor
             isResolved = false;
             incidentEvent = null;
 
-            final long incidentKey = resolvingEvents.get(event.getSourcePosition(), -1);
+            incidentKey = resolvingEvents.get(event.getSourcePosition(), -1);
             if (incidentKey > 0)
             {
                 incidentMap.wrapIncidentKey(incidentKey);
@@ -373,10 +419,9 @@ public class IncidentStreamProcessor
                 if (incidentMap.getState() == STATE_RESOLVING)
                 {
                     // incident is resolved when read next activity lifecycle event
-                    final long incidentPosition = incidentMap.getIncidentEventPosition();
-                    incidentEvent = reader.readValue(incidentPosition, IncidentEvent.class);
+                    incidentEvent = readIncidentEvent(reader);
 
-                    incidentEvent.getValue().setState(IncidentState.RESOLVED);
+                    incidentEvent.setState(IncidentState.RESOLVED);
 
                     isResolved = true;
                 }
@@ -391,7 +436,7 @@ public class IncidentStreamProcessor
         public long writeEvent(TypedEvent<WorkflowInstanceEvent> event, TypedStreamWriter writer)
         {
             return isResolved ?
-                    writer.writeFollowupEvent(incidentEvent.getKey(), incidentEvent.getValue())
+                    writer.writeFollowupEvent(incidentKey, incidentEvent)
                     : 0L;
         }
 
@@ -400,8 +445,8 @@ public class IncidentStreamProcessor
         {
             if (isResolved)
             {
-                incidentMap.remove(incidentEvent.getKey());
-                activityInstanceMap.remove(incidentEvent.getValue().getActivityInstanceKey(), -1L);
+                incidentMap.remove(incidentKey);
+                activityInstanceMap.remove(incidentEvent.getActivityInstanceKey(), -1L);
                 resolvingEvents.remove(event.getSourcePosition(), -1);
             }
         }
@@ -512,7 +557,8 @@ public class IncidentStreamProcessor
         private final TypedStreamReader reader;
 
         private boolean isResolved;
-        private TypedEvent<IncidentEvent> persistedIncident;
+        private long incidentKey;
+        private IncidentEvent persistedIncident;
         private boolean isTransientIncident;
 
         TaskIncidentResolvedProcessor(TypedStreamReader reader)
@@ -526,7 +572,7 @@ public class IncidentStreamProcessor
             isResolved = false;
             isTransientIncident = false;
 
-            final long incidentKey = failedTaskMap.get(event.getKey(), -1L);
+            incidentKey = failedTaskMap.get(event.getKey(), -1L);
             persistedIncident = null;
 
             if (incidentKey > 0)
@@ -535,9 +581,9 @@ public class IncidentStreamProcessor
 
                 if (incidentMap.getState() == STATE_CREATED)
                 {
-                    persistedIncident = reader.readValue(incidentMap.getIncidentEventPosition(), IncidentEvent.class);
+                    persistedIncident = readIncidentEvent(reader);
 
-                    persistedIncident.getValue().setState(IncidentState.DELETE);
+                    persistedIncident.setState(IncidentState.DELETE);
 
                     isResolved = true;
                 }
@@ -556,7 +602,7 @@ public class IncidentStreamProcessor
         public long writeEvent(TypedEvent<TaskEvent> event, TypedStreamWriter writer)
         {
             return isResolved ?
-                    writer.writeFollowupEvent(persistedIncident.getKey(), persistedIncident.getValue()) :
+                    writer.writeFollowupEvent(incidentKey, persistedIncident) :
                     0L;
         }
 
@@ -570,4 +616,20 @@ public class IncidentStreamProcessor
         }
     }
 
+    /**
+     * Returns the incident event of the wrapped incident. It is only read
+     * from the log stream if it is not inlined in the incident map.
+     */
+    private IncidentEvent readIncidentEvent(TypedStreamReader reader)
+    {
+        if (incidentMap.readIncidentEvent(inlinedIncidentEvent))
+        {
+            return inlinedIncidentEvent;
+        }
+        else
+        {
+            return reader.readValue(incidentMap.getIncidentEventPosition(), IncidentEvent.class).getValue();
+        }
+    }
+
 }
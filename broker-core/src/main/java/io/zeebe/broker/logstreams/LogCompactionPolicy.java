@@ -0,0 +1,51 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+/**
+ * Defines what happens to the segments of a log stream which are no longer required by its consumers.
+ */
+public enum LogCompactionPolicy
+{
+    /**
+     * not specified; the segments are archived if an archive directory is configured, otherwise deleted
+     */
+    DEFAULT,
+
+    DELETE,
+
+    /**
+     * the segments are moved to the configured archive directory
+     */
+    ARCHIVE,
+
+    /**
+     * the log is never compacted
+     */
+    RETAIN;
+
+    private static final LogCompactionPolicy[] VALUES = values();
+
+    /**
+     * @return the policy with the given ordinal or {@link #DEFAULT} if there is none
+     */
+    public static LogCompactionPolicy fromOrdinal(int ordinal)
+    {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : DEFAULT;
+    }
+}
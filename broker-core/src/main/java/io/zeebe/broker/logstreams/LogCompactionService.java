@@ -0,0 +1,244 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.logstreams.cfg.LogStreamsCfg;
+import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.protocol.Protocol;
+import io.zeebe.raft.Raft;
+import io.zeebe.raft.RaftMember;
+import io.zeebe.raft.state.RaftState;
+import io.zeebe.servicecontainer.*;
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorPriority;
+import io.zeebe.util.sched.SchedulingHints;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.slf4j.Logger;
+
+/**
+ * Periodically compacts the workflow log streams this broker is leader or follower of, according to the
+ * {@link LogCompactionPolicy} of their topic. See {@link LogCompactor}. The log of a follower is only compacted
+ * when the stream processors of the partition retain their snapshots, i.e. after this broker was leader of it.
+ */
+public class LogCompactionService extends Actor implements Service<LogCompactionService>
+{
+    private static final Logger LOG = Loggers.SERVICES_LOGGER;
+
+    protected final Injector<StreamProcessorServiceFactory> streamProcessorServiceFactoryInjector = new Injector<>();
+    protected final Injector<LogStreamsManager> logStreamsManagerInjector = new Injector<>();
+
+    protected final Duration compactionInterval;
+    protected final File archiveDirectory;
+
+    protected final Int2ObjectHashMap<LogCompactor> compactorsByPartition = new Int2ObjectHashMap<>();
+    protected final Int2ObjectHashMap<Raft> raftsByPartition = new Int2ObjectHashMap<>();
+
+    protected StreamProcessorServiceFactory streamProcessorServiceFactory;
+    protected LogStreamsManager logStreamsManager;
+    protected MetricsManager metricsManager;
+
+    /**
+     * The log streams are taken from the rafts, so that they are compacted regardless of the role of this broker.
+     */
+    protected final ServiceGroupReference<Raft> raftGroupReference = ServiceGroupReference.<Raft>create()
+        .onAdd((raftServiceName, raft) -> onRaftAdded(raft))
+        .onRemove((raftServiceName, raft) -> onRaftRemoved(raft))
+        .build();
+
+    public LogCompactionService(LogStreamsCfg config)
+    {
+        this.compactionInterval = Duration.ofSeconds(config.compactionInterval);
+        this.archiveDirectory = config.compactionArchiveDirectory != null ? new File(config.compactionArchiveDirectory) : null;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "log-compaction";
+    }
+
+    @Override
+    public void start(ServiceStartContext startContext)
+    {
+        streamProcessorServiceFactory = streamProcessorServiceFactoryInjector.getValue();
+        logStreamsManager = logStreamsManagerInjector.getValue();
+        metricsManager = startContext.getScheduler().getMetricsManager();
+
+        startContext.async(startContext.getScheduler().submitActor(this, SchedulingHints.isIoBound(0)));
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        stopContext.async(actor.close());
+    }
+
+    @Override
+    public LogCompactionService get()
+    {
+        return this;
+    }
+
+    @Override
+    protected void onActorStarting()
+    {
+        actor.setPriority(ActorPriority.LOW);
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        actor.runAtFixedRate(compactionInterval, this::compactLogs);
+    }
+
+    @Override
+    protected void onActorClosing()
+    {
+        compactorsByPartition.values().forEach(LogCompactor::close);
+        compactorsByPartition.clear();
+    }
+
+    protected void onRaftAdded(Raft raft)
+    {
+        actor.call(() ->
+        {
+            final LogStream logStream = raft.getLogStream();
+
+            if (logStream.getPartitionId() == Protocol.SYSTEM_PARTITION)
+            {
+                return;
+            }
+
+            raftsByPartition.put(logStream.getPartitionId(), raft);
+
+            final LogStreamSettings logSettings = logStreamsManager.getLogSettings(logStream.getPartitionId());
+            final LogCompactionPolicy policy = logSettings != null ? logSettings.getCompactionPolicy() : LogCompactionPolicy.DEFAULT;
+
+            if (policy == LogCompactionPolicy.RETAIN)
+            {
+                LOG.debug("Log {} is retained, it is not compacted", logStream.getLogName());
+                return;
+            }
+            else if (policy == LogCompactionPolicy.ARCHIVE && archiveDirectory == null)
+            {
+                LOG.warn("Log {} should be archived on compaction but no archive directory is configured, it is not compacted", logStream.getLogName());
+                return;
+            }
+
+            final File compactionArchiveDirectory = policy == LogCompactionPolicy.DELETE ? null : archiveDirectory;
+
+            final LogRetention retention = streamProcessorServiceFactory.getLogRetention(logStream.getLogName());
+            final LogCompactor compactor = new LogCompactor(logStream, retention, compactionArchiveDirectory, metricsManager);
+
+            compactorsByPartition.put(logStream.getPartitionId(), compactor);
+        });
+    }
+
+    protected void onRaftRemoved(Raft raft)
+    {
+        actor.call(() ->
+        {
+            final int partitionId = raft.getLogStream().getPartitionId();
+
+            raftsByPartition.remove(partitionId);
+
+            final LogCompactor compactor = compactorsByPartition.remove(partitionId);
+
+            if (compactor != null)
+            {
+                compactor.close();
+            }
+        });
+    }
+
+    protected void compactLogs()
+    {
+        for (LogCompactor compactor : compactorsByPartition.values())
+        {
+            try
+            {
+                final long replicatedPosition = getReplicatedPosition(compactor.getPartitionId());
+
+                if (replicatedPosition >= 0)
+                {
+                    compactor.compact(replicatedPosition);
+                }
+            }
+            catch (Exception e)
+            {
+                LOG.error("Failed to compact log", e);
+            }
+        }
+    }
+
+    /**
+     * @return on the leader, the lowest position which is replicated to all members of the partition;
+     *         on a follower, its own commit position; or -1 if it is unknown
+     */
+    protected long getReplicatedPosition(int partitionId)
+    {
+        final Raft raft = raftsByPartition.get(partitionId);
+
+        if (raft == null)
+        {
+            return -1;
+        }
+
+        long replicatedPosition = raft.getLogStream().getCommitPosition();
+
+        if (raft.getState() == RaftState.FOLLOWER)
+        {
+            // a follower only knows its own position, its log is not read by other members
+            return replicatedPosition;
+        }
+        else if (raft.getState() != RaftState.LEADER)
+        {
+            return -1;
+        }
+
+        final List<RaftMember> members = raft.getMembers();
+        for (int i = 0; i < members.size(); i++)
+        {
+            replicatedPosition = Math.min(replicatedPosition, members.get(i).getMatchPosition());
+        }
+
+        return replicatedPosition;
+    }
+
+    public Injector<StreamProcessorServiceFactory> getStreamProcessorServiceFactoryInjector()
+    {
+        return streamProcessorServiceFactoryInjector;
+    }
+
+    public Injector<LogStreamsManager> getLogStreamsManagerInjector()
+    {
+        return logStreamsManagerInjector;
+    }
+
+    public ServiceGroupReference<Raft> getRaftGroupReference()
+    {
+        return raftGroupReference;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import org.slf4j.Logger;
+
+/**
+ * Removes the segments of a log stream which are completely before the lowest retained position
+ * of its consumers and before the lowest position which is replicated to all raft members. The log
+ * is not compacted until a stream processor retains the position of its snapshot.
+ * <p>
+ * The segments are removed by the log storage, so that it does not keep references to them. If
+ * an archive directory is given, the segments are copied into it before.
+ */
+public class LogCompactor
+{
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    protected static final Pattern SEGMENT_FILE_PATTERN = Pattern.compile("(\\d+)\\.data");
+
+    protected final LogStream logStream;
+    protected final LogRetention retention;
+    protected final File archiveDirectory;
+
+    protected final Metric reclaimedBytesMetric;
+    protected final Metric compactedSegmentsMetric;
+
+    protected final List<File> compactableSegments = new ArrayList<>();
+    protected final List<Long> compactableSegmentLengths = new ArrayList<>();
+
+    protected long reclaimedBytes = 0;
+    protected long compactedSegments = 0;
+
+    public LogCompactor(LogStream logStream, LogRetention retention, File archiveDirectory, MetricsManager metricsManager)
+    {
+        this.logStream = logStream;
+        this.retention = retention;
+        this.archiveDirectory = archiveDirectory;
+
+        final String topicName = BufferUtil.bufferAsString(logStream.getTopicName());
+        final String partitionId = Integer.toString(logStream.getPartitionId());
+
+        reclaimedBytesMetric = metricsManager.newMetric("log_compaction_reclaimed_bytes")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .create();
+
+        compactedSegmentsMetric = metricsManager.newMetric("log_compaction_segments_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .create();
+    }
+
+    /**
+     * @param replicatedPosition the lowest position which is replicated to all members of the partition
+     * @return the number of bytes which are reclaimed by this run
+     */
+    public long compact(long replicatedPosition)
+    {
+        if (!retention.hasSnapshotConsumers())
+        {
+            // without the snapshots of the stream processors, it is unknown which part of the log is
+            // still required to replay their state, e.g. on a follower which never processed the log
+            return 0;
+        }
+
+        final long retainedPosition = Math.min(retention.getLowestRetainedPosition(), replicatedPosition);
+        if (retainedPosition < 0)
+        {
+            return 0;
+        }
+
+        final long retainedAddress = logStream.getLogBlockIndex().lookupBlockAddress(retainedPosition);
+        if (retainedAddress < 0)
+        {
+            return 0;
+        }
+
+        collectCompactableSegments(segmentId(retainedAddress));
+
+        if (compactableSegments.isEmpty())
+        {
+            return 0;
+        }
+
+        if (archiveDirectory != null && !archiveSegments())
+        {
+            return 0;
+        }
+
+        logStream.getLogStorage().delete(retainedAddress);
+
+        long reclaimed = 0;
+
+        for (int i = 0; i < compactableSegments.size(); i++)
+        {
+            final File segmentFile = compactableSegments.get(i);
+
+            if (!segmentFile.exists())
+            {
+                reclaimed += compactableSegmentLengths.get(i);
+                compactedSegments += 1;
+
+                deleteChecksumFile(segmentFile);
+            }
+        }
+
+        compactableSegments.clear();
+        compactableSegmentLengths.clear();
+
+        if (reclaimed > 0)
+        {
+            reclaimedBytes += reclaimed;
+
+            reclaimedBytesMetric.setOrdered(reclaimedBytes);
+            compactedSegmentsMetric.setOrdered(compactedSegments);
+
+            LOG.debug("Compacted log {} up to position {}, reclaimed {} bytes.", logStream.getLogName(), retainedPosition, reclaimed);
+        }
+
+        return reclaimed;
+    }
+
+    protected void collectCompactableSegments(int retainedSegmentId)
+    {
+        compactableSegments.clear();
+        compactableSegmentLengths.clear();
+
+        final File[] segmentFiles = getLogDirectory().listFiles();
+        if (segmentFiles != null)
+        {
+            for (File segmentFile : segmentFiles)
+            {
+                final Matcher matcher = SEGMENT_FILE_PATTERN.matcher(segmentFile.getName());
+
+                if (matcher.matches() && Integer.parseInt(matcher.group(1)) < retainedSegmentId)
+                {
+                    compactableSegments.add(segmentFile);
+                    compactableSegmentLengths.add(segmentFile.length());
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the compactable segments into the archive directory. The segments are sealed, so
+     * they can be copied while the storage is open.
+     */
+    protected boolean archiveSegments()
+    {
+        final File logArchiveDirectory = new File(archiveDirectory, logStream.getLogName());
+
+        try
+        {
+            Files.createDirectories(logArchiveDirectory.toPath());
+
+            for (int i = 0; i < compactableSegments.size(); i++)
+            {
+                final File segmentFile = compactableSegments.get(i);
+                final File checksumFile = LogSegmentChecksums.checksumFile(segmentFile);
+
+                Files.copy(segmentFile.toPath(), new File(logArchiveDirectory, segmentFile.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+                if (checksumFile.exists())
+                {
+                    Files.copy(checksumFile.toPath(), new File(logArchiveDirectory, checksumFile.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return true;
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Failed to archive log segments of {}, skip compaction", logStream.getLogName(), e);
+            return false;
+        }
+    }
+
+    protected void deleteChecksumFile(File segmentFile)
+    {
+        try
+        {
+            Files.deleteIfExists(LogSegmentChecksums.checksumFile(segmentFile).toPath());
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Failed to delete checksum of log segment {}", segmentFile, e);
+        }
+    }
+
+    protected File getLogDirectory()
+    {
+        final FsLogStorage logStorage = (FsLogStorage) logStream.getLogStorage();
+        return new File(logStorage.getConfig().getPath());
+    }
+
+    public int getPartitionId()
+    {
+        return logStream.getPartitionId();
+    }
+
+    public long getReclaimedBytes()
+    {
+        return reclaimedBytes;
+    }
+
+    public void close()
+    {
+        reclaimedBytesMetric.close();
+        compactedSegmentsMetric.close();
+    }
+
+    /**
+     * The file log storage encodes the segment id in the upper half of an address.
+     */
+    protected static int segmentId(long address)
+    {
+        return (int) (address >>> 32);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import io.zeebe.broker.clustering.raft.RaftPersistentFileStorage;
+import io.zeebe.broker.system.ConfigurationManagerImpl;
+import io.zeebe.broker.transport.cfg.TransportComponentCfg;
+
+/**
+ * Moves the log segments of a partition to another log directory. Must only be used while the broker is offline.
+ *
+ * <p>
+ * Usage: <code>LogDirectoryMigration &lt;config file&gt; &lt;log name&gt; &lt;target directory&gt;</code>,
+ * e.g. <code>LogDirectoryMigration conf/zeebe.cfg.toml default-topic-1 /mnt/disk2/logs</code>
+ */
+public class LogDirectoryMigration
+{
+    protected final String managementDirectory;
+
+    public LogDirectoryMigration(String managementDirectory)
+    {
+        this.managementDirectory = managementDirectory;
+    }
+
+    /**
+     * @return the new log directory of the partition
+     */
+    public String migrate(String logName, String targetDirectory) throws IOException
+    {
+        final File metaFile = new File(managementDirectory, logName + ".meta");
+        if (!metaFile.exists())
+        {
+            throw new IllegalArgumentException(String.format("No partition with log name '%s' found in %s", logName, managementDirectory));
+        }
+
+        final RaftPersistentFileStorage storage = new RaftPersistentFileStorage(metaFile.getAbsolutePath());
+
+        final Path source = Paths.get(storage.getLogDirectory());
+        final Path target = Paths.get(targetDirectory, logName);
+
+        if (source.equals(target))
+        {
+            return target.toString();
+        }
+
+        if (Files.exists(target))
+        {
+            throw new IllegalStateException(String.format("Target directory %s already exists", target));
+        }
+
+        Files.createDirectories(target.getParent());
+
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            // the directories are on different file systems
+            copyDirectory(source, target);
+            deleteDirectory(source);
+        }
+
+        // the partition is opened from the new directory on the next start
+        storage.setLogDirectory(target.toString()).save();
+
+        return target.toString();
+    }
+
+    protected static void copyDirectory(Path source, Path target) throws IOException
+    {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+            {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException
+            {
+                final Path targetFile = target.resolve(source.relativize(file));
+                Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+
+                // make sure that the segment is persisted before the source is deleted
+                try (FileChannel channel = FileChannel.open(targetFile, StandardOpenOption.WRITE))
+                {
+                    channel.force(true);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    protected static void deleteDirectory(Path directory) throws IOException
+    {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException
+            {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException
+            {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 3)
+        {
+            System.err.println("Usage: LogDirectoryMigration <config file> <log name> <target directory>");
+            System.exit(1);
+        }
+
+        final ConfigurationManagerImpl configurationManager = new ConfigurationManagerImpl(args[0]);
+        final TransportComponentCfg transportComponentCfg = configurationManager.readEntry("network", TransportComponentCfg.class);
+
+        final LogDirectoryMigration migration = new LogDirectoryMigration(transportComponentCfg.management.directory);
+        final String newDirectory = migration.migrate(args[1], new File(args[2]).getCanonicalPath());
+
+        System.out.println(String.format("Moved log %s to %s", args[1], newDirectory));
+    }
+}
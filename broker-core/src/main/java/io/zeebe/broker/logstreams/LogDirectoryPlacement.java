@@ -0,0 +1,321 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.io.File;
+
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+
+/**
+ * Selects the log directory of a new partition. Each directory is scored by the number of partitions
+ * it holds, its used space and the write throughput observed on its disk since the last sample.
+ * The directory with the lowest score is selected. Directories whose usable space is below the
+ * configured minimum are only selected if no other directory is left.
+ */
+public class LogDirectoryPlacement
+{
+    protected final LogDirectory[] directories;
+    protected final long minUsableSpace;
+
+    protected long lastSampleTime = -1;
+
+    public LogDirectoryPlacement(String[] directories, long minUsableSpace)
+    {
+        this.directories = new LogDirectory[directories.length];
+        this.minUsableSpace = minUsableSpace;
+
+        for (int i = 0; i < directories.length; i++)
+        {
+            this.directories[i] = new LogDirectory(directories[i]);
+        }
+    }
+
+    public synchronized void openMetrics(MetricsManager metricsManager)
+    {
+        for (LogDirectory directory : directories)
+        {
+            directory.openMetrics(metricsManager);
+        }
+    }
+
+    public synchronized void closeMetrics()
+    {
+        for (LogDirectory directory : directories)
+        {
+            directory.closeMetrics();
+        }
+    }
+
+    /**
+     * Selects a directory for a new partition and counts the partition for this directory.
+     *
+     * @return the selected directory
+     */
+    public synchronized String selectDirectory()
+    {
+        sampleSpace();
+
+        final long maxPartitions = maxPartitionCount();
+        final long maxThroughput = maxWriteThroughput();
+
+        LogDirectory selected = null;
+        double selectedScore = Double.MAX_VALUE;
+        boolean selectedHasSpace = false;
+
+        for (LogDirectory directory : directories)
+        {
+            final boolean hasSpace = directory.usableSpace >= minUsableSpace;
+            final double score = directory.score(maxPartitions, maxThroughput);
+
+            // prefer directories with enough space, then the lowest score
+            if (selected == null || (hasSpace && !selectedHasSpace) || (hasSpace == selectedHasSpace && score < selectedScore))
+            {
+                selected = directory;
+                selectedScore = score;
+                selectedHasSpace = hasSpace;
+            }
+        }
+
+        selected.addPartition();
+
+        return selected.path;
+    }
+
+    /**
+     * Counts an existing partition for the configured directory which contains the given log directory.
+     */
+    public synchronized void registerPartition(String logDirectory)
+    {
+        final LogDirectory directory = containingDirectory(logDirectory);
+        if (directory != null)
+        {
+            directory.addPartition();
+        }
+    }
+
+    /**
+     * Stops counting a removed partition for the configured directory which contains the given log directory.
+     */
+    public synchronized void unregisterPartition(String logDirectory)
+    {
+        final LogDirectory directory = containingDirectory(logDirectory);
+        if (directory != null)
+        {
+            directory.removePartition();
+        }
+    }
+
+    protected LogDirectory containingDirectory(String logDirectory)
+    {
+        for (LogDirectory directory : directories)
+        {
+            if (logDirectory.equals(directory.path) || logDirectory.startsWith(directory.path + File.separator))
+            {
+                return directory;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Samples the free space and the write throughput of the directories and updates the metrics.
+     */
+    public synchronized void sample(long now)
+    {
+        sampleSpace();
+
+        if (lastSampleTime >= 0 && now > lastSampleTime)
+        {
+            final long interval = now - lastSampleTime;
+
+            for (LogDirectory directory : directories)
+            {
+                directory.sampleWriteThroughput(interval);
+            }
+        }
+        else
+        {
+            for (LogDirectory directory : directories)
+            {
+                directory.lastUsedSpace = directory.usedSpace;
+            }
+        }
+
+        lastSampleTime = now;
+    }
+
+    protected void sampleSpace()
+    {
+        for (LogDirectory directory : directories)
+        {
+            directory.sampleSpace();
+        }
+    }
+
+    protected long maxPartitionCount()
+    {
+        long max = 0;
+        for (LogDirectory directory : directories)
+        {
+            max = Math.max(max, directory.partitionCount);
+        }
+        return max;
+    }
+
+    protected long maxWriteThroughput()
+    {
+        long max = 0;
+        for (LogDirectory directory : directories)
+        {
+            max = Math.max(max, directory.writeThroughput);
+        }
+        return max;
+    }
+
+    protected static class LogDirectory
+    {
+        protected final String path;
+        protected final File file;
+
+        protected long partitionCount;
+        protected long totalSpace;
+        protected long usableSpace;
+        protected long usedSpace;
+        protected long lastUsedSpace;
+
+        /**
+         * bytes per second
+         */
+        protected long writeThroughput;
+
+        protected Metric partitionsMetric;
+        protected Metric usableSpaceMetric;
+        protected Metric utilizationMetric;
+        protected Metric writeThroughputMetric;
+
+        LogDirectory(String path)
+        {
+            this.path = path;
+            this.file = new File(path);
+        }
+
+        void openMetrics(MetricsManager metricsManager)
+        {
+            partitionsMetric = metricsManager.newMetric("log_directory_partitions_count")
+                .type("gauge")
+                .label("directory", path)
+                .create();
+
+            usableSpaceMetric = metricsManager.newMetric("log_directory_usable_bytes")
+                .type("gauge")
+                .label("directory", path)
+                .create();
+
+            utilizationMetric = metricsManager.newMetric("log_directory_utilization_percent")
+                .type("gauge")
+                .label("directory", path)
+                .create();
+
+            writeThroughputMetric = metricsManager.newMetric("log_directory_write_bytes_per_second")
+                .type("gauge")
+                .label("directory", path)
+                .create();
+
+            updateMetrics();
+        }
+
+        void closeMetrics()
+        {
+            if (partitionsMetric != null)
+            {
+                partitionsMetric.close();
+                usableSpaceMetric.close();
+                utilizationMetric.close();
+                writeThroughputMetric.close();
+
+                partitionsMetric = null;
+            }
+        }
+
+        void addPartition()
+        {
+            partitionCount++;
+            updateMetrics();
+        }
+
+        void removePartition()
+        {
+            if (partitionCount > 0)
+            {
+                partitionCount--;
+                updateMetrics();
+            }
+        }
+
+        void sampleSpace()
+        {
+            // the directory may not exist yet, so fall back to the closest existing parent
+            File existingFile = file;
+            while (existingFile != null && !existingFile.exists())
+            {
+                existingFile = existingFile.getParentFile();
+            }
+
+            if (existingFile != null)
+            {
+                totalSpace = existingFile.getTotalSpace();
+                usableSpace = existingFile.getUsableSpace();
+                usedSpace = totalSpace - usableSpace;
+            }
+
+            updateMetrics();
+        }
+
+        void sampleWriteThroughput(long intervalMillis)
+        {
+            // the used space of the disk may shrink by compaction, which does not count as throughput
+            final long written = Math.max(0, usedSpace - lastUsedSpace);
+            writeThroughput = written * 1000 / intervalMillis;
+            lastUsedSpace = usedSpace;
+
+            updateMetrics();
+        }
+
+        double score(long maxPartitions, long maxThroughput)
+        {
+            final double partitionLoad = maxPartitions > 0 ? (double) partitionCount / maxPartitions : 0;
+            final double spaceLoad = totalSpace > 0 ? (double) usedSpace / totalSpace : 0;
+            final double writeLoad = maxThroughput > 0 ? (double) writeThroughput / maxThroughput : 0;
+
+            return partitionLoad + spaceLoad + writeLoad;
+        }
+
+        void updateMetrics()
+        {
+            if (partitionsMetric != null)
+            {
+                partitionsMetric.setOrdered(partitionCount);
+                usableSpaceMetric.setOrdered(usableSpace);
+                utilizationMetric.setOrdered(totalSpace > 0 ? usedSpace * 100 / totalSpace : 0);
+                writeThroughputMetric.setOrdered(writeThroughput);
+            }
+        }
+    }
+}
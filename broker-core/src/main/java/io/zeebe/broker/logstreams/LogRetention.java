@@ -0,0 +1,97 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Positions of a log stream which are still required by its consumers (e.g. stream processors
+ * or topic subscriptions). The log before the lowest retained position can be compacted.
+ * <p>
+ * Stream processors retain the position of their last snapshot. The log is only compacted
+ * when at least one of them retains a position. Otherwise, e.g. on a follower, only topic
+ * subscriptions retain positions, and the log may still be needed to replay the state.
+ * <p>
+ * Consumers retain and release positions from their own threads.
+ */
+public class LogRetention
+{
+    /**
+     * position to retain if a consumer requires the complete log, e.g. before it wrote its first snapshot
+     */
+    public static final long RETAIN_ALL = -1L;
+
+    protected final Map<String, Long> retainedPositions = new ConcurrentHashMap<>();
+    protected final Set<String> snapshotConsumers = ConcurrentHashMap.newKeySet();
+
+    public void retain(String consumer, long position)
+    {
+        retainedPositions.put(consumer, Math.max(position, RETAIN_ALL));
+    }
+
+    /**
+     * Retains the log for a stream processor, which recovers its state from the snapshot at the given
+     * position and replays the log from there on.
+     */
+    public void retainSnapshot(String processor, long position)
+    {
+        snapshotConsumers.add(processor);
+        retain(processor, position);
+    }
+
+    public void retainIfAbsent(String consumer, long position)
+    {
+        retainedPositions.putIfAbsent(consumer, Math.max(position, RETAIN_ALL));
+    }
+
+    public void release(String consumer)
+    {
+        retainedPositions.remove(consumer);
+        snapshotConsumers.remove(consumer);
+    }
+
+    public boolean hasConsumers()
+    {
+        return !retainedPositions.isEmpty();
+    }
+
+    /**
+     * @return true if a stream processor retains the position of its snapshot
+     */
+    public boolean hasSnapshotConsumers()
+    {
+        return !snapshotConsumers.isEmpty();
+    }
+
+    /**
+     * @return the lowest position retained by any consumer or {@link Long#MAX_VALUE} if there are no consumers
+     */
+    public long getLowestRetainedPosition()
+    {
+        long lowestPosition = Long.MAX_VALUE;
+
+        for (Long position : retainedPositions.values())
+        {
+            lowestPosition = Math.min(lowestPosition, position);
+        }
+
+        return lowestPosition;
+    }
+}
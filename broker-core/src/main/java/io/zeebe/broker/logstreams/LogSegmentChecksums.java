@@ -0,0 +1,232 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Checksum;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.util.Checksums;
+import org.slf4j.Logger;
+
+/**
+ * Maintains the checksums of the sealed segments of a log, i.e. all segments except the one
+ * which is currently written. The checksum of a segment is stored in a file next to it, so
+ * appending to the log is not affected.
+ *
+ * <p>
+ * Not thread-safe, the read buffer is reused.
+ *
+ * <p>
+ * A checksum is stale if the segment was modified after it was computed (e.g. when raft truncates
+ * the log). Stale checksums are recomputed and never reported as corruption.
+ */
+public class LogSegmentChecksums
+{
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    public static final String CHECKSUM_FILE_SUFFIX = ".crc";
+
+    protected static final Pattern SEGMENT_FILE_PATTERN = Pattern.compile("(\\d+)\\.data");
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * Writes the checksums of the sealed segments which have none or a stale one.
+     *
+     * @return the number of written checksums
+     */
+    public int update(File logDirectory) throws IOException
+    {
+        int written = 0;
+
+        for (File segment : sealedSegments(logDirectory))
+        {
+            final SegmentChecksum checksum = readChecksum(segment);
+
+            if (checksum == null || checksum.isStale(segment))
+            {
+                writeChecksum(segment, computeChecksum(segment, Checksums.defaultAlgorithm()));
+                written += 1;
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Verifies the sealed segments against their checksums. Segments without a checksum,
+     * with a stale one or with one of an algorithm which is not supported by this JVM are not verified.
+     *
+     * @return the corrupted segments
+     */
+    public List<File> verify(File logDirectory) throws IOException
+    {
+        final List<File> corruptedSegments = new ArrayList<>();
+
+        for (File segment : sealedSegments(logDirectory))
+        {
+            final SegmentChecksum checksum = readChecksum(segment);
+
+            if (checksum != null && !checksum.isStale(segment))
+            {
+                if (!Checksums.isSupported(checksum.algorithm))
+                {
+                    LOG.warn("Skip verification of log segment {}, its checksum algorithm {} is not supported by this JVM", segment, checksum.algorithm);
+                    continue;
+                }
+
+                final SegmentChecksum actualChecksum = computeChecksum(segment, checksum.algorithm);
+
+                if (actualChecksum.checksum != checksum.checksum && !checksum.isStale(segment))
+                {
+                    corruptedSegments.add(segment);
+                }
+            }
+        }
+
+        return corruptedSegments;
+    }
+
+    protected List<File> sealedSegments(File logDirectory)
+    {
+        final List<File> segments = new ArrayList<>();
+        final File[] files = logDirectory.listFiles();
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                if (SEGMENT_FILE_PATTERN.matcher(file.getName()).matches())
+                {
+                    segments.add(file);
+                }
+            }
+        }
+
+        segments.sort(Comparator.comparingInt(LogSegmentChecksums::segmentId));
+
+        if (!segments.isEmpty())
+        {
+            // the last segment is still written
+            segments.remove(segments.size() - 1);
+        }
+
+        return segments;
+    }
+
+    protected SegmentChecksum computeChecksum(File segment, byte algorithm) throws IOException
+    {
+        final long lastModified = segment.lastModified();
+        final Checksum checksum = Checksums.newChecksum(algorithm);
+        long length = 0;
+
+        try (InputStream in = new FileInputStream(segment))
+        {
+            int read;
+            while ((read = in.read(buffer)) > 0)
+            {
+                checksum.update(buffer, 0, read);
+                length += read;
+            }
+        }
+
+        return new SegmentChecksum(algorithm, length, lastModified, checksum.getValue());
+    }
+
+    protected SegmentChecksum readChecksum(File segment) throws IOException
+    {
+        final File checksumFile = checksumFile(segment);
+
+        if (!checksumFile.exists())
+        {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(checksumFile)))
+        {
+            final byte algorithm = in.readByte();
+            final long length = in.readLong();
+            final long lastModified = in.readLong();
+            final long checksum = in.readLong();
+
+            return new SegmentChecksum(algorithm, length, lastModified, checksum);
+        }
+        catch (EOFException e)
+        {
+            // incompletely written, it is replaced on the next update
+            return null;
+        }
+    }
+
+    protected void writeChecksum(File segment, SegmentChecksum checksum) throws IOException
+    {
+        final File checksumFile = checksumFile(segment);
+        final File tmpFile = new File(checksumFile.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmpFile)))
+        {
+            out.writeByte(checksum.algorithm);
+            out.writeLong(checksum.length);
+            out.writeLong(checksum.lastModified);
+            out.writeLong(checksum.checksum);
+        }
+
+        Files.move(tmpFile.toPath(), checksumFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static File checksumFile(File segment)
+    {
+        return new File(segment.getPath() + CHECKSUM_FILE_SUFFIX);
+    }
+
+    protected static int segmentId(File segment)
+    {
+        final Matcher matcher = SEGMENT_FILE_PATTERN.matcher(segment.getName());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    protected static class SegmentChecksum
+    {
+        protected final byte algorithm;
+        protected final long length;
+        protected final long lastModified;
+        protected final long checksum;
+
+        SegmentChecksum(byte algorithm, long length, long lastModified, long checksum)
+        {
+            this.algorithm = algorithm;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        boolean isStale(File segment)
+        {
+            return segment.length() != length || segment.lastModified() != lastModified;
+        }
+    }
+}
@@ -31,13 +31,25 @@ public class LogStreamServiceNames
 
     public static final ServiceName<StreamProcessorServiceFactory> STREAM_PROCESSOR_SERVICE_FACTORY = ServiceName.newServiceName("logstreams.processor-factory", StreamProcessorServiceFactory.class);
 
+    public static final ServiceName<LogCompactionService> LOG_COMPACTION_SERVICE = ServiceName.newServiceName("logstreams.compaction", LogCompactionService.class);
+
     public static final ServiceName<LogStream> WORKFLOW_STREAM_GROUP = ServiceName.newServiceName("logstreams.worfklow", LogStream.class);
 
     public static final ServiceName<LogStream> SYSTEM_STREAM_GROUP = ServiceName.newServiceName("logstreams.system", LogStream.class);
 
+    /**
+     * Group of workflow log streams which this broker replicates as raft follower. These log streams are read-only.
+     */
+    public static final ServiceName<LogStream> WORKFLOW_FOLLOWER_STREAM_GROUP = ServiceName.newServiceName("logstreams.workflow.follower", LogStream.class);
+
     public static final ServiceName<LogStream> logStreamServiceName(String logName)
     {
         return ServiceName.newServiceName(String.format("log.%s", logName), LogStream.class);
     }
 
+    public static final ServiceName<LogStream> followerLogStreamServiceName(String logName)
+    {
+        return ServiceName.newServiceName(String.format("log.follower.%s", logName), LogStream.class);
+    }
+
 }
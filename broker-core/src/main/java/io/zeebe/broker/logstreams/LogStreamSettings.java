@@ -0,0 +1,188 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import java.util.Objects;
+
+/**
+ * The log settings of a topic's partitions. Sizes are in bytes. A size of <code>0</code>
+ * and {@link LogCompactionPolicy#DEFAULT} mean that the setting is not specified.
+ */
+public class LogStreamSettings
+{
+    public static final int MIN_LOG_SEGMENT_SIZE = 1024 * 1024;
+    public static final int MIN_INDEX_BLOCK_SIZE = 4 * 1024;
+    public static final int MIN_WRITE_BUFFER_SIZE = 1024 * 1024;
+
+    protected int logSegmentSize;
+    protected int indexBlockSize;
+    protected int writeBufferSize;
+    protected LogCompactionPolicy compactionPolicy = LogCompactionPolicy.DEFAULT;
+
+    public int getLogSegmentSize()
+    {
+        return logSegmentSize;
+    }
+
+    public LogStreamSettings logSegmentSize(int logSegmentSize)
+    {
+        this.logSegmentSize = logSegmentSize;
+        return this;
+    }
+
+    public int getIndexBlockSize()
+    {
+        return indexBlockSize;
+    }
+
+    public LogStreamSettings indexBlockSize(int indexBlockSize)
+    {
+        this.indexBlockSize = indexBlockSize;
+        return this;
+    }
+
+    public int getWriteBufferSize()
+    {
+        return writeBufferSize;
+    }
+
+    public LogStreamSettings writeBufferSize(int writeBufferSize)
+    {
+        this.writeBufferSize = writeBufferSize;
+        return this;
+    }
+
+    public LogCompactionPolicy getCompactionPolicy()
+    {
+        return compactionPolicy;
+    }
+
+    public LogStreamSettings compactionPolicy(LogCompactionPolicy compactionPolicy)
+    {
+        this.compactionPolicy = compactionPolicy;
+        return this;
+    }
+
+    public LogStreamSettings wrap(LogStreamSettings other)
+    {
+        this.logSegmentSize = other.logSegmentSize;
+        this.indexBlockSize = other.indexBlockSize;
+        this.writeBufferSize = other.writeBufferSize;
+        this.compactionPolicy = other.compactionPolicy;
+        return this;
+    }
+
+    /**
+     * Takes over the settings of the given ones which are not specified in this settings.
+     */
+    public LogStreamSettings applyDefaults(LogStreamSettings defaults)
+    {
+        if (logSegmentSize <= 0)
+        {
+            logSegmentSize = defaults.logSegmentSize;
+        }
+        if (indexBlockSize <= 0)
+        {
+            indexBlockSize = defaults.indexBlockSize;
+        }
+        if (writeBufferSize <= 0)
+        {
+            writeBufferSize = defaults.writeBufferSize;
+        }
+        if (compactionPolicy == LogCompactionPolicy.DEFAULT)
+        {
+            compactionPolicy = defaults.compactionPolicy;
+        }
+        return this;
+    }
+
+    /**
+     * Checks the specified settings against the minimum sizes. If both are specified, the write buffer
+     * must fit into a log segment and an index block must not be larger than a log segment.
+     *
+     * @return a description of the first violated constraint, or <code>null</code> if the settings are valid
+     */
+    public String validate()
+    {
+        if (logSegmentSize < 0 || (logSegmentSize > 0 && logSegmentSize < MIN_LOG_SEGMENT_SIZE))
+        {
+            return "log segment size must be at least " + MIN_LOG_SEGMENT_SIZE + " bytes, but is " + logSegmentSize;
+        }
+        if (indexBlockSize < 0 || (indexBlockSize > 0 && indexBlockSize < MIN_INDEX_BLOCK_SIZE))
+        {
+            return "index block size must be at least " + MIN_INDEX_BLOCK_SIZE + " bytes, but is " + indexBlockSize;
+        }
+        if (writeBufferSize < 0 || (writeBufferSize > 0 && writeBufferSize < MIN_WRITE_BUFFER_SIZE))
+        {
+            return "write buffer size must be at least " + MIN_WRITE_BUFFER_SIZE + " bytes, but is " + writeBufferSize;
+        }
+        if (logSegmentSize > 0 && writeBufferSize > logSegmentSize)
+        {
+            return "write buffer size must not be larger than the log segment size";
+        }
+        if (logSegmentSize > 0 && indexBlockSize > logSegmentSize)
+        {
+            return "index block size must not be larger than the log segment size";
+        }
+        return null;
+    }
+
+    public void reset()
+    {
+        logSegmentSize = 0;
+        indexBlockSize = 0;
+        writeBufferSize = 0;
+        compactionPolicy = LogCompactionPolicy.DEFAULT;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        final LogStreamSettings that = (LogStreamSettings) o;
+        return logSegmentSize == that.logSegmentSize &&
+            indexBlockSize == that.indexBlockSize &&
+            writeBufferSize == that.writeBufferSize &&
+            compactionPolicy == that.compactionPolicy;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(logSegmentSize, indexBlockSize, writeBufferSize, compactionPolicy);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LogStreamSettings{" +
+            "logSegmentSize=" + logSegmentSize +
+            ", indexBlockSize=" + indexBlockSize +
+            ", writeBufferSize=" + writeBufferSize +
+            ", compactionPolicy=" + compactionPolicy +
+            "}";
+    }
+}
@@ -19,12 +19,16 @@ package io.zeebe.broker.logstreams;
 
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.*;
 
+import io.zeebe.broker.clustering.ClusterServiceNames;
 import io.zeebe.broker.event.TopicSubscriptionServiceNames;
 import io.zeebe.broker.event.processor.TopicSubscriptionService;
+import io.zeebe.broker.logstreams.cfg.LogStreamsCfg;
+import io.zeebe.broker.logstreams.cfg.SnapshotStorageCfg;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.system.Component;
 import io.zeebe.broker.system.SystemContext;
 import io.zeebe.broker.transport.TransportServiceNames;
+import io.zeebe.broker.transport.cfg.TransportComponentCfg;
 import io.zeebe.servicecontainer.ServiceContainer;
 
 public class LogStreamsComponent implements Component
@@ -35,10 +39,12 @@ public class LogStreamsComponent implements Component
     {
         final ServiceContainer serviceContainer = context.getServiceContainer();
 
-        final LogStreamsManagerService streamsManager = new LogStreamsManagerService(context.getConfigurationManager(), serviceContainer);
+        final LogStreamsManagerService streamsManager = new LogStreamsManagerService(context.getConfigurationManager(), serviceContainer, context.getDirectMemoryAccountant());
         serviceContainer.createService(LOG_STREAMS_MANAGER_SERVICE, streamsManager)
             .install();
 
+        final SnapshotStorageCfg snapshotCfg = context.getConfigurationManager().readEntry("snapshot", SnapshotStorageCfg.class);
+
         final SnapshotStorageService snapshotStorageService = new SnapshotStorageService(context.getConfigurationManager());
         serviceContainer.createService(SNAPSHOT_STORAGE_SERVICE, snapshotStorageService)
             .install();
@@ -48,15 +54,40 @@ public class LogStreamsComponent implements Component
             .createService(TopicSubscriptionServiceNames.TOPIC_SUBSCRIPTION_SERVICE, topicSubscriptionService)
             .dependency(TransportServiceNames.serverTransport(TransportServiceNames.CLIENT_API_SERVER_NAME), topicSubscriptionService.getClientApiTransportInjector())
             .dependency(LogStreamServiceNames.STREAM_PROCESSOR_SERVICE_FACTORY, topicSubscriptionService.getStreamProcessorServiceFactoryInjector())
+            .dependency(TransportServiceNames.CLIENT_API_MESSAGE_HANDLER, topicSubscriptionService.getClientApiMessageHandlerInjector())
             .groupReference(LogStreamServiceNames.WORKFLOW_STREAM_GROUP, topicSubscriptionService.getLogStreamsGroupReference())
+            .groupReference(LogStreamServiceNames.WORKFLOW_FOLLOWER_STREAM_GROUP, topicSubscriptionService.getFollowerLogStreamsGroupReference())
             .install();
 
-        final StreamProcessorServiceFactory streamProcessorFactory = new StreamProcessorServiceFactory(serviceContainer);
+        final TransportComponentCfg transportComponentCfg = context.getConfigurationManager().readEntry("network", TransportComponentCfg.class);
+        final StreamProcessorServiceFactory streamProcessorFactory = new StreamProcessorServiceFactory(
+                serviceContainer,
+                snapshotCfg,
+                context.getHistogramManager(),
+                context.getEventTracer(),
+                context.getDirectMemoryAccountant(),
+                context.getPartitionSchedulers(),
+                transportComponentCfg.management.getRecoveryParallelism());
         serviceContainer
             .createService(STREAM_PROCESSOR_SERVICE_FACTORY, streamProcessorFactory)
             .dependency(SNAPSHOT_STORAGE_SERVICE, streamProcessorFactory.getSnapshotStorageInjector())
+            .groupReference(LogStreamServiceNames.WORKFLOW_STREAM_GROUP, streamProcessorFactory.getLogStreamsGroupReference())
+            .groupReference(LogStreamServiceNames.WORKFLOW_FOLLOWER_STREAM_GROUP, streamProcessorFactory.getLogStreamsGroupReference())
+            .groupReference(LogStreamServiceNames.SYSTEM_STREAM_GROUP, streamProcessorFactory.getLogStreamsGroupReference())
             .install();
 
+        final LogStreamsCfg logStreamsCfg = context.getConfigurationManager().readEntry("logs", LogStreamsCfg.class);
+        if (logStreamsCfg.compactionInterval > 0)
+        {
+            final LogCompactionService compactionService = new LogCompactionService(logStreamsCfg);
+            serviceContainer
+                .createService(LOG_COMPACTION_SERVICE, compactionService)
+                .dependency(STREAM_PROCESSOR_SERVICE_FACTORY, compactionService.getStreamProcessorServiceFactoryInjector())
+                .dependency(LOG_STREAMS_MANAGER_SERVICE, compactionService.getLogStreamsManagerInjector())
+                .groupReference(ClusterServiceNames.RAFT_SERVICE_GROUP, compactionService.getRaftGroupReference())
+                .install();
+        }
+
     }
 
 }
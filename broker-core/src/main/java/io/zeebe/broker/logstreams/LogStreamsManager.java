@@ -17,32 +17,61 @@
  */
 package io.zeebe.broker.logstreams;
 
+import io.zeebe.broker.Loggers;
 import io.zeebe.broker.logstreams.cfg.LogStreamsCfg;
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
+import io.zeebe.broker.system.memory.MemoryUsage;
 import io.zeebe.logstreams.LogStreams;
 import io.zeebe.logstreams.impl.LogStreamBuilder;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.servicecontainer.ServiceContainer;
+import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
+import org.slf4j.Logger;
 
 import java.io.File;
-import java.util.Random;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.zeebe.util.EnsureUtil.*;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 
 
 public class LogStreamsManager
 {
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
     private final ServiceContainer serviceContainer;
     protected LogStreamsCfg logStreamsCfg;
     protected Int2ObjectHashMap<ActorFuture<LogStream>> logStreams;
+    protected final Map<Integer, LogStreamSettings> logSettings = new ConcurrentHashMap<>();
+    protected final Int2ObjectHashMap<String> partitionLogDirectories = new Int2ObjectHashMap<>();
+    protected final Int2ObjectHashMap<MemoryUsage> writeBufferUsages = new Int2ObjectHashMap<>();
+    protected final LogDirectoryPlacement directoryPlacement;
+    protected final DirectMemoryAccountant memoryAccountant;
+    protected final ActorControl actor;
+    protected final LogSegmentChecksums segmentChecksums = new LogSegmentChecksums();
 
-    public LogStreamsManager(final LogStreamsCfg logStreamsCfg, ServiceContainer serviceContainer)
+    /**
+     * @param actor the actor of the log streams manager service, which runs on an I/O thread
+     */
+    public LogStreamsManager(final LogStreamsCfg logStreamsCfg, ServiceContainer serviceContainer, DirectMemoryAccountant memoryAccountant, ActorControl actor)
     {
         this.logStreamsCfg = logStreamsCfg;
         this.serviceContainer = serviceContainer;
+        this.memoryAccountant = memoryAccountant;
+        this.actor = actor;
         this.logStreams = new Int2ObjectHashMap<>();
+        this.directoryPlacement = new LogDirectoryPlacement(logStreamsCfg.directories, logStreamsCfg.minUsableDirectorySpace * 1024L * 1024L);
+    }
+
+    public LogDirectoryPlacement getDirectoryPlacement()
+    {
+        return directoryPlacement;
     }
 
     public ActorFuture<LogStream> getLogStream(final int partitionId)
@@ -62,61 +91,188 @@ public class LogStreamsManager
      * @return the newly created log stream
      */
     public ActorFuture<LogStream> createLogStream(final DirectBuffer topicName, final int partitionId)
+    {
+        return createLogStream(topicName, partitionId, (LogStreamSettings) null);
+    }
+
+    /**
+     * Creates a new log stream but does not open it. The caller has to call {@link LogStream#openAsync()} or
+     * {@link LogStream#open()} before using it.
+     *
+     * @param requestedSettings the log settings requested on topic creation, may be null
+     * @return the newly created log stream
+     */
+    public ActorFuture<LogStream> createLogStream(final DirectBuffer topicName, final int partitionId, final LogStreamSettings requestedSettings)
     {
         ensureNotNullOrEmpty("topic name", topicName);
         ensureGreaterThanOrEqual("partition id", partitionId, 0);
         ensureLessThanOrEqual("partition id", partitionId, Short.MAX_VALUE);
 
         final LogStreamBuilder logStreamBuilder = LogStreams.createFsLogStream(topicName, partitionId);
-        logStreamBuilder.logName(String.format("%s-%d", io.zeebe.util.buffer.BufferUtil.bufferAsString(topicName), partitionId));
+        logStreamBuilder.logName(String.format("%s-%d", bufferAsString(topicName), partitionId));
         final String logName = logStreamBuilder.getLogName();
 
         final String logDirectory;
         final boolean deleteOnExit = false;
 
-        int assignedLogDirectory = 0;
         if (logStreamsCfg.directories.length == 0)
         {
             throw new RuntimeException(String.format("Cannot start log %s, no log directory provided.", logName));
         }
-        else if (logStreamsCfg.directories.length > 1)
-        {
-            assignedLogDirectory = new Random().nextInt(logStreamsCfg.directories.length - 1);
-        }
-        logDirectory = logStreamsCfg.directories[assignedLogDirectory] + File.separator + logName;
-
+        logDirectory = directoryPlacement.selectDirectory() + File.separator + logName;
 
-        final int logSegmentSize = logStreamsCfg.defaultLogSegmentSize * 1024 * 1024;
+        final LogStreamSettings settings = logStreamsCfg.resolveSettings(bufferAsString(topicName), requestedSettings);
 
-        final ActorFuture<LogStream> logStream = logStreamBuilder
+        logStreamBuilder
             .deleteOnClose(deleteOnExit)
             .logDirectory(logDirectory)
-            .serviceContainer(serviceContainer)
-            .logSegmentSize(logSegmentSize)
-            .build();
+            .serviceContainer(serviceContainer);
 
-        addLogStream(partitionId, logStream);
+        final ActorFuture<LogStream> logStream = build(logStreamBuilder, settings);
+
+        addLogStream(partitionId, logName, logDirectory, logStream, settings);
 
         return logStream;
     }
 
-    public ActorFuture<LogStream> createLogStream(final DirectBuffer topicName, final int partitionId, final String logDirectory)
+    /**
+     * Creates the log stream of an existing partition.
+     *
+     * @param settings the log settings the partition was created with, see {@link #getLogSettings(int)}
+     */
+    public ActorFuture<LogStream> createLogStream(final DirectBuffer topicName, final int partitionId, final String logDirectory, final LogStreamSettings settings)
     {
-        final ActorFuture<LogStream> logStream =
-            LogStreams.createFsLogStream(topicName, partitionId)
-                      .deleteOnClose(false)
-                      .logDirectory(logDirectory)
-                      .serviceContainer(serviceContainer)
-                      .logSegmentSize(logStreamsCfg.defaultLogSegmentSize * 1024 * 1024)
-                      .build();
+        directoryPlacement.registerPartition(logDirectory);
 
-        addLogStream(partitionId, logStream);
+        final LogStreamSettings resolvedSettings = logStreamsCfg.resolveSettings(bufferAsString(topicName), settings);
+
+        final LogStreamBuilder logStreamBuilder = LogStreams.createFsLogStream(topicName, partitionId)
+            .deleteOnClose(false)
+            .logDirectory(logDirectory)
+            .serviceContainer(serviceContainer);
+
+        final ActorFuture<LogStream> logStream = build(logStreamBuilder, resolvedSettings);
+
+        addLogStream(partitionId, logStreamBuilder.getLogName(), logDirectory, logStream, resolvedSettings);
 
         return logStream;
     }
 
-    private void addLogStream(int partitionId, final ActorFuture<LogStream> logStream)
+    private ActorFuture<LogStream> build(LogStreamBuilder logStreamBuilder, LogStreamSettings settings)
+    {
+        logStreamBuilder
+            .logSegmentSize(settings.getLogSegmentSize())
+            .writeBufferSize(settings.getWriteBufferSize());
+
+        if (settings.getIndexBlockSize() > 0)
+        {
+            logStreamBuilder.indexBlockSize(settings.getIndexBlockSize());
+        }
+
+        return logStreamBuilder.build();
+    }
+
+    /**
+     * @return the resolved log settings of the partition or null if this broker has no log stream for it
+     */
+    public LogStreamSettings getLogSettings(int partitionId)
+    {
+        return logSettings.get(partitionId);
+    }
+
+    /**
+     * Verifies the segments of the given log against their checksums, see {@link LogSegmentChecksums}.
+     * The returned future is completed exceptionally if a segment is corrupted.
+     */
+    public ActorFuture<Void> verifyChecksums(final String logDirectory)
+    {
+        final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
+
+        if (!logStreamsCfg.verifyChecksumsOnRecovery)
+        {
+            future.complete(null);
+            return future;
+        }
+
+        actor.call(() ->
+        {
+            try
+            {
+                final List<File> corruptedSegments = segmentChecksums.verify(new File(logDirectory));
+
+                if (corruptedSegments.isEmpty())
+                {
+                    future.complete(null);
+                }
+                else
+                {
+                    future.completeExceptionally(new IllegalStateException(String.format("Log segments %s do not match their checksums", corruptedSegments)));
+                }
+            }
+            catch (Exception e)
+            {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Computes the missing checksums of the logs in all log directories. Must be called by the actor of this manager.
+     */
+    public void updateChecksums()
+    {
+        for (String directory : logStreamsCfg.directories)
+        {
+            final File[] logDirectories = new File(directory).listFiles(File::isDirectory);
+
+            if (logDirectories != null)
+            {
+                for (File logDirectory : logDirectories)
+                {
+                    try
+                    {
+                        segmentChecksums.update(logDirectory);
+                    }
+                    catch (Exception e)
+                    {
+                        LOG.warn("Failed to compute the checksums of log {}", logDirectory, e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the log stream of a partition which was removed from this broker, so that its log directory no
+     * longer counts for the placement of new partitions.
+     */
+    public void removeLogStream(int partitionId)
+    {
+        logStreams.remove(partitionId);
+        logSettings.remove(partitionId);
+
+        final String logDirectory = partitionLogDirectories.remove(partitionId);
+        if (logDirectory != null)
+        {
+            directoryPlacement.unregisterPartition(logDirectory);
+        }
+
+        final MemoryUsage writeBufferUsage = writeBufferUsages.remove(partitionId);
+        if (writeBufferUsage != null)
+        {
+            writeBufferUsage.close();
+        }
+    }
+
+    private void addLogStream(int partitionId, String logName, String logDirectory, final ActorFuture<LogStream> logStream, LogStreamSettings settings)
     {
         logStreams.put(partitionId, logStream);
+        logSettings.put(partitionId, settings);
+        partitionLogDirectories.put(partitionId, logDirectory);
+
+        final MemoryUsage writeBufferUsage = memoryAccountant.reserve(DirectMemoryAccountant.COMPONENT_LOG_WRITE_BUFFER, partitionId, logName, settings.getWriteBufferSize());
+        writeBufferUsages.put(partitionId, writeBufferUsage);
     }
 }
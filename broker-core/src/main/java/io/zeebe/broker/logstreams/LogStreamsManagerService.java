@@ -19,9 +19,15 @@ package io.zeebe.broker.logstreams;
 
 import io.zeebe.broker.logstreams.cfg.LogStreamsCfg;
 import io.zeebe.broker.system.ConfigurationManager;
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
 import io.zeebe.servicecontainer.*;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorPriority;
+import io.zeebe.util.sched.SchedulingHints;
 
-public class LogStreamsManagerService implements Service<LogStreamsManager>
+import java.time.Duration;
+
+public class LogStreamsManagerService extends Actor implements Service<LogStreamsManager>
 {
     private final ServiceContainer serviceContainer;
 
@@ -29,22 +35,61 @@ public class LogStreamsManagerService implements Service<LogStreamsManager>
 
     protected LogStreamsManager service;
 
-    public LogStreamsManagerService(ConfigurationManager configurationManager, ServiceContainer serviceContainer)
+    private final DirectMemoryAccountant memoryAccountant;
+
+    public LogStreamsManagerService(ConfigurationManager configurationManager, ServiceContainer serviceContainer, DirectMemoryAccountant memoryAccountant)
     {
         this.serviceContainer = serviceContainer;
+        this.memoryAccountant = memoryAccountant;
         logStreamsCfg = configurationManager.readEntry("logs", LogStreamsCfg.class);
     }
 
+    @Override
+    public String getName()
+    {
+        return "log-streams-manager";
+    }
+
     @Override
     public void start(ServiceStartContext serviceContext)
     {
-        service = new LogStreamsManager(logStreamsCfg, serviceContainer);
+        service = new LogStreamsManager(logStreamsCfg, serviceContainer, memoryAccountant, actor);
+        service.getDirectoryPlacement().openMetrics(serviceContext.getScheduler().getMetricsManager());
+
+        serviceContext.async(serviceContext.getScheduler().submitActor(this, SchedulingHints.isIoBound(0)));
     }
 
     @Override
     public void stop(ServiceStopContext stopContext)
     {
-        // nothing to do
+        stopContext.async(actor.close());
+    }
+
+    @Override
+    protected void onActorStarting()
+    {
+        actor.setPriority(ActorPriority.LOW);
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        final LogDirectoryPlacement directoryPlacement = service.getDirectoryPlacement();
+        directoryPlacement.sample(System.currentTimeMillis());
+
+        actor.runAtFixedRate(Duration.ofSeconds(logStreamsCfg.directorySamplingInterval),
+            () -> directoryPlacement.sample(System.currentTimeMillis()));
+
+        if (logStreamsCfg.checksumInterval > 0)
+        {
+            actor.runAtFixedRate(Duration.ofSeconds(logStreamsCfg.checksumInterval), service::updateChecksums);
+        }
+    }
+
+    @Override
+    protected void onActorClosing()
+    {
+        service.getDirectoryPlacement().closeMetrics();
     }
 
     @Override
@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.logstreams.cfg;
 
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.broker.system.DirectoryConfiguration;
 import io.zeebe.broker.system.GlobalConfiguration;
 import io.zeebe.util.FileUtil;
@@ -25,11 +27,106 @@ public class LogStreamsCfg extends DirectoryConfiguration
 {
     public int defaultLogSegmentSize = 512;
 
+    /**
+     * the size in megabytes of the buffer a partition's events are written to before they are appended to the log
+     */
+    public int writeBufferSize = 16;
+
+    /**
+     * the number of kilobytes of the log which are covered by one entry of the block index;
+     * 0 uses the default of the log stream
+     */
+    public int indexBlockSize = 0;
+
+    /**
+     * the interval in seconds in which the checksums of completely written log segments are computed;
+     * 0 disables checksums
+     */
+    public int checksumInterval = 60;
+
+    /**
+     * if true, the log segments of a partition are verified against their checksums when the partition is recovered
+     */
+    public boolean verifyChecksumsOnRecovery = true;
+
+    /**
+     * log settings of individual topics, see {@link TopicLogCfg}
+     */
+    public TopicLogCfg[] topics = new TopicLogCfg[0];
+
     public String[] directories = null;
 
+    /**
+     * the minimum usable space in megabytes a log directory must have to be preferred for new partitions
+     */
+    public int minUsableDirectorySpace = 1024;
+
+    /**
+     * the interval in seconds in which the free space and the write throughput of the log directories are sampled
+     */
+    public int directorySamplingInterval = 10;
+
+    /**
+     * the interval in seconds in which the log segments before the lowest position
+     * still required by snapshots and subscriptions are removed; 0 disables compaction
+     */
+    public int compactionInterval = 0;
+
+    /**
+     * if set, compacted log segments are moved to this directory instead of being deleted
+     */
+    public String compactionArchiveDirectory = null;
+
+    public TopicLogCfg getTopicCfg(String topicName)
+    {
+        for (TopicLogCfg topic : topics)
+        {
+            if (topic.name != null && topic.name.equals(topicName))
+            {
+                return topic;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the log settings of a partition of the given topic. Settings requested on topic creation
+     * take precedence over the topic's configuration which takes precedence over the defaults.
+     */
+    public LogStreamSettings resolveSettings(String topicName, LogStreamSettings requested)
+    {
+        final LogStreamSettings settings = new LogStreamSettings();
+
+        if (requested != null)
+        {
+            settings.wrap(requested);
+        }
+
+        final TopicLogCfg topicCfg = getTopicCfg(topicName);
+        if (topicCfg != null)
+        {
+            settings.applyDefaults(topicCfg.toSettings());
+        }
+
+        final LogStreamSettings defaults = new LogStreamSettings()
+            .logSegmentSize(defaultLogSegmentSize * 1024 * 1024)
+            .indexBlockSize(indexBlockSize * 1024)
+            .writeBufferSize(writeBufferSize * 1024 * 1024)
+            .compactionPolicy(compactionArchiveDirectory != null ? LogCompactionPolicy.ARCHIVE : LogCompactionPolicy.DELETE);
+
+        return settings.applyDefaults(defaults);
+    }
+
     @Override
     public void applyGlobalConfiguration(GlobalConfiguration globalConfig)
     {
+        validateTopics();
+
+        if (compactionArchiveDirectory != null)
+        {
+            compactionArchiveDirectory = FileUtil.getCanonicalPath(compactionArchiveDirectory);
+        }
+
         if (directories == null || directories.length == 0)
         {
             super.applyGlobalConfiguration(globalConfig);
@@ -43,6 +140,23 @@ public class LogStreamsCfg extends DirectoryConfiguration
         }
     }
 
+    protected void validateTopics()
+    {
+        for (TopicLogCfg topic : topics)
+        {
+            if (topic.name == null || topic.name.isEmpty())
+            {
+                throw new RuntimeException("Invalid log configuration of topic: name is not set");
+            }
+
+            final String violation = topic.validate();
+            if (violation != null)
+            {
+                throw new RuntimeException("Invalid log configuration of topic '" + topic.name + "': " + violation);
+            }
+        }
+    }
+
     @Override
     protected String componentDirectoryName()
     {
@@ -21,6 +21,23 @@ import io.zeebe.broker.system.DirectoryConfiguration;
 
 public class SnapshotStorageCfg extends DirectoryConfiguration
 {
+    /**
+     * the interval in seconds in which the stream processors take snapshots
+     */
+    public int snapshotPeriod = 15 * 60;
+
+    /**
+     * if true, snapshots only contain the blocks of the state which changed since the last full snapshot;
+     * off by default, since it changes the format of the snapshots
+     */
+    public boolean incremental = false;
+
+    /**
+     * the maximum size in MB of the changed state blocks which a stream processor keeps in memory to write
+     * a new incremental snapshot base in the background; larger bases are written on the processing thread
+     */
+    public int baseMergeMemory = 64;
+
     @Override
     protected String componentDirectoryName()
     {
@@ -0,0 +1,97 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.cfg;
+
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
+
+/**
+ * The log settings of the partitions of a single topic. Settings which are not specified
+ * fall back to the defaults of {@link LogStreamsCfg}.
+ */
+public class TopicLogCfg
+{
+    public String name;
+
+    /**
+     * the size in megabytes of a log segment
+     */
+    public int logSegmentSize = 0;
+
+    /**
+     * the number of kilobytes of the log which are covered by one entry of the block index
+     */
+    public int indexBlockSize = 0;
+
+    /**
+     * the size in megabytes of the write buffer
+     */
+    public int writeBufferSize = 0;
+
+    /**
+     * one of <code>delete</code>, <code>archive</code> or <code>retain</code>
+     */
+    public String compaction = null;
+
+    /**
+     * @return a description of the first invalid setting, or <code>null</code> if the settings are valid
+     */
+    public String validate()
+    {
+        if (compaction != null)
+        {
+            try
+            {
+                LogCompactionPolicy.valueOf(compaction.toUpperCase());
+            }
+            catch (IllegalArgumentException e)
+            {
+                return "unknown compaction policy '" + compaction + "'";
+            }
+        }
+
+        if (logSegmentSize < 0 || indexBlockSize < 0 || writeBufferSize < 0)
+        {
+            return "sizes must not be negative";
+        }
+
+        if (logSegmentSize > Integer.MAX_VALUE / (1024 * 1024) ||
+            writeBufferSize > Integer.MAX_VALUE / (1024 * 1024) ||
+            indexBlockSize > Integer.MAX_VALUE / 1024)
+        {
+            return "sizes must fit into an int in bytes";
+        }
+
+        return toSettings().validate();
+    }
+
+    public LogStreamSettings toSettings()
+    {
+        final LogStreamSettings settings = new LogStreamSettings()
+            .logSegmentSize(logSegmentSize * 1024 * 1024)
+            .indexBlockSize(indexBlockSize * 1024)
+            .writeBufferSize(writeBufferSize * 1024 * 1024);
+
+        if (compaction != null)
+        {
+            settings.compactionPolicy(LogCompactionPolicy.valueOf(compaction.toUpperCase()));
+        }
+
+        return settings;
+    }
+}
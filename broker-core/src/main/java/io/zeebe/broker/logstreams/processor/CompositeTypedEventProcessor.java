@@ -0,0 +1,133 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.msgpack.UnpackedObject;
+
+/**
+ * Dispatches one event to multiple processors which are registered for the same event type and state.
+ * Used when the processors of different components are fused into one stream processor.
+ *
+ * <p>
+ * The phases of the delegates are executed in registration order. When a delegate's side effects or
+ * write must be retried, the delegates which already succeeded in this phase are not invoked again.
+ */
+public class CompositeTypedEventProcessor<T extends UnpackedObject> implements TypedEventProcessor<T>
+{
+    protected final List<TypedEventProcessor<T>> processors = new ArrayList<>();
+
+    protected int sideEffectsIndex;
+    protected int writeIndex;
+    protected long lastWrittenPosition;
+
+    public CompositeTypedEventProcessor(TypedEventProcessor<T> first, TypedEventProcessor<T> second)
+    {
+        add(first);
+        add(second);
+    }
+
+    public CompositeTypedEventProcessor<T> add(TypedEventProcessor<T> processor)
+    {
+        processors.add(processor);
+        return this;
+    }
+
+    @Override
+    public void onOpen(TypedStreamProcessor streamProcessor)
+    {
+        for (int i = 0; i < processors.size(); i++)
+        {
+            processors.get(i).onOpen(streamProcessor);
+        }
+    }
+
+    @Override
+    public void onClose()
+    {
+        for (int i = 0; i < processors.size(); i++)
+        {
+            processors.get(i).onClose();
+        }
+    }
+
+    @Override
+    public void processEvent(TypedEvent<T> event)
+    {
+        sideEffectsIndex = 0;
+        writeIndex = 0;
+        lastWrittenPosition = 0;
+
+        for (int i = 0; i < processors.size(); i++)
+        {
+            processors.get(i).processEvent(event);
+        }
+    }
+
+    @Override
+    public boolean executeSideEffects(TypedEvent<T> event, TypedResponseWriter responseWriter)
+    {
+        while (sideEffectsIndex < processors.size())
+        {
+            final boolean success = processors.get(sideEffectsIndex).executeSideEffects(event, responseWriter);
+
+            if (success)
+            {
+                sideEffectsIndex++;
+            }
+            else
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public long writeEvent(TypedEvent<T> event, TypedStreamWriter writer)
+    {
+        while (writeIndex < processors.size())
+        {
+            final long position = processors.get(writeIndex).writeEvent(event, writer);
+
+            if (position >= 0)
+            {
+                lastWrittenPosition = Math.max(lastWrittenPosition, position);
+                writeIndex++;
+            }
+            else
+            {
+                return position;
+            }
+        }
+
+        return lastWrittenPosition;
+    }
+
+    @Override
+    public void updateState(TypedEvent<T> event)
+    {
+        for (int i = 0; i < processors.size(); i++)
+        {
+            processors.get(i).updateState(event);
+        }
+    }
+}
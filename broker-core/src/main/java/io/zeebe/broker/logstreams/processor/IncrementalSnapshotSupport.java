@@ -0,0 +1,847 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.io.*;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.util.Checksums;
+import io.zeebe.logstreams.spi.ReadableSnapshot;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.logstreams.spi.SnapshotWriter;
+import org.slf4j.Logger;
+
+/**
+ * Wraps the state resource of a stream processor and writes incremental snapshots.
+ *
+ * <p>
+ * The serialized state is streamed in blocks, it is never copied as a whole. A full snapshot is written
+ * as base snapshot into the snapshot storage and the snapshot of the processor only references it. The
+ * following snapshots contain only the blocks which changed since the base. The SHA-256 digests of the
+ * blocks of the base are kept in memory, so a block is compared with the digest of the base block and
+ * the base is not read to write a delta. The state resources can't tell which of their blocks changed,
+ * so the state is still serialized, but only the changed blocks are written.
+ *
+ * <p>
+ * If more than half of the blocks changed, a new base is required. If a base writer is given and the
+ * changed blocks fit into the configured memory, they are kept and the base writer merges them with
+ * the current base into the new base, off the processing thread. Until the new base is committed, the
+ * snapshots remain deltas of the current base. Otherwise, the next snapshot writes the new base on the
+ * processing thread. The base snapshots are stored alternately under two names, so the base of the
+ * previous snapshot is kept until the next one is committed.
+ *
+ * <p>
+ * If no event was processed since the last full snapshot, the state is not serialized at all and
+ * the base is referenced again.
+ *
+ * <p>
+ * Snapshots which were written without this wrapper (i.e. which don't start with {@link #MAGIC})
+ * are recovered as they are.
+ */
+public class IncrementalSnapshotSupport implements SnapshotSupport
+{
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    protected static final long MAGIC = 0x5A42_494E_4352_534EL;
+
+    protected static final byte FULL_SNAPSHOT = 0;
+    protected static final byte DELTA_SNAPSHOT = 1;
+
+    protected static final int END_OF_BLOCKS = -1;
+
+    protected static final int HEADER_LENGTH = 8 + 1 + 8;
+
+    protected static final String BLOCK_DIGEST_ALGORITHM = "SHA-256";
+    protected static final int BLOCK_DIGEST_LENGTH = 32;
+
+    protected final SnapshotSupport delegate;
+    protected final SnapshotStorage snapshotStorage;
+    protected final String baseName;
+    protected final int blockSize;
+
+    protected final Executor baseWriter;
+    protected final long maxChangedBlocksInMemory;
+
+    protected final byte[] blockBuffer;
+    protected final MessageDigest blockDigest;
+
+    protected long eventsSinceSnapshot;
+
+    protected boolean hasBase;
+    protected boolean lastSnapshotWasFull;
+    protected long baseId;
+    protected int baseBlockCount;
+    protected byte[] baseDigests;
+
+    // the base which is written by the base writer
+    protected CompletableFuture<Void> pendingBase;
+    protected long pendingBaseId;
+    protected int pendingBaseBlockCount;
+    protected byte[] pendingBaseDigests;
+
+    /**
+     * Writes the bases on the processing thread.
+     */
+    public IncrementalSnapshotSupport(SnapshotSupport delegate, SnapshotStorage snapshotStorage, String baseName, int blockSize)
+    {
+        this(delegate, snapshotStorage, baseName, blockSize, null, 0);
+    }
+
+    /**
+     * @param baseWriter writes the merged bases
+     * @param maxChangedBlocksInMemory the maximum number of bytes of changed blocks which are kept to merge a base
+     */
+    public IncrementalSnapshotSupport(SnapshotSupport delegate, SnapshotStorage snapshotStorage, String baseName, int blockSize, Executor baseWriter, long maxChangedBlocksInMemory)
+    {
+        this.delegate = delegate;
+        this.snapshotStorage = snapshotStorage;
+        this.baseName = baseName;
+        this.blockSize = blockSize;
+        this.baseWriter = baseWriter;
+        this.maxChangedBlocksInMemory = maxChangedBlocksInMemory;
+        this.blockBuffer = new byte[blockSize];
+        this.blockDigest = newBlockDigest();
+    }
+
+    protected static MessageDigest newBlockDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(BLOCK_DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // every JVM supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void onEventProcessed()
+    {
+        eventsSinceSnapshot++;
+    }
+
+    @Override
+    public long writeSnapshot(OutputStream outputStream) throws Exception
+    {
+        final DataOutputStream out = new DataOutputStream(outputStream);
+        final long writtenBytes;
+
+        adoptMergedBase();
+
+        if (hasBase && lastSnapshotWasFull && eventsSinceSnapshot == 0)
+        {
+            // the state equals the base
+            writtenBytes = writeHeader(out, FULL_SNAPSHOT);
+        }
+        else if (hasBase)
+        {
+            writtenBytes = writeDeltaSnapshot(out);
+        }
+        else
+        {
+            writeBaseSnapshot();
+            writtenBytes = writeHeader(out, FULL_SNAPSHOT);
+        }
+
+        out.flush();
+        eventsSinceSnapshot = 0;
+
+        return writtenBytes;
+    }
+
+    protected long writeHeader(DataOutputStream out, byte format) throws IOException
+    {
+        out.writeLong(MAGIC);
+        out.writeByte(format);
+        out.writeLong(baseId);
+
+        lastSnapshotWasFull = format == FULL_SNAPSHOT;
+
+        return HEADER_LENGTH;
+    }
+
+    protected void writeBaseSnapshot() throws Exception
+    {
+        final long newBaseId = baseId + 1;
+        final SnapshotWriter writer = snapshotStorage.createSnapshot(baseSnapshotName(newBaseId), newBaseId);
+
+        try
+        {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(writer.getOutputStream()));
+            final byte checksumAlgorithm = Checksums.defaultAlgorithm();
+            final BaseOutputStream baseOut = new BaseOutputStream(out, checksumAlgorithm);
+
+            out.writeInt(blockSize);
+            out.writeByte(checksumAlgorithm);
+            delegate.writeSnapshot(baseOut);
+            baseOut.finish();
+            out.flush();
+
+            writer.commit();
+
+            hasBase = true;
+            baseId = newBaseId;
+            baseBlockCount = baseOut.blockIndex;
+            baseDigests = baseOut.digests;
+        }
+        catch (Exception e)
+        {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    protected long writeDeltaSnapshot(DataOutputStream out) throws Exception
+    {
+        final long headerLength = writeHeader(out, DELTA_SNAPSHOT);
+        out.writeInt(blockSize);
+
+        final boolean keepChangedBlocks = baseWriter != null && pendingBase == null;
+
+        final DeltaOutputStream deltaOut = new DeltaOutputStream(out, keepChangedBlocks);
+        delegate.writeSnapshot(deltaOut);
+        deltaOut.finish();
+
+        if (deltaOut.changedBlocks * 2 > Math.max(deltaOut.blockIndex, baseBlockCount))
+        {
+            // too many blocks changed - a new base is required
+            if (deltaOut.keptBlocks != null)
+            {
+                mergeBase(deltaOut.keptBlocks, deltaOut.blockIndex, deltaOut.digests);
+            }
+            else if (pendingBase == null)
+            {
+                // the next snapshot becomes a new base
+                hasBase = false;
+            }
+        }
+
+        return headerLength + 4 + deltaOut.writtenBytes;
+    }
+
+    /**
+     * Merges the current base with the given changed blocks into a new base on the base writer.
+     *
+     * @param digests the digests of the blocks of the new base
+     */
+    protected void mergeBase(List<ChangedBlock> changedBlocks, int blockCount, byte[] digests)
+    {
+        final long currentBaseId = baseId;
+        final long newBaseId = baseId + 1;
+
+        pendingBaseId = newBaseId;
+        pendingBaseBlockCount = blockCount;
+        pendingBaseDigests = digests;
+        pendingBase = CompletableFuture.runAsync(() ->
+        {
+            try
+            {
+                writeMergedBase(currentBaseId, newBaseId, changedBlocks, blockCount);
+            }
+            catch (Exception e)
+            {
+                throw new RuntimeException(e);
+            }
+        }, baseWriter);
+    }
+
+    protected void writeMergedBase(long currentBaseId, long newBaseId, List<ChangedBlock> changedBlocks, int blockCount) throws Exception
+    {
+        final ReadableSnapshot currentBase = snapshotStorage.getLastSnapshot(baseSnapshotName(currentBaseId));
+        if (currentBase == null || currentBase.getPosition() != currentBaseId)
+        {
+            throw new IllegalStateException(String.format("Snapshot base %d of '%s' not found", currentBaseId, baseName));
+        }
+
+        final SnapshotWriter writer = snapshotStorage.createSnapshot(baseSnapshotName(newBaseId), newBaseId);
+
+        try (InputStream baseData = currentBase.getData())
+        {
+            final BaseReader base = new BaseReader(new DataInputStream(new BufferedInputStream(baseData)));
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(writer.getOutputStream()));
+            final byte[] buffer = new byte[blockSize];
+            final byte checksumAlgorithm = Checksums.defaultAlgorithm();
+
+            out.writeInt(blockSize);
+            out.writeByte(checksumAlgorithm);
+
+            int nextChangedBlock = 0;
+            for (int block = 0; block < blockCount; block++)
+            {
+                // the unchanged blocks are equal to the blocks of the current base
+                final int baseLength = base.readBlock(buffer);
+
+                if (nextChangedBlock < changedBlocks.size() && changedBlocks.get(nextChangedBlock).index == block)
+                {
+                    final byte[] changedBlock = changedBlocks.get(nextChangedBlock++).bytes;
+                    writeBaseBlock(out, checksumAlgorithm, changedBlock, changedBlock.length);
+                }
+                else
+                {
+                    writeBaseBlock(out, checksumAlgorithm, buffer, baseLength);
+                }
+            }
+
+            out.writeInt(END_OF_BLOCKS);
+            out.flush();
+
+            writer.commit();
+        }
+        catch (Exception e)
+        {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Refers to the base which was merged by the base writer, once it is committed.
+     */
+    protected void adoptMergedBase()
+    {
+        if (pendingBase != null && pendingBase.isDone())
+        {
+            try
+            {
+                pendingBase.join();
+
+                baseId = pendingBaseId;
+                baseBlockCount = pendingBaseBlockCount;
+                baseDigests = pendingBaseDigests;
+                hasBase = true;
+                lastSnapshotWasFull = false;
+            }
+            catch (Exception e)
+            {
+                LOG.warn("Failed to write snapshot base {} of '{}', the next snapshot writes a new base", pendingBaseId, baseName, e);
+                hasBase = false;
+            }
+
+            pendingBase = null;
+            pendingBaseDigests = null;
+        }
+    }
+
+    /**
+     * Waits until the base writer is done, so that it doesn't write a base of the previous state.
+     */
+    protected void discardMergedBase()
+    {
+        if (pendingBase != null)
+        {
+            try
+            {
+                pendingBase.join();
+            }
+            catch (Exception e)
+            {
+                // the base is not used anymore
+            }
+
+            pendingBase = null;
+            pendingBaseDigests = null;
+        }
+    }
+
+    protected String baseSnapshotName(long id)
+    {
+        // two names, so that the previous base is kept until the next base is committed
+        return String.format("%s-base-%d", baseName, id % 2);
+    }
+
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
+    {
+        discardMergedBase();
+
+        final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, 8);
+        final byte[] magicBytes = new byte[8];
+
+        int read = 0;
+        int n;
+        while (read < magicBytes.length && (n = pushbackInputStream.read(magicBytes, read, magicBytes.length - read)) > 0)
+        {
+            read += n;
+        }
+
+        if (read < magicBytes.length || new DataInputStream(new ByteArrayInputStream(magicBytes)).readLong() != MAGIC)
+        {
+            // legacy snapshot which contains the complete state
+            pushbackInputStream.unread(magicBytes, 0, read);
+            delegate.recoverFromSnapshot(pushbackInputStream);
+
+            baseId = 0;
+        }
+        else
+        {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(pushbackInputStream));
+            final byte format = in.readByte();
+            final long snapshotBaseId = in.readLong();
+
+            final ReadableSnapshot baseSnapshot = snapshotStorage.getLastSnapshot(baseSnapshotName(snapshotBaseId));
+            if (baseSnapshot == null || baseSnapshot.getPosition() != snapshotBaseId)
+            {
+                throw new IllegalStateException(String.format("Snapshot base %d of '%s' not found", snapshotBaseId, baseName));
+            }
+
+            try (InputStream baseData = baseSnapshot.getData())
+            {
+                final BaseReader base = new BaseReader(new DataInputStream(new BufferedInputStream(baseData)));
+
+                if (format == FULL_SNAPSHOT)
+                {
+                    delegate.recoverFromSnapshot(new StateInputStream(base, null));
+                }
+                else if (format == DELTA_SNAPSHOT)
+                {
+                    final int snapshotBlockSize = in.readInt();
+                    if (snapshotBlockSize != base.blockSize)
+                    {
+                        throw new IllegalStateException(String.format("Expected block size %d of snapshot base %d but found %d", snapshotBlockSize, snapshotBaseId, base.blockSize));
+                    }
+
+                    delegate.recoverFromSnapshot(new StateInputStream(base, in));
+                }
+                else
+                {
+                    throw new IllegalStateException("Unknown snapshot format " + format);
+                }
+            }
+
+            baseId = snapshotBaseId;
+        }
+
+        // the next snapshot becomes the new base
+        hasBase = false;
+        lastSnapshotWasFull = false;
+    }
+
+    @Override
+    public void reset()
+    {
+        discardMergedBase();
+        delegate.reset();
+
+        hasBase = false;
+        lastSnapshotWasFull = false;
+        eventsSinceSnapshot = 0;
+    }
+
+    protected static void writeBaseBlock(DataOutputStream out, byte checksumAlgorithm, byte[] buffer, int length) throws IOException
+    {
+        out.writeInt(length);
+        out.write(buffer, 0, length);
+        out.writeLong(Checksums.checksum(checksumAlgorithm, buffer, 0, length));
+    }
+
+    /**
+     * Splits the written state into blocks.
+     */
+    protected abstract class BlockOutputStream extends OutputStream
+    {
+        protected int blockIndex;
+        protected int blockLength;
+        protected long length;
+
+        // the digests of the written blocks, BLOCK_DIGEST_LENGTH bytes per block
+        protected byte[] digests = new byte[16 * BLOCK_DIGEST_LENGTH];
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            blockBuffer[blockLength++] = (byte) b;
+
+            if (blockLength == blockSize)
+            {
+                flushBlock();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            while (len > 0)
+            {
+                final int bytes = Math.min(len, blockSize - blockLength);
+                System.arraycopy(b, off, blockBuffer, blockLength, bytes);
+
+                blockLength += bytes;
+                off += bytes;
+                len -= bytes;
+
+                if (blockLength == blockSize)
+                {
+                    flushBlock();
+                }
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            // the underlying stream is closed by the snapshot writer
+        }
+
+        protected void flushBlock() throws IOException
+        {
+            if (blockLength > 0)
+            {
+                digestBlock(blockIndex, blockBuffer, blockLength);
+                onBlock(blockIndex, blockBuffer, blockLength);
+
+                length += blockLength;
+                blockIndex++;
+                blockLength = 0;
+            }
+        }
+
+        protected void digestBlock(int block, byte[] buffer, int length) throws IOException
+        {
+            final int offset = block * BLOCK_DIGEST_LENGTH;
+
+            if (offset + BLOCK_DIGEST_LENGTH > digests.length)
+            {
+                digests = Arrays.copyOf(digests, Math.max(digests.length * 2, offset + BLOCK_DIGEST_LENGTH));
+            }
+
+            blockDigest.update(buffer, 0, length);
+
+            try
+            {
+                blockDigest.digest(digests, offset, BLOCK_DIGEST_LENGTH);
+            }
+            catch (DigestException e)
+            {
+                throw new IOException("Failed to digest snapshot block", e);
+            }
+        }
+
+        public void finish() throws IOException
+        {
+            flushBlock();
+            onFinish();
+        }
+
+        protected abstract void onBlock(int block, byte[] buffer, int length) throws IOException;
+
+        protected abstract void onFinish() throws IOException;
+    }
+
+    /**
+     * Writes every block with its checksum: (length, bytes, checksum)*, {@link #END_OF_BLOCKS}
+     */
+    protected class BaseOutputStream extends BlockOutputStream
+    {
+        protected final DataOutputStream out;
+        protected final byte checksumAlgorithm;
+
+        BaseOutputStream(DataOutputStream out, byte checksumAlgorithm)
+        {
+            this.out = out;
+            this.checksumAlgorithm = checksumAlgorithm;
+        }
+
+        @Override
+        protected void onBlock(int block, byte[] buffer, int length) throws IOException
+        {
+            writeBaseBlock(out, checksumAlgorithm, buffer, length);
+        }
+
+        @Override
+        protected void onFinish() throws IOException
+        {
+            out.writeInt(END_OF_BLOCKS);
+        }
+    }
+
+    /**
+     * Writes the blocks which differ from the base: (block, length, bytes)*, {@link #END_OF_BLOCKS}, state length
+     */
+    protected class DeltaOutputStream extends BlockOutputStream
+    {
+        protected final DataOutputStream out;
+        protected int changedBlocks;
+        protected long writtenBytes;
+
+        // copies of the changed blocks, null if they are not kept or exceed the memory limit
+        protected List<ChangedBlock> keptBlocks;
+        protected long keptBytes;
+
+        DeltaOutputStream(DataOutputStream out, boolean keepChangedBlocks)
+        {
+            this.out = out;
+            this.keptBlocks = keepChangedBlocks ? new ArrayList<>() : null;
+        }
+
+        @Override
+        protected void onBlock(int block, byte[] buffer, int length) throws IOException
+        {
+            if (isChangedBlock(block))
+            {
+                out.writeInt(block);
+                out.writeInt(length);
+                out.write(buffer, 0, length);
+
+                changedBlocks++;
+                writtenBytes += 4 + 4 + length;
+
+                keepBlock(block, buffer, length);
+            }
+        }
+
+        /**
+         * A block of the base with the same digest has the same length and bytes. The digest is
+         * cryptographic, so blocks can't be crafted to collide with a block of the base.
+         */
+        protected boolean isChangedBlock(int block)
+        {
+            if (block >= baseBlockCount)
+            {
+                return true;
+            }
+
+            final int offset = block * BLOCK_DIGEST_LENGTH;
+            for (int i = offset; i < offset + BLOCK_DIGEST_LENGTH; i++)
+            {
+                if (digests[i] != baseDigests[i])
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        protected void keepBlock(int block, byte[] buffer, int length)
+        {
+            if (keptBlocks != null)
+            {
+                keptBytes += length;
+
+                if (keptBytes <= maxChangedBlocksInMemory)
+                {
+                    keptBlocks.add(new ChangedBlock(block, Arrays.copyOf(buffer, length)));
+                }
+                else
+                {
+                    keptBlocks = null;
+                }
+            }
+        }
+
+        @Override
+        protected void onFinish() throws IOException
+        {
+            out.writeInt(END_OF_BLOCKS);
+            out.writeLong(length);
+
+            writtenBytes += 4 + 8;
+        }
+    }
+
+    protected static class ChangedBlock
+    {
+        protected final int index;
+        protected final byte[] bytes;
+
+        ChangedBlock(int index, byte[] bytes)
+        {
+            this.index = index;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Reads the blocks of a base snapshot and verifies their checksums. The checksums are not verified if
+     * their algorithm is not supported by this JVM.
+     */
+    protected static class BaseReader
+    {
+        protected final DataInputStream in;
+        protected final int blockSize;
+        protected final byte checksumAlgorithm;
+        protected final boolean verifyChecksums;
+        protected boolean finished;
+
+        BaseReader(DataInputStream in) throws IOException
+        {
+            this.in = in;
+            this.blockSize = in.readInt();
+            this.checksumAlgorithm = in.readByte();
+            this.verifyChecksums = Checksums.isSupported(checksumAlgorithm);
+
+            if (!verifyChecksums)
+            {
+                LOG.warn("Skip verification of snapshot base, its checksum algorithm {} is not supported by this JVM", checksumAlgorithm);
+            }
+        }
+
+        /**
+         * @return the length of the block or -1 if the base has no more blocks
+         */
+        protected int readBlock(byte[] buffer) throws IOException
+        {
+            if (finished)
+            {
+                return -1;
+            }
+
+            final int length = in.readInt();
+            if (length == END_OF_BLOCKS)
+            {
+                finished = true;
+                return -1;
+            }
+
+            in.readFully(buffer, 0, length);
+
+            final long expectedChecksum = in.readLong();
+            if (verifyChecksums && expectedChecksum != Checksums.checksum(checksumAlgorithm, buffer, 0, length))
+            {
+                throw new IllegalStateException("Snapshot base is corrupted");
+            }
+
+            return length;
+        }
+    }
+
+    /**
+     * Streams the state of a base snapshot, replacing the blocks which are contained in the given delta.
+     */
+    protected static class StateInputStream extends InputStream
+    {
+        protected final BaseReader base;
+        protected final DataInputStream delta;
+        protected final byte[] block;
+
+        protected int blockIndex;
+        protected int blockLength;
+        protected int blockOffset;
+
+        protected int nextChangedBlock = END_OF_BLOCKS;
+        protected long stateLength = -1;
+        protected long readBytes;
+
+        StateInputStream(BaseReader base, DataInputStream delta) throws IOException
+        {
+            this.base = base;
+            this.delta = delta;
+            this.block = new byte[base.blockSize];
+
+            if (delta != null)
+            {
+                readNextChangedBlock();
+            }
+        }
+
+        protected void readNextChangedBlock() throws IOException
+        {
+            nextChangedBlock = delta.readInt();
+
+            if (nextChangedBlock == END_OF_BLOCKS)
+            {
+                stateLength = delta.readLong();
+            }
+        }
+
+        protected boolean readBlock() throws IOException
+        {
+            if (stateLength >= 0 && readBytes >= stateLength)
+            {
+                return false;
+            }
+
+            // read the base block in any case to stay aligned with the delta
+            final int baseBlockLength = base.readBlock(block);
+
+            if (delta != null && blockIndex == nextChangedBlock)
+            {
+                blockLength = delta.readInt();
+                delta.readFully(block, 0, blockLength);
+
+                readNextChangedBlock();
+            }
+            else if (baseBlockLength >= 0)
+            {
+                blockLength = baseBlockLength;
+            }
+            else if (delta != null && stateLength < 0)
+            {
+                throw new IllegalStateException("Snapshot delta refers to a block which is not in its base");
+            }
+            else
+            {
+                return false;
+            }
+
+            if (stateLength >= 0)
+            {
+                blockLength = (int) Math.min(blockLength, stateLength - readBytes);
+            }
+
+            blockIndex++;
+            blockOffset = 0;
+            readBytes += blockLength;
+
+            return blockLength > 0;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            if (blockOffset >= blockLength && !readBlock())
+            {
+                return -1;
+            }
+
+            return block[blockOffset++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            if (blockOffset >= blockLength && !readBlock())
+            {
+                return -1;
+            }
+
+            final int bytes = Math.min(len, blockLength - blockOffset);
+            System.arraycopy(block, blockOffset, b, off, bytes);
+            blockOffset += bytes;
+
+            return bytes;
+        }
+    }
+}
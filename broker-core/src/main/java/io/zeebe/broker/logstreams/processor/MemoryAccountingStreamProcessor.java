@@ -0,0 +1,117 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.util.function.LongSupplier;
+
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
+import io.zeebe.broker.system.memory.MemoryUsage;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.util.sched.ScheduledTimer;
+
+/**
+ * Decorates a stream processor to account the direct memory of its index maps. The size of the
+ * state is updated on the actor of the processor, so that it is never read while the maps are
+ * modified or closed.
+ */
+public class MemoryAccountingStreamProcessor implements StreamProcessor
+{
+    protected final StreamProcessor streamProcessor;
+    protected final LongSupplier stateSize;
+    protected final DirectMemoryAccountant memoryAccountant;
+    protected final String processorName;
+
+    protected MemoryUsage memoryUsage;
+    protected ScheduledTimer updateTimer;
+
+    public MemoryAccountingStreamProcessor(StreamProcessor streamProcessor, LongSupplier stateSize, DirectMemoryAccountant memoryAccountant, String processorName)
+    {
+        this.streamProcessor = streamProcessor;
+        this.stateSize = stateSize;
+        this.memoryAccountant = memoryAccountant;
+        this.processorName = processorName;
+    }
+
+    /**
+     * @return a supplier of the state size of the given processor, or null if it is unknown
+     */
+    public static LongSupplier stateSizeOf(StreamProcessor streamProcessor)
+    {
+        final SnapshotSupport stateResource = streamProcessor.getStateResource();
+
+        if (streamProcessor instanceof StateSizeAware)
+        {
+            return ((StateSizeAware) streamProcessor)::getStateSize;
+        }
+        else if (stateResource instanceof ComposableSnapshotSupport)
+        {
+            return ((ComposableSnapshotSupport) stateResource)::snapshotSize;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return streamProcessor.getStateResource();
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        return streamProcessor.onEvent(event);
+    }
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        streamProcessor.onOpen(context);
+
+        final int partitionId = context.getLogStream().getPartitionId();
+        memoryUsage = memoryAccountant.register(DirectMemoryAccountant.COMPONENT_INDEX, partitionId, processorName, null);
+        memoryUsage.update(stateSize.getAsLong());
+
+        updateTimer = context.getActorControl().runAtFixedRate(memoryAccountant.getSamplingInterval(), () -> memoryUsage.update(stateSize.getAsLong()));
+    }
+
+    @Override
+    public void onClose()
+    {
+        if (updateTimer != null)
+        {
+            updateTimer.cancel();
+            updateTimer = null;
+        }
+
+        if (memoryUsage != null)
+        {
+            memoryUsage.close();
+            memoryUsage = null;
+        }
+
+        streamProcessor.onClose();
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.system.metrics.EventTracer;
+import io.zeebe.broker.system.metrics.Histogram;
+import io.zeebe.broker.system.metrics.HistogramManager;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.log.LogStreamWriter;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+
+/**
+ * Decorates a stream processor to record latency histograms:
+ * <ul>
+ * <li>the processing time of an event, from reading it until its state is updated,</li>
+ * <li>the time of the side effects, i.e. writing the responses, and</li>
+ * <li>the commit-to-processed lag, i.e. the time until the processor reaches a commit position which was
+ * ahead of it. Log entries have no timestamps, so the lag is measured from the time the processor
+ * observed the commit position.</li>
+ * </ul>
+ * In addition, it reports the commit of traced commands and the processing of the traced commands it owns
+ * (see <code>ownedEventTypes</code>) to the {@link EventTracer}, and
+ * the number of events and the time it takes to replay the log on recovery. Replayed events are recognized
+ * by their side effects not being executed.
+ */
+public class MetricsStreamProcessor implements StreamProcessor
+{
+    protected final StreamProcessor streamProcessor;
+    protected final HistogramManager histogramManager;
+    protected final EventTracer eventTracer;
+    protected final Set<EventType> ownedEventTypes;
+    protected final MetricsManager metricsManager;
+    protected final String processorName;
+    protected final MeasuringEventProcessor measuringEventProcessor = new MeasuringEventProcessor();
+
+    protected LogStream logStream;
+    protected Histogram processingTime;
+    protected Histogram sideEffectsTime;
+    protected Histogram commitLag;
+    protected Metric replayedEvents;
+    protected Metric replayTime;
+
+    protected boolean isReplaying;
+    protected long replayedEventCount;
+    protected long openTime;
+
+    protected long observedCommitPosition = -1L;
+    protected long observedCommitTime;
+    protected long tracedCommitPosition = -1L;
+
+    public MetricsStreamProcessor(
+            StreamProcessor streamProcessor,
+            HistogramManager histogramManager,
+            EventTracer eventTracer,
+            Set<EventType> ownedEventTypes,
+            MetricsManager metricsManager,
+            String processorName)
+    {
+        this.streamProcessor = streamProcessor;
+        this.histogramManager = histogramManager;
+        this.eventTracer = eventTracer;
+        this.ownedEventTypes = ownedEventTypes;
+        this.metricsManager = metricsManager;
+        this.processorName = processorName;
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return streamProcessor.getStateResource();
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        final long now = System.nanoTime();
+        recordCommitLag(event.getPosition(), now);
+
+        final EventProcessor eventProcessor = streamProcessor.onEvent(event);
+
+        if (eventProcessor != null)
+        {
+            final boolean isTraced = eventTracer.isEnabled() && traceCommit(event.getPosition(), now);
+
+            measuringEventProcessor.wrap(eventProcessor, now, isTraced ? event.getPosition() : -1L);
+            return measuringEventProcessor;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    protected void recordCommitLag(long position, long now)
+    {
+        if (observedCommitPosition >= 0 && position >= observedCommitPosition)
+        {
+            commitLag.recordValue(now - observedCommitTime);
+            observedCommitPosition = -1L;
+        }
+
+        if (observedCommitPosition < 0)
+        {
+            final long commitPosition = logStream.getCommitPosition();
+            if (commitPosition > position)
+            {
+                observedCommitPosition = commitPosition;
+                observedCommitTime = now;
+            }
+        }
+    }
+
+    protected boolean traceCommit(long position, long now)
+    {
+        final int partitionId = logStream.getPartitionId();
+        final long commitPosition = logStream.getCommitPosition();
+
+        if (commitPosition > tracedCommitPosition)
+        {
+            eventTracer.onCommitted(partitionId, commitPosition, now);
+            tracedCommitPosition = commitPosition;
+        }
+
+        return eventTracer.isTraced(partitionId, position, ownedEventTypes);
+    }
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        logStream = context.getLogStream();
+        observedCommitPosition = -1L;
+        tracedCommitPosition = -1L;
+
+        final String topicName = BufferUtil.bufferAsString(logStream.getTopicName());
+        final String partitionId = String.valueOf(logStream.getPartitionId());
+
+        processingTime = newHistogram("event_processing_time_ns", topicName, partitionId);
+        sideEffectsTime = newHistogram("event_side_effects_time_ns", topicName, partitionId);
+        commitLag = newHistogram("event_commit_lag_ns", topicName, partitionId);
+
+        replayedEvents = newMetric("stream_processor_replayed_events_count", "counter", topicName, partitionId);
+        replayTime = newMetric("stream_processor_replay_time_ms", "gauge", topicName, partitionId);
+
+        isReplaying = true;
+        replayedEventCount = 0;
+        openTime = System.nanoTime();
+
+        streamProcessor.onOpen(context);
+    }
+
+    private Histogram newHistogram(String name, String topicName, String partitionId)
+    {
+        return histogramManager.newHistogram(name)
+            .label("processor", processorName)
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .create();
+    }
+
+    private Metric newMetric(String name, String type, String topicName, String partitionId)
+    {
+        return metricsManager.newMetric(name)
+            .type(type)
+            .label("processor", processorName)
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .create();
+    }
+
+    protected void onEventProcessed(boolean hasExecutedSideEffects, long now)
+    {
+        if (isReplaying)
+        {
+            if (hasExecutedSideEffects)
+            {
+                isReplaying = false;
+
+                if (replayedEventCount > 0)
+                {
+                    Loggers.SYSTEM_LOGGER.debug("Stream processor {} of log {} replayed {} events in {} ms",
+                            processorName, logStream.getLogName(), replayedEventCount, TimeUnit.NANOSECONDS.toMillis(now - openTime));
+                }
+            }
+            else
+            {
+                replayedEventCount++;
+                replayedEvents.setOrdered(replayedEventCount);
+                replayTime.setOrdered(TimeUnit.NANOSECONDS.toMillis(now - openTime));
+            }
+        }
+    }
+
+    @Override
+    public void onClose()
+    {
+        streamProcessor.onClose();
+
+        processingTime.close();
+        sideEffectsTime.close();
+        commitLag.close();
+        replayedEvents.close();
+        replayTime.close();
+    }
+
+    protected class MeasuringEventProcessor implements EventProcessor
+    {
+        protected EventProcessor delegate;
+        protected long startTime;
+        protected long tracedPosition;
+        protected long followUpPosition;
+        protected boolean hasExecutedSideEffects;
+
+        public void wrap(EventProcessor delegate, long startTime, long tracedPosition)
+        {
+            this.delegate = delegate;
+            this.startTime = startTime;
+            this.tracedPosition = tracedPosition;
+            this.followUpPosition = -1L;
+            this.hasExecutedSideEffects = false;
+        }
+
+        @Override
+        public void processEvent()
+        {
+            delegate.processEvent();
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            hasExecutedSideEffects = true;
+
+            final long sideEffectsStartTime = System.nanoTime();
+            final boolean success = delegate.executeSideEffects();
+
+            if (success)
+            {
+                sideEffectsTime.recordValue(System.nanoTime() - sideEffectsStartTime);
+            }
+
+            return success;
+        }
+
+        @Override
+        public long writeEvent(LogStreamWriter writer)
+        {
+            final long position = delegate.writeEvent(writer);
+            followUpPosition = position;
+            return position;
+        }
+
+        @Override
+        public void updateState()
+        {
+            delegate.updateState();
+
+            final long now = System.nanoTime();
+            processingTime.recordValue(now - startTime);
+            onEventProcessed(hasExecutedSideEffects, now);
+
+            if (tracedPosition >= 0)
+            {
+                eventTracer.onProcessed(logStream.getPartitionId(), tracedPosition, followUpPosition, now);
+            }
+        }
+    }
+}
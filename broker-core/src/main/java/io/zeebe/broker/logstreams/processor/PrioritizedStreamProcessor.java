@@ -0,0 +1,65 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+
+/**
+ * Decorates a stream processor to run its actor with the priority of the given scheduling class.
+ */
+public class PrioritizedStreamProcessor implements StreamProcessor
+{
+    protected final StreamProcessor streamProcessor;
+    protected final SchedulingClass schedulingClass;
+
+    public PrioritizedStreamProcessor(StreamProcessor streamProcessor, SchedulingClass schedulingClass)
+    {
+        this.streamProcessor = streamProcessor;
+        this.schedulingClass = schedulingClass;
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return streamProcessor.getStateResource();
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        return streamProcessor.onEvent(event);
+    }
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        context.getActorControl().setPriority(schedulingClass.getPriority());
+
+        streamProcessor.onOpen(context);
+    }
+
+    @Override
+    public void onClose()
+    {
+        streamProcessor.onClose();
+    }
+}
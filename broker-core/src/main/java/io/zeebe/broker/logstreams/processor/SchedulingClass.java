@@ -0,0 +1,55 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import io.zeebe.util.sched.ActorPriority;
+
+/**
+ * Defines how the actor of a stream processor is prioritized against the other actors of the broker.
+ */
+public enum SchedulingClass
+{
+    /**
+     * Processes the commands of clients (e.g. creating workflow instances or completing tasks).
+     * Runs before regular actors so that client requests are answered with low latency, even
+     * if many subscriptions push events.
+     */
+    COMMAND(ActorPriority.HIGH),
+
+    /**
+     * The priority of all actors which don't declare one.
+     */
+    DEFAULT(ActorPriority.REGULAR),
+
+    /**
+     * Work which is not latency sensitive, e.g. subscriptions which catch up with the log.
+     */
+    BACKGROUND(ActorPriority.LOW);
+
+    private final ActorPriority priority;
+
+    SchedulingClass(ActorPriority priority)
+    {
+        this.priority = priority;
+    }
+
+    public ActorPriority getPriority()
+    {
+        return priority;
+    }
+}
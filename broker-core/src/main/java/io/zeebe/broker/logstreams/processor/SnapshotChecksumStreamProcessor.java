@@ -0,0 +1,340 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.util.Checksums;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.slf4j.Logger;
+
+/**
+ * Decorates a stream processor to append a checksum to its snapshots, see {@link Checksums}.
+ * The checksum is computed while the snapshot is written, and while the state is recovered from the
+ * snapshot. The snapshot is streamed to the state resource, holding back its last bytes which may be the
+ * trailer. If the checksum does not match, the recovered state is reset.
+ * <p>
+ * Snapshots without a checksum (i.e. written before checksums were introduced) or with a checksum of an algorithm
+ * which is not supported by this JVM are recovered without verification.
+ */
+public class SnapshotChecksumStreamProcessor implements StreamProcessor
+{
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    protected static final long TRAILER_MAGIC = 0x5a42534e41504352L;
+    protected static final int TRAILER_LENGTH = 8 + 1 + 8;
+    protected static final int BUFFER_SIZE = 16 * 1024;
+
+    protected final StreamProcessor streamProcessor;
+    protected final String processorName;
+    protected final ChecksumSnapshotSupport snapshotSupport;
+
+    public SnapshotChecksumStreamProcessor(StreamProcessor streamProcessor, String processorName)
+    {
+        this.streamProcessor = streamProcessor;
+        this.processorName = processorName;
+        this.snapshotSupport = new ChecksumSnapshotSupport(streamProcessor.getStateResource());
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return snapshotSupport;
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        return streamProcessor.onEvent(event);
+    }
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        streamProcessor.onOpen(context);
+    }
+
+    @Override
+    public void onClose()
+    {
+        streamProcessor.onClose();
+    }
+
+    protected class ChecksumSnapshotSupport implements SnapshotSupport
+    {
+        protected final SnapshotSupport delegate;
+
+        ChecksumSnapshotSupport(SnapshotSupport delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long writeSnapshot(OutputStream outputStream) throws Exception
+        {
+            final byte algorithm = Checksums.defaultAlgorithm();
+            final Checksum checksum = Checksums.newChecksum(algorithm);
+
+            final long length = delegate.writeSnapshot(new CheckedOutputStream(new NonClosingOutputStream(outputStream), checksum));
+
+            final DataOutputStream trailer = new DataOutputStream(outputStream);
+            trailer.writeLong(TRAILER_MAGIC);
+            trailer.writeByte(algorithm);
+            trailer.writeLong(checksum.getValue());
+            trailer.flush();
+
+            return length + TRAILER_LENGTH;
+        }
+
+        @Override
+        public void recoverFromSnapshot(InputStream inputStream) throws Exception
+        {
+            final TrailerInputStream snapshot = new TrailerInputStream(inputStream);
+
+            final byte defaultAlgorithm = Checksums.defaultAlgorithm();
+            final CheckedInputStream defaultChecked = new CheckedInputStream(snapshot, Checksums.newChecksum(defaultAlgorithm));
+
+            // a snapshot written by a JVM without CRC32C has a CRC32 checksum
+            final CheckedInputStream crc32Checked = defaultAlgorithm != Checksums.ALGORITHM_CRC32
+                    ? new CheckedInputStream(defaultChecked, Checksums.newChecksum(Checksums.ALGORITHM_CRC32))
+                    : defaultChecked;
+
+            try
+            {
+                delegate.recoverFromSnapshot(crc32Checked);
+            }
+            catch (Exception e)
+            {
+                // a corrupted snapshot may fail to be read, report the checksum mismatch in that case
+                drain(crc32Checked);
+                if (snapshot.hasTrailer() && !matchesChecksum(snapshot, defaultChecked, crc32Checked))
+                {
+                    final IllegalStateException mismatch = checksumMismatch();
+                    mismatch.addSuppressed(e);
+                    throw mismatch;
+                }
+                throw e;
+            }
+
+            // the state resource may not read until the end of its state
+            drain(crc32Checked);
+
+            if (snapshot.hasTrailer() && !matchesChecksum(snapshot, defaultChecked, crc32Checked))
+            {
+                delegate.reset();
+                throw checksumMismatch();
+            }
+        }
+
+        protected boolean matchesChecksum(TrailerInputStream snapshot, CheckedInputStream defaultChecked, CheckedInputStream crc32Checked)
+        {
+            final byte algorithm = snapshot.getAlgorithm();
+
+            final long actualChecksum;
+            if (algorithm == Checksums.defaultAlgorithm())
+            {
+                actualChecksum = defaultChecked.getChecksum().getValue();
+            }
+            else if (algorithm == Checksums.ALGORITHM_CRC32)
+            {
+                actualChecksum = crc32Checked.getChecksum().getValue();
+            }
+            else
+            {
+                // e.g. a CRC32C checksum on a JVM without CRC32C
+                LOG.warn("Skip verification of snapshot of stream processor '{}', its checksum algorithm {} is not supported by this JVM", processorName, algorithm);
+                return true;
+            }
+
+            return actualChecksum == snapshot.getExpectedChecksum();
+        }
+
+        protected IllegalStateException checksumMismatch()
+        {
+            return new IllegalStateException(String.format("Snapshot of stream processor '%s' does not match its checksum", processorName));
+        }
+
+        @Override
+        public void reset()
+        {
+            delegate.reset();
+        }
+
+        protected void drain(InputStream inputStream) throws IOException
+        {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            while (inputStream.read(buffer) >= 0)
+            {
+                // the checked stream updates the checksum
+            }
+        }
+    }
+
+    /**
+     * Passes the snapshot on without its trailer. The last {@link #TRAILER_LENGTH} bytes are held back until
+     * the end of the snapshot is reached. If they are not a trailer (i.e. the snapshot has no checksum), they
+     * are passed on as well. The snapshot stream is owned by the caller, so it is not closed.
+     */
+    protected static class TrailerInputStream extends InputStream
+    {
+        protected final InputStream inputStream;
+        protected final byte[] buffer = new byte[BUFFER_SIZE + TRAILER_LENGTH];
+
+        // bytes before the limit can be passed on, the bytes after it are held back
+        protected int position;
+        protected int limit;
+        protected int length;
+        protected boolean isEndOfStream;
+
+        protected boolean hasTrailer;
+        protected byte algorithm;
+        protected long expectedChecksum;
+
+        TrailerInputStream(InputStream inputStream)
+        {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            if (position == limit && !fill())
+            {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            if (position == limit && !fill())
+            {
+                return -1;
+            }
+
+            final int bytesToRead = Math.min(len, limit - position);
+            System.arraycopy(buffer, position, b, off, bytesToRead);
+            position += bytesToRead;
+
+            return bytesToRead;
+        }
+
+        protected boolean fill() throws IOException
+        {
+            while (position == limit && !isEndOfStream)
+            {
+                final int heldBack = length - position;
+                System.arraycopy(buffer, position, buffer, 0, heldBack);
+                position = 0;
+                length = heldBack;
+
+                final int read = inputStream.read(buffer, length, buffer.length - length);
+                if (read < 0)
+                {
+                    isEndOfStream = true;
+                    readTrailer();
+                }
+                else
+                {
+                    length += read;
+                    limit = Math.max(length - TRAILER_LENGTH, 0);
+                }
+            }
+
+            return position < limit;
+        }
+
+        protected void readTrailer()
+        {
+            limit = length;
+
+            if (length - position >= TRAILER_LENGTH)
+            {
+                final ByteBuffer trailer = ByteBuffer.wrap(buffer, length - TRAILER_LENGTH, TRAILER_LENGTH);
+
+                if (trailer.getLong() == TRAILER_MAGIC)
+                {
+                    hasTrailer = true;
+                    algorithm = trailer.get();
+                    expectedChecksum = trailer.getLong();
+                    limit = length - TRAILER_LENGTH;
+                }
+            }
+        }
+
+        public boolean hasTrailer()
+        {
+            return hasTrailer;
+        }
+
+        public byte getAlgorithm()
+        {
+            return algorithm;
+        }
+
+        public long getExpectedChecksum()
+        {
+            return expectedChecksum;
+        }
+
+        @Override
+        public void close()
+        {
+            // the snapshot stream is closed by its owner
+        }
+    }
+
+    /**
+     * The trailer is written after the state, so the state resource must not close the snapshot stream.
+     */
+    protected static class NonClosingOutputStream extends FilterOutputStream
+    {
+        NonClosingOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            flush();
+        }
+    }
+}
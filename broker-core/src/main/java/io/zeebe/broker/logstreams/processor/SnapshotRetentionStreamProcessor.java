@@ -0,0 +1,206 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.logstreams.LogRetention;
+import io.zeebe.logstreams.log.LogStreamReader;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.ReadableSnapshot;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.slf4j.Logger;
+
+/**
+ * Decorates a stream processor to retain the log from the position of its latest committed snapshot on.
+ * <p>
+ * The position is read from the snapshot storage, so it only advances after the stream processor
+ * controller committed the snapshot. A processor without a snapshot retains the complete log, unless its
+ * snapshot was written before it processed an event - then it retains the log from its reader position on.
+ * The stream processor factory already retains the position when the processor is built, so that the log is
+ * not compacted while the processor waits to replay. When the processor is closed, e.g. because the broker
+ * became follower of the partition, its retention stays, since the processor recovers from its last snapshot
+ * when it is opened again. A processor without a snapshot keeps retaining the complete log.
+ */
+public class SnapshotRetentionStreamProcessor implements StreamProcessor
+{
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    protected static final long NO_SNAPSHOT = Long.MIN_VALUE;
+
+    protected final StreamProcessor streamProcessor;
+    protected final LogRetention retention;
+    protected final SnapshotStorage snapshotStorage;
+    protected final String processorName;
+    protected final String snapshotName;
+    protected final RetainingSnapshotSupport snapshotSupport;
+
+    protected LogStreamReader logStreamReader;
+    protected boolean snapshotWritten = false;
+    protected long snapshotReaderPosition = -1L;
+
+    /**
+     * @param snapshotName the name of the processor's snapshots in the storage, see
+     *          {@link StreamProcessorServiceFactory#snapshotName(String, String)}
+     */
+    public SnapshotRetentionStreamProcessor(
+            StreamProcessor streamProcessor,
+            LogRetention retention,
+            SnapshotStorage snapshotStorage,
+            String processorName,
+            String snapshotName)
+    {
+        this.streamProcessor = streamProcessor;
+        this.retention = retention;
+        this.snapshotStorage = snapshotStorage;
+        this.processorName = processorName;
+        this.snapshotName = snapshotName;
+        this.snapshotSupport = new RetainingSnapshotSupport(streamProcessor.getStateResource());
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return snapshotSupport;
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        if (snapshotWritten)
+        {
+            // the controller commits the snapshot right after writing it
+            retainCommittedSnapshot();
+        }
+
+        return streamProcessor.onEvent(event);
+    }
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        logStreamReader = context.getLogStreamReader();
+        snapshotWritten = false;
+
+        final long snapshotPosition = getLastSnapshotPosition();
+        retention.retainSnapshot(processorName, snapshotPosition >= 0 ? snapshotPosition : LogRetention.RETAIN_ALL);
+
+        streamProcessor.onOpen(context);
+    }
+
+    @Override
+    public void onClose()
+    {
+        streamProcessor.onClose();
+
+        final long snapshotPosition = getLastSnapshotPosition();
+
+        retention.retainSnapshot(processorName, snapshotPosition >= 0 ? snapshotPosition : LogRetention.RETAIN_ALL);
+    }
+
+    protected void retainCommittedSnapshot()
+    {
+        snapshotWritten = false;
+
+        final long snapshotPosition = getLastSnapshotPosition();
+
+        if (snapshotPosition >= 0)
+        {
+            retention.retainSnapshot(processorName, snapshotPosition);
+        }
+        else if (snapshotPosition != NO_SNAPSHOT && snapshotReaderPosition >= 0)
+        {
+            // the snapshot was written before an event was processed
+            retention.retainSnapshot(processorName, snapshotReaderPosition);
+        }
+    }
+
+    protected long getLastSnapshotPosition()
+    {
+        return getLastSnapshotPosition(snapshotStorage, snapshotName);
+    }
+
+    /**
+     * @return the position of the last committed snapshot with the given name, or a negative value if there is none
+     */
+    public static long getLastSnapshotPosition(SnapshotStorage snapshotStorage, String snapshotName)
+    {
+        try
+        {
+            final ReadableSnapshot snapshot = snapshotStorage.getLastSnapshot(snapshotName);
+
+            if (snapshot != null)
+            {
+                try
+                {
+                    return snapshot.getPosition();
+                }
+                finally
+                {
+                    snapshot.getData().close();
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Failed to read last snapshot of {}, keep retained log position", snapshotName, e);
+        }
+
+        return NO_SNAPSHOT;
+    }
+
+    protected class RetainingSnapshotSupport implements SnapshotSupport
+    {
+        protected final SnapshotSupport delegate;
+
+        RetainingSnapshotSupport(SnapshotSupport delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long writeSnapshot(OutputStream outputStream) throws Exception
+        {
+            final long length = delegate.writeSnapshot(outputStream);
+
+            // the retained position is advanced when the snapshot is committed
+            snapshotWritten = true;
+            snapshotReaderPosition = logStreamReader != null ? logStreamReader.getPosition() : -1L;
+
+            return length;
+        }
+
+        @Override
+        public void recoverFromSnapshot(InputStream inputStream) throws Exception
+        {
+            delegate.recoverFromSnapshot(inputStream);
+        }
+
+        @Override
+        public void reset()
+        {
+            delegate.reset();
+        }
+    }
+}
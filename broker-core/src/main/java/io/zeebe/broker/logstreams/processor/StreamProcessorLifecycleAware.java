@@ -25,6 +25,21 @@ public interface StreamProcessorLifecycleAware
 
     };
 
+    /**
+     * Invoked after the state resources of the stream processor are recovered from a snapshot.
+     */
+    default void onRecovered(TypedStreamProcessor streamProcessor)
+    {
+    };
+
+    /**
+     * Invoked after the state resources of the stream processor are reset, e.g. because a recovered
+     * snapshot turned out to be invalid. Derived state must be discarded as well.
+     */
+    default void onReset(TypedStreamProcessor streamProcessor)
+    {
+    };
+
     default void onClose()
     {
     };
@@ -18,6 +18,24 @@
 package io.zeebe.broker.logstreams.processor;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+import io.zeebe.broker.logstreams.LogRetention;
+import io.zeebe.broker.logstreams.cfg.SnapshotStorageCfg;
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
+import io.zeebe.broker.system.metrics.EventTracer;
+import io.zeebe.broker.system.metrics.HistogramManager;
+import io.zeebe.broker.system.threads.PartitionSchedulers;
+import io.zeebe.broker.util.ParallelismLimiter;
 
 import io.zeebe.logstreams.LogStreams;
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
@@ -27,26 +45,62 @@ import io.zeebe.logstreams.processor.EventFilter;
 import io.zeebe.logstreams.processor.StreamProcessor;
 import io.zeebe.logstreams.spi.SnapshotStorage;
 import io.zeebe.protocol.Protocol;
+import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.util.EnsureUtil;
+import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.ActorScheduler;
 import io.zeebe.util.sched.future.ActorFuture;
-
-public class StreamProcessorServiceFactory implements Service<StreamProcessorServiceFactory>
+import io.zeebe.util.sched.future.CompletableActorFuture;
+
+/**
+ * Builds the services of the stream processors. Opening a stream processor replays its log from the last
+ * snapshot; not more than the configured number of stream processors replay at the same time. Read-only
+ * stream processors have no state to recover, so they are opened immediately. When a log stream is removed,
+ * the stream processors which still wait for or run their replay on it are canceled, so that they free
+ * their replay slot.
+ */
+public class StreamProcessorServiceFactory extends Actor implements Service<StreamProcessorServiceFactory>
 {
-    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(15);
-
     private final Injector<SnapshotStorage> snapshotStorageInjector = new Injector<>();
 
     private final ServiceContainer serviceContainer;
+    private final SnapshotStorageCfg snapshotCfg;
+    private final Duration snapshotPeriod;
+    private final HistogramManager histogramManager;
+    private final EventTracer eventTracer;
+    private final DirectMemoryAccountant memoryAccountant;
+    private final PartitionSchedulers partitionSchedulers;
+    private final ParallelismLimiter replayLimiter;
+    private final Map<String, LogRetention> retentionsByLog = new ConcurrentHashMap<>();
+    private final Map<String, List<CompletableActorFuture<StreamProcessorService>>> replaysByLog = new HashMap<>();
+
+    private final ServiceGroupReference<LogStream> logStreamsGroupReference = ServiceGroupReference.<LogStream>create()
+        .onRemove((logStreamServiceName, logStream) -> onLogStreamRemoved(logStream))
+        .build();
 
     private ActorScheduler actorScheduler;
+    private ExecutorService snapshotBaseWriter;
     private SnapshotStorage snapshotStorage;
 
-    public StreamProcessorServiceFactory(ServiceContainer serviceContainer)
+    public StreamProcessorServiceFactory(
+            ServiceContainer serviceContainer,
+            SnapshotStorageCfg snapshotCfg,
+            HistogramManager histogramManager,
+            EventTracer eventTracer,
+            DirectMemoryAccountant memoryAccountant,
+            PartitionSchedulers partitionSchedulers,
+            int replayParallelism)
     {
         this.serviceContainer = serviceContainer;
+        this.snapshotCfg = snapshotCfg;
+        this.snapshotPeriod = Duration.ofSeconds(snapshotCfg.snapshotPeriod);
+        this.histogramManager = histogramManager;
+        this.eventTracer = eventTracer;
+        this.memoryAccountant = memoryAccountant;
+        this.partitionSchedulers = partitionSchedulers;
+        this.replayLimiter = new ParallelismLimiter(actor, replayParallelism);
     }
 
     @Override
@@ -55,6 +109,35 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
         this.actorScheduler = startContext.getScheduler();
 
         snapshotStorage = snapshotStorageInjector.getValue();
+
+        if (snapshotCfg.incremental)
+        {
+            snapshotBaseWriter = Executors.newSingleThreadExecutor(r ->
+            {
+                final Thread thread = new Thread(r, "snapshot-base-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        startContext.async(actorScheduler.submitActor(this));
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        if (snapshotBaseWriter != null)
+        {
+            snapshotBaseWriter.shutdown();
+        }
+
+        stopContext.async(actor.close());
+    }
+
+    @Override
+    public String getName()
+    {
+        return "stream-processor-factory";
     }
 
     @Override
@@ -63,11 +146,63 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
         return this;
     }
 
+    public EventTracer getEventTracer()
+    {
+        return eventTracer;
+    }
+
+    public DirectMemoryAccountant getDirectMemoryAccountant()
+    {
+        return memoryAccountant;
+    }
+
     public Injector<SnapshotStorage> getSnapshotStorageInjector()
     {
         return snapshotStorageInjector;
     }
 
+    public ServiceGroupReference<LogStream> getLogStreamsGroupReference()
+    {
+        return logStreamsGroupReference;
+    }
+
+    private void onLogStreamRemoved(LogStream logStream)
+    {
+        final String logName = logStream.getLogName();
+
+        actor.call(() ->
+        {
+            final List<CompletableActorFuture<StreamProcessorService>> replays = replaysByLog.remove(logName);
+            if (replays != null)
+            {
+                for (CompletableActorFuture<StreamProcessorService> replay : replays)
+                {
+                    if (!replay.isDone())
+                    {
+                        replay.completeExceptionally(new IllegalStateException(String.format("Log stream '%s' was removed", logName)));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the positions of the given log which are still required by its consumers
+     */
+    public LogRetention getLogRetention(String logName)
+    {
+        return retentionsByLog.computeIfAbsent(logName, name -> new LogRetention());
+    }
+
+    /**
+     * @return the name of the snapshots of the given stream processor. The snapshot storage is shared by all
+     *         log streams of the broker, so the name is qualified by the log name.
+     */
+    public static String snapshotName(String logName, String processorName)
+    {
+        return String.format("%s.%s", logName, processorName);
+    }
+
     public Builder createService(LogStream logStream)
     {
         return new Builder(logStream);
@@ -83,6 +218,8 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
 
         protected MetadataFilter customEventFilter;
         protected boolean readOnly = false;
+        protected SchedulingClass schedulingClass = SchedulingClass.DEFAULT;
+        protected final EnumSet<EventType> ownedEventTypes = EnumSet.noneOf(EventType.class);
 
         public Builder(LogStream logStream)
         {
@@ -120,6 +257,22 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
             return this;
         }
 
+        public Builder schedulingClass(SchedulingClass schedulingClass)
+        {
+            this.schedulingClass = schedulingClass;
+            return this;
+        }
+
+        /**
+         * The event types of the client commands which are processed by this stream processor. Only the owner
+         * of a traced command reports it as processed to the {@link EventTracer}.
+         */
+        public Builder ownedEventTypes(EventType... eventTypes)
+        {
+            this.ownedEventTypes.addAll(Arrays.asList(eventTypes));
+            return this;
+        }
+
         public Builder readOnly(boolean readOnly)
         {
             this.readOnly = readOnly;
@@ -131,7 +284,44 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
             EnsureUtil.ensureNotNull("stream processor", streamProcessor);
             EnsureUtil.ensureNotNullOrEmpty("processor name", processorName);
             EnsureUtil.ensureGreaterThan("process id", processorId, -1);
+            EnsureUtil.ensureNotNull("scheduling class", schedulingClass);
 
+            if (readOnly)
+            {
+                return buildService();
+            }
+            else
+            {
+                // retain the log from the last snapshot on while the stream processor waits for its replay
+                final LogRetention retention = getLogRetention(logStream.getLogName());
+                final String snapshotName = snapshotName(logStream.getLogName(), processorName);
+                retention.retainSnapshot(processorName, SnapshotRetentionStreamProcessor.getLastSnapshotPosition(snapshotStorage, snapshotName));
+
+                // the service is started when the stream processor has replayed its log
+                final CompletableActorFuture<StreamProcessorService> future = new CompletableActorFuture<>();
+                actor.call(() ->
+                {
+                    final List<CompletableActorFuture<StreamProcessorService>> replays = replaysByLog.computeIfAbsent(logStream.getLogName(), name -> new ArrayList<>());
+                    replays.add(future);
+
+                    replayLimiter.submit(this::buildService, future);
+
+                    actor.runOnCompletion(future, (service, failure) ->
+                    {
+                        replays.remove(future);
+
+                        if (failure != null)
+                        {
+                            retention.release(processorName);
+                        }
+                    });
+                });
+                return future;
+            }
+        }
+
+        private ActorFuture<StreamProcessorService> buildService()
+        {
             MetadataFilter metadataFilter = new VersionFilter();
             if (customEventFilter != null)
             {
@@ -139,11 +329,50 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
             }
             final EventFilter eventFilter = new MetadataEventFilter(metadataFilter);
 
-            return LogStreams.createStreamProcessor(processorName, processorId, streamProcessor)
-                .actorScheduler(actorScheduler)
+            StreamProcessor processor = streamProcessor;
+            if (snapshotCfg.incremental && !readOnly)
+            {
+                final IncrementalSnapshotSupport snapshotSupport = new IncrementalSnapshotSupport(
+                        streamProcessor.getStateResource(),
+                        snapshotStorage,
+                        snapshotName(logStream.getLogName(), processorName),
+                        IncrementalSnapshotSupport.DEFAULT_BLOCK_SIZE,
+                        snapshotBaseWriter,
+                        snapshotCfg.baseMergeMemory * 1024L * 1024L);
+
+                processor = new IncrementalSnapshotStreamProcessor(streamProcessor, snapshotSupport);
+            }
+
+            processor = new SnapshotChecksumStreamProcessor(processor, processorName);
+
+            if (!readOnly)
+            {
+                processor = new SnapshotRetentionStreamProcessor(
+                        processor,
+                        getLogRetention(logStream.getLogName()),
+                        snapshotStorage,
+                        processorName,
+                        snapshotName(logStream.getLogName(), processorName));
+            }
+
+            final LongSupplier stateSize = MemoryAccountingStreamProcessor.stateSizeOf(streamProcessor);
+            if (stateSize != null)
+            {
+                processor = new MemoryAccountingStreamProcessor(processor, stateSize, memoryAccountant, processorName);
+            }
+
+            if (schedulingClass != SchedulingClass.DEFAULT)
+            {
+                processor = new PrioritizedStreamProcessor(processor, schedulingClass);
+            }
+
+            processor = new MetricsStreamProcessor(processor, histogramManager, eventTracer, ownedEventTypes, actorScheduler.getMetricsManager(), processorName);
+
+            return LogStreams.createStreamProcessor(processorName, processorId, processor)
+                .actorScheduler(partitionSchedulers.getScheduler(logStream.getPartitionId()))
                 .serviceContainer(serviceContainer)
                 .snapshotStorage(snapshotStorage)
-                .snapshotPeriod(SNAPSHOT_INTERVAL)
+                .snapshotPeriod(snapshotPeriod)
                 .logStream(logStream)
                 .eventFilter(eventFilter)
                 .readOnly(readOnly)
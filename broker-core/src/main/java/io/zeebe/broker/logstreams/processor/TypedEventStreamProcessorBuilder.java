@@ -54,7 +54,21 @@ public class TypedEventStreamProcessorBuilder
             eventProcessors.put(eventType, processorsForType);
         }
 
-        processorsForType.put(state, processor);
+        final TypedEventProcessor<?> registeredProcessor = (TypedEventProcessor<?>) processorsForType.get(state);
+
+        if (registeredProcessor == null)
+        {
+            processorsForType.put(state, processor);
+        }
+        else if (registeredProcessor instanceof CompositeTypedEventProcessor)
+        {
+            ((CompositeTypedEventProcessor) registeredProcessor).add(processor);
+        }
+        else
+        {
+            // happens when multiple components are fused into one stream processor
+            processorsForType.put(state, new CompositeTypedEventProcessor(registeredProcessor, processor));
+        }
 
         return this;
     }
@@ -85,6 +99,16 @@ public class TypedEventStreamProcessorBuilder
         return this;
     }
 
+    /**
+     * Registers a state resource with a custom snapshot format. The caller is responsible
+     * to release the underlying resource, e.g. via {@link #withListener(StreamProcessorLifecycleAware)}.
+     */
+    public TypedEventStreamProcessorBuilder withStateResource(ComposableSnapshotSupport snapshotSupport)
+    {
+        this.stateResources.add(snapshotSupport);
+        return this;
+    }
+
     public TypedStreamProcessor build()
     {
 
@@ -101,6 +125,7 @@ public class TypedEventStreamProcessorBuilder
 
         return new TypedStreamProcessor(
                 snapshotSupport,
+                stateResources,
                 environment.getOutput(),
                 eventProcessors,
                 lifecycleListeners,
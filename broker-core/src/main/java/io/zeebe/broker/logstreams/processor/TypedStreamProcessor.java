@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.logstreams.processor;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
@@ -34,6 +36,7 @@ import io.zeebe.logstreams.log.LoggedEvent;
 import io.zeebe.logstreams.processor.EventProcessor;
 import io.zeebe.logstreams.processor.StreamProcessor;
 import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
 import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.protocol.clientapi.EventType;
@@ -44,10 +47,11 @@ import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
-public class TypedStreamProcessor implements StreamProcessor
+public class TypedStreamProcessor implements StreamProcessor, StateSizeAware
 {
 
     protected final SnapshotSupport snapshotSupport;
+    protected final List<ComposableSnapshotSupport> stateResources;
     protected final ServerOutput output;
     protected final EnumMap<EventType, EnumMap> eventProcessors;
     protected final List<StreamProcessorLifecycleAware> lifecycleListeners = new ArrayList<>();
@@ -63,12 +67,14 @@ public class TypedStreamProcessor implements StreamProcessor
 
     public TypedStreamProcessor(
             SnapshotSupport snapshotSupport,
+            List<ComposableSnapshotSupport> stateResources,
             ServerOutput output,
             EnumMap<EventType, EnumMap> eventProcessors,
             List<StreamProcessorLifecycleAware> lifecycleListeners,
             EnumMap<EventType, Class<? extends UnpackedObject>> eventRegistry)
     {
-        this.snapshotSupport = snapshotSupport;
+        this.snapshotSupport = new RecoveryListeningSnapshotSupport(snapshotSupport);
+        this.stateResources = stateResources;
         this.output = output;
         this.eventProcessors = eventProcessors;
         eventProcessors.values().forEach(p -> this.lifecycleListeners.addAll(p.values()));
@@ -106,6 +112,17 @@ public class TypedStreamProcessor implements StreamProcessor
         return snapshotSupport;
     }
 
+    @Override
+    public long getStateSize()
+    {
+        long size = 0;
+        for (int i = 0; i < stateResources.size(); i++)
+        {
+            size += stateResources.get(i).snapshotSize();
+        }
+        return size;
+    }
+
     @Override
     public EventProcessor onEvent(LoggedEvent event)
     {
@@ -184,6 +201,42 @@ public class TypedStreamProcessor implements StreamProcessor
         }
     }
 
+    /**
+     * Notifies the lifecycle listeners when the state resources are recovered from a snapshot or reset, so
+     * that they can rebuild derived state which is not part of the snapshot.
+     */
+    protected class RecoveryListeningSnapshotSupport implements SnapshotSupport
+    {
+        protected final SnapshotSupport delegate;
+
+        public RecoveryListeningSnapshotSupport(SnapshotSupport delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long writeSnapshot(OutputStream outputStream) throws Exception
+        {
+            return delegate.writeSnapshot(outputStream);
+        }
+
+        @Override
+        public void recoverFromSnapshot(InputStream inputStream) throws Exception
+        {
+            delegate.recoverFromSnapshot(inputStream);
+
+            lifecycleListeners.forEach(e -> e.onRecovered(TypedStreamProcessor.this));
+        }
+
+        @Override
+        public void reset()
+        {
+            delegate.reset();
+
+            lifecycleListeners.forEach(e -> e.onReset(TypedStreamProcessor.this));
+        }
+    }
+
     protected static class DelegatingEventProcessor implements EventProcessor
     {
 
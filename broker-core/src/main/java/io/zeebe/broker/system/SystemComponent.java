@@ -38,7 +38,7 @@ public class SystemComponent implements Component
     {
         final ServiceContainer serviceContainer = context.getServiceContainer();
 
-        final MetricsFileWriterService metricsFileWriterService = new MetricsFileWriterService(context.getConfigurationManager().readEntry("metrics", MetricsCfg.class));
+        final MetricsFileWriterService metricsFileWriterService = new MetricsFileWriterService(context.getConfigurationManager().readEntry("metrics", MetricsCfg.class), context.getHistogramManager());
         serviceContainer.createService(METRICS_FILE_WRITER, metricsFileWriterService)
             .install();
 
@@ -69,6 +69,7 @@ public class SystemComponent implements Component
 
         final WorkflowRequestMessageHandlerService workflowRequestHandlerService = new WorkflowRequestMessageHandlerService();
         serviceContainer.createService(WORKFLOW_REQUEST_MESSAGE_HANDLER_SERVICE, workflowRequestHandlerService)
+            .dependency(TransportServiceNames.bufferingServerTransport(TransportServiceNames.MANAGEMENT_API_SERVER_NAME), workflowRequestHandlerService.getManagementServerInjector())
             .groupReference(LogStreamServiceNames.WORKFLOW_STREAM_GROUP, workflowRequestHandlerService.getLogStreamsGroupReference())
             .install();
     }
@@ -23,6 +23,11 @@ public class SystemConfiguration extends ComponentConfiguration
 
     private long deploymentCreationTimeoutSeconds = 10;
 
+    /**
+     * The time in seconds in which each required start action of the broker components must complete.
+     */
+    private long startTimeoutSeconds = 20;
+
     public long getPartitionCreationTimeoutSeconds()
     {
         return partitionCreationTimeoutSeconds;
@@ -32,4 +37,9 @@ public class SystemConfiguration extends ComponentConfiguration
     {
         return deploymentCreationTimeoutSeconds;
     }
+
+    public long getStartTimeoutSeconds()
+    {
+        return startTimeoutSeconds;
+    }
 }
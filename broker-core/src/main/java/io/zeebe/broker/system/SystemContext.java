@@ -24,6 +24,12 @@ import java.util.concurrent.*;
 
 import io.zeebe.broker.Broker;
 import io.zeebe.broker.Loggers;
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
+import io.zeebe.broker.system.memory.cfg.DirectMemoryCfg;
+import io.zeebe.broker.system.metrics.EventTracer;
+import io.zeebe.broker.system.metrics.HistogramManager;
+import io.zeebe.broker.system.metrics.cfg.MetricsCfg;
+import io.zeebe.broker.system.threads.PartitionSchedulers;
 import io.zeebe.broker.system.threads.cfg.ThreadingCfg;
 import io.zeebe.broker.transport.cfg.SocketBindingCfg;
 import io.zeebe.broker.transport.cfg.TransportComponentCfg;
@@ -54,8 +60,12 @@ public class SystemContext implements AutoCloseable
 
     protected Map<String, String> diagnosticContext;
     protected final ActorScheduler scheduler;
+    protected final PartitionSchedulers partitionSchedulers;
 
     private MetricsManager metricsManager;
+    private HistogramManager histogramManager;
+    private EventTracer eventTracer;
+    private DirectMemoryAccountant directMemoryAccountant;
 
 
     public SystemContext(String configFileLocation, ActorClock clock)
@@ -75,19 +85,41 @@ public class SystemContext implements AutoCloseable
 
         this.configurationManager = configurationManager;
         // TODO: submit diagnosticContext to actor scheduler once supported
-        this.metricsManager = initMetricsManager(brokerId);
-        this.scheduler = initScheduler(clock, brokerId);
+        final Map<String, String> globalLabels = initGlobalMetricLabels(brokerId);
+        this.metricsManager = new MetricsManager("zb_", globalLabels);
+        this.histogramManager = new HistogramManager("zb_", globalLabels);
+        this.eventTracer = initEventTracer();
+
+        final ThreadingCfg threadingCfg = configurationManager.readEntry("threading", ThreadingCfg.class);
+        this.scheduler = initScheduler(threadingCfg, clock, brokerId);
+        this.partitionSchedulers = new PartitionSchedulers(scheduler, Math.max(0, threadingCfg.partitionThreads), clock, metricsManager, brokerId);
         this.serviceContainer = new ServiceContainerImpl(this.scheduler);
         this.scheduler.start();
+        this.partitionSchedulers.start();
+        this.directMemoryAccountant = initDirectMemoryAccountant();
         initBrokerInfoMetric();
     }
 
-    private MetricsManager initMetricsManager(String brokerId)
+    private Map<String, String> initGlobalMetricLabels(String brokerId)
     {
         final Map<String, String> globalLabels = new HashMap<>();
         globalLabels.put("cluster", "zeebe");
         globalLabels.put("node", brokerId);
-        return new MetricsManager("zb_", globalLabels);
+        return globalLabels;
+    }
+
+    private EventTracer initEventTracer()
+    {
+        final MetricsCfg cfg = configurationManager.readEntry("metrics", MetricsCfg.class);
+        return cfg.traceSampleRate > 0 ? new EventTracer(cfg.traceSampleRate, histogramManager) : EventTracer.DISABLED;
+    }
+
+    private DirectMemoryAccountant initDirectMemoryAccountant()
+    {
+        final DirectMemoryCfg cfg = configurationManager.readEntry("memory", DirectMemoryCfg.class);
+        final DirectMemoryAccountant accountant = new DirectMemoryAccountant(cfg, metricsManager);
+        scheduler.submitActor(accountant);
+        return accountant;
     }
 
     private void initBrokerInfoMetric()
@@ -100,9 +132,8 @@ public class SystemContext implements AutoCloseable
                 .incrementOrdered();
     }
 
-    private ActorScheduler initScheduler(ActorClock clock, String brokerId)
+    private ActorScheduler initScheduler(ThreadingCfg cfg, ActorClock clock, String brokerId)
     {
-        final ThreadingCfg cfg = configurationManager.readEntry("threading", ThreadingCfg.class);
         int numberOfThreads = cfg.numberOfThreads;
 
         if (numberOfThreads > MAX_THREAD_COUNT)
@@ -116,10 +147,11 @@ public class SystemContext implements AutoCloseable
             numberOfThreads = MAX_THREAD_COUNT;
         }
 
-        final int ioBoundThreads = 2;
-        final int cpuBoundThreads = Math.max(1, numberOfThreads - ioBoundThreads);
+        final int ioBoundThreads = Math.max(1, cfg.ioBoundThreads);
+        final int partitionThreads = Math.max(0, cfg.partitionThreads);
+        final int cpuBoundThreads = Math.max(1, numberOfThreads - ioBoundThreads - partitionThreads);
 
-        Loggers.SYSTEM_LOGGER.info("Scheduler configuration: Threads{cpu-bound: {}, io-bound: {}}.", cpuBoundThreads, ioBoundThreads);
+        Loggers.SYSTEM_LOGGER.info("Scheduler configuration: Threads{cpu-bound: {}, io-bound: {}, partition: {}}.", cpuBoundThreads, ioBoundThreads, partitionThreads);
 
         return ActorScheduler.newActorScheduler()
                              .setActorClock(clock)
@@ -143,6 +175,26 @@ public class SystemContext implements AutoCloseable
         return scheduler;
     }
 
+    public PartitionSchedulers getPartitionSchedulers()
+    {
+        return partitionSchedulers;
+    }
+
+    public HistogramManager getHistogramManager()
+    {
+        return histogramManager;
+    }
+
+    public EventTracer getEventTracer()
+    {
+        return eventTracer;
+    }
+
+    public DirectMemoryAccountant getDirectMemoryAccountant()
+    {
+        return directMemoryAccountant;
+    }
+
     public ServiceContainer getServiceContainer()
     {
         return serviceContainer;
@@ -160,6 +212,9 @@ public class SystemContext implements AutoCloseable
 
     public void init()
     {
+        final long startTime = System.nanoTime();
+        final long startTimeout = configurationManager.readEntry("system", SystemConfiguration.class).getStartTimeoutSeconds();
+
         serviceContainer.start();
 
         for (Component brokerComponent : components)
@@ -179,7 +234,7 @@ public class SystemContext implements AutoCloseable
         {
             for (ActorFuture<?> requiredStartAction : requiredStartActions)
             {
-                requiredStartAction.get(20, TimeUnit.SECONDS);
+                requiredStartAction.get(startTimeout, TimeUnit.SECONDS);
             }
         }
         catch (Exception e)
@@ -189,6 +244,13 @@ public class SystemContext implements AutoCloseable
             throw new RuntimeException(e);
         }
 
+        final long startupTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        LOG.info("Broker started in {} ms", startupTime);
+
+        metricsManager.newMetric("broker_startup_time_ms")
+            .type("gauge")
+            .create()
+            .setOrdered(startupTime);
     }
 
     @Override
@@ -212,6 +274,7 @@ public class SystemContext implements AutoCloseable
         {
             try
             {
+                partitionSchedulers.stop(CLOSE_TIMEOUT, TimeUnit.SECONDS);
                 scheduler.stop().get(CLOSE_TIMEOUT, TimeUnit.SECONDS);
             }
             catch (TimeoutException e)
@@ -28,11 +28,20 @@ import org.agrona.concurrent.UnsafeBuffer;
 
 import io.zeebe.broker.system.deployment.data.PendingDeployments.PendingDeployment;
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.map.Bytes2LongZbMap;
 import io.zeebe.map.Long2BytesZbMap;
 import io.zeebe.map.iterator.Long2BytesZbMapEntry;
 
 /**
  * deployment-key -> (deployment-event-position, timeout, topic-name)
+ *
+ * and the index
+ *
+ * topic-name -> pending deployment count
+ *
+ * <p>
+ * The index is not part of the snapshot. It must be rebuilt by {@link #rebuildTopicIndex()}
+ * after the map is recovered or reset.
  */
 public class PendingDeployments implements Iterable<PendingDeployment>
 {
@@ -49,6 +58,7 @@ public class PendingDeployments implements Iterable<PendingDeployment>
     private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
 
     private final Long2BytesZbMap map = new Long2BytesZbMap(VALUE_LENGTH);
+    private final Bytes2LongZbMap topics = new Bytes2LongZbMap(LogStream.MAX_TOPIC_NAME_LENGTH);
 
     private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[VALUE_LENGTH]);
     private final UnsafeBuffer topicNameBuffer = new UnsafeBuffer(0, 0);
@@ -61,6 +71,11 @@ public class PendingDeployments implements Iterable<PendingDeployment>
         return map;
     }
 
+    public Bytes2LongZbMap getRawTopicMap()
+    {
+        return topics;
+    }
+
     public PendingDeployment get(long deploymentKey)
     {
         final DirectBuffer currentValue = map.get(deploymentKey);
@@ -78,6 +93,11 @@ public class PendingDeployments implements Iterable<PendingDeployment>
 
     public void put(long deploymentKey, long deploymentEventPosition, DirectBuffer topicName)
     {
+        if (map.get(deploymentKey) == null)
+        {
+            updatePendingDeploymentCount(topicName, 1);
+        }
+
         buffer.putLong(DEPLOYMENT_EVENT_POSITION_OFFSET, deploymentEventPosition, BYTE_ORDER);
         buffer.putInt(STATE_OFFSET, STATE_UNRESOLVED, BYTE_ORDER);
 
@@ -99,9 +119,45 @@ public class PendingDeployments implements Iterable<PendingDeployment>
 
     public void remove(long deploymentKey)
     {
+        final PendingDeployment pendingDeployment = get(deploymentKey);
+        if (pendingDeployment != null)
+        {
+            updatePendingDeploymentCount(pendingDeployment.getTopicName(), -1);
+        }
+
         map.remove(deploymentKey);
     }
 
+    public boolean hasPendingDeploymentForTopic(DirectBuffer topicName)
+    {
+        return topics.get(topicName, 0, topicName.capacity(), 0L) > 0;
+    }
+
+    private void updatePendingDeploymentCount(DirectBuffer topicName, int delta)
+    {
+        final long count = topics.get(topicName, 0, topicName.capacity(), 0L) + delta;
+
+        if (count > 0)
+        {
+            topics.put(topicName, 0, topicName.capacity(), count);
+        }
+        else
+        {
+            topics.remove(topicName, 0, topicName.capacity(), 0L);
+        }
+    }
+
+    public void rebuildTopicIndex()
+    {
+        topics.clear();
+
+        final PendingDeploymentIterator iterator = iterator();
+        while (iterator.hasNext())
+        {
+            updatePendingDeploymentCount(iterator.next().getTopicName(), 1);
+        }
+    }
+
     public boolean isEmpty()
     {
         return !iterator().hasNext();
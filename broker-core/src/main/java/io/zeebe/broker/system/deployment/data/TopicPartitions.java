@@ -23,6 +23,7 @@ import java.nio.ByteOrder;
 import java.util.Iterator;
 
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.map.Bytes2BytesZbMap;
 import io.zeebe.map.Long2BytesZbMap;
 import io.zeebe.map.iterator.Long2BytesZbMapEntry;
 import org.agrona.DirectBuffer;
@@ -30,6 +31,14 @@ import org.agrona.concurrent.UnsafeBuffer;
 
 /**
  * partition-id => (state, topicName)
+ *
+ * and the index
+ *
+ * topicName => (partition count, created partition count)
+ *
+ * <p>
+ * The index is not part of the snapshot. It must be rebuilt by {@link #rebuildTopicIndex()}
+ * after the map is recovered or reset.
  */
 public class TopicPartitions
 {
@@ -42,21 +51,33 @@ public class TopicPartitions
     private static final int TOPIC_NAME_LENGTH_OFFSET = STATE_OFFSET + SIZE_OF_LONG;
     private static final int TOPIC_NAME_OFFSET = TOPIC_NAME_LENGTH_OFFSET + SIZE_OF_INT;
 
+    private static final int TOPIC_VALUE_LENGTH = 2 * SIZE_OF_INT;
+
+    private static final int PARTITION_COUNT_OFFSET = 0;
+    private static final int CREATED_PARTITION_COUNT_OFFSET = PARTITION_COUNT_OFFSET + SIZE_OF_INT;
+
     private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
 
     private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[VALUE_LENGTH]);
+    private final UnsafeBuffer topicBuffer = new UnsafeBuffer(new byte[TOPIC_VALUE_LENGTH]);
     private final UnsafeBuffer topicNameBuffer = new UnsafeBuffer(0, 0);
 
     private final TopicPartition topicPartition = new TopicPartition();
     private final TopicPartitionIterator iterator = new TopicPartitionIterator();
 
     private final Long2BytesZbMap map = new Long2BytesZbMap(VALUE_LENGTH);
+    private final Bytes2BytesZbMap topics = new Bytes2BytesZbMap(LogStream.MAX_TOPIC_NAME_LENGTH, TOPIC_VALUE_LENGTH);
 
     public Long2BytesZbMap getRawMap()
     {
         return map;
     }
 
+    public Bytes2BytesZbMap getRawTopicMap()
+    {
+        return topics;
+    }
+
     public TopicPartition get(int partitionId)
     {
         final DirectBuffer currentValue = map.get(partitionId);
@@ -74,6 +95,12 @@ public class TopicPartitions
 
     public void put(int partitionId, DirectBuffer topicName, short state)
     {
+        final DirectBuffer previousValue = map.get(partitionId);
+        final boolean isNewPartition = previousValue == null;
+        final boolean wasCreated = !isNewPartition && previousValue.getShort(STATE_OFFSET, BYTE_ORDER) == STATE_CREATED;
+
+        updateTopic(topicName, isNewPartition, wasCreated, state == STATE_CREATED);
+
         buffer.putShort(STATE_OFFSET, state, BYTE_ORDER);
 
         final int topicNameLength = topicName.capacity();
@@ -83,6 +110,70 @@ public class TopicPartitions
         map.put(partitionId, buffer);
     }
 
+    /**
+     * @return <code>true</code> if the topic has at least one partition and all of its partitions are created
+     */
+    public boolean isTopicCreated(DirectBuffer topicName)
+    {
+        final DirectBuffer topicValue = topics.get(topicName);
+
+        if (topicValue != null)
+        {
+            final int partitionCount = topicValue.getInt(PARTITION_COUNT_OFFSET, BYTE_ORDER);
+            final int createdPartitionCount = topicValue.getInt(CREATED_PARTITION_COUNT_OFFSET, BYTE_ORDER);
+
+            return partitionCount > 0 && partitionCount == createdPartitionCount;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    public void rebuildTopicIndex()
+    {
+        topics.clear();
+
+        final TopicPartitionIterator iterator = iterator();
+        while (iterator.hasNext())
+        {
+            final TopicPartition partition = iterator.next();
+            updateTopic(partition.getTopicName(), true, false, partition.getState() == STATE_CREATED);
+        }
+    }
+
+    private void updateTopic(DirectBuffer topicName, boolean isNewPartition, boolean wasCreated, boolean isCreated)
+    {
+        int partitionCount = 0;
+        int createdPartitionCount = 0;
+
+        final DirectBuffer topicValue = topics.get(topicName);
+        if (topicValue != null)
+        {
+            partitionCount = topicValue.getInt(PARTITION_COUNT_OFFSET, BYTE_ORDER);
+            createdPartitionCount = topicValue.getInt(CREATED_PARTITION_COUNT_OFFSET, BYTE_ORDER);
+        }
+
+        if (isNewPartition)
+        {
+            partitionCount += 1;
+        }
+
+        if (!wasCreated && isCreated)
+        {
+            createdPartitionCount += 1;
+        }
+        else if (wasCreated && !isCreated)
+        {
+            createdPartitionCount -= 1;
+        }
+
+        topicBuffer.putInt(PARTITION_COUNT_OFFSET, partitionCount, BYTE_ORDER);
+        topicBuffer.putInt(CREATED_PARTITION_COUNT_OFFSET, createdPartitionCount, BYTE_ORDER);
+
+        topics.put(topicName, topicBuffer);
+    }
+
     public TopicPartitionIterator iterator()
     {
         iterator.reset();
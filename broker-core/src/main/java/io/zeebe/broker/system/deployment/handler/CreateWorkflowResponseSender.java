@@ -17,24 +17,78 @@
  */
 package io.zeebe.broker.system.deployment.handler;
 
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.system.deployment.message.CreateWorkflowResponse;
 import io.zeebe.transport.*;
+import org.agrona.collections.IntArrayList;
 import org.slf4j.Logger;
 
+/**
+ * Responds to create workflow requests. A request can create the workflow on multiple partitions
+ * of this broker. The response is sent when the workflow is created on all of them, so that the
+ * deploying broker gets one response per broker instead of one per partition.
+ *
+ * <p>
+ * If a partition is removed from this broker (e.g. on a leader change) or the acks don't arrive in time,
+ * a partial response with the partitions created so far is sent, see {@link #onPartitionRemoved(int)}
+ * and {@link #expirePendingResponses(long)}. The deploying broker does not retry the remaining partitions:
+ * they stay pending until the deployment times out, and then the deployment is rejected and its workflows
+ * are deleted (see {@code DeploymentTimedOutProcessor}).
+ *
+ * <p>
+ * Shared by the workflow instance stream processors of all partitions, so it is thread-safe.
+ */
 public class CreateWorkflowResponseSender
 {
     private static final Logger LOG = Loggers.SYSTEM_LOGGER;
 
+    /**
+     * should be shorter than the request timeout of the deploying broker, so that it still gets the response
+     */
+    public static final Duration PENDING_RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+
     private final CreateWorkflowResponse response = new CreateWorkflowResponse();
 
     private final ServerResponse serverResponse = new ServerResponse();
 
     private final ServerOutput output;
 
+    private final Map<PendingResponseKey, PendingResponse> pendingResponses = new ConcurrentHashMap<>();
+
+    private final long pendingResponseTimeoutInMillis;
+
     public CreateWorkflowResponseSender(ServerTransport managementServer)
     {
-        this.output = managementServer.getOutput();
+        this(managementServer.getOutput(), PENDING_RESPONSE_TIMEOUT);
+    }
+
+    public CreateWorkflowResponseSender(ServerOutput output, Duration pendingResponseTimeout)
+    {
+        this.output = output;
+        this.pendingResponseTimeoutInMillis = pendingResponseTimeout.toMillis();
+    }
+
+    /**
+     * Registers a request which creates the workflow on the given partitions of this broker.
+     * Must be called before the workflow is created on any of them.
+     */
+    public void expectResponse(
+            int requestStreamId,
+            long requestId,
+            long workflowKey,
+            long deploymentKey,
+            IntArrayList partitionIds)
+    {
+        final long deadline = System.currentTimeMillis() + pendingResponseTimeoutInMillis;
+        final PendingResponse pendingResponse = new PendingResponse(partitionIds, workflowKey, deploymentKey, deadline);
+
+        pendingResponses.put(new PendingResponseKey(requestStreamId, requestId), pendingResponse);
     }
 
     public boolean sendCreateWorkflowResponse(
@@ -44,11 +98,112 @@ public class CreateWorkflowResponseSender
             long requestId,
             int requestStreamId)
     {
-        LOG.debug("Respond to create workflow request with id '{}'. Deployment-Key: {}, Workflow-Key: {}",
-                  requestId, deploymentKey, workflowKey);
+        final PendingResponseKey key = new PendingResponseKey(requestStreamId, requestId);
+        final PendingResponse pendingResponse = pendingResponses.get(key);
+
+        if (pendingResponse == null)
+        {
+            // not registered (e.g. the broker was restarted), respond for the partition only
+            final IntArrayList partitionIds = new IntArrayList();
+            partitionIds.addInt(partitionId);
+
+            return sendResponse(partitionIds, workflowKey, deploymentKey, requestId, requestStreamId);
+        }
+
+        synchronized (pendingResponse)
+        {
+            pendingResponse.complete(partitionId);
+
+            if (!pendingResponse.isComplete())
+            {
+                return true;
+            }
+
+            final boolean success = sendResponse(pendingResponse.createdPartitionIds, workflowKey, deploymentKey, requestId, requestStreamId);
+
+            if (success)
+            {
+                pendingResponses.remove(key);
+            }
+
+            return success;
+        }
+    }
+
+    /**
+     * The workflow is not created on the partition anymore by this broker. Responds to the requests
+     * which only wait for this partition, with the partitions created so far.
+     */
+    public void onPartitionRemoved(int partitionId)
+    {
+        final Iterator<Entry<PendingResponseKey, PendingResponse>> iterator = pendingResponses.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            final Entry<PendingResponseKey, PendingResponse> entry = iterator.next();
+            final PendingResponse pendingResponse = entry.getValue();
+
+            synchronized (pendingResponse)
+            {
+                if (pendingResponse.discard(partitionId) && pendingResponse.isComplete())
+                {
+                    respondPartially(entry.getKey(), pendingResponse, iterator);
+                }
+            }
+        }
+    }
+
+    /**
+     * Responds to the requests which wait longer than the timeout, with the partitions created so far.
+     */
+    public void expirePendingResponses(long now)
+    {
+        final Iterator<Entry<PendingResponseKey, PendingResponse>> iterator = pendingResponses.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            final Entry<PendingResponseKey, PendingResponse> entry = iterator.next();
+            final PendingResponse pendingResponse = entry.getValue();
+
+            synchronized (pendingResponse)
+            {
+                if (pendingResponse.deadline <= now)
+                {
+                    respondPartially(entry.getKey(), pendingResponse, iterator);
+                }
+            }
+        }
+    }
+
+    private void respondPartially(PendingResponseKey key, PendingResponse pendingResponse, Iterator<?> iterator)
+    {
+        if (pendingResponse.createdPartitionIds.isEmpty())
+        {
+            // nothing to respond, the deploying broker times out the request
+            iterator.remove();
+        }
+        else if (sendResponse(pendingResponse.createdPartitionIds, pendingResponse.workflowKey, pendingResponse.deploymentKey, key.requestId, key.requestStreamId))
+        {
+            iterator.remove();
+        }
+        // else: retried on the next expiration
+    }
+
+    public int getPendingResponseCount()
+    {
+        return pendingResponses.size();
+    }
+
+    private synchronized boolean sendResponse(
+            IntArrayList partitionIds,
+            long workflowKey,
+            long deploymentKey,
+            long requestId,
+            int requestStreamId)
+    {
+        LOG.debug("Respond to create workflow request with id '{}'. Deployment-Key: {}, Workflow-Key: {}, Partitions: {}",
+                  requestId, deploymentKey, workflowKey, partitionIds);
 
         response
-            .partitionId(partitionId)
+            .partitionIds(partitionIds)
             .workflowKey(workflowKey)
             .deploymentKey(deploymentKey);
 
@@ -60,4 +215,72 @@ public class CreateWorkflowResponseSender
         return output.sendResponse(serverResponse);
     }
 
+    private static final class PendingResponse
+    {
+        private final IntArrayList pendingPartitionIds = new IntArrayList();
+        private final IntArrayList createdPartitionIds = new IntArrayList();
+        private final long workflowKey;
+        private final long deploymentKey;
+        private final long deadline;
+
+        PendingResponse(IntArrayList partitionIds, long workflowKey, long deploymentKey, long deadline)
+        {
+            pendingPartitionIds.addAll(partitionIds);
+            this.workflowKey = workflowKey;
+            this.deploymentKey = deploymentKey;
+            this.deadline = deadline;
+        }
+
+        void complete(int partitionId)
+        {
+            if (pendingPartitionIds.removeInt(partitionId))
+            {
+                createdPartitionIds.addInt(partitionId);
+            }
+        }
+
+        boolean discard(int partitionId)
+        {
+            return pendingPartitionIds.removeInt(partitionId);
+        }
+
+        boolean isComplete()
+        {
+            return pendingPartitionIds.isEmpty();
+        }
+    }
+
+    private static final class PendingResponseKey
+    {
+        private final int requestStreamId;
+        private final long requestId;
+
+        PendingResponseKey(int requestStreamId, long requestId)
+        {
+            this.requestStreamId = requestStreamId;
+            this.requestId = requestId;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof PendingResponseKey))
+            {
+                return false;
+            }
+
+            final PendingResponseKey that = (PendingResponseKey) o;
+            return requestStreamId == that.requestStreamId && requestId == that.requestId;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * requestStreamId + Long.hashCode(requestId);
+        }
+    }
 }
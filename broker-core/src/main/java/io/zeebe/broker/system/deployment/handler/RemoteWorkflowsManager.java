@@ -62,6 +62,8 @@ public class RemoteWorkflowsManager implements StreamProcessorLifecycleAware
 
     private final TransportMessage transportMessage = new TransportMessage();
 
+    private final IntArrayList memberPartitionIds = new IntArrayList();
+
     private final PartitionManager partitionManager;
     private final ClientTransport managementClient;
     private final ClientOutput output;
@@ -93,6 +95,10 @@ public class RemoteWorkflowsManager implements StreamProcessorLifecycleAware
         this.actor = streamProcessor.getActor();
     }
 
+    /**
+     * Sends one request to each broker which leads some of the given partitions. The request
+     * contains the workflow once and the ids of the partitions it is created on.
+     */
     public boolean distributeWorkflow(
             IntArrayList partitionIds,
             long workflowKey,
@@ -105,16 +111,40 @@ public class RemoteWorkflowsManager implements StreamProcessorLifecycleAware
             .bpmnProcessId(event.getBpmnProcessId())
             .bpmnXml(event.getBpmnXml());
 
-        return forEachPartition(partitionIds, createRequest::partitionId, addr ->
+        final Iterator<Member> members = partitionManager.getKnownMembers();
+
+        while (members.hasNext())
         {
-            LOG.debug("Send create workflow request to '{}'. Deployment-Key: {}, Workflow-Key: {}",
-                addr, event.getDeploymentKey(), workflowKey);
+            final Member member = members.next();
 
-            final ActorFuture<ClientResponse> requestFuture = sendRequest(createRequest, addr);
-            actor.runOnCompletion(requestFuture, this::onRequestResolved);
+            memberPartitionIds.clear();
 
-            return true;
-        });
+            final IntIterator leadingPartitions = member.getLeadingPartitions();
+            while (leadingPartitions.hasNext())
+            {
+                final int partitionId = leadingPartitions.nextInt();
+
+                if (partitionIds.containsInt(partitionId))
+                {
+                    memberPartitionIds.addInt(partitionId);
+                }
+            }
+
+            if (!memberPartitionIds.isEmpty())
+            {
+                final SocketAddress addr = member.getManagementAddress();
+
+                LOG.debug("Send create workflow request to '{}'. Deployment-Key: {}, Workflow-Key: {}, Partitions: {}",
+                    addr, event.getDeploymentKey(), workflowKey, memberPartitionIds);
+
+                createRequest.partitionIds(memberPartitionIds);
+
+                final ActorFuture<ClientResponse> requestFuture = sendRequest(createRequest, addr);
+                actor.runOnCompletion(requestFuture, this::onRequestResolved);
+            }
+        }
+
+        return true;
     }
 
     public boolean deleteWorkflow(
@@ -194,15 +224,27 @@ public class RemoteWorkflowsManager implements StreamProcessorLifecycleAware
             final DirectBuffer responseBuffer = request.getResponseBuffer();
             createResponse.wrap(responseBuffer, 0, responseBuffer.capacity());
 
+            if (!createResponse.hasSupportedVersion())
+            {
+                // the workflow stays pending, so the deployment is rejected when it times out
+                LOG.warn("Ignore create workflow response of unsupported version.");
+                return;
+            }
+
             final long workflowKey = createResponse.getWorkflowKey();
-            final int partitionId = createResponse.getPartitionId();
             final long deploymentKey = createResponse.getDeploymentKey();
 
-            final PendingWorkflow pendingWorkflow = pendingWorkflows.get(workflowKey, partitionId);
-            if (pendingWorkflow != null && pendingWorkflow.getState() == PendingWorkflows.STATE_CREATE)
+            final IntArrayList partitionIds = createResponse.getPartitionIds();
+            for (int i = 0; i < partitionIds.size(); i++)
             {
-                // ignore response if pending workflow or deployment is already processed
-                pendingWorkflows.put(workflowKey, partitionId, PendingWorkflows.STATE_CREATED, deploymentKey);
+                final int partitionId = partitionIds.getInt(i);
+
+                final PendingWorkflow pendingWorkflow = pendingWorkflows.get(workflowKey, partitionId);
+                if (pendingWorkflow != null && pendingWorkflow.getState() == PendingWorkflows.STATE_CREATE)
+                {
+                    // ignore response if pending workflow or deployment is already processed
+                    pendingWorkflows.put(workflowKey, partitionId, PendingWorkflows.STATE_CREATED, deploymentKey);
+                }
             }
 
             if (isDeploymentDistributed(deploymentKey))
@@ -29,6 +29,7 @@ import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.DeferredCommandContext;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
 
 public class WorkflowRequestMessageHandler
 {
@@ -44,6 +45,27 @@ public class WorkflowRequestMessageHandler
 
     private final LogStreamWriter logStreamWriter = new LogStreamWriterImpl();
 
+    private final CreateWorkflowResponseSender createWorkflowResponseSender;
+
+    /*
+     * a create request is retried if the workflow can't be written to all partitions at once;
+     * the partitions it is already written to are skipped then
+     */
+    private int pendingRequestStreamId = -1;
+    private long pendingRequestId = -1;
+    private final IntArrayList pendingPartitionIds = new IntArrayList();
+    private final IntArrayList writtenPartitionIds = new IntArrayList();
+
+    public WorkflowRequestMessageHandler(CreateWorkflowResponseSender createWorkflowResponseSender)
+    {
+        this.createWorkflowResponseSender = createWorkflowResponseSender;
+    }
+
+    public CreateWorkflowResponseSender getCreateWorkflowResponseSender()
+    {
+        return createWorkflowResponseSender;
+    }
+
     public boolean onCreateWorkflowRequest(
             DirectBuffer buffer,
             int offset,
@@ -51,31 +73,77 @@ public class WorkflowRequestMessageHandler
             RemoteAddress remoteAddress,
             long requestId)
     {
+        final int requestStreamId = remoteAddress.getStreamId();
+
         eventMetadata.reset()
             .requestId(requestId)
-            .requestStreamId(remoteAddress.getStreamId())
+            .requestStreamId(requestStreamId)
             .protocolVersion(Protocol.PROTOCOL_VERSION)
             .eventType(EventType.WORKFLOW_EVENT);
 
         createRequest.wrap(buffer, offset, length);
 
-        final LogStream logStream = getLogStream(createRequest.getPartitionId());
-        if (logStream != null)
+        if (requestStreamId != pendingRequestStreamId || requestId != pendingRequestId)
         {
-            workflowEvent.reset();
-            workflowEvent
-                .setState(WorkflowState.CREATE)
-                .setDeploymentKey(createRequest.getDeploymentKey())
-                .setBpmnProcessId(createRequest.getBpmnProcessId())
-                .setVersion(createRequest.getVersion())
-                .setBpmnXml(createRequest.getBpmnXml());
-
-            return writeWorkflowEvent(createRequest.getWorkflowKey(), logStream);
+            pendingPartitionIds.clear();
+            writtenPartitionIds.clear();
+
+            final IntArrayList partitionIds = createRequest.getPartitionIds();
+            for (int i = 0; i < partitionIds.size(); i++)
+            {
+                final int partitionId = partitionIds.getInt(i);
+
+                if (getLogStream(partitionId) != null)
+                {
+                    pendingPartitionIds.addInt(partitionId);
+                }
+            }
+
+            if (pendingPartitionIds.isEmpty())
+            {
+                return true;
+            }
+
+            createWorkflowResponseSender.expectResponse(
+                requestStreamId,
+                requestId,
+                createRequest.getWorkflowKey(),
+                createRequest.getDeploymentKey(),
+                pendingPartitionIds);
+
+            pendingRequestStreamId = requestStreamId;
+            pendingRequestId = requestId;
         }
-        else
+
+        workflowEvent.reset();
+        workflowEvent
+            .setState(WorkflowState.CREATE)
+            .setDeploymentKey(createRequest.getDeploymentKey())
+            .setBpmnProcessId(createRequest.getBpmnProcessId())
+            .setVersion(createRequest.getVersion())
+            .setBpmnXml(createRequest.getBpmnXml());
+
+        for (int i = 0; i < pendingPartitionIds.size(); i++)
         {
-            return true;
+            final int partitionId = pendingPartitionIds.getInt(i);
+
+            if (!writtenPartitionIds.containsInt(partitionId))
+            {
+                final LogStream logStream = getLogStream(partitionId);
+
+                if (logStream != null && !writeWorkflowEvent(createRequest.getWorkflowKey(), logStream))
+                {
+                    return false;
+                }
+
+                writtenPartitionIds.addInt(partitionId);
+            }
         }
+
+        pendingRequestStreamId = -1;
+        pendingRequestId = -1;
+
+        return true;
     }
 
     public boolean onDeleteWorkflowMessage(
@@ -137,5 +205,8 @@ public class WorkflowRequestMessageHandler
     public void removeStream(final LogStream logStream)
     {
         deferredContext.runAsync(() -> logStreams.remove(logStream.getPartitionId()));
+
+        // the workflow is not created anymore on this partition, don't withhold the responses waiting for it
+        createWorkflowResponseSender.onPartitionRemoved(logStream.getPartitionId());
     }
 }
@@ -18,12 +18,19 @@
 package io.zeebe.broker.system.deployment.message;
 
 import io.zeebe.clustering.management.*;
+import io.zeebe.clustering.management.CreateWorkflowRequestDecoder.PartitionIdsDecoder;
+import io.zeebe.clustering.management.CreateWorkflowRequestEncoder.PartitionIdsEncoder;
 import io.zeebe.util.buffer.BufferReader;
 import io.zeebe.util.buffer.BufferWriter;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.IntArrayList;
 import org.agrona.concurrent.UnsafeBuffer;
 
+/**
+ * Requests to create a workflow on one or more partitions of the receiving broker, so that
+ * the workflow is sent only once to each broker.
+ */
 public class CreateWorkflowRequest implements BufferReader, BufferWriter
 {
 
@@ -33,7 +40,7 @@ public class CreateWorkflowRequest implements BufferReader, BufferWriter
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final CreateWorkflowRequestDecoder bodyDecoder = new CreateWorkflowRequestDecoder();
 
-    private int partitionId = CreateWorkflowRequestEncoder.partitionIdNullValue();
+    private final IntArrayList partitionIds = new IntArrayList();
     private long workflowKey = CreateWorkflowRequestEncoder.workflowKeyNullValue();
     private long deploymentKey = CreateWorkflowRequestEncoder.deploymentKeyNullValue();
     private int version = CreateWorkflowRequestEncoder.versionNullValue();
@@ -46,15 +53,24 @@ public class CreateWorkflowRequest implements BufferReader, BufferWriter
     {
         return headerEncoder.encodedLength() +
                 bodyEncoder.sbeBlockLength() +
+                PartitionIdsEncoder.sbeHeaderSize() +
+                PartitionIdsEncoder.sbeBlockLength() * partitionIds.size() +
                 CreateWorkflowRequestEncoder.bpmnProcessIdHeaderLength() +
                 bpmnProcessId.capacity() +
                 CreateWorkflowRequestEncoder.bpmnXmlHeaderLength() +
                 bpmnXml.capacity();
     }
 
-    public CreateWorkflowRequest partitionId(int partitionId)
+    public CreateWorkflowRequest partitionIds(IntArrayList partitionIds)
+    {
+        this.partitionIds.clear();
+        this.partitionIds.addAll(partitionIds);
+        return this;
+    }
+
+    public CreateWorkflowRequest addPartitionId(int partitionId)
     {
-        this.partitionId = partitionId;
+        this.partitionIds.addInt(partitionId);
         return this;
     }
 
@@ -97,11 +113,19 @@ public class CreateWorkflowRequest implements BufferReader, BufferWriter
             .schemaId(bodyEncoder.sbeSchemaId())
             .version(bodyEncoder.sbeSchemaVersion());
 
-        bodyEncoder.wrap(buffer, offset + headerEncoder.encodedLength())
-            .partitionId(partitionId)
+        final PartitionIdsEncoder partitionIdsEncoder = bodyEncoder.wrap(buffer, offset + headerEncoder.encodedLength())
             .workflowKey(workflowKey)
             .deploymentKey(deploymentKey)
             .version(version)
+            .partitionIdsCount(partitionIds.size());
+
+        for (int i = 0; i < partitionIds.size(); i++)
+        {
+            partitionIdsEncoder.next()
+                .partitionId(partitionIds.getInt(i));
+        }
+
+        bodyEncoder
             .putBpmnProcessId(bpmnProcessId, 0, bpmnProcessId.capacity())
             .putBpmnXml(bpmnXml, 0, bpmnXml.capacity());
     }
@@ -118,12 +142,17 @@ public class CreateWorkflowRequest implements BufferReader, BufferWriter
                 headerDecoder.blockLength(),
                 headerDecoder.version());
 
-        partitionId = bodyDecoder.partitionId();
         workflowKey = bodyDecoder.workflowKey();
         deploymentKey = bodyDecoder.deploymentKey();
         version = bodyDecoder.version();
 
-        offset += headerDecoder.blockLength();
+        partitionIds.clear();
+        for (PartitionIdsDecoder partitionIdsDecoder : bodyDecoder.partitionIds())
+        {
+            partitionIds.addInt(partitionIdsDecoder.partitionId());
+        }
+
+        offset = bodyDecoder.limit();
 
         final int bpmnProcessIdLength = bodyDecoder.bpmnProcessIdLength();
         offset += CreateWorkflowRequestEncoder.bpmnProcessIdHeaderLength();
@@ -139,9 +168,9 @@ public class CreateWorkflowRequest implements BufferReader, BufferWriter
         bpmnXml.wrap(buffer, offset, bpmnXmlLength);
     }
 
-    public int getPartitionId()
+    public IntArrayList getPartitionIds()
     {
-        return partitionId;
+        return partitionIds;
     }
 
     public long getWorkflowKey()
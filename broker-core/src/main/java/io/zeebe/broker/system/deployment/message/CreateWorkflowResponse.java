@@ -18,10 +18,13 @@
 package io.zeebe.broker.system.deployment.message;
 
 import io.zeebe.clustering.management.*;
+import io.zeebe.clustering.management.CreateWorkflowResponseDecoder.PartitionIdsDecoder;
+import io.zeebe.clustering.management.CreateWorkflowResponseEncoder.PartitionIdsEncoder;
 import io.zeebe.util.buffer.BufferReader;
 import io.zeebe.util.buffer.BufferWriter;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.IntArrayList;
 
 public class CreateWorkflowResponse implements BufferReader, BufferWriter
 {
@@ -32,7 +35,7 @@ public class CreateWorkflowResponse implements BufferReader, BufferWriter
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final CreateWorkflowResponseDecoder bodyDecoder = new CreateWorkflowResponseDecoder();
 
-    private int partitionId = CreateWorkflowResponseEncoder.partitionIdNullValue();
+    private final IntArrayList partitionIds = new IntArrayList();
     private long workflowKey = CreateWorkflowResponseEncoder.workflowKeyNullValue();
     private long deploymentKey = CreateWorkflowResponseEncoder.deploymentKeyNullValue();
 
@@ -40,12 +43,22 @@ public class CreateWorkflowResponse implements BufferReader, BufferWriter
     public int getLength()
     {
         return headerEncoder.encodedLength() +
-                bodyEncoder.sbeBlockLength();
+                bodyEncoder.sbeBlockLength() +
+                PartitionIdsEncoder.sbeHeaderSize() +
+                PartitionIdsEncoder.sbeBlockLength() * partitionIds.size();
+    }
+
+    public CreateWorkflowResponse partitionIds(IntArrayList partitionIds)
+    {
+        this.partitionIds.clear();
+        this.partitionIds.addAll(partitionIds);
+        return this;
     }
 
     public CreateWorkflowResponse partitionId(int partitionId)
     {
-        this.partitionId = partitionId;
+        this.partitionIds.clear();
+        this.partitionIds.addInt(partitionId);
         return this;
     }
 
@@ -70,10 +83,16 @@ public class CreateWorkflowResponse implements BufferReader, BufferWriter
             .schemaId(bodyEncoder.sbeSchemaId())
             .version(bodyEncoder.sbeSchemaVersion());
 
-        bodyEncoder.wrap(buffer, offset + headerEncoder.encodedLength())
-            .partitionId(partitionId)
+        final PartitionIdsEncoder partitionIdsEncoder = bodyEncoder.wrap(buffer, offset + headerEncoder.encodedLength())
             .workflowKey(workflowKey)
-            .deploymentKey(deploymentKey);
+            .deploymentKey(deploymentKey)
+            .partitionIdsCount(partitionIds.size());
+
+        for (int i = 0; i < partitionIds.size(); i++)
+        {
+            partitionIdsEncoder.next()
+                .partitionId(partitionIds.getInt(i));
+        }
     }
 
     @Override
@@ -81,6 +100,16 @@ public class CreateWorkflowResponse implements BufferReader, BufferWriter
     {
         headerDecoder.wrap(buffer, offset);
 
+        partitionIds.clear();
+
+        if (!hasSupportedVersion())
+        {
+            // the partition ids are not a group before, see management schema version 2
+            workflowKey = CreateWorkflowResponseDecoder.workflowKeyNullValue();
+            deploymentKey = CreateWorkflowResponseDecoder.deploymentKeyNullValue();
+            return;
+        }
+
         offset += headerDecoder.encodedLength();
 
         bodyDecoder.wrap(buffer,
@@ -88,14 +117,23 @@ public class CreateWorkflowResponse implements BufferReader, BufferWriter
                 headerDecoder.blockLength(),
                 headerDecoder.version());
 
-        partitionId = bodyDecoder.partitionId();
         workflowKey = bodyDecoder.workflowKey();
         deploymentKey = bodyDecoder.deploymentKey();
+
+        for (PartitionIdsDecoder partitionIdsDecoder : bodyDecoder.partitionIds())
+        {
+            partitionIds.addInt(partitionIdsDecoder.partitionId());
+        }
+    }
+
+    public boolean hasSupportedVersion()
+    {
+        return headerDecoder.version() >= CreateWorkflowResponseDecoder.SCHEMA_VERSION;
     }
 
-    public int getPartitionId()
+    public IntArrayList getPartitionIds()
     {
-        return partitionId;
+        return partitionIds;
     }
 
     public long getWorkflowKey()
@@ -38,11 +38,7 @@ import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
 import io.zeebe.broker.logstreams.processor.TypedResponseWriter;
 import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.system.deployment.data.PendingDeployments;
-import io.zeebe.broker.system.deployment.data.PendingDeployments.PendingDeployment;
-import io.zeebe.broker.system.deployment.data.PendingDeployments.PendingDeploymentIterator;
 import io.zeebe.broker.system.deployment.data.TopicPartitions;
-import io.zeebe.broker.system.deployment.data.TopicPartitions.TopicPartition;
-import io.zeebe.broker.system.deployment.data.TopicPartitions.TopicPartitionIterator;
 import io.zeebe.broker.system.deployment.data.WorkflowVersions;
 import io.zeebe.broker.workflow.data.DeployedWorkflow;
 import io.zeebe.broker.workflow.data.DeploymentEvent;
@@ -57,7 +53,6 @@ import io.zeebe.model.bpmn.instance.Workflow;
 import io.zeebe.model.bpmn.instance.WorkflowDefinition;
 import io.zeebe.msgpack.value.ValueArray;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
-import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.collection.IntArrayListIterator;
 
 public class DeploymentCreateProcessor implements TypedEventProcessor<DeploymentEvent>
@@ -92,9 +87,9 @@ public class DeploymentCreateProcessor implements TypedEventProcessor<Deployment
 
         boolean success = false;
 
-        if (isTopicCreated(topicName))
+        if (topicPartitions.isTopicCreated(topicName))
         {
-            if (hasPendingDeploymentForTopic(topicName))
+            if (pendingDeployments.hasPendingDeploymentForTopic(topicName))
             {
                 // reject deployment if a previous deployment is not completed yet
                 // -- otherwise, we could run into problems with the workflow versions when the previous deployment is rejected
@@ -113,40 +108,6 @@ public class DeploymentCreateProcessor implements TypedEventProcessor<Deployment
         deploymentEvent.setState(success ? VALIDATED : REJECTED);
     }
 
-    private boolean isTopicCreated(final DirectBuffer topicName)
-    {
-        boolean hasPartition = false;
-        boolean topicPartitionsCreated = true;
-
-        final TopicPartitionIterator iterator = topicPartitions.iterator();
-        while (iterator.hasNext())
-        {
-            final TopicPartition partition = iterator.next();
-
-            if (BufferUtil.equals(topicName, partition.getTopicName()))
-            {
-                hasPartition = true;
-                topicPartitionsCreated &= partition.getState() == TopicPartitions.STATE_CREATED;
-            }
-        }
-        return hasPartition && topicPartitionsCreated;
-    }
-
-    private boolean hasPendingDeploymentForTopic(DirectBuffer topicName)
-    {
-        final PendingDeploymentIterator iterator = pendingDeployments.iterator();
-        while (iterator.hasNext())
-        {
-            final PendingDeployment pendingDeployment = iterator.next();
-
-            if (BufferUtil.equals(topicName, pendingDeployment.getTopicName()))
-            {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private boolean readAndValidateWorkflows(final DeploymentEvent deploymentEvent)
     {
         final DirectBuffer topicName = deploymentEvent.getTopicName();
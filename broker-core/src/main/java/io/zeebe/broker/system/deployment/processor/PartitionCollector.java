@@ -20,9 +20,11 @@ package io.zeebe.broker.system.deployment.processor;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.IntArrayList;
 
+import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
 import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
+import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.system.deployment.data.TopicPartitions;
 import io.zeebe.broker.system.deployment.data.TopicPartitions.TopicPartition;
 import io.zeebe.broker.system.deployment.data.TopicPartitions.TopicPartitionIterator;
@@ -57,7 +59,27 @@ public class PartitionCollector
         builder
             .onEvent(EventType.PARTITION_EVENT, PartitionState.CREATED, new PartitionCreatedProcessor())
             .onEvent(EventType.TOPIC_EVENT, TopicState.CREATED, new TopicCreatedProcessor())
-            .withStateResource(partitions.getRawMap());
+            .withStateResource(partitions.getRawMap())
+            .withListener(new StreamProcessorLifecycleAware()
+            {
+                @Override
+                public void onRecovered(TypedStreamProcessor streamProcessor)
+                {
+                    partitions.rebuildTopicIndex();
+                }
+
+                @Override
+                public void onReset(TypedStreamProcessor streamProcessor)
+                {
+                    partitions.rebuildTopicIndex();
+                }
+
+                @Override
+                public void onClose()
+                {
+                    partitions.getRawTopicMap().close();
+                }
+            });
     }
 
     public TopicPartitions getPartitions()
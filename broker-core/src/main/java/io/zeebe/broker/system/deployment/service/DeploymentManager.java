@@ -107,6 +107,8 @@ public class DeploymentManager implements Service<DeploymentManager>
             .processor(streamProcessor)
             .processorId(StreamProcessorIds.DEPLOYMENT_PROCESSOR_ID)
             .processorName("deployment")
+            .ownedEventTypes(EventType.DEPLOYMENT_EVENT)
+            .schedulingClass(SchedulingClass.COMMAND)
             .build();
     }
 
@@ -139,6 +141,26 @@ public class DeploymentManager implements Service<DeploymentManager>
             .withStateResource(workflowVersions.getRawMap())
             .withStateResource(pendingDeployments.getRawMap())
             .withStateResource(pendingWorkflows.getRawMap())
+            .withListener(new StreamProcessorLifecycleAware()
+            {
+                @Override
+                public void onRecovered(TypedStreamProcessor streamProcessor)
+                {
+                    pendingDeployments.rebuildTopicIndex();
+                }
+
+                @Override
+                public void onReset(TypedStreamProcessor streamProcessor)
+                {
+                    pendingDeployments.rebuildTopicIndex();
+                }
+
+                @Override
+                public void onClose()
+                {
+                    pendingDeployments.getRawTopicMap().close();
+                }
+            })
             .withListener(eventWriter)
             .withListener(timer)
             .withListener(remoteManager)
@@ -17,12 +17,22 @@
  */
 package io.zeebe.broker.system.deployment.service;
 
+import java.time.Duration;
+
+import io.zeebe.broker.system.deployment.handler.CreateWorkflowResponseSender;
 import io.zeebe.broker.system.deployment.handler.WorkflowRequestMessageHandler;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.servicecontainer.*;
+import io.zeebe.transport.ServerTransport;
+import io.zeebe.util.sched.Actor;
 
-public class WorkflowRequestMessageHandlerService implements Service<WorkflowRequestMessageHandler>
+public class WorkflowRequestMessageHandlerService extends Actor implements Service<WorkflowRequestMessageHandler>
 {
+    private static final Duration EXPIRE_PENDING_RESPONSES_INTERVAL = Duration.ofSeconds(1);
+
+    private final Injector<ServerTransport> managementServerInjector = new Injector<>();
+
+    private CreateWorkflowResponseSender createWorkflowResponseSender;
     private WorkflowRequestMessageHandler handler;
 
     private final ServiceGroupReference<LogStream> logStreamsGroupReference = ServiceGroupReference.<LogStream>create()
@@ -34,13 +44,29 @@ public class WorkflowRequestMessageHandlerService implements Service<WorkflowReq
     @Override
     public void start(ServiceStartContext startContext)
     {
-        handler = new WorkflowRequestMessageHandler();
+        createWorkflowResponseSender = new CreateWorkflowResponseSender(managementServerInjector.getValue());
+        handler = new WorkflowRequestMessageHandler(createWorkflowResponseSender);
+
+        startContext.async(startContext.getScheduler().submitActor(this));
     }
 
     @Override
     public void stop(ServiceStopContext stopContext)
     {
-        // nothing to stop
+        stopContext.async(actor.close());
+    }
+
+    @Override
+    public String getName()
+    {
+        return "workflow-request-handler";
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        actor.runAtFixedRate(EXPIRE_PENDING_RESPONSES_INTERVAL,
+            () -> createWorkflowResponseSender.expirePendingResponses(System.currentTimeMillis()));
     }
 
     @Override
@@ -49,6 +75,11 @@ public class WorkflowRequestMessageHandlerService implements Service<WorkflowReq
         return handler;
     }
 
+    public Injector<ServerTransport> getManagementServerInjector()
+    {
+        return managementServerInjector;
+    }
+
     public ServiceGroupReference<LogStream> getLogStreamsGroupReference()
     {
         return logStreamsGroupReference;
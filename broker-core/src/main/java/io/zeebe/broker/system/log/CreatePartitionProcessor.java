@@ -22,6 +22,7 @@ import java.time.Duration;
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.handler.TopologyBroker;
 import io.zeebe.broker.clustering.management.PartitionManager;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.transport.*;
 import io.zeebe.util.sched.ActorControl;
@@ -37,6 +38,7 @@ public class CreatePartitionProcessor implements TypedEventProcessor<PartitionEv
     protected final PendingPartitionsIndex partitions;
     protected final long creationTimeoutMillis;
     protected final SocketAddress creatorAddress = new SocketAddress();
+    protected final LogStreamSettings logSettings = new LogStreamSettings();
     private ActorControl actor;
 
     public CreatePartitionProcessor(
@@ -75,8 +77,10 @@ public class CreatePartitionProcessor implements TypedEventProcessor<PartitionEv
         creatorAddress.host(creatorHost, 0, creatorHost.capacity());
         creatorAddress.port(creator.getPort());
 
+        value.getLogSettings(logSettings);
+
         final ActorFuture<ClientResponse> partitionRemote =
-            partitionManager.createPartitionRemote(creatorAddress, value.getTopicName(), value.getId());
+            partitionManager.createPartitionRemote(creatorAddress, value.getTopicName(), value.getId(), logSettings);
 
 
         actor.runOnCompletion(partitionRemote, ((clientRequest, throwable) ->
@@ -18,7 +18,10 @@
 package io.zeebe.broker.system.log;
 
 import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
 
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.broker.logstreams.processor.TypedBatchWriter;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
@@ -30,11 +33,13 @@ import io.zeebe.transport.SocketAddress;
 
 public class CreateTopicProcessor implements TypedEventProcessor<TopicEvent>
 {
+    private static final Logger LOG = Loggers.SYSTEM_LOGGER;
 
     protected final TopicsIndex topics;
     protected final PartitionIdGenerator idGenerator;
     protected final PartitionEvent partitionEvent = new PartitionEvent();
     protected final PartitionCreatorSelectionStrategy creatorStrategy;
+    protected final LogStreamSettings logSettings = new LogStreamSettings();
 
     public CreateTopicProcessor(
             TopicsIndex topics,
@@ -60,12 +65,26 @@ public class CreateTopicProcessor implements TypedEventProcessor<TopicEvent>
         final DirectBuffer nameBuffer = value.getName();
         final boolean topicExists = topics.moveTo(nameBuffer);
 
-        if (topicExists || value.getPartitions() <= 0)
+        value.getLogSettings(logSettings);
+
+        if (topicExists || value.getPartitions() <= 0 || !isValid(logSettings))
         {
             value.setState(TopicState.CREATE_REJECTED);
         }
     }
 
+    protected static boolean isValid(LogStreamSettings logSettings)
+    {
+        final String violation = logSettings.validate();
+
+        if (violation != null)
+        {
+            LOG.debug("Reject topic creation, invalid log settings: {}", violation);
+        }
+
+        return violation == null;
+    }
+
     @Override
     public boolean executeSideEffects(TypedEvent<TopicEvent> event, TypedResponseWriter responseWriter)
     {
@@ -91,6 +110,8 @@ public class CreateTopicProcessor implements TypedEventProcessor<TopicEvent>
         {
             final TypedBatchWriter batchWriter = writer.newBatch();
 
+            value.getLogSettings(logSettings);
+
             for (int i = 0; i < value.getPartitions(); i++)
             {
                 // in contrast to choosing the partition ID, choosing the creator
@@ -107,6 +128,7 @@ public class CreateTopicProcessor implements TypedEventProcessor<TopicEvent>
                 partitionEvent.setTopicName(value.getName());
                 partitionEvent.setId(idGenerator.currentId(i));
                 partitionEvent.setCreator(nextCreator.getHostBuffer(), nextCreator.port());
+                partitionEvent.setLogSettings(logSettings);
 
                 batchWriter.addNewEvent(partitionEvent);
             }
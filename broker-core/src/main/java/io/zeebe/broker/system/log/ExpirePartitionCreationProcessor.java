@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.system.log;
 
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.broker.logstreams.processor.TypedBatchWriter;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
@@ -33,6 +34,7 @@ public class ExpirePartitionCreationProcessor implements TypedEventProcessor<Par
     protected final PartitionCreatorSelectionStrategy creatorStrategy;
 
     protected final PartitionEvent newEvent = new PartitionEvent();
+    protected final LogStreamSettings logSettings = new LogStreamSettings();
 
     public ExpirePartitionCreationProcessor(PendingPartitionsIndex partitions, PartitionIdGenerator idGenerator, PartitionCreatorSelectionStrategy creatorStrategy)
     {
@@ -87,6 +89,9 @@ public class ExpirePartitionCreationProcessor implements TypedEventProcessor<Par
             newEvent.setId(idGenerator.currentId());
             newEvent.setCreator(nextCreator.getHostBuffer(), nextCreator.port());
 
+            value.getLogSettings(logSettings);
+            newEvent.setLogSettings(logSettings);
+
             batchWriter.addNewEvent(newEvent);
         }
 
@@ -0,0 +1,169 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.log;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import io.zeebe.broker.clustering.management.PartitionManager;
+import io.zeebe.broker.clustering.member.Member;
+import io.zeebe.transport.SocketAddress;
+import io.zeebe.util.collection.IntIterator;
+import io.zeebe.util.sched.clock.ActorClock;
+
+/**
+ * Selects the broker with the lowest load for a new partition. The load of a broker consists of
+ * <ul>
+ * <li>its share of the leading partitions, including the partitions which were recently assigned to it
+ * but are not created yet, and</li>
+ * <li>its share of the commands per second, as published via gossip.</li>
+ * </ul>
+ * Brokers with the same load are selected round-robin.
+ */
+public class LoadAwareSelectionStrategy implements PartitionCreatorSelectionStrategy
+{
+    private static final double EPSILON = 0.000001;
+
+    protected final PartitionManager partitionManager;
+    protected final long selectionTimeout;
+
+    protected final SocketAddress lastSelectedBroker = new SocketAddress();
+    protected final SocketAddress selectedBroker = new SocketAddress();
+    protected final List<Selection> recentSelections = new ArrayList<>();
+
+    /**
+     * @param selectionTimeout the time after which a selection is not considered anymore,
+     *  i.e. when the partition is either created or its creation expired
+     */
+    public LoadAwareSelectionStrategy(PartitionManager partitionManager, Duration selectionTimeout)
+    {
+        this.partitionManager = partitionManager;
+        this.selectionTimeout = selectionTimeout.toMillis();
+    }
+
+    @Override
+    public SocketAddress selectBrokerForNewPartition()
+    {
+        final long now = ActorClock.currentTimeMillis();
+        recentSelections.removeIf(selection -> now - selection.time > selectionTimeout);
+
+        long totalPartitions = 0;
+        long totalLoad = 0;
+
+        Iterator<Member> knownMembers = partitionManager.getKnownMembers();
+        while (knownMembers.hasNext())
+        {
+            final Member member = knownMembers.next();
+            final SocketAddress managementAddress = member.getManagementAddress();
+
+            if (managementAddress != null)
+            {
+                totalPartitions += getPartitionCount(member, managementAddress);
+                totalLoad += member.getLoad();
+            }
+        }
+
+        boolean isSelected = false;
+        double selectedScore = Double.MAX_VALUE;
+        boolean selectedAfterLastBroker = false;
+
+        boolean afterLastBroker = false;
+
+        knownMembers = partitionManager.getKnownMembers();
+        while (knownMembers.hasNext())
+        {
+            final Member member = knownMembers.next();
+            final SocketAddress managementAddress = member.getManagementAddress();
+
+            if (managementAddress != null)
+            {
+                final double score = score(getPartitionCount(member, managementAddress), totalPartitions) + score(member.getLoad(), totalLoad);
+
+                // on equal scores, prefer the first broker after the last selected one
+                final boolean isLower = score < selectedScore - EPSILON;
+                final boolean isEqual = !isLower && score < selectedScore + EPSILON;
+
+                if (isLower || (isEqual && afterLastBroker && !selectedAfterLastBroker))
+                {
+                    selectedBroker.wrap(managementAddress);
+                    selectedScore = score;
+                    selectedAfterLastBroker = afterLastBroker;
+                    isSelected = true;
+                }
+
+                if (lastSelectedBroker.equals(managementAddress))
+                {
+                    afterLastBroker = true;
+                }
+            }
+        }
+
+        if (isSelected)
+        {
+            lastSelectedBroker.wrap(selectedBroker);
+            recentSelections.add(new Selection(selectedBroker, now));
+            return lastSelectedBroker;
+        }
+        else
+        {
+            lastSelectedBroker.reset();
+            return null;
+        }
+    }
+
+    private long getPartitionCount(Member member, SocketAddress managementAddress)
+    {
+        long count = 0;
+
+        final IntIterator leadingPartitions = member.getLeadingPartitions();
+        while (leadingPartitions.hasNext())
+        {
+            leadingPartitions.nextInt();
+            count += 1;
+        }
+
+        for (int i = 0; i < recentSelections.size(); i++)
+        {
+            if (recentSelections.get(i).broker.equals(managementAddress))
+            {
+                count += 1;
+            }
+        }
+
+        return count;
+    }
+
+    private static double score(long value, long total)
+    {
+        return total > 0 ? (double) value / total : 0;
+    }
+
+    protected static class Selection
+    {
+        protected final SocketAddress broker = new SocketAddress();
+        protected final long time;
+
+        Selection(SocketAddress broker, long time)
+        {
+            this.broker.wrap(broker);
+            this.time = time;
+        }
+    }
+}
@@ -18,6 +18,8 @@
 package io.zeebe.broker.system.log;
 
 import io.zeebe.broker.clustering.handler.TopologyBroker;
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import org.agrona.DirectBuffer;
 
 import io.zeebe.msgpack.UnpackedObject;
@@ -38,6 +40,12 @@ public class PartitionEvent extends UnpackedObject
 
     protected final ObjectProperty<TopologyBroker> creator = new ObjectProperty<>("creator", new TopologyBroker());
 
+    // log settings of the partition, see LogStreamSettings
+    protected final IntegerProperty logSegmentSize = new IntegerProperty("logSegmentSize", 0);
+    protected final IntegerProperty indexBlockSize = new IntegerProperty("indexBlockSize", 0);
+    protected final IntegerProperty writeBufferSize = new IntegerProperty("writeBufferSize", 0);
+    protected final EnumProperty<LogCompactionPolicy> compactionPolicy = new EnumProperty<>("compactionPolicy", LogCompactionPolicy.class, LogCompactionPolicy.DEFAULT);
+
     public PartitionEvent()
     {
         this
@@ -45,7 +53,11 @@ public class PartitionEvent extends UnpackedObject
             .declareProperty(id)
             .declareProperty(topicName)
             .declareProperty(creationTimeout)
-            .declareProperty(creator);
+            .declareProperty(creator)
+            .declareProperty(logSegmentSize)
+            .declareProperty(indexBlockSize)
+            .declareProperty(writeBufferSize)
+            .declareProperty(compactionPolicy);
     }
 
     public void setState(PartitionState state)
@@ -99,4 +111,21 @@ public class PartitionEvent extends UnpackedObject
     {
         return creator.getValue();
     }
+
+    public void getLogSettings(LogStreamSettings logSettings)
+    {
+        logSettings
+            .logSegmentSize(logSegmentSize.getValue())
+            .indexBlockSize(indexBlockSize.getValue())
+            .writeBufferSize(writeBufferSize.getValue())
+            .compactionPolicy(compactionPolicy.getValue());
+    }
+
+    public void setLogSettings(LogStreamSettings logSettings)
+    {
+        logSegmentSize.setValue(logSettings.getLogSegmentSize());
+        indexBlockSize.setValue(logSettings.getIndexBlockSize());
+        writeBufferSize.setValue(logSettings.getWriteBufferSize());
+        compactionPolicy.setValue(logSettings.getCompactionPolicy());
+    }
 }
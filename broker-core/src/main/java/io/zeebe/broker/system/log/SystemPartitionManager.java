@@ -113,6 +113,8 @@ public class SystemPartitionManager implements Service<SystemPartitionManager>
             .processor(streamProcessor)
             .processorId(StreamProcessorIds.SYSTEM_CREATE_TOPIC_PROCESSOR_ID)
             .processorName(CREATE_TOPICS_PROCESSOR)
+            .ownedEventTypes(EventType.TOPIC_EVENT)
+            .schedulingClass(SchedulingClass.COMMAND)
             .build();
     }
 
@@ -130,7 +132,7 @@ public class SystemPartitionManager implements Service<SystemPartitionManager>
             Runnable onOpen)
     {
         final PartitionIdGenerator idGenerator = new PartitionIdGenerator();
-        final PartitionCreatorSelectionStrategy creationStrategy = new RoundRobinSelectionStrategy(partitionManager);
+        final PartitionCreatorSelectionStrategy creationStrategy = new LoadAwareSelectionStrategy(partitionManager, creationExpiration);
 
         return streamEnvironment.newStreamProcessor()
             .onEvent(EventType.TOPIC_EVENT, TopicState.CREATE, new CreateTopicProcessor(topicsIndex, idGenerator, creationStrategy))
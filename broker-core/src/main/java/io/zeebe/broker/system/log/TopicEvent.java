@@ -19,6 +19,8 @@ package io.zeebe.broker.system.log;
 
 import org.agrona.DirectBuffer;
 
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.msgpack.property.EnumProperty;
 import io.zeebe.msgpack.property.IntegerProperty;
@@ -32,12 +34,22 @@ public class TopicEvent extends UnpackedObject
     protected final StringProperty name = new StringProperty("name");
     protected final IntegerProperty partitions = new IntegerProperty("partitions");
 
+    // log settings of the topic's partitions, see LogStreamSettings
+    protected final IntegerProperty logSegmentSize = new IntegerProperty("logSegmentSize", 0);
+    protected final IntegerProperty indexBlockSize = new IntegerProperty("indexBlockSize", 0);
+    protected final IntegerProperty writeBufferSize = new IntegerProperty("writeBufferSize", 0);
+    protected final EnumProperty<LogCompactionPolicy> compactionPolicy = new EnumProperty<>("compactionPolicy", LogCompactionPolicy.class, LogCompactionPolicy.DEFAULT);
+
     public TopicEvent()
     {
         this
             .declareProperty(state)
             .declareProperty(name)
-            .declareProperty(partitions);
+            .declareProperty(partitions)
+            .declareProperty(logSegmentSize)
+            .declareProperty(indexBlockSize)
+            .declareProperty(writeBufferSize)
+            .declareProperty(compactionPolicy);
     }
 
     public TopicState getState()
@@ -70,5 +82,20 @@ public class TopicEvent extends UnpackedObject
         this.partitions.setValue(partitions);
     }
 
+    public void getLogSettings(LogStreamSettings logSettings)
+    {
+        logSettings
+            .logSegmentSize(logSegmentSize.getValue())
+            .indexBlockSize(indexBlockSize.getValue())
+            .writeBufferSize(writeBufferSize.getValue())
+            .compactionPolicy(compactionPolicy.getValue());
+    }
 
+    public void setLogSettings(LogStreamSettings logSettings)
+    {
+        logSegmentSize.setValue(logSettings.getLogSegmentSize());
+        indexBlockSize.setValue(logSettings.getIndexBlockSize());
+        writeBufferSize.setValue(logSettings.getWriteBufferSize());
+        compactionPolicy.setValue(logSettings.getCompactionPolicy());
+    }
 }
@@ -0,0 +1,435 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.memory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.system.memory.cfg.DirectMemoryCfg;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorPriority;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntHashSet;
+import org.slf4j.Logger;
+
+/**
+ * Keeps track of the direct memory which is used by the dispatchers, log write buffers, index maps
+ * and caches of the broker. The usages are sampled periodically and exposed as metrics.
+ *
+ * <p>If the caches of a partition exceed their budget or the broker exceeds its limit, the caches
+ * are asked to shrink. Index maps and buffers can't shrink, exceeding their budget is logged. The
+ * fixed reservations (dispatchers and write buffers) are subtracted from the limit, only the
+ * remaining memory is considered for the caches. Once the caches use less than half of the memory
+ * which is left to them, they are asked to grow again.
+ */
+public class DirectMemoryAccountant extends Actor
+{
+    public static final Logger LOG = Loggers.SYSTEM_LOGGER;
+
+    public static final String COMPONENT_DISPATCHER = "dispatcher";
+    public static final String COMPONENT_LOG_WRITE_BUFFER = "log_write_buffer";
+    public static final String COMPONENT_INDEX = "index";
+    public static final String COMPONENT_CACHE = "cache";
+
+    public static final int NO_PARTITION = -1;
+
+    private static final String MAX_DIRECT_MEMORY_ARGUMENT = "-XX:MaxDirectMemorySize=";
+
+    private final MetricsManager metricsManager;
+    private final Duration samplingInterval;
+    private final long limit;
+    private final long partitionIndexBudget;
+    private final long partitionCacheBudget;
+
+    private final List<MemoryUsage> usages = new CopyOnWriteArrayList<>();
+
+    private final Int2ObjectHashMap<PartitionUsage> partitionUsages = new Int2ObjectHashMap<>();
+    private final IntHashSet exceededIndexBudgets = new IntHashSet();
+    private boolean isLimitExceeded = false;
+    private boolean isLimitExceededByReservations = false;
+
+    private final Metric totalUsedMetric;
+    private final Metric limitMetric;
+    private final Metric indexBudgetMetric;
+    private final Metric cacheBudgetMetric;
+
+    public DirectMemoryAccountant(DirectMemoryCfg cfg, MetricsManager metricsManager)
+    {
+        this.metricsManager = metricsManager;
+        this.samplingInterval = Duration.ofSeconds(cfg.samplingInterval);
+        this.limit = cfg.limit > 0 ? cfg.limit * 1024L * 1024L : maxDirectMemory(ManagementFactory.getRuntimeMXBean().getInputArguments(), Runtime.getRuntime().maxMemory());
+        this.partitionIndexBudget = cfg.partitionIndexBudget * 1024L * 1024L;
+        this.partitionCacheBudget = cfg.partitionCacheBudget * 1024L * 1024L;
+
+        totalUsedMetric = metricsManager.newMetric("direct_memory_total_used_bytes")
+            .type("gauge")
+            .create();
+
+        limitMetric = metricsManager.newMetric("direct_memory_limit_bytes")
+            .type("gauge")
+            .create();
+        limitMetric.setOrdered(limit);
+
+        indexBudgetMetric = metricsManager.newMetric("direct_memory_partition_budget_bytes")
+            .type("gauge")
+            .label("component", COMPONENT_INDEX)
+            .create();
+        indexBudgetMetric.setOrdered(partitionIndexBudget);
+
+        cacheBudgetMetric = metricsManager.newMetric("direct_memory_partition_budget_bytes")
+            .type("gauge")
+            .label("component", COMPONENT_CACHE)
+            .create();
+        cacheBudgetMetric.setOrdered(partitionCacheBudget);
+    }
+
+    @Override
+    public String getName()
+    {
+        return "direct-memory-accountant";
+    }
+
+    @Override
+    protected void onActorStarting()
+    {
+        actor.setPriority(ActorPriority.LOW);
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        actor.runAtFixedRate(samplingInterval, this::sample);
+    }
+
+    @Override
+    protected void onActorClosing()
+    {
+        totalUsedMetric.close();
+        limitMetric.close();
+        indexBudgetMetric.close();
+        cacheBudgetMetric.close();
+
+        for (MemoryUsage usage : usages)
+        {
+            usage.closeMetric();
+        }
+        usages.clear();
+    }
+
+    /**
+     * @return the interval in which the owners of variable usages should update them
+     */
+    public Duration getSamplingInterval()
+    {
+        return samplingInterval;
+    }
+
+    public long getLimit()
+    {
+        return limit;
+    }
+
+    /**
+     * Accounts a buffer of fixed size.
+     */
+    public MemoryUsage reserve(String component, int partitionId, String name, long bytes)
+    {
+        final MemoryUsage usage = register(component, partitionId, name, true, null, null);
+        usage.update(bytes);
+        return usage;
+    }
+
+    /**
+     * Accounts memory of variable size which is updated by its owner.
+     *
+     * @param pressureListener invoked on the thread of the accountant if the memory should be
+     *          reduced, e.g. by shrinking a cache; may be null
+     */
+    public MemoryUsage register(String component, int partitionId, String name, Runnable pressureListener)
+    {
+        return register(component, partitionId, name, pressureListener, null);
+    }
+
+    /**
+     * Accounts memory of variable size which is updated by its owner.
+     *
+     * @param pressureListener invoked on the thread of the accountant if the memory should be
+     *          reduced, e.g. by shrinking a cache; may be null
+     * @param reliefListener invoked on the thread of the accountant if the memory may grow again,
+     *          e.g. a shrunk cache; may be null
+     */
+    public MemoryUsage register(String component, int partitionId, String name, Runnable pressureListener, Runnable reliefListener)
+    {
+        return register(component, partitionId, name, false, pressureListener, reliefListener);
+    }
+
+    private MemoryUsage register(String component, int partitionId, String name, boolean isFixed, Runnable pressureListener, Runnable reliefListener)
+    {
+        final Metric usedMetric;
+        if (partitionId != NO_PARTITION)
+        {
+            usedMetric = metricsManager.newMetric("direct_memory_used_bytes")
+                .type("gauge")
+                .label("component", component)
+                .label("name", name)
+                .label("partition", String.valueOf(partitionId))
+                .create();
+        }
+        else
+        {
+            usedMetric = metricsManager.newMetric("direct_memory_used_bytes")
+                .type("gauge")
+                .label("component", component)
+                .label("name", name)
+                .create();
+        }
+
+        final MemoryUsage usage = new MemoryUsage(this, component, partitionId, name, isFixed, pressureListener, reliefListener, usedMetric);
+        usages.add(usage);
+
+        return usage;
+    }
+
+    void release(MemoryUsage usage)
+    {
+        if (usages.remove(usage))
+        {
+            usage.closeMetric();
+        }
+    }
+
+    /**
+     * @return the sum of all usages of the last sample
+     */
+    public long sample()
+    {
+        for (PartitionUsage partitionUsage : partitionUsages.values())
+        {
+            partitionUsage.index = 0;
+            partitionUsage.cache = 0;
+        }
+
+        long total = 0;
+        long reserved = 0;
+        for (MemoryUsage usage : usages)
+        {
+            usage.reportMetric();
+
+            final long bytes = usage.getBytes();
+            total += bytes;
+
+            if (usage.isFixed())
+            {
+                reserved += bytes;
+            }
+
+            if (usage.getPartitionId() != NO_PARTITION)
+            {
+                final PartitionUsage partitionUsage = partitionUsages.computeIfAbsent(usage.getPartitionId(), PartitionUsage::new);
+                if (COMPONENT_INDEX.equals(usage.getComponent()))
+                {
+                    partitionUsage.index += bytes;
+                }
+                else if (COMPONENT_CACHE.equals(usage.getComponent()))
+                {
+                    partitionUsage.cache += bytes;
+                }
+            }
+        }
+
+        totalUsedMetric.setOrdered(total);
+
+        final boolean isUnderPressure = checkPartitionBudgets();
+        checkLimit(total, reserved, isUnderPressure);
+
+        return total;
+    }
+
+    /**
+     * @return <code>true</code>, if the caches of a partition were asked to shrink
+     */
+    private boolean checkPartitionBudgets()
+    {
+        boolean isUnderPressure = false;
+
+        for (PartitionUsage partitionUsage : partitionUsages.values())
+        {
+            final int partitionId = partitionUsage.partitionId;
+
+            if (partitionCacheBudget > 0 && partitionUsage.cache > partitionCacheBudget)
+            {
+                LOG.debug("Caches of partition {} use {} bytes, exceeding their budget of {} bytes. Shrinking caches.", partitionId, partitionUsage.cache, partitionCacheBudget);
+                relievePressure(u -> u.getPartitionId() == partitionId);
+                isUnderPressure = true;
+            }
+
+            if (partitionIndexBudget > 0 && partitionUsage.index > partitionIndexBudget)
+            {
+                if (exceededIndexBudgets.add(partitionId))
+                {
+                    LOG.warn("Indices of partition {} use {} bytes, exceeding their budget of {} bytes.", partitionId, partitionUsage.index, partitionIndexBudget);
+                }
+            }
+            else
+            {
+                exceededIndexBudgets.remove(partitionId);
+            }
+        }
+
+        return isUnderPressure;
+    }
+
+    private void checkLimit(long total, long reserved, boolean isUnderPressure)
+    {
+        // the reservations can't shrink, so the caches only compete for the remaining memory
+        final long variableLimit = limit - reserved;
+        final long variableTotal = total - reserved;
+
+        if (variableLimit <= 0)
+        {
+            if (!isLimitExceededByReservations)
+            {
+                LOG.warn("Buffers reserve {} bytes of direct memory, exceeding the limit of {} bytes. Shrinking caches can't help, increase the limit.", reserved, limit);
+                isLimitExceededByReservations = true;
+            }
+            return;
+        }
+
+        isLimitExceededByReservations = false;
+
+        if (variableTotal > variableLimit)
+        {
+            if (!isLimitExceeded)
+            {
+                LOG.warn("Broker uses {} bytes of direct memory, exceeding the limit of {} bytes. Shrinking caches.", total, limit);
+                isLimitExceeded = true;
+            }
+            relievePressure(u -> true);
+        }
+        else
+        {
+            isLimitExceeded = false;
+
+            // growing doubles a cache at most, so stay below half of the memory which is left
+            if (!isUnderPressure && variableTotal < variableLimit / 2)
+            {
+                allowGrowth();
+            }
+        }
+    }
+
+    private void allowGrowth()
+    {
+        for (MemoryUsage usage : usages)
+        {
+            if (COMPONENT_CACHE.equals(usage.getComponent()) && hasCacheBudgetToGrow(usage.getPartitionId()))
+            {
+                try
+                {
+                    usage.onRelief();
+                }
+                catch (Exception e)
+                {
+                    LOG.error("Failed to grow memory of {}", usage, e);
+                }
+            }
+        }
+    }
+
+    private boolean hasCacheBudgetToGrow(int partitionId)
+    {
+        if (partitionCacheBudget <= 0 || partitionId == NO_PARTITION)
+        {
+            return true;
+        }
+
+        final PartitionUsage partitionUsage = partitionUsages.get(partitionId);
+        return partitionUsage == null || partitionUsage.cache * 2 <= partitionCacheBudget;
+    }
+
+    private void relievePressure(Predicate<MemoryUsage> filter)
+    {
+        for (MemoryUsage usage : usages)
+        {
+            if (COMPONENT_CACHE.equals(usage.getComponent()) && filter.test(usage))
+            {
+                try
+                {
+                    usage.onPressure();
+                }
+                catch (Exception e)
+                {
+                    LOG.error("Failed to reduce memory of {}", usage, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the value of -XX:MaxDirectMemorySize, or the maximum heap size which is the default of the JVM
+     */
+    static long maxDirectMemory(List<String> jvmArguments, long maxHeapSize)
+    {
+        for (String argument : jvmArguments)
+        {
+            if (argument.startsWith(MAX_DIRECT_MEMORY_ARGUMENT))
+            {
+                return parseSize(argument.substring(MAX_DIRECT_MEMORY_ARGUMENT.length()));
+            }
+        }
+        return maxHeapSize;
+    }
+
+    static long parseSize(String size)
+    {
+        final char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+        final String number = size.substring(0, size.length() - 1);
+
+        switch (unit)
+        {
+            case 'k':
+                return Long.parseLong(number) * 1024L;
+            case 'm':
+                return Long.parseLong(number) * 1024L * 1024L;
+            case 'g':
+                return Long.parseLong(number) * 1024L * 1024L * 1024L;
+            case 't':
+                return Long.parseLong(number) * 1024L * 1024L * 1024L * 1024L;
+            default:
+                return Long.parseLong(size);
+        }
+    }
+
+    private static final class PartitionUsage
+    {
+        final int partitionId;
+        long index;
+        long cache;
+
+        PartitionUsage(int partitionId)
+        {
+            this.partitionId = partitionId;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.memory;
+
+import io.zeebe.util.metrics.Metric;
+
+/**
+ * The direct memory used by a single buffer, index or cache. The owner updates the usage from
+ * its own thread, the accountant only reads it. Closing the usage releases it from the
+ * accountant.
+ */
+public class MemoryUsage implements AutoCloseable
+{
+    private final DirectMemoryAccountant accountant;
+    private final String component;
+    private final int partitionId;
+    private final String name;
+    private final boolean isFixed;
+    private final Runnable pressureListener;
+    private final Runnable reliefListener;
+    private final Metric usedMetric;
+
+    private volatile long bytes;
+
+    MemoryUsage(
+            DirectMemoryAccountant accountant,
+            String component,
+            int partitionId,
+            String name,
+            boolean isFixed,
+            Runnable pressureListener,
+            Runnable reliefListener,
+            Metric usedMetric)
+    {
+        this.accountant = accountant;
+        this.component = component;
+        this.partitionId = partitionId;
+        this.name = name;
+        this.isFixed = isFixed;
+        this.pressureListener = pressureListener;
+        this.reliefListener = reliefListener;
+        this.usedMetric = usedMetric;
+    }
+
+    public void update(long bytes)
+    {
+        this.bytes = bytes;
+    }
+
+    public long getBytes()
+    {
+        return bytes;
+    }
+
+    public String getComponent()
+    {
+        return component;
+    }
+
+    public int getPartitionId()
+    {
+        return partitionId;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return <code>true</code>, if the usage is a reservation of fixed size, see {@link DirectMemoryAccountant#reserve(String, int, String, long)}
+     */
+    public boolean isFixed()
+    {
+        return isFixed;
+    }
+
+    void onPressure()
+    {
+        if (pressureListener != null)
+        {
+            pressureListener.run();
+        }
+    }
+
+    void onRelief()
+    {
+        if (reliefListener != null)
+        {
+            reliefListener.run();
+        }
+    }
+
+    void reportMetric()
+    {
+        usedMetric.setOrdered(bytes);
+    }
+
+    void closeMetric()
+    {
+        usedMetric.close();
+    }
+
+    @Override
+    public void close()
+    {
+        accountant.release(this);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MemoryUsage{" + "component=" + component + ", partitionId=" + partitionId + ", name=" + name + ", bytes=" + bytes + '}';
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.memory.cfg;
+
+import io.zeebe.broker.system.ComponentConfiguration;
+
+public class DirectMemoryCfg extends ComponentConfiguration
+{
+    /**
+     * the direct memory in megabytes the broker may use; 0 uses the maximum direct memory of the JVM
+     */
+    public int limit = 0;
+
+    /**
+     * the direct memory in megabytes the index maps of a single partition should not exceed; 0 disables the budget
+     */
+    public int partitionIndexBudget = 0;
+
+    /**
+     * the direct memory in megabytes the caches of a single partition may use before they are shrunk; 0 disables the budget
+     */
+    public int partitionCacheBudget = 0;
+
+    /**
+     * the interval in seconds in which the memory usage is sampled
+     */
+    public int samplingInterval = 5;
+}
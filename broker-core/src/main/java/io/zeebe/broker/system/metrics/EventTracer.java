@@ -0,0 +1,264 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.metrics;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.zeebe.protocol.clientapi.EventType;
+
+/**
+ * Traces a sample of the client commands through the stages of the broker and records the latency
+ * of each stage in a histogram (<code>event_trace_latency_ns</code>, labeled by stage):
+ * <ul>
+ * <li>append: from receiving the command until it is appended to the log</li>
+ * <li>commit: until the command is observed as committed by a stream processor</li>
+ * <li>process: until the command is processed by the stream processor which owns its event type</li>
+ * <li>push: until the command or its follow-up event is pushed to a subscription</li>
+ * </ul>
+ * A trace is identified by the partition and the log position of the command. The active traces are kept
+ * in a fixed number of slots which are addressed by a hash of the partition and the position; a new trace
+ * replaces the trace in its slot. A trace is published to its slot as a whole, so that a concurrent lookup
+ * sees either the old or the new trace. If sampling is disabled, the stages only check {@link #isEnabled()}.
+ * All timestamps are values of {@link System#nanoTime()}.
+ */
+public class EventTracer
+{
+    public static final EventTracer DISABLED = new EventTracer(0, null);
+
+    private static final int STAGE_RECEIVED = 0;
+    private static final int STAGE_APPENDED = 1;
+    private static final int STAGE_COMMITTED = 2;
+    private static final int STAGE_PROCESSED = 3;
+    private static final int STAGE_PUSHED = 4;
+    private static final int STAGE_COUNT = 5;
+
+    private static final String[] STAGE_NAMES = {"receive", "append", "commit", "process", "push"};
+
+    private static final int TRACE_CAPACITY_BITS = 6;
+    private static final int TRACE_CAPACITY = 1 << TRACE_CAPACITY_BITS;
+
+    private static final long NOT_REACHED = Long.MIN_VALUE;
+
+    private final boolean isEnabled;
+    private final int sampleRate;
+
+    private final AtomicLong commandCount = new AtomicLong();
+    private final Histogram[] stageLatencies;
+
+    // traces by the position of the command
+    private final AtomicReferenceArray<Trace> traces;
+    // traces by the position of the follow-up event
+    private final AtomicReferenceArray<Trace> tracesByFollowUp;
+
+    /**
+     * @param sampleRate trace every n-th command; <code>0</code> disables tracing
+     */
+    public EventTracer(int sampleRate, HistogramManager histogramManager)
+    {
+        this.sampleRate = sampleRate;
+        this.isEnabled = sampleRate > 0;
+
+        if (isEnabled)
+        {
+            traces = new AtomicReferenceArray<>(TRACE_CAPACITY);
+            tracesByFollowUp = new AtomicReferenceArray<>(TRACE_CAPACITY);
+
+            stageLatencies = new Histogram[STAGE_COUNT];
+            for (int stage = STAGE_APPENDED; stage < STAGE_COUNT; stage++)
+            {
+                stageLatencies[stage] = histogramManager.newHistogram("event_trace_latency_ns")
+                    .label("stage", STAGE_NAMES[stage])
+                    .create();
+            }
+        }
+        else
+        {
+            traces = null;
+            tracesByFollowUp = null;
+            stageLatencies = null;
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return isEnabled;
+    }
+
+    /**
+     * @return <code>true</code>, if the current command should be traced
+     */
+    public boolean sample()
+    {
+        return isEnabled && commandCount.incrementAndGet() % sampleRate == 0;
+    }
+
+    public void startTrace(int partitionId, long position, EventType eventType, long receivedTime, long appendedTime)
+    {
+        final Trace trace = new Trace(partitionId, position, eventType, receivedTime, appendedTime);
+        traces.set(slotOf(partitionId, position), trace);
+
+        stageLatencies[STAGE_APPENDED].recordValue(appendedTime - receivedTime);
+    }
+
+    /**
+     * Marks the traced commands of the partition up to the given position as committed.
+     */
+    public void onCommitted(int partitionId, long commitPosition, long now)
+    {
+        for (int slot = 0; slot < TRACE_CAPACITY; slot++)
+        {
+            final Trace trace = traces.get(slot);
+
+            if (trace != null && trace.partitionId == partitionId && trace.position <= commitPosition)
+            {
+                stamp(trace, STAGE_COMMITTED, now);
+            }
+        }
+    }
+
+    /**
+     * @param ownedEventTypes the event types of the commands which are processed by the caller
+     * @return <code>true</code>, if the command is traced and the caller owns its event type, i.e.
+     *         the caller should report the processing via {@link #onProcessed(int, long, long, long)}
+     */
+    public boolean isTraced(int partitionId, long position, Set<EventType> ownedEventTypes)
+    {
+        final Trace trace = findTrace(partitionId, position);
+        return trace != null && ownedEventTypes.contains(trace.eventType);
+    }
+
+    /**
+     * Marks the traced command as processed. The trace continues with the follow-up event which was
+     * written by the processor, if any.
+     */
+    public void onProcessed(int partitionId, long position, long followUpPosition, long now)
+    {
+        final Trace trace = findTrace(partitionId, position);
+
+        if (trace != null && stamp(trace, STAGE_PROCESSED, now) && followUpPosition >= 0)
+        {
+            trace.followUpPosition = followUpPosition;
+            tracesByFollowUp.set(slotOf(partitionId, followUpPosition), trace);
+        }
+    }
+
+    /**
+     * Marks the traced command as pushed, if the given event is the command or its follow-up event.
+     */
+    public void onPushed(int partitionId, long position, long now)
+    {
+        Trace trace = findTrace(partitionId, position);
+
+        if (trace == null)
+        {
+            final Trace followedTrace = tracesByFollowUp.get(slotOf(partitionId, position));
+
+            if (followedTrace != null && followedTrace.partitionId == partitionId && followedTrace.followUpPosition == position)
+            {
+                trace = followedTrace;
+            }
+        }
+
+        if (trace != null)
+        {
+            stamp(trace, STAGE_PUSHED, now);
+        }
+    }
+
+    private Trace findTrace(int partitionId, long position)
+    {
+        final Trace trace = traces.get(slotOf(partitionId, position));
+
+        if (trace != null && trace.partitionId == partitionId && trace.position == position)
+        {
+            return trace;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    static int slotOf(int partitionId, long position)
+    {
+        // fibonacci hashing, the upper bits are the best distributed ones
+        final long hash = (position * 31 + partitionId) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> (Long.SIZE - TRACE_CAPACITY_BITS));
+    }
+
+    /**
+     * Sets the timestamp of the stage once and records the latency since the latest previous stage
+     * the trace has reached.
+     */
+    private boolean stamp(Trace trace, int stage, long now)
+    {
+        long previousStageTime = NOT_REACHED;
+        for (int previousStage = stage - 1; previousStage >= STAGE_RECEIVED && previousStageTime == NOT_REACHED; previousStage--)
+        {
+            previousStageTime = trace.stageTimes.get(previousStage);
+        }
+
+        if (previousStageTime != NOT_REACHED && trace.stageTimes.compareAndSet(stage, NOT_REACHED, now))
+        {
+            stageLatencies[stage].recordValue(now - previousStageTime);
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    public void close()
+    {
+        if (isEnabled)
+        {
+            for (int stage = STAGE_APPENDED; stage < STAGE_COUNT; stage++)
+            {
+                stageLatencies[stage].close();
+            }
+        }
+    }
+
+    private static final class Trace
+    {
+        private final int partitionId;
+        private final long position;
+        private final EventType eventType;
+        private final AtomicLongArray stageTimes = new AtomicLongArray(STAGE_COUNT);
+
+        private volatile long followUpPosition = -1L;
+
+        Trace(int partitionId, long position, EventType eventType, long receivedTime, long appendedTime)
+        {
+            this.partitionId = partitionId;
+            this.position = position;
+            this.eventType = eventType;
+
+            for (int stage = 0; stage < STAGE_COUNT; stage++)
+            {
+                stageTimes.set(stage, NOT_REACHED);
+            }
+            stageTimes.set(STAGE_RECEIVED, receivedTime);
+            stageTimes.set(STAGE_APPENDED, appendedTime);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of durations in nanoseconds. The values are counted in log-linear buckets
+ * (HDR-style): every power of two is split into {@link #SUB_BUCKET_COUNT} linear sub-buckets, so the width
+ * of a bucket is at most 25% of its lower bound. Recording is allocation-free, lock-free and can be done by
+ * multiple threads concurrently.
+ * <p>
+ * The first bucket contains all values up to <code>2^MIN_SHIFT</code> (128 ns), the last one all values
+ * larger than <code>2^(MIN_SHIFT + MAGNITUDE_COUNT)</code> (~34 s).
+ */
+public class Histogram
+{
+    public static final int MIN_SHIFT = 7;
+    public static final int MAGNITUDE_COUNT = 28;
+
+    public static final int SUB_BUCKET_BITS = 2;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets, without the overflow bucket
+     */
+    public static final int BUCKET_COUNT = 1 + MAGNITUDE_COUNT * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT + 1);
+    private final AtomicLong sum = new AtomicLong();
+
+    private final HistogramManager histogramManager;
+    private final String name;
+    private final String labels;
+
+    Histogram(HistogramManager histogramManager, String name, String labels)
+    {
+        this.histogramManager = histogramManager;
+        this.name = name;
+        this.labels = labels;
+    }
+
+    public void recordValue(long nanos)
+    {
+        final long value = Math.max(0, nanos);
+
+        buckets.incrementAndGet(bucketIndex(value));
+        sum.addAndGet(value);
+    }
+
+    /**
+     * @return the upper bound (inclusive) of the bucket in nanoseconds, or {@link Long#MAX_VALUE}
+     *  for the overflow bucket
+     */
+    public static long bucketUpperBound(int index)
+    {
+        if (index == 0)
+        {
+            return 1L << MIN_SHIFT;
+        }
+        else if (index < BUCKET_COUNT)
+        {
+            final int magnitude = (index - 1) >> SUB_BUCKET_BITS;
+            final int subBucket = (index - 1) & (SUB_BUCKET_COUNT - 1);
+            final int shift = MIN_SHIFT + magnitude;
+
+            return (1L << shift) + ((subBucket + 1L) << (shift - SUB_BUCKET_BITS));
+        }
+        else
+        {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    static int bucketIndex(long value)
+    {
+        if (value <= 1L << MIN_SHIFT)
+        {
+            return 0;
+        }
+
+        // the upper bounds are inclusive, so (2^n, 2^(n+1)] is mapped to [2^n, 2^(n+1))
+        final long exclusiveValue = value - 1;
+        final int shift = 63 - Long.numberOfLeadingZeros(exclusiveValue);
+        final int magnitude = shift - MIN_SHIFT;
+
+        if (magnitude >= MAGNITUDE_COUNT)
+        {
+            return BUCKET_COUNT;
+        }
+
+        final int subBucket = (int) (exclusiveValue >>> (shift - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return 1 + (magnitude << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    public long getBucketCount(int index)
+    {
+        return buckets.get(index);
+    }
+
+    public long getCount()
+    {
+        long count = 0;
+        for (int i = 0; i <= BUCKET_COUNT; i++)
+        {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    public long getSum()
+    {
+        return sum.get();
+    }
+
+    /**
+     * @return the upper bound of the bucket which contains the value at the given percentile
+     *  (between 0 and 100), or <code>0</code> if no value is recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        final long count = getCount();
+        final long threshold = (long) Math.ceil(count * percentile / 100.0);
+
+        long cumulativeCount = 0;
+        for (int i = 0; i <= BUCKET_COUNT && count > 0; i++)
+        {
+            cumulativeCount += buckets.get(i);
+            if (cumulativeCount >= threshold)
+            {
+                return bucketUpperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    String getLabels()
+    {
+        return labels;
+    }
+
+    public void close()
+    {
+        histogramManager.remove(this);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Creates {@link Histogram}s and dumps them in the Prometheus text format, complementing the
+ * counters and gauges of the {@link io.zeebe.util.metrics.MetricsManager}.
+ */
+public class HistogramManager
+{
+    private final String prefix;
+    private final Map<String, String> globalLabels;
+    private final List<Histogram> histograms = new CopyOnWriteArrayList<>();
+
+    public HistogramManager(String prefix, Map<String, String> globalLabels)
+    {
+        this.prefix = prefix;
+        this.globalLabels = globalLabels;
+    }
+
+    public HistogramBuilder newHistogram(String name)
+    {
+        return new HistogramBuilder(name);
+    }
+
+    void remove(Histogram histogram)
+    {
+        histograms.remove(histogram);
+    }
+
+    public List<Histogram> getHistograms()
+    {
+        return histograms;
+    }
+
+    /**
+     * Writes the histograms into the buffer. The histograms with the same name are written as one metric family.
+     *
+     * @return the length of the written histograms
+     */
+    public int dump(MutableDirectBuffer buffer, int offset, long now)
+    {
+        final String timestamp = " " + now + "\n";
+        int writeOffset = offset;
+
+        for (int i = 0; i < histograms.size(); i++)
+        {
+            final String name = histograms.get(i).getName();
+
+            if (!isFirstOfFamily(i, name))
+            {
+                continue;
+            }
+
+            writeOffset += buffer.putStringWithoutLengthAscii(writeOffset, "# TYPE " + prefix + name + " histogram\n");
+
+            for (int j = i; j < histograms.size(); j++)
+            {
+                final Histogram histogram = histograms.get(j);
+                if (name.equals(histogram.getName()))
+                {
+                    writeOffset += dump(histogram, buffer, writeOffset, timestamp);
+                }
+            }
+        }
+
+        return writeOffset - offset;
+    }
+
+    private boolean isFirstOfFamily(int index, String name)
+    {
+        for (int i = 0; i < index; i++)
+        {
+            if (name.equals(histograms.get(i).getName()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int dump(Histogram histogram, MutableDirectBuffer buffer, int offset, String timestamp)
+    {
+        final String name = prefix + histogram.getName();
+        final String labels = histogram.getLabels();
+        final String bucketLabels = labels.isEmpty() ? "" : labels + ",";
+
+        int writeOffset = offset;
+        long cumulativeCount = 0;
+
+        for (int i = 0; i <= Histogram.BUCKET_COUNT; i++)
+        {
+            cumulativeCount += histogram.getBucketCount(i);
+
+            final String upperBound = i < Histogram.BUCKET_COUNT ? Long.toString(Histogram.bucketUpperBound(i)) : "+Inf";
+            writeOffset += buffer.putStringWithoutLengthAscii(writeOffset,
+                name + "_bucket{" + bucketLabels + "le=\"" + upperBound + "\"} " + cumulativeCount + timestamp);
+        }
+
+        writeOffset += buffer.putStringWithoutLengthAscii(writeOffset, name + "_sum{" + labels + "} " + histogram.getSum() + timestamp);
+        writeOffset += buffer.putStringWithoutLengthAscii(writeOffset, name + "_count{" + labels + "} " + cumulativeCount + timestamp);
+
+        return writeOffset - offset;
+    }
+
+    public class HistogramBuilder
+    {
+        private final String name;
+        private final Map<String, String> labels = new LinkedHashMap<>();
+
+        HistogramBuilder(String name)
+        {
+            this.name = name;
+            this.labels.putAll(globalLabels);
+        }
+
+        public HistogramBuilder label(String name, String value)
+        {
+            labels.put(name, value);
+            return this;
+        }
+
+        public Histogram create()
+        {
+            final StringBuilder labelsBuilder = new StringBuilder();
+            labels.forEach((labelName, value) ->
+            {
+                if (labelsBuilder.length() > 0)
+                {
+                    labelsBuilder.append(',');
+                }
+                labelsBuilder.append(labelName).append("=\"").append(value).append('"');
+            });
+
+            final Histogram histogram = new Histogram(HistogramManager.this, name, labelsBuilder.toString());
+            histograms.add(histogram);
+            return histogram;
+        }
+    }
+}
@@ -37,16 +37,18 @@ public class MetricsFileWriter extends Actor
     private static final Logger LOG = Loggers.SYSTEM_LOGGER;
 
     private final MetricsManager metricsManager;
+    private final HistogramManager histogramManager;
     private final Duration reportingInterval;
     private final String filePath;
     private final ExpandableDirectByteBuffer writeBuffer = new ExpandableDirectByteBuffer();
     private FileChannel fileChannel = null;
 
-    public MetricsFileWriter(Duration reportingInterval, String filePath, MetricsManager metricsManager)
+    public MetricsFileWriter(Duration reportingInterval, String filePath, MetricsManager metricsManager, HistogramManager histogramManager)
     {
         this.reportingInterval = reportingInterval;
         this.filePath = filePath;
         this.metricsManager = metricsManager;
+        this.histogramManager = histogramManager;
     }
 
     @Override
@@ -69,7 +71,8 @@ public class MetricsFileWriter extends Actor
         final ActorClock clock = ActorClock.current();
         clock.update();
 
-        final int length = metricsManager.dump(writeBuffer, 0, clock.getTimeMillis());
+        int length = metricsManager.dump(writeBuffer, 0, clock.getTimeMillis());
+        length += histogramManager.dump(writeBuffer, length, clock.getTimeMillis());
         final ByteBuffer inBuffer = writeBuffer.byteBuffer();
         inBuffer.position(0);
         inBuffer.limit(length);
@@ -30,10 +30,12 @@ public class MetricsFileWriterService implements Service<MetricsFileWriter>
 {
     private MetricsFileWriter metricsFileWriter;
     private MetricsCfg cfg;
+    private HistogramManager histogramManager;
 
-    public MetricsFileWriterService(MetricsCfg cfg)
+    public MetricsFileWriterService(MetricsCfg cfg, HistogramManager histogramManager)
     {
         this.cfg = cfg;
+        this.histogramManager = histogramManager;
     }
 
     @Override
@@ -44,7 +46,7 @@ public class MetricsFileWriterService implements Service<MetricsFileWriter>
 
         final String metricsFileName = new File(cfg.getDirectory(), cfg.metricsFile).getAbsolutePath();
 
-        metricsFileWriter = new MetricsFileWriter(Duration.ofSeconds(cfg.reportingInterval), metricsFileName, metricsManager);
+        metricsFileWriter = new MetricsFileWriter(Duration.ofSeconds(cfg.reportingInterval), metricsFileName, metricsManager, histogramManager);
         startContext.async(scheduler.submitActor(metricsFileWriter, SchedulingHints.isIoBound(0)));
     }
 
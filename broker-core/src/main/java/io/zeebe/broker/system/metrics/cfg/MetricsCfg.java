@@ -23,6 +23,7 @@ public class MetricsCfg extends DirectoryConfiguration
 {
     public int reportingInterval = 5;
     public String metricsFile = "zeebe.prom";
+    public int traceSampleRate = 0;
 
     @Override
     protected String componentDirectoryName()
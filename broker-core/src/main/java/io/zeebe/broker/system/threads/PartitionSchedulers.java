@@ -0,0 +1,90 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.threads;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.clock.ActorClock;
+
+/**
+ * Provides the scheduler which runs the actors of a partition.
+ * <p>
+ * If partition affinity is enabled, a number of single-threaded schedulers are created and every
+ * partition is assigned to one of them by its id. All actors of a partition run on the same thread
+ * then, so the partition's state stays in the cache of one core and partitions don't compete for
+ * the threads of the shared scheduler. Otherwise, the shared scheduler is used for all partitions.
+ */
+public class PartitionSchedulers
+{
+    private final ActorScheduler sharedScheduler;
+    private final ActorScheduler[] partitionSchedulers;
+
+    public PartitionSchedulers(ActorScheduler sharedScheduler, int partitionThreads, ActorClock clock, MetricsManager metricsManager, String brokerId)
+    {
+        this.sharedScheduler = sharedScheduler;
+        this.partitionSchedulers = new ActorScheduler[partitionThreads];
+
+        for (int i = 0; i < partitionThreads; i++)
+        {
+            partitionSchedulers[i] = ActorScheduler.newActorScheduler()
+                .setActorClock(clock)
+                .setMetricsManager(metricsManager)
+                .setCpuBoundActorThreadCount(1)
+                .setIoBoundActorThreadCount(0)
+                .setSchedulerName(String.format("%s-partition-%d", brokerId, i))
+                .build();
+        }
+    }
+
+    public boolean isAffinityEnabled()
+    {
+        return partitionSchedulers.length > 0;
+    }
+
+    public ActorScheduler getScheduler(int partitionId)
+    {
+        if (isAffinityEnabled())
+        {
+            return partitionSchedulers[Math.floorMod(partitionId, partitionSchedulers.length)];
+        }
+        else
+        {
+            return sharedScheduler;
+        }
+    }
+
+    public void start()
+    {
+        for (ActorScheduler scheduler : partitionSchedulers)
+        {
+            scheduler.start();
+        }
+    }
+
+    public void stop(long timeout, TimeUnit timeUnit) throws InterruptedException, ExecutionException, TimeoutException
+    {
+        for (ActorScheduler scheduler : partitionSchedulers)
+        {
+            scheduler.stop().get(timeout, timeUnit);
+        }
+    }
+}
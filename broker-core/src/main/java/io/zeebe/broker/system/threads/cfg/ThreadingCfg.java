@@ -22,4 +22,16 @@ import io.zeebe.broker.system.ComponentConfiguration;
 public class ThreadingCfg extends ComponentConfiguration
 {
     public int numberOfThreads = -1;
+
+    /**
+     * number of threads of the scheduler which run the io-bound actors
+     */
+    public int ioBoundThreads = 2;
+
+    /**
+     * number of threads dedicated to partitions, 0 disables partition affinity.
+     * The actors of a partition (raft and stream processors) always run on the same dedicated thread.
+     * The dedicated threads are taken from the configured number of threads.
+     */
+    public int partitionThreads = 0;
 }
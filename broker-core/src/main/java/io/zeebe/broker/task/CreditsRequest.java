@@ -22,7 +22,7 @@ import io.zeebe.util.collection.CompactList;
 import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
-import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
 
 public class CreditsRequest implements BufferReader
 {
@@ -71,7 +71,7 @@ public class CreditsRequest implements BufferReader
      * @param ringBuffer
      * @return true if success
      */
-    public boolean writeTo(OneToOneRingBuffer ringBuffer)
+    public boolean writeTo(RingBuffer ringBuffer)
     {
         return ringBuffer.write(TYPE, content, 0, LENGTH);
     }
@@ -22,27 +22,31 @@ import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.MessageHandler;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.broadcast.RecordDescriptor;
-import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
 import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
 
 import java.util.function.Consumer;
 
+/**
+ * Buffers credit requests until the consumer handles them. Requests can be offered concurrently,
+ * e.g. by multiple control message handlers.
+ */
 public class CreditsRequestBuffer
 {
     protected final int capacityUpperBound;
-    protected final OneToOneRingBuffer ringBuffer;
+    protected final ManyToOneRingBuffer ringBuffer;
     protected final RequestHandler requestHandler;
 
     public CreditsRequestBuffer(int capacityLowerBound, Consumer<CreditsRequest> requestConsumer)
     {
         final int bufferCapacity = requiredBufferCapacityForNumRequests(capacityLowerBound, CreditsRequest.LENGTH);
 
-        // note: this is only an upper bound, because OneToOneRingBuffer alings the messages to a certain length
+        // note: this is only an upper bound, because the ring buffer alings the messages to a certain length
         // which we do not include in this calculation to avoid relying on agrona-internal concepts
         this.capacityUpperBound = numRequestsFittingInto(bufferCapacity, CreditsRequest.LENGTH);
 
         final UnsafeBuffer rawBuffer = new UnsafeBuffer(new byte[bufferCapacity]);
-        this.ringBuffer = new OneToOneRingBuffer(rawBuffer);
+        this.ringBuffer = new ManyToOneRingBuffer(rawBuffer);
         this.requestHandler = new RequestHandler(requestConsumer);
     }
 
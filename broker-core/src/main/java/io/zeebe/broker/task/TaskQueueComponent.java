@@ -43,7 +43,7 @@ public class TaskQueueComponent implements Component
             .groupReference(WORKFLOW_STREAM_GROUP, taskSubscriptionManagerService.getLogStreamsGroupReference())
             .install();
 
-        final TaskQueueManagerService taskQueueManagerService = new TaskQueueManagerService();
+        final TaskQueueManagerService taskQueueManagerService = new TaskQueueManagerService(context.getConfigurationManager());
         serviceContainer.createService(TASK_QUEUE_MANAGER, taskQueueManagerService)
             .dependency(TransportServiceNames.serverTransport(CLIENT_API_SERVER_NAME), taskQueueManagerService.getClientApiTransportInjector())
             .dependency(TASK_QUEUE_SUBSCRIPTION_MANAGER, taskQueueManagerService.getTaskSubscriptionManagerInjector())
@@ -22,11 +22,15 @@ import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.TASK_QUEUE
 
 import java.time.Duration;
 
+import io.zeebe.broker.logstreams.processor.SchedulingClass;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.system.ConfigurationManager;
 import io.zeebe.broker.task.processor.TaskExpireLockStreamProcessor;
 import io.zeebe.broker.task.processor.TaskInstanceStreamProcessor;
+import io.zeebe.broker.workflow.WorkflowCfg;
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.ServerTransport;
 import io.zeebe.util.sched.Actor;
@@ -48,6 +52,13 @@ public class TaskQueueManagerService implements Service<TaskQueueManager>, TaskQ
     private ActorScheduler actorScheduler;
     private StreamProcessorServiceFactory streamProcessorServiceFactory;
 
+    private final WorkflowCfg workflowCfg;
+
+    public TaskQueueManagerService(ConfigurationManager configurationManager)
+    {
+        workflowCfg = configurationManager.readEntry("workflow", WorkflowCfg.class);
+    }
+
     @Override
     public void startTaskQueue(ServiceName<LogStream> logStreamServiceName, final LogStream stream)
     {
@@ -55,13 +66,15 @@ public class TaskQueueManagerService implements Service<TaskQueueManager>, TaskQ
 
         final TaskSubscriptionManager taskSubscriptionManager = taskSubscriptionManagerInjector.getValue();
 
-        final TaskInstanceStreamProcessor taskInstanceStreamProcessor = new TaskInstanceStreamProcessor(taskSubscriptionManager);
+        final TaskInstanceStreamProcessor taskInstanceStreamProcessor = new TaskInstanceStreamProcessor(taskSubscriptionManager, streamProcessorServiceFactory.getEventTracer());
         final TypedStreamEnvironment env = new TypedStreamEnvironment(stream, serverTransport.getOutput());
 
         streamProcessorServiceFactory.createService(stream)
             .processor(taskInstanceStreamProcessor.createStreamProcessor(env))
             .processorId(TASK_QUEUE_STREAM_PROCESSOR_ID)
             .processorName("task-instance")
+            .ownedEventTypes(EventType.TASK_EVENT)
+            .schedulingClass(SchedulingClass.COMMAND)
             .build();
 
         startExpireLockService(logStreamServiceName, stream, env);
@@ -113,6 +126,12 @@ public class TaskQueueManagerService implements Service<TaskQueueManager>, TaskQ
 
     public void addStream(ServiceName<LogStream> name, LogStream logStream)
     {
+        if (workflowCfg.fuseStreamProcessors)
+        {
+            // the task processors are part of the partition pipeline installed by the workflow queue manager
+            return;
+        }
+
         actorScheduler.submitActor(new Actor()
         {
             @Override
@@ -27,6 +27,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
+import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamReader;
@@ -108,6 +109,15 @@ public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAw
     }
 
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment environment)
+    {
+        return registerWith(environment.newStreamProcessor()).build();
+    }
+
+    /**
+     * Registers the lock expiration processors and state with the given builder. The builder may be shared
+     * with other components to process the partition in a single stream processor.
+     */
+    public TypedEventStreamProcessorBuilder registerWith(TypedEventStreamProcessorBuilder builder)
     {
         final TypedEventProcessor<TaskEvent> registerTask = new TypedEventProcessor<TaskEvent>()
         {
@@ -132,13 +142,12 @@ public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAw
             }
         };
 
-        return environment.newStreamProcessor()
+        return builder
             .onEvent(EventType.TASK_EVENT, TaskState.LOCKED, registerTask)
             .onEvent(EventType.TASK_EVENT, TaskState.LOCK_EXPIRED, unregisterTask)
             .onEvent(EventType.TASK_EVENT, TaskState.COMPLETED, unregisterTask)
             .onEvent(EventType.TASK_EVENT, TaskState.FAILED, unregisterTask)
             .withListener(this)
-            .withStateResource(expirationMap)
-            .build();
+            .withStateResource(expirationMap);
     }
 }
@@ -25,10 +25,12 @@ import org.agrona.DirectBuffer;
 
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
+import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.processor.TypedResponseWriter;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
+import io.zeebe.broker.system.metrics.EventTracer;
 import io.zeebe.broker.task.CreditsRequest;
 import io.zeebe.broker.task.TaskSubscriptionManager;
 import io.zeebe.broker.task.data.TaskEvent;
@@ -49,24 +51,40 @@ public class TaskInstanceStreamProcessor
 
     protected SubscribedEventWriter subscribedEventWriter;
     protected final TaskSubscriptionManager taskSubscriptionManager;
+    protected final EventTracer eventTracer;
     protected final CreditsRequest creditsRequest = new CreditsRequest();
 
     protected final TaskInstanceMap taskIndex;
     protected int logStreamPartitionId;
 
     public TaskInstanceStreamProcessor(TaskSubscriptionManager taskSubscriptionManager)
+    {
+        this(taskSubscriptionManager, EventTracer.DISABLED);
+    }
+
+    public TaskInstanceStreamProcessor(TaskSubscriptionManager taskSubscriptionManager, EventTracer eventTracer)
     {
         this.taskSubscriptionManager = taskSubscriptionManager;
+        this.eventTracer = eventTracer;
 
         this.taskIndex = new TaskInstanceMap();
     }
 
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment environment)
+    {
+        return registerWith(environment, environment.newStreamProcessor()).build();
+    }
+
+    /**
+     * Registers the task processors and state with the given builder. The builder may be shared with other
+     * components to process the partition in a single stream processor.
+     */
+    public TypedEventStreamProcessorBuilder registerWith(TypedStreamEnvironment environment, TypedEventStreamProcessorBuilder builder)
     {
         this.logStreamPartitionId = environment.getStream().getPartitionId();
-        this.subscribedEventWriter = new SubscribedEventWriter(environment.getOutput());
+        this.subscribedEventWriter = new SubscribedEventWriter(environment.getOutput(), eventTracer);
 
-        return environment.newStreamProcessor()
+        return builder
             .onEvent(EventType.TASK_EVENT, TaskState.CREATE, new CreateTaskProcessor())
             .onEvent(EventType.TASK_EVENT, TaskState.LOCK, new LockTaskProcessor())
             .onEvent(EventType.TASK_EVENT, TaskState.COMPLETE, new CompleteTaskProcessor())
@@ -74,8 +92,7 @@ public class TaskInstanceStreamProcessor
             .onEvent(EventType.TASK_EVENT, TaskState.EXPIRE_LOCK, new ExpireLockTaskProcessor())
             .onEvent(EventType.TASK_EVENT, TaskState.UPDATE_RETRIES, new UpdateRetriesTaskProcessor())
             .onEvent(EventType.TASK_EVENT, TaskState.CANCEL, new CancelTaskProcessor())
-            .withStateResource(taskIndex.getMap())
-            .build();
+            .withStateResource(taskIndex.getMap());
     }
 
     private class CreateTaskProcessor implements TypedEventProcessor<TaskEvent>
@@ -29,6 +29,7 @@ import io.zeebe.broker.event.TopicSubscriptionServiceNames;
 import io.zeebe.broker.logstreams.LogStreamServiceNames;
 import io.zeebe.broker.services.DispatcherService;
 import io.zeebe.broker.system.*;
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
 import io.zeebe.broker.task.TaskQueueServiceNames;
 import io.zeebe.broker.transport.cfg.SocketBindingCfg;
 import io.zeebe.broker.transport.cfg.TransportComponentCfg;
@@ -44,9 +45,13 @@ public class TransportComponent implements Component
 {
     protected static final int MGMT_REQUEST_POOL_SIZE = 128;
 
+    protected DirectMemoryAccountant memoryAccountant;
+
     @Override
     public void init(SystemContext context)
     {
+        memoryAccountant = context.getDirectMemoryAccountant();
+
         final TransportComponentCfg transportComponentCfg = context.getConfigurationManager().readEntry("network", TransportComponentCfg.class);
         final ServiceContainer serviceContainer = context.getServiceContainer();
 
@@ -93,7 +98,7 @@ public class TransportComponent implements Component
             CLIENT_API_SERVER_NAME,
             transportComponentCfg.clientApi.getReceiveBufferSize(transportComponentCfg.defaultReceiveBufferSize));
 
-        final ClientApiMessageHandlerService messageHandlerService = new ClientApiMessageHandlerService();
+        final ClientApiMessageHandlerService messageHandlerService = new ClientApiMessageHandlerService(context.getEventTracer());
         serviceContainer.createService(CLIENT_API_MESSAGE_HANDLER, messageHandlerService)
             .dependency(controlMessageBufferService, messageHandlerService.getControlMessageBufferInjector())
             .groupReference(LogStreamServiceNames.WORKFLOW_STREAM_GROUP, messageHandlerService.getLogStreamsGroupReference())
@@ -107,7 +112,9 @@ public class TransportComponent implements Component
 
         final long controlMessageRequestTimeoutInMillis = transportComponentCfg.clientApi.getControlMessageRequestTimeoutInMillis(Long.MAX_VALUE);
 
-        final ControlMessageHandlerManagerService controlMessageHandlerManagerService = new ControlMessageHandlerManagerService(controlMessageRequestTimeoutInMillis);
+        final int controlMessageHandlerShards = transportComponentCfg.clientApi.getControlMessageHandlerShards(Runtime.getRuntime().availableProcessors());
+
+        final ControlMessageHandlerManagerService controlMessageHandlerManagerService = new ControlMessageHandlerManagerService(controlMessageRequestTimeoutInMillis, controlMessageHandlerShards);
         final ActorFuture<Void> controlMessageServiceFuture = serviceContainer.createService(TransportServiceNames.CONTROL_MESSAGE_HANDLER_MANAGER, controlMessageHandlerManagerService)
                                                                               .dependency(controlMessageBufferService, controlMessageHandlerManagerService.getControlMessageBufferInjector())
                                                                               .dependency(TransportServiceNames.serverTransport(CLIENT_API_SERVER_NAME), controlMessageHandlerManagerService.getTransportInjector())
@@ -208,6 +215,8 @@ public class TransportComponent implements Component
         final DispatcherService receiveBufferService = new DispatcherService(dispatcherBuilder);
         serviceContainer.createService(name, receiveBufferService)
             .install();
+
+        memoryAccountant.reserve(DirectMemoryAccountant.COMPONENT_DISPATCHER, DirectMemoryAccountant.NO_PARTITION, name.getName(), bufferSize);
     }
 
     protected ServiceName<Dispatcher> createSendBuffer(ServiceContainer serviceContainer, String transportName, int bufferSize)
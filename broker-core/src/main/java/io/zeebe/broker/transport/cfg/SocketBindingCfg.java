@@ -28,6 +28,7 @@ public class SocketBindingCfg extends ComponentConfiguration
     public int receiveBufferSize = -1;
     public int sendBufferSize = -1;
     public long controlMessageRequestTimeoutInMillis = 10_000;
+    public int controlMessageHandlerShards = -1;
 
     public String getHost(String defaultValue)
     {
@@ -70,6 +71,16 @@ public class SocketBindingCfg extends ComponentConfiguration
         return returnValue;
     }
 
+    public int getControlMessageHandlerShards(int defaultValue)
+    {
+        int returnValue = controlMessageHandlerShards;
+        if (returnValue <= 0)
+        {
+            returnValue = defaultValue;
+        }
+        return returnValue;
+    }
+
     public SocketAddress toSocketAddress(final String defaultHost)
     {
         return new SocketAddress(getHost(defaultHost), port);
@@ -17,9 +17,12 @@
  */
 package io.zeebe.broker.transport.clientapi;
 
+import io.zeebe.broker.clustering.management.load.PartitionLoadMonitor;
+import io.zeebe.broker.clustering.management.load.PartitionLoadMonitor.PartitionLoad;
 import io.zeebe.broker.event.processor.TopicSubscriberEvent;
 import io.zeebe.broker.event.processor.TopicSubscriptionEvent;
 import io.zeebe.broker.system.log.TopicEvent;
+import io.zeebe.broker.system.metrics.EventTracer;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.transport.controlmessage.ControlMessageRequestHeaderDescriptor;
 import io.zeebe.broker.workflow.data.DeploymentEvent;
@@ -57,6 +60,7 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
     protected final Consumer<Runnable> cmdConsumer = (c) -> c.run();
 
     protected final Int2ObjectHashMap<LogStream> logStreams = new Int2ObjectHashMap<>();
+    protected final Int2ObjectHashMap<PartitionLoad> partitionLoads = new Int2ObjectHashMap<>();
     protected final BrokerEventMetadata eventMetadata = new BrokerEventMetadata();
     protected final LogStreamWriter logStreamWriter = new LogStreamWriterImpl();
 
@@ -66,9 +70,24 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
     protected final EnumMap<EventType, UnpackedObject> eventsByType = new EnumMap<>(EventType.class);
 
+    protected final PartitionLoadMonitor partitionLoadMonitor;
+    protected final EventTracer eventTracer;
+
+    protected FollowerCommandHandler followerCommandHandler;
+
     public ClientApiMessageHandler(final Dispatcher controlMessageDispatcher)
+    {
+        this(controlMessageDispatcher, new PartitionLoadMonitor(), EventTracer.DISABLED);
+    }
+
+    public ClientApiMessageHandler(
+            final Dispatcher controlMessageDispatcher,
+            final PartitionLoadMonitor partitionLoadMonitor,
+            final EventTracer eventTracer)
     {
         this.controlMessageDispatcher = controlMessageDispatcher;
+        this.partitionLoadMonitor = partitionLoadMonitor;
+        this.eventTracer = eventTracer;
 
         initEventTypeMap();
     }
@@ -92,14 +111,24 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
             final int messageOffset,
             final int messageLength)
     {
+        final long receivedTime = eventTracer.isEnabled() ? System.nanoTime() : 0L;
+
         executeCommandRequestDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
 
         final int partitionId = executeCommandRequestDecoder.partitionId();
         final long key = executeCommandRequestDecoder.key();
 
         final LogStream logStream = logStreams.get(partitionId);
+        final EventType eventType = executeCommandRequestDecoder.eventType();
+
+        if (logStream == null && followerCommandHandler != null && followerCommandHandler.handlesCommand(eventType))
+        {
+            final int eventOffset = executeCommandRequestDecoder.limit() + ExecuteCommandRequestDecoder.commandHeaderLength();
+            final int eventLength = executeCommandRequestDecoder.commandLength();
 
-        if (logStream == null)
+            return followerCommandHandler.onCommand(partitionId, eventType, requestAddress, requestId, buffer, eventOffset, eventLength);
+        }
+        else if (logStream == null)
         {
             return errorResponseWriter
                 .errorCode(ErrorCode.PARTITION_NOT_FOUND)
@@ -107,7 +136,6 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                 .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
         }
 
-        final EventType eventType = executeCommandRequestDecoder.eventType();
         final UnpackedObject event = eventsByType.get(eventType);
 
         if (event == null)
@@ -154,6 +182,20 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                 .value(buffer, eventOffset, eventLength)
                 .tryWrite();
 
+        if (eventPosition >= 0)
+        {
+            if (eventTracer.sample())
+            {
+                eventTracer.startTrace(partitionId, eventPosition, eventType, receivedTime, System.nanoTime());
+            }
+
+            final PartitionLoad partitionLoad = partitionLoads.get(partitionId);
+            if (partitionLoad != null)
+            {
+                partitionLoad.recordCommand();
+            }
+        }
+
         return eventPosition >= 0;
     }
 
@@ -213,12 +255,36 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
     public void addStream(final LogStream logStream)
     {
-        cmdQueue.add(() -> logStreams.put(logStream.getPartitionId(), logStream));
+        final int partitionId = logStream.getPartitionId();
+        final PartitionLoad partitionLoad = partitionLoadMonitor.register(partitionId);
+
+        cmdQueue.add(() ->
+        {
+            logStreams.put(partitionId, logStream);
+            partitionLoads.put(partitionId, partitionLoad);
+        });
     }
 
     public void removeStream(final LogStream logStream)
     {
-        cmdQueue.add(() -> logStreams.remove(logStream.getPartitionId()));
+        final int partitionId = logStream.getPartitionId();
+        partitionLoadMonitor.unregister(partitionId);
+
+        cmdQueue.add(() ->
+        {
+            logStreams.remove(partitionId);
+            partitionLoads.remove(partitionId);
+        });
+    }
+
+    public PartitionLoadMonitor getPartitionLoadMonitor()
+    {
+        return partitionLoadMonitor;
+    }
+
+    public void setFollowerCommandHandler(final FollowerCommandHandler followerCommandHandler)
+    {
+        cmdQueue.add(() -> this.followerCommandHandler = followerCommandHandler);
     }
 
     @Override
@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.transport.clientapi;
 
+import io.zeebe.broker.clustering.management.load.PartitionLoadMonitor;
+import io.zeebe.broker.system.metrics.EventTracer;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.servicecontainer.Injector;
@@ -28,6 +30,7 @@ import io.zeebe.servicecontainer.ServiceStopContext;
 public class ClientApiMessageHandlerService implements Service<ClientApiMessageHandler>
 {
     private final Injector<Dispatcher> controlMessageBufferInjector = new Injector<>();
+    private final EventTracer eventTracer;
     protected ClientApiMessageHandler service;
 
     protected final ServiceGroupReference<LogStream> logStreamsGroupReference = ServiceGroupReference.<LogStream>create()
@@ -35,11 +38,16 @@ public class ClientApiMessageHandlerService implements Service<ClientApiMessageH
         .onRemove((name, stream) -> service.removeStream(stream))
         .build();
 
+    public ClientApiMessageHandlerService(EventTracer eventTracer)
+    {
+        this.eventTracer = eventTracer;
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
         final Dispatcher controlMessageBuffer = controlMessageBufferInjector.getValue();
-        service = new ClientApiMessageHandler(controlMessageBuffer);
+        service = new ClientApiMessageHandler(controlMessageBuffer, new PartitionLoadMonitor(), eventTracer);
     }
 
     @Override
@@ -0,0 +1,44 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.transport.RemoteAddress;
+import org.agrona.DirectBuffer;
+
+/**
+ * Handles commands which address a partition that this broker does not lead.
+ * Commands handled this way are not appended to the log.
+ */
+public interface FollowerCommandHandler
+{
+    /**
+     * @return <code>true</code>, if the command type can be handled on a follower
+     */
+    boolean handlesCommand(EventType eventType);
+
+    /**
+     * Handles the command asynchronously. The handler is responsible for
+     * sending a response (or error) to the request. The given buffer is only
+     * valid during the invocation.
+     *
+     * @return <code>true</code>, if the command was accepted; <code>false</code> to retry later
+     */
+    boolean onCommand(int partitionId, EventType eventType, RemoteAddress requestAddress, long requestId,
+            DirectBuffer buffer, int offset, int length);
+}
@@ -28,6 +28,7 @@ import java.util.Objects;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 
+import io.zeebe.broker.system.metrics.EventTracer;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
@@ -54,10 +55,17 @@ public class SubscribedEventWriter implements BufferWriter
 
     protected final ServerOutput output;
     protected final TransportMessage message = new TransportMessage();
+    protected final EventTracer eventTracer;
 
     public SubscribedEventWriter(final ServerOutput output)
+    {
+        this(output, EventTracer.DISABLED);
+    }
+
+    public SubscribedEventWriter(final ServerOutput output, final EventTracer eventTracer)
     {
         this.output = output;
+        this.eventTracer = eventTracer;
     }
 
     public SubscribedEventWriter partitionId(final int partitionId)
@@ -158,7 +166,14 @@ public class SubscribedEventWriter implements BufferWriter
                 .remoteStreamId(remoteStreamId)
                 .writer(this);
 
-            return output.sendMessage(message);
+            final boolean success = output.sendMessage(message);
+
+            if (success && eventTracer.isEnabled())
+            {
+                eventTracer.onPushed(partitionId, position, System.nanoTime());
+            }
+
+            return success;
         }
         finally
         {
@@ -23,7 +23,9 @@ import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
 import io.zeebe.protocol.clientapi.ErrorCode;
 import io.zeebe.transport.ServerOutput;
 import io.zeebe.util.buffer.BufferWriter;
+import io.zeebe.util.buffer.DirectBufferWriter;
 import io.zeebe.util.sched.ActorControl;
+import org.agrona.concurrent.UnsafeBuffer;
 
 public abstract class AbstractControlMessageHandler implements ControlMessageHandler
 {
@@ -38,9 +40,23 @@ public abstract class AbstractControlMessageHandler implements ControlMessageHan
 
     protected void sendResponse(final ActorControl actor, final int streamId, final long requestId, final BufferWriter dataWriter)
     {
-        sendResponse(actor, () -> responseWriter
+        final boolean success = responseWriter
             .dataWriter(dataWriter)
-            .tryWriteResponse(streamId, requestId));
+            .tryWriteResponse(streamId, requestId);
+
+        if (!success)
+        {
+            // the data writer may be reused by the next control message before the response is sent
+            final UnsafeBuffer data = new UnsafeBuffer(new byte[dataWriter.getLength()]);
+            dataWriter.write(data, 0);
+
+            final DirectBufferWriter dataCopyWriter = new DirectBufferWriter();
+            dataCopyWriter.wrap(data);
+
+            retrySendResponse(actor, () -> responseWriter
+                .dataWriter(dataCopyWriter)
+                .tryWriteResponse(streamId, requestId));
+        }
     }
 
     protected void sendErrorResponse(final ActorControl actor, final int streamId, final long requestId, final String errorMessage, final Object... args)
@@ -58,6 +74,14 @@ public abstract class AbstractControlMessageHandler implements ControlMessageHan
     }
 
     protected void sendResponse(final ActorControl actor, final BooleanSupplier supplier)
+    {
+        if (!supplier.getAsBoolean())
+        {
+            retrySendResponse(actor, supplier);
+        }
+    }
+
+    protected void retrySendResponse(final ActorControl actor, final BooleanSupplier supplier)
     {
         actor.runUntilDone(() ->
         {
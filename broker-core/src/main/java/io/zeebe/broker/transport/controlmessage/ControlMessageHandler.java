@@ -42,6 +42,9 @@ public interface ControlMessageHandler
      * Sending response (success or error) should be done via actor.runUntilDone. This
      * will block the calling actor, until the response is send successfully.
      *
+     * Multiple control messages are handled in one actor job, so that an implementation must not
+     * access the buffer or state derived from it in a deferred job (e.g. actor.runUntilDone) without copying it.
+     *
      * @param actor
      *          the actor that can be used for waiting of async calls
      * @param partitionId
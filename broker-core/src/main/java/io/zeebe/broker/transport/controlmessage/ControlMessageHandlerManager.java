@@ -19,24 +19,25 @@ package io.zeebe.broker.transport.controlmessage;
 
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
-import io.zeebe.dispatcher.Dispatcher;
-import io.zeebe.dispatcher.FragmentHandler;
-import io.zeebe.dispatcher.Subscription;
 import io.zeebe.protocol.clientapi.ControlMessageRequestDecoder;
 import io.zeebe.protocol.clientapi.ControlMessageType;
 import io.zeebe.protocol.clientapi.ErrorCode;
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.transport.ServerOutput;
-import io.zeebe.transport.ServerResponse;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.ActorScheduler;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
+import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.concurrent.MessageHandler;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
 import org.slf4j.Logger;
 
 import java.util.Arrays;
@@ -44,15 +45,32 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BooleanSupplier;
 
-import static io.zeebe.broker.services.DispatcherSubscriptionNames.TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION;
-
-public class ControlMessageHandlerManager extends Actor implements FragmentHandler
+/**
+ * Handles the control messages of a shard of the partitions. The messages are routed to the shard
+ * by {@link ControlMessageRouter} which decodes each message once. The shard consumes them from its own
+ * request queue, so that the control messages of different partitions are handled concurrently and in
+ * order per partition.
+ */
+public class ControlMessageHandlerManager extends Actor implements MessageHandler
 {
     public static final Logger LOG = Loggers.TRANSPORT_LOGGER;
 
     protected static final String NAME = "control.message.handler";
 
+    /**
+     * the maximum number of control messages which are handled in one actor job
+     */
+    protected static final int MAX_FRAGMENTS_PER_POLL = 32;
+
+    /**
+     * the capacity of the request queue of a shard, limits the length of a control message to 1/8 of it
+     */
+    public static final int REQUEST_QUEUE_CAPACITY = 512 * 1024;
+
+    protected static final int REQUEST_MSG_TYPE_ID = 1;
+
     protected final ActorScheduler actorScheduler;
+    protected final int shardId;
     private ControlMessageType lastRequestMessageType;
 
     protected final ControlMessageRequestHeaderDescriptor requestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
@@ -61,28 +79,31 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
 
     protected final UnsafeBuffer requestBuffer = new UnsafeBuffer(new byte[1024 * 32]);
 
-    protected final Dispatcher controlMessageDispatcher;
+    protected final OneToOneRingBuffer requestQueue;
+    protected final AtomicBoolean isHandlingScheduled = new AtomicBoolean(false);
 
     protected final Int2ObjectHashMap<ControlMessageHandler> handlersByTypeId = new Int2ObjectHashMap<>();
 
     protected final ErrorResponseWriter errorResponseWriter;
     protected final BrokerEventMetadata eventMetada = new BrokerEventMetadata();
-    protected final ServerResponse response = new ServerResponse();
 
     protected final long requestTimeoutInMillis;
 
     public ControlMessageHandlerManager(
             ServerOutput output,
-            Dispatcher controlMessageDispatcher,
             long requestTimeoutInMillis,
             ActorScheduler actorScheduler,
-            List<ControlMessageHandler> handlers)
+            List<ControlMessageHandler> handlers,
+            int shardId)
     {
         this.actorScheduler = actorScheduler;
-        this.controlMessageDispatcher = controlMessageDispatcher;
+        this.shardId = shardId;
         this.requestTimeoutInMillis = requestTimeoutInMillis;
         this.errorResponseWriter = new ErrorResponseWriter(output);
 
+        final int queueCapacity = BitUtil.findNextPositivePowerOfTwo(REQUEST_QUEUE_CAPACITY) + RingBufferDescriptor.TRAILER_LENGTH;
+        this.requestQueue = new OneToOneRingBuffer(new UnsafeBuffer(new byte[queueCapacity]));
+
         for (ControlMessageHandler handler : handlers)
         {
             final ControlMessageType messageType = handler.getMessageType();
@@ -93,33 +114,13 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
     @Override
     public String getName()
     {
-        return NAME;
+        return String.format("%s-%d", NAME, shardId);
     }
 
     @Override
     protected void onActorStarted()
     {
-        final ActorFuture<Subscription> subscriptionAsync = controlMessageDispatcher.openSubscriptionAsync(TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION);
-
-        actor.runOnCompletion(subscriptionAsync, (sub, throwable) ->
-        {
-            if (throwable == null)
-            {
-                actor.consume(sub, () ->
-                {
-                    if (sub.poll(this, 1) == 0)
-                    {
-                        actor.yield();
-                    }
-                });
-                openFuture.complete(null);
-            }
-            else
-            {
-                openFuture.completeExceptionally(throwable);
-                Loggers.SYSTEM_LOGGER.error("Can't get subscription for {}", NAME, throwable);
-            }
-        });
+        openFuture.complete(null);
     }
 
 
@@ -143,59 +144,94 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
         return openFuture;
     }
 
-    @Override
-    protected void onActorClosed()
+    public ActorFuture<Void> closeAsync()
     {
-        super.onActorClosed();
+        if (isOpenend.compareAndSet(true, false))
+        {
+            return actor.close();
+        }
+        else
+        {
+            return CompletableActorFuture.completed(null);
+        }
     }
 
-    @Override
-    protected void onActorClosing()
+    public int getShardId()
     {
-        super.onActorClosing();
+        return shardId;
     }
 
-    @Override
-    protected void onActorCloseRequested()
+    /**
+     * @return the maximum length of a control message which can be offered to this shard
+     */
+    public int getMaxRequestLength()
     {
-        super.onActorCloseRequested();
+        return requestQueue.maxMsgLength();
     }
 
-    public ActorFuture<Void> closeAsync()
+    /**
+     * Adds the given control message (including the request header) to the request queue. Can be called by
+     * the router thread concurrently to the shard. The message is handled after {@link #signalRequests()}
+     * is called.
+     *
+     * @return <code>false</code>, if the request queue is full
+     */
+    public boolean offerRequest(DirectBuffer buffer, int offset, int length)
     {
-        if (isOpenend.compareAndSet(true, false))
+        return requestQueue.write(REQUEST_MSG_TYPE_ID, buffer, offset, length);
+    }
+
+    /**
+     * Schedules the handling of the queued requests on the actor of the shard.
+     */
+    public void signalRequests()
+    {
+        if (isHandlingScheduled.compareAndSet(false, true))
         {
-            return actor.close();
+            actor.call(this::handleRequests);
         }
-        else
+    }
+
+    /**
+     * Handles a batch of queued requests and reschedules itself if more requests are queued.
+     *
+     * @return the number of handled requests
+     */
+    protected int handleRequests()
+    {
+        isHandlingScheduled.set(false);
+
+        final int handledRequests = requestQueue.read(this, MAX_FRAGMENTS_PER_POLL);
+
+        if (requestQueue.size() > 0)
         {
-            return CompletableActorFuture.completed(null);
+            signalRequests();
         }
+
+        return handledRequests;
     }
 
     @Override
-    public int onFragment(DirectBuffer buffer, int offset, int length, int streamId, boolean isMarkedFailed)
+    public void onMessage(int msgTypeId, MutableDirectBuffer buffer, int offset, int length)
     {
         requestHeaderDescriptor.wrap(buffer, offset);
 
+        final int messageOffset = offset + ControlMessageRequestHeaderDescriptor.headerLength();
+        messageHeaderDecoder.wrap(buffer, messageOffset);
+
+        requestDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), requestDecoder.sbeBlockLength(), requestDecoder.sbeSchemaVersion());
+
+        final int partitionId = requestDecoder.partitionId();
+
         eventMetada.reset();
 
         eventMetada
             .requestId(requestHeaderDescriptor.requestId())
             .requestStreamId(requestHeaderDescriptor.streamId());
 
-        offset += ControlMessageRequestHeaderDescriptor.headerLength();
-
-        messageHeaderDecoder.wrap(requestBuffer, 0);
-        offset += messageHeaderDecoder.encodedLength();
-
-        requestDecoder.wrap(buffer, offset, requestDecoder.sbeBlockLength(), requestDecoder.sbeSchemaVersion());
-
         final ControlMessageType messageType = requestDecoder.messageType();
         lastRequestMessageType(messageType);
 
-        final int partitionId = requestDecoder.partitionId();
-
         ensureBufferCapacity(requestDecoder.dataLength());
         requestDecoder.getData(requestBuffer, 0, requestDecoder.dataLength());
 
@@ -206,20 +242,42 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
         }
         else
         {
+            final int requestStreamId = eventMetada.getRequestStreamId();
+            final long requestId = eventMetada.getRequestId();
+
             sendResponse(actor, () ->
             {
                 return errorResponseWriter
                     .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
-                    .errorMessage("Cannot handle control message with type '%s'.", getLastRequestMessageType().name())
-                    .tryWriteResponseOrLogFailure(eventMetada.getRequestStreamId(), eventMetada.getRequestId());
+                    .errorMessage("Cannot handle control message with type '%s'.", messageType.name())
+                    .tryWriteResponseOrLogFailure(requestStreamId, requestId);
             });
         }
+    }
 
-        return FragmentHandler.CONSUME_FRAGMENT_RESULT;
+    /**
+     * @return the id of the shard which handles the messages of the given partition. Messages without a
+     *         partition (i.e. the partition id is the null value of the message) are handled by the first shard.
+     */
+    public static int shardFor(int partitionId, int shardCount)
+    {
+        if (partitionId == ControlMessageRequestDecoder.partitionIdNullValue() || partitionId < 0)
+        {
+            return 0;
+        }
+        else
+        {
+            return partitionId % shardCount;
+        }
     }
 
     private void sendResponse(ActorControl actor, BooleanSupplier supplier)
     {
+        if (supplier.getAsBoolean())
+        {
+            return;
+        }
+
         actor.runUntilDone(() ->
         {
             final boolean success = supplier.getAsBoolean();
@@ -17,9 +17,14 @@
  */
 package io.zeebe.broker.transport.controlmessage;
 
+import static io.zeebe.broker.services.DispatcherSubscriptionNames.TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BiConsumer;
 
+import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.handler.RequestTopologyHandler;
 import io.zeebe.broker.clustering.management.ClusterManager;
 import io.zeebe.broker.event.handler.RemoveTopicSubscriptionHandler;
@@ -28,12 +33,20 @@ import io.zeebe.broker.system.log.RequestPartitionsMessageHandler;
 import io.zeebe.broker.system.log.SystemPartitionManager;
 import io.zeebe.broker.task.TaskSubscriptionManager;
 import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.dispatcher.Subscription;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.ServerOutput;
 import io.zeebe.transport.ServerTransport;
+import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 
-public class ControlMessageHandlerManagerService implements Service<ControlMessageHandlerManager>
+/**
+ * Shards the control message handling by partition, see {@link ControlMessageHandlerManager}. The service
+ * polls the control message buffer and routes the messages to the shards, see {@link ControlMessageRouter}.
+ */
+public class ControlMessageHandlerManagerService extends Actor implements Service<ControlMessageHandlerManagerService>
 {
     protected final Injector<ServerTransport> transportInjector = new Injector<>();
     protected final Injector<Dispatcher> controlMessageBufferInjector = new Injector<>();
@@ -42,30 +55,67 @@ public class ControlMessageHandlerManagerService implements Service<ControlMessa
     protected final Injector<SystemPartitionManager> systemPartitionManagerInjector = new Injector<>();
     private final Injector<ClusterManager> clusterManagerInjector = new Injector<>();
 
+    /**
+     * the maximum number of control messages which are routed in one actor job
+     */
+    protected static final int MAX_FRAGMENTS_PER_POLL = 64;
+
     protected final long controlMessageRequestTimeoutInMillis;
+    protected final int shardCount;
+
+    protected final List<ControlMessageHandlerManager> shards = new ArrayList<>();
+
+    protected Dispatcher controlMessageBuffer;
+    protected ControlMessageRouter router;
+    protected boolean isRouting;
 
-    protected ControlMessageHandlerManager service;
+    protected CompletableActorFuture<Void> openFuture;
+    protected CompletableActorFuture<Void> closeFuture;
 
-    public ControlMessageHandlerManagerService(long controlMessageRequestTimeoutInMillis)
+    public ControlMessageHandlerManagerService(long controlMessageRequestTimeoutInMillis, int shardCount)
     {
         this.controlMessageRequestTimeoutInMillis = controlMessageRequestTimeoutInMillis;
+        this.shardCount = shardCount;
     }
 
     @Override
     public void start(ServiceStartContext context)
     {
-        final Dispatcher controlMessageBuffer = controlMessageBufferInjector.getValue();
+        controlMessageBuffer = controlMessageBufferInjector.getValue();
 
         final ServerTransport transport = transportInjector.getValue();
         final ActorScheduler actorScheduler = context.getScheduler();
 
+        final ServerOutput output = transport.getOutput();
+
+        for (int shardId = 0; shardId < shardCount; shardId++)
+        {
+            // the handlers are not thread-safe, so each shard gets its own
+            final ControlMessageHandlerManager shard = new ControlMessageHandlerManager(
+                    output,
+                    controlMessageRequestTimeoutInMillis,
+                    actorScheduler,
+                    createHandlers(output),
+                    shardId);
+
+            shards.add(shard);
+        }
+
+        router = new ControlMessageRouter(output, shards);
+
+        openFuture = new CompletableActorFuture<>();
+        context.async(openFuture);
+
+        actorScheduler.submitActor(this);
+    }
+
+    protected List<ControlMessageHandler> createHandlers(ServerOutput output)
+    {
         final TaskSubscriptionManager taskSubscriptionManager = taskSubscriptionManagerInjector.getValue();
         final TopicSubscriptionService topicSubscriptionService = topicSubscriptionServiceInjector.getValue();
         final SystemPartitionManager systemPartitionManager = systemPartitionManagerInjector.getValue();
 
-        final ServerOutput output = transport.getOutput();
-
-        final List<ControlMessageHandler> controlMessageHandlers = Arrays.asList(
+        return Arrays.asList(
             new AddTaskSubscriptionHandler(output, taskSubscriptionManager),
             new IncreaseTaskSubscriptionCreditsHandler(output, taskSubscriptionManager),
             new RemoveTaskSubscriptionHandler(output, taskSubscriptionManager),
@@ -73,27 +123,121 @@ public class ControlMessageHandlerManagerService implements Service<ControlMessa
             new RequestTopologyHandler(output, clusterManagerInjector.getValue()),
             new RequestPartitionsMessageHandler(output, systemPartitionManager)
         );
+    }
+
+    @Override
+    public String getName()
+    {
+        return "control.message.handler.shards";
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        final List<ActorFuture<Void>> openFutures = new ArrayList<>();
+        shards.forEach(shard -> openFutures.add(shard.openAsync()));
+
+        onAllCompleted(openFutures, (v, throwable) ->
+        {
+            if (throwable == null)
+            {
+                openSubscription();
+            }
+            else
+            {
+                openFuture.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private void openSubscription()
+    {
+        final ActorFuture<Subscription> subscriptionAsync = controlMessageBuffer.openSubscriptionAsync(TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION);
 
-        service = new ControlMessageHandlerManager(
-                transport.getOutput(),
-                controlMessageBuffer,
-                controlMessageRequestTimeoutInMillis,
-                actorScheduler,
-                controlMessageHandlers);
+        actor.runOnCompletion(subscriptionAsync, (sub, throwable) ->
+        {
+            if (throwable == null)
+            {
+                isRouting = true;
 
-        context.async(service.openAsync());
+                // a single subscription decodes each message once and routes it to the queue of its shard
+                actor.consume(sub, () ->
+                {
+                    if (isRouting)
+                    {
+                        final int routedMessages = sub.poll(router, MAX_FRAGMENTS_PER_POLL);
+                        router.signalShards();
+
+                        if (routedMessages == 0)
+                        {
+                            actor.yield();
+                        }
+                    }
+                });
+                openFuture.complete(null);
+            }
+            else
+            {
+                openFuture.completeExceptionally(throwable);
+                Loggers.SYSTEM_LOGGER.error("Can't get subscription for {}", getName(), throwable);
+            }
+        });
     }
 
     @Override
     public void stop(ServiceStopContext context)
     {
-        context.async(service.closeAsync());
+        closeFuture = new CompletableActorFuture<>();
+        context.async(closeFuture);
+
+        actor.call(() ->
+        {
+            isRouting = false;
+
+            final List<ActorFuture<Void>> closeFutures = new ArrayList<>();
+            shards.forEach(shard -> closeFutures.add(shard.closeAsync()));
+
+            onAllCompleted(closeFutures, (v, throwable) ->
+            {
+                shards.clear();
+                closeFuture.complete(null);
+                actor.close();
+            });
+        });
+    }
+
+    private void onAllCompleted(List<ActorFuture<Void>> futures, BiConsumer<Void, Throwable> callback)
+    {
+        final int[] pending = new int[] { futures.size() };
+        final Throwable[] failure = new Throwable[1];
+
+        for (ActorFuture<Void> future : futures)
+        {
+            actor.runOnCompletion(future, (v, throwable) ->
+            {
+                if (throwable != null && failure[0] == null)
+                {
+                    failure[0] = throwable;
+                }
+
+                pending[0] -= 1;
+                if (pending[0] == 0)
+                {
+                    callback.accept(null, failure[0]);
+                }
+            });
+        }
     }
 
     @Override
-    public ControlMessageHandlerManager get()
+    public ControlMessageHandlerManagerService get()
+    {
+        return this;
+    }
+
+    public List<ControlMessageHandlerManager> getShards()
     {
-        return service;
+        return shards;
     }
 
     public Injector<ServerTransport> getTransportInjector()
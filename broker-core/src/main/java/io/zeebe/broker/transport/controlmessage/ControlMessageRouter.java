@@ -0,0 +1,101 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.dispatcher.FragmentHandler;
+import io.zeebe.protocol.clientapi.ControlMessageRequestDecoder;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.transport.ServerOutput;
+import org.agrona.DirectBuffer;
+
+import java.util.List;
+
+/**
+ * Decodes the partition id of each control message once and routes the message to the request queue of
+ * the shard which handles the partition, see {@link ControlMessageHandlerManager#shardFor(int, int)}. The
+ * messages of a partition are queued in the order in which they are received.
+ */
+public class ControlMessageRouter implements FragmentHandler
+{
+    protected final ControlMessageRequestHeaderDescriptor requestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
+    protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+    protected final ControlMessageRequestDecoder requestDecoder = new ControlMessageRequestDecoder();
+
+    protected final ControlMessageHandlerManager[] shards;
+    protected final boolean[] hasQueuedRequests;
+
+    protected final ErrorResponseWriter errorResponseWriter;
+
+    public ControlMessageRouter(ServerOutput output, List<ControlMessageHandlerManager> shards)
+    {
+        this.shards = shards.toArray(new ControlMessageHandlerManager[shards.size()]);
+        this.hasQueuedRequests = new boolean[shards.size()];
+        this.errorResponseWriter = new ErrorResponseWriter(output);
+    }
+
+    @Override
+    public int onFragment(DirectBuffer buffer, int offset, int length, int streamId, boolean isMarkedFailed)
+    {
+        final int messageOffset = offset + ControlMessageRequestHeaderDescriptor.headerLength();
+        messageHeaderDecoder.wrap(buffer, messageOffset);
+
+        requestDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), requestDecoder.sbeBlockLength(), requestDecoder.sbeSchemaVersion());
+
+        final int shardId = ControlMessageHandlerManager.shardFor(requestDecoder.partitionId(), shards.length);
+        final ControlMessageHandlerManager shard = shards[shardId];
+
+        if (length > shard.getMaxRequestLength())
+        {
+            requestHeaderDescriptor.wrap(buffer, offset);
+
+            errorResponseWriter
+                .errorCode(ErrorCode.INVALID_MESSAGE)
+                .errorMessage("Cannot handle control message with length '%d'. The maximum length is '%d'.", length, shard.getMaxRequestLength())
+                .tryWriteResponseOrLogFailure(requestHeaderDescriptor.streamId(), requestHeaderDescriptor.requestId());
+
+            return FragmentHandler.CONSUME_FRAGMENT_RESULT;
+        }
+        else if (shard.offerRequest(buffer, offset, length))
+        {
+            hasQueuedRequests[shardId] = true;
+            return FragmentHandler.CONSUME_FRAGMENT_RESULT;
+        }
+        else
+        {
+            // the queue of the shard is full - retry on the next poll to keep the order of the messages
+            return FragmentHandler.POSTPONE_FRAGMENT_RESULT;
+        }
+    }
+
+    /**
+     * Signals the shards which received requests since the last call.
+     */
+    public void signalShards()
+    {
+        for (int shardId = 0; shardId < shards.length; shardId++)
+        {
+            if (hasQueuedRequests[shardId])
+            {
+                hasQueuedRequests[shardId] = false;
+                shards[shardId].signalRequests();
+            }
+        }
+    }
+}
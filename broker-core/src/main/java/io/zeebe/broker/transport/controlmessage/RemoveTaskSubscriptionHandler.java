@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.transport.controlmessage;
 
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
 import io.zeebe.broker.task.TaskSubscriptionManager;
 import io.zeebe.broker.task.processor.TaskSubscriptionRequest;
 import io.zeebe.protocol.clientapi.ControlMessageType;
@@ -28,8 +30,6 @@ import org.agrona.DirectBuffer;
 
 public class RemoveTaskSubscriptionHandler extends AbstractControlMessageHandler
 {
-    protected final TaskSubscriptionRequest subscription = new TaskSubscriptionRequest();
-
     protected final TaskSubscriptionManager manager;
 
     public RemoveTaskSubscriptionHandler(final ServerOutput output, final TaskSubscriptionManager manager)
@@ -50,8 +50,9 @@ public class RemoveTaskSubscriptionHandler extends AbstractControlMessageHandler
         final int requestStreamId = eventMetadata.getRequestStreamId();
         final long requestId = eventMetadata.getRequestId();
 
-        subscription.reset();
-        subscription.wrap(buffer);
+        // the request is used when the subscription is removed, after the next control messages are handled
+        final TaskSubscriptionRequest subscription = new TaskSubscriptionRequest();
+        subscription.wrap(cloneBuffer(buffer));
 
         final long subscriberKey = subscription.getSubscriberKey();
         final ActorFuture<Void> future = manager.removeSubscription(subscriberKey);
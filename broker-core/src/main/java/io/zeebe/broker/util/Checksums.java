@@ -0,0 +1,110 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * Creates the checksums which are used to detect corrupted log segments and snapshots.
+ *
+ * <p>
+ * CRC32C is used if the JVM provides it (Java 9 and later), otherwise CRC32. Both are
+ * intrinsics of the JIT on current CPUs. The algorithm is stored next to a checksum. A JVM
+ * without CRC32C (Java 8) can't verify the checksums which were written with it, so readers
+ * check {@link #isSupported(byte)} and skip the verification of such checksums.
+ */
+public final class Checksums
+{
+    public static final byte ALGORITHM_CRC32 = 1;
+    public static final byte ALGORITHM_CRC32C = 2;
+
+    private static final MethodHandle CRC32C_CONSTRUCTOR = lookupCrc32c();
+
+    private Checksums()
+    {
+    }
+
+    public static byte defaultAlgorithm()
+    {
+        return CRC32C_CONSTRUCTOR != null ? ALGORITHM_CRC32C : ALGORITHM_CRC32;
+    }
+
+    /**
+     * @return true if checksums of the given algorithm can be computed by this JVM
+     */
+    public static boolean isSupported(byte algorithm)
+    {
+        return algorithm == ALGORITHM_CRC32 || (algorithm == ALGORITHM_CRC32C && CRC32C_CONSTRUCTOR != null);
+    }
+
+    public static Checksum newChecksum()
+    {
+        return newChecksum(defaultAlgorithm());
+    }
+
+    public static Checksum newChecksum(byte algorithm)
+    {
+        switch (algorithm)
+        {
+            case ALGORITHM_CRC32:
+                return new CRC32();
+
+            case ALGORITHM_CRC32C:
+                if (CRC32C_CONSTRUCTOR == null)
+                {
+                    throw new IllegalStateException("Checksum algorithm CRC32C is not supported by this JVM");
+                }
+
+                try
+                {
+                    return (Checksum) CRC32C_CONSTRUCTOR.invoke();
+                }
+                catch (Throwable t)
+                {
+                    throw new IllegalStateException("Failed to create CRC32C checksum", t);
+                }
+
+            default:
+                throw new IllegalArgumentException("Unknown checksum algorithm " + algorithm);
+        }
+    }
+
+    public static long checksum(byte algorithm, byte[] bytes, int offset, int length)
+    {
+        final Checksum checksum = newChecksum(algorithm);
+        checksum.update(bytes, offset, length);
+        return checksum.getValue();
+    }
+
+    private static MethodHandle lookupCrc32c()
+    {
+        try
+        {
+            final Class<?> crc32c = Class.forName("java.util.zip.CRC32C");
+            return MethodHandles.publicLookup().findConstructor(crc32c, MethodType.methodType(void.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+
+/**
+ * Runs asynchronous tasks in the order they are submitted, but not more than the given number at the
+ * same time. A task is done when the future which it returns is completed. A task can be canceled by
+ * completing its result future; a canceled task frees its slot immediately, or is not run at all if it
+ * is still pending. Must be used on the thread of the given actor.
+ */
+public class ParallelismLimiter
+{
+    private final ActorControl actor;
+    private final int parallelism;
+
+    private final Deque<Runnable> pendingTasks = new ArrayDeque<>();
+    private int activeTasks;
+
+    public ParallelismLimiter(ActorControl actor, int parallelism)
+    {
+        this.actor = actor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return a future which is completed with the result of the task
+     */
+    public <T> ActorFuture<T> submit(Supplier<ActorFuture<T>> task)
+    {
+        final CompletableActorFuture<T> result = new CompletableActorFuture<>();
+        submit(task, result);
+        return result;
+    }
+
+    /**
+     * Submits the task which completes the given result future. If the result is completed before the
+     * task is done, e.g. because the task is canceled, then the task no longer occupies a slot.
+     */
+    public <T> void submit(Supplier<ActorFuture<T>> task, CompletableActorFuture<T> result)
+    {
+        pendingTasks.add(() -> run(task, result));
+        runPendingTasks();
+    }
+
+    private <T> void run(Supplier<ActorFuture<T>> task, CompletableActorFuture<T> result)
+    {
+        if (result.isDone())
+        {
+            // canceled while pending
+            return;
+        }
+
+        activeTasks++;
+
+        ActorFuture<T> future;
+        try
+        {
+            future = task.get();
+        }
+        catch (Exception e)
+        {
+            future = CompletableActorFuture.completedExceptionally(e);
+        }
+
+        final Slot slot = new Slot();
+
+        actor.runOnCompletion(future, (value, failure) ->
+        {
+            if (!result.isDone())
+            {
+                if (failure == null)
+                {
+                    result.complete(value);
+                }
+                else
+                {
+                    result.completeExceptionally(failure);
+                }
+            }
+
+            slot.release();
+        });
+
+        actor.runOnCompletion(result, (value, failure) -> slot.release());
+    }
+
+    private void runPendingTasks()
+    {
+        while (activeTasks < parallelism && !pendingTasks.isEmpty())
+        {
+            pendingTasks.poll().run();
+        }
+    }
+
+    private class Slot
+    {
+        private boolean released;
+
+        void release()
+        {
+            if (!released)
+            {
+                released = true;
+                activeTasks--;
+
+                runPendingTasks();
+            }
+        }
+    }
+
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    public int getActiveTasks()
+    {
+        return activeTasks;
+    }
+
+    public int getPendingTasks()
+    {
+        return pendingTasks.size();
+    }
+}
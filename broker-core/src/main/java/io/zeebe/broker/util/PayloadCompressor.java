@@ -0,0 +1,245 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.util;
+
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+
+/**
+ * Compresses workflow instance payloads when they are written to the log. Tasks and incidents
+ * created by a workflow instance copy its payload without decompressing it.
+ *
+ * <p>
+ * A compressed payload starts with a byte which is never used by msgpack, followed by
+ * the length of the uncompressed payload and the deflated payload. Payloads which do not
+ * start with this byte are plain msgpack documents, so compressed and uncompressed payloads
+ * can be mixed on the same topic.
+ *
+ * <p>
+ * The returned buffers are reused on subsequent invocations.
+ */
+public class PayloadCompressor implements AutoCloseable
+{
+    public static final byte COMPRESSED_PAYLOAD_MARKER = (byte) 0xc1;
+
+    protected static final int UNCOMPRESSED_LENGTH_OFFSET = 1;
+    protected static final int HEADER_LENGTH = UNCOMPRESSED_LENGTH_OFFSET + 4;
+
+    protected final boolean isCompressionEnabled;
+    protected final int compressionThreshold;
+
+    protected final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    protected final Inflater inflater = new Inflater();
+
+    protected byte[] inputBytes = new byte[1024];
+    protected byte[] outputBytes = new byte[1024];
+
+    protected final ExpandableArrayBuffer compressedBuffer = new ExpandableArrayBuffer();
+    protected final ExpandableArrayBuffer decompressedBuffer = new ExpandableArrayBuffer();
+    protected final UnsafeBuffer compressedView = new UnsafeBuffer(0, 0);
+    protected final UnsafeBuffer decompressedView = new UnsafeBuffer(0, 0);
+
+    protected final Metric uncompressedBytesMetric;
+    protected final Metric compressedBytesMetric;
+    protected final Metric compressionTimeMetric;
+    protected final Metric decompressionTimeMetric;
+
+    protected long uncompressedBytes = 0;
+    protected long compressedBytes = 0;
+    protected long compressionTime = 0;
+    protected long decompressionTime = 0;
+
+    public PayloadCompressor(boolean isCompressionEnabled, int compressionThreshold, MetricsManager metricsManager, String topicName, String partitionId)
+    {
+        this.isCompressionEnabled = isCompressionEnabled;
+        this.compressionThreshold = compressionThreshold;
+
+        uncompressedBytesMetric = metricsManager.newMetric("payload_compression_bytes")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .label("type", "uncompressed")
+            .create();
+
+        compressedBytesMetric = metricsManager.newMetric("payload_compression_bytes")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .label("type", "compressed")
+            .create();
+
+        compressionTimeMetric = metricsManager.newMetric("payload_compression_time_ns")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .label("type", "compress")
+            .create();
+
+        decompressionTimeMetric = metricsManager.newMetric("payload_compression_time_ns")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .label("type", "decompress")
+            .create();
+    }
+
+    public static boolean isCompressed(DirectBuffer payload)
+    {
+        return payload.capacity() > HEADER_LENGTH && payload.getByte(0) == COMPRESSED_PAYLOAD_MARKER;
+    }
+
+    /**
+     * @return the compressed payload, or the given payload if compression is disabled, the payload
+     *         is smaller than the threshold, already compressed or does not shrink
+     */
+    public DirectBuffer compress(DirectBuffer payload)
+    {
+        final int length = payload.capacity();
+
+        if (!isCompressionEnabled || length < compressionThreshold || isCompressed(payload))
+        {
+            return payload;
+        }
+
+        final long startTime = System.nanoTime();
+
+        inputBytes = ensureCapacity(inputBytes, length);
+        payload.getBytes(0, inputBytes, 0, length);
+
+        deflater.reset();
+        deflater.setInput(inputBytes, 0, length);
+        deflater.finish();
+
+        outputBytes = ensureCapacity(outputBytes, length);
+
+        int compressedLength = 0;
+        while (!deflater.finished() && HEADER_LENGTH + compressedLength < length)
+        {
+            compressedLength += deflater.deflate(outputBytes, compressedLength, length - compressedLength);
+        }
+
+        if (!deflater.finished() || HEADER_LENGTH + compressedLength >= length)
+        {
+            // compression does not reduce the size of the payload
+            return payload;
+        }
+
+        compressedBuffer.putByte(0, COMPRESSED_PAYLOAD_MARKER);
+        compressedBuffer.putInt(UNCOMPRESSED_LENGTH_OFFSET, length, ByteOrder.BIG_ENDIAN);
+        compressedBuffer.putBytes(HEADER_LENGTH, outputBytes, 0, compressedLength);
+        compressedView.wrap(compressedBuffer, 0, HEADER_LENGTH + compressedLength);
+
+        compressionTime += System.nanoTime() - startTime;
+        uncompressedBytes += length;
+        compressedBytes += HEADER_LENGTH + compressedLength;
+
+        compressionTimeMetric.setOrdered(compressionTime);
+        uncompressedBytesMetric.setOrdered(uncompressedBytes);
+        compressedBytesMetric.setOrdered(compressedBytes);
+
+        return compressedView;
+    }
+
+    /**
+     * @return the decompressed payload, or the given payload if it is not compressed
+     */
+    public DirectBuffer decompress(DirectBuffer payload)
+    {
+        if (!isCompressed(payload))
+        {
+            return payload;
+        }
+
+        final long startTime = System.nanoTime();
+
+        final int compressedLength = payload.capacity() - HEADER_LENGTH;
+        final int uncompressedLength = payload.getInt(UNCOMPRESSED_LENGTH_OFFSET, ByteOrder.BIG_ENDIAN);
+
+        inputBytes = ensureCapacity(inputBytes, compressedLength);
+        payload.getBytes(HEADER_LENGTH, inputBytes, 0, compressedLength);
+
+        outputBytes = ensureCapacity(outputBytes, uncompressedLength);
+
+        inflater.reset();
+        inflater.setInput(inputBytes, 0, compressedLength);
+
+        try
+        {
+            int length = 0;
+            while (length < uncompressedLength && !inflater.finished())
+            {
+                final int inflated = inflater.inflate(outputBytes, length, uncompressedLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                length += inflated;
+            }
+
+            if (length != uncompressedLength)
+            {
+                throw new IllegalStateException("Failed to decompress payload. Expected " + uncompressedLength + " bytes but got " + length);
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalStateException("Failed to decompress payload", e);
+        }
+
+        decompressedBuffer.putBytes(0, outputBytes, 0, uncompressedLength);
+        decompressedView.wrap(decompressedBuffer, 0, uncompressedLength);
+
+        decompressionTime += System.nanoTime() - startTime;
+        decompressionTimeMetric.setOrdered(decompressionTime);
+
+        return decompressedView;
+    }
+
+    protected static byte[] ensureCapacity(byte[] bytes, int capacity)
+    {
+        if (bytes.length < capacity)
+        {
+            return new byte[Math.max(capacity, bytes.length * 2)];
+        }
+        else
+        {
+            return bytes;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        deflater.end();
+        inflater.end();
+
+        uncompressedBytesMetric.close();
+        compressedBytesMetric.close();
+        compressionTimeMetric.close();
+        decompressionTimeMetric.close();
+    }
+}
@@ -24,4 +24,40 @@ public class WorkflowCfg extends ComponentConfiguration
     public int deploymentCacheSize = 32;
 
     public int payloadCacheSize = 64;
+
+    /**
+     * If true, the incident, task instance and task lock expiration processors of a partition
+     * run in one stream processor which reads every event only once and takes coordinated snapshots.
+     * Changing this setting on an existing data directory requires the partitions to be reprocessed.
+     */
+    public boolean fuseStreamProcessors = false;
+
+    /**
+     * Names of the topics whose workflow instance payloads are compressed when written to the log.
+     * Compressed payloads are decompressed when they are read, so this setting can be changed at any time.
+     *
+     * <p>
+     * Only the workflow instance stream processor compresses payloads. Tasks created by a workflow instance
+     * carry its payload as it is, so they may be compressed as well; payloads written by clients, e.g. on task
+     * completion, are not compressed. The broker sends payloads to clients as they are in the log. Only the
+     * Java client decompresses them, so other clients must not subscribe to topics listed here.
+     */
+    public String[] payloadCompressionTopics = new String[0];
+
+    /**
+     * Payloads smaller than this number of bytes are not compressed.
+     */
+    public int payloadCompressionThreshold = 4 * 1024;
+
+    public boolean isPayloadCompressionEnabled(String topicName)
+    {
+        for (String topic : payloadCompressionTopics)
+        {
+            if (topic.equals(topicName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -22,6 +22,7 @@ import static io.zeebe.broker.workflow.WorkflowQueueServiceNames.WORKFLOW_QUEUE_
 
 import io.zeebe.broker.logstreams.LogStreamServiceNames;
 import io.zeebe.broker.system.*;
+import io.zeebe.broker.task.TaskQueueServiceNames;
 import io.zeebe.broker.transport.TransportServiceNames;
 import io.zeebe.servicecontainer.ServiceContainer;
 
@@ -37,8 +38,9 @@ public class WorkflowComponent implements Component
         final WorkflowQueueManagerService workflowQueueManagerService = new WorkflowQueueManagerService(configurationManager);
         serviceContainer.createService(WORKFLOW_QUEUE_MANAGER, workflowQueueManagerService)
             .dependency(TransportServiceNames.serverTransport(TransportServiceNames.CLIENT_API_SERVER_NAME), workflowQueueManagerService.getClientApiTransportInjector())
-            .dependency(TransportServiceNames.bufferingServerTransport(TransportServiceNames.MANAGEMENT_API_SERVER_NAME), workflowQueueManagerService.getManagementServerInjector())
+            .dependency(SystemServiceNames.WORKFLOW_REQUEST_MESSAGE_HANDLER_SERVICE, workflowQueueManagerService.getWorkflowRequestMessageHandlerInjector())
             .dependency(LogStreamServiceNames.STREAM_PROCESSOR_SERVICE_FACTORY, workflowQueueManagerService.getStreamProcessorServiceFactoryInjector())
+            .dependency(TaskQueueServiceNames.TASK_QUEUE_SUBSCRIPTION_MANAGER, workflowQueueManagerService.getTaskSubscriptionManagerInjector())
             .groupReference(WORKFLOW_STREAM_GROUP, workflowQueueManagerService.getLogStreamsGroupReference())
             .install();
     }
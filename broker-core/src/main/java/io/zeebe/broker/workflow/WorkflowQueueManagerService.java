@@ -18,19 +18,29 @@
 package io.zeebe.broker.workflow;
 
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.INCIDENT_PROCESSOR_ID;
+import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.PARTITION_PIPELINE_PROCESSOR_ID;
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.WORKFLOW_INSTANCE_PROCESSOR_ID;
 
 import io.zeebe.broker.incident.processor.IncidentStreamProcessor;
+import io.zeebe.broker.logstreams.processor.SchedulingClass;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
+import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.system.ConfigurationManager;
-import io.zeebe.broker.system.deployment.handler.CreateWorkflowResponseSender;
+import io.zeebe.broker.system.deployment.handler.WorkflowRequestMessageHandler;
+import io.zeebe.broker.system.metrics.EventTracer;
+import io.zeebe.broker.task.TaskSubscriptionManager;
+import io.zeebe.broker.task.processor.TaskExpireLockStreamProcessor;
+import io.zeebe.broker.task.processor.TaskInstanceStreamProcessor;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
 import io.zeebe.broker.workflow.processor.WorkflowInstanceStreamProcessor;
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.ServerTransport;
 import io.zeebe.util.EnsureUtil;
+import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.sched.Actor;
 
 public class WorkflowQueueManagerService extends Actor implements Service<WorkflowQueueManager>, WorkflowQueueManager
@@ -38,8 +48,9 @@ public class WorkflowQueueManagerService extends Actor implements Service<Workfl
     protected static final String NAME = "workflow.queue.manager";
 
     protected final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
-    private final Injector<ServerTransport> managementServerInjector = new Injector<>();
+    private final Injector<WorkflowRequestMessageHandler> workflowRequestMessageHandlerInjector = new Injector<>();
     private final Injector<StreamProcessorServiceFactory> streamProcessorServiceFactoryInjector = new Injector<>();
+    private final Injector<TaskSubscriptionManager> taskSubscriptionManagerInjector = new Injector<>();
 
     protected final ServiceGroupReference<LogStream> logStreamsGroupReference = ServiceGroupReference.<LogStream>create()
             .onAdd((name, stream) -> addStream(stream, name))
@@ -60,7 +71,15 @@ public class WorkflowQueueManagerService extends Actor implements Service<Workfl
         EnsureUtil.ensureNotNull("logStream", logStream);
 
         installWorkflowStreamProcessor(logStream);
-        installIncidentStreamProcessor(logStream);
+
+        if (workflowCfg.fuseStreamProcessors)
+        {
+            installPartitionPipeline(logStream);
+        }
+        else
+        {
+            installIncidentStreamProcessor(logStream);
+        }
     }
 
     private void installWorkflowStreamProcessor(final LogStream logStream)
@@ -68,19 +87,24 @@ public class WorkflowQueueManagerService extends Actor implements Service<Workfl
         final ServerTransport transport = clientApiTransportInjector.getValue();
         final CommandResponseWriter responseWriter = new CommandResponseWriter(transport.getOutput());
 
-        final ServerTransport managementServer = managementServerInjector.getValue();
-        final CreateWorkflowResponseSender createWorkflowResponseSender = new CreateWorkflowResponseSender(managementServer);
+        // shared by all partitions to respond once per create workflow request
+        final WorkflowRequestMessageHandler workflowRequestMessageHandler = workflowRequestMessageHandlerInjector.getValue();
 
         final WorkflowInstanceStreamProcessor workflowInstanceStreamProcessor = new WorkflowInstanceStreamProcessor(
                 responseWriter,
-                createWorkflowResponseSender,
+                workflowRequestMessageHandler.getCreateWorkflowResponseSender(),
                 workflowCfg.deploymentCacheSize,
-                workflowCfg.payloadCacheSize);
+                workflowCfg.payloadCacheSize,
+                workflowCfg.isPayloadCompressionEnabled(BufferUtil.bufferAsString(logStream.getTopicName())),
+                workflowCfg.payloadCompressionThreshold,
+                streamProcessorServiceFactory.getDirectMemoryAccountant());
 
         streamProcessorServiceFactory.createService(logStream)
             .processor(workflowInstanceStreamProcessor)
             .processorId(WORKFLOW_INSTANCE_PROCESSOR_ID)
             .processorName("workflow-instance")
+            .ownedEventTypes(EventType.WORKFLOW_INSTANCE_EVENT)
+            .schedulingClass(SchedulingClass.COMMAND)
             .eventFilter(WorkflowInstanceStreamProcessor.eventFilter())
             .build();
     }
@@ -95,9 +119,50 @@ public class WorkflowQueueManagerService extends Actor implements Service<Workfl
             .processor(incidentProcessorFactory.createStreamProcessor(env))
             .processorId(INCIDENT_PROCESSOR_ID)
             .processorName("incident")
+            .ownedEventTypes(EventType.INCIDENT_EVENT)
             .build();
     }
 
+    /**
+     * Installs one stream processor for incidents, task instances and task lock expiration,
+     * so that the events of the partition are read and dispatched only once.
+     */
+    private void installPartitionPipeline(final LogStream logStream)
+    {
+        final ServerTransport transport = clientApiTransportInjector.getValue();
+        final TypedStreamEnvironment env = new TypedStreamEnvironment(logStream, transport.getOutput());
+
+        final TypedStreamProcessor partitionPipeline = createPartitionPipeline(
+                env,
+                taskSubscriptionManagerInjector.getValue(),
+                streamProcessorServiceFactory.getEventTracer());
+
+        streamProcessorServiceFactory.createService(logStream)
+            .processor(partitionPipeline)
+            .processorId(PARTITION_PIPELINE_PROCESSOR_ID)
+            .processorName("partition-pipeline")
+            .ownedEventTypes(EventType.TASK_EVENT, EventType.INCIDENT_EVENT)
+            .schedulingClass(SchedulingClass.COMMAND)
+            .build();
+    }
+
+    public static TypedStreamProcessor createPartitionPipeline(
+            TypedStreamEnvironment env,
+            TaskSubscriptionManager taskSubscriptionManager,
+            EventTracer eventTracer)
+    {
+        final IncidentStreamProcessor incidentProcessorFactory = new IncidentStreamProcessor();
+        final TaskInstanceStreamProcessor taskInstanceProcessorFactory = new TaskInstanceStreamProcessor(taskSubscriptionManager, eventTracer);
+        final TaskExpireLockStreamProcessor expireLockProcessorFactory = new TaskExpireLockStreamProcessor(env.buildStreamReader(), env.buildStreamWriter());
+
+        final TypedEventStreamProcessorBuilder builder = env.newStreamProcessor();
+        incidentProcessorFactory.registerWith(env, builder);
+        taskInstanceProcessorFactory.registerWith(env, builder);
+        expireLockProcessorFactory.registerWith(builder);
+
+        return builder.build();
+    }
+
     @Override
     public void start(ServiceStartContext serviceContext)
     {
@@ -129,9 +194,14 @@ public class WorkflowQueueManagerService extends Actor implements Service<Workfl
         return logStreamsGroupReference;
     }
 
-    public Injector<ServerTransport> getManagementServerInjector()
+    public Injector<WorkflowRequestMessageHandler> getWorkflowRequestMessageHandlerInjector()
+    {
+        return workflowRequestMessageHandlerInjector;
+    }
+
+    public Injector<TaskSubscriptionManager> getTaskSubscriptionManagerInjector()
     {
-        return managementServerInjector;
+        return taskSubscriptionManagerInjector;
     }
 
     public void addStream(LogStream logStream, ServiceName<LogStream> logStreamServiceName)
@@ -0,0 +1,54 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+package io.zeebe.broker.workflow.data;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.LongProperty;
+
+/**
+ * The options of a create workflow instance command which only belong to the request. They are
+ * read from the command but never written to a workflow instance event.
+ */
+public class CreateWorkflowInstanceRequest extends UnpackedObject
+{
+    public static final String PROP_AWAIT_COMPLETION_TIMEOUT = "awaitCompletionTimeout";
+
+    public static final long NO_AWAIT_COMPLETION = -1L;
+
+    private final LongProperty awaitCompletionTimeoutProp = new LongProperty(PROP_AWAIT_COMPLETION_TIMEOUT, NO_AWAIT_COMPLETION);
+
+    public CreateWorkflowInstanceRequest()
+    {
+        this.declareProperty(awaitCompletionTimeoutProp);
+    }
+
+    /**
+     * @return the time in milliseconds the creator of the instance waits for its completion
+     *         or {@link #NO_AWAIT_COMPLETION} if the creator only waits for the creation
+     */
+    public long getAwaitCompletionTimeout()
+    {
+        return awaitCompletionTimeoutProp.getValue();
+    }
+
+    public CreateWorkflowInstanceRequest setAwaitCompletionTimeout(long awaitCompletionTimeout)
+    {
+        this.awaitCompletionTimeoutProp.setValue(awaitCompletionTimeout);
+        return this;
+    }
+
+}
@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.workflow.map;
 
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.system.memory.MemoryUsage;
 import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
 import io.zeebe.logstreams.log.LogStreamReader;
 import io.zeebe.logstreams.log.LoggedEvent;
@@ -32,24 +34,105 @@ import org.agrona.DirectBuffer;
  * <p>
  * When a payload is requested then the it is returned from the cache. If it is
  * not present in the cache then the payload event is seek in the log stream.
+ *
+ * <p>
+ * The cache can be shrunk if the broker runs short of memory, and grows back to
+ * its configured size once the memory is available again. Evicted payloads
+ * are read from the log stream again.
  */
 public class PayloadCache implements AutoCloseable
 {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MIN_CACHE_SIZE = 16;
+
     private final WorkflowInstanceEvent workflowInstanceEvent = new WorkflowInstanceEvent();
 
     private final Long2LongZbMap map;
     private final ZbMapSnapshotSupport<Long2LongZbMap> snapshotSupport;
 
-    private final ExpandableBufferCache cache;
+    private final int maxCacheSize;
+
+    private ExpandableBufferCache cache;
+    private int cacheSize;
+    private int largestPayloadSize = INITIAL_BUFFER_SIZE;
     private final LogStreamReader logStreamReader;
 
+    private MemoryUsage memoryUsage;
+
     public PayloadCache(int cacheSize, LogStreamReader logStreamReader)
     {
         this.map = new Long2LongZbMap();
         this.snapshotSupport = new ZbMapSnapshotSupport<>(map);
 
         this.logStreamReader = logStreamReader;
-        this.cache = new ExpandableBufferCache(cacheSize, 1024, this::lookupPayload);
+        this.maxCacheSize = cacheSize;
+        this.cacheSize = cacheSize;
+        this.cache = new ExpandableBufferCache(cacheSize, INITIAL_BUFFER_SIZE, this::lookupPayload);
+    }
+
+    /**
+     * Reports the estimated memory of the cache to the given usage, which is closed with the cache.
+     */
+    public void accountMemory(MemoryUsage memoryUsage)
+    {
+        this.memoryUsage = memoryUsage;
+        updateMemoryUsage();
+    }
+
+    /**
+     * Halves the size of the cache, unless it has reached its minimum size.
+     */
+    public void shrink()
+    {
+        if (cacheSize > MIN_CACHE_SIZE)
+        {
+            resize(Math.max(cacheSize / 2, MIN_CACHE_SIZE));
+
+            Loggers.SYSTEM_LOGGER.debug("Shrunk payload cache to {} entries.", cacheSize);
+        }
+    }
+
+    /**
+     * Doubles the size of a shrunk cache, up to its configured size.
+     */
+    public void grow()
+    {
+        if (cacheSize < maxCacheSize)
+        {
+            resize(Math.min(cacheSize * 2, maxCacheSize));
+
+            Loggers.SYSTEM_LOGGER.debug("Grew payload cache to {} entries.", cacheSize);
+        }
+    }
+
+    private void resize(int newCacheSize)
+    {
+        cacheSize = newCacheSize;
+        largestPayloadSize = INITIAL_BUFFER_SIZE;
+        cache = new ExpandableBufferCache(cacheSize, INITIAL_BUFFER_SIZE, this::lookupPayload);
+
+        updateMemoryUsage();
+    }
+
+    public int getCacheSize()
+    {
+        return cacheSize;
+    }
+
+    /**
+     * @return an upper bound of the memory of the cached payloads, as every cached buffer grows to the largest payload
+     */
+    public long getEstimatedSize()
+    {
+        return (long) cacheSize * largestPayloadSize;
+    }
+
+    private void updateMemoryUsage()
+    {
+        if (memoryUsage != null)
+        {
+            memoryUsage.update(getEstimatedSize());
+        }
     }
 
     private DirectBuffer lookupPayload(long position)
@@ -87,6 +170,12 @@ public class PayloadCache implements AutoCloseable
     {
         map.put(workflowInstanceKey, payloadEventPosition);
         cache.put(payloadEventPosition, payload);
+
+        if (payload.capacity() > largestPayloadSize)
+        {
+            largestPayloadSize = payload.capacity();
+            updateMemoryUsage();
+        }
     }
 
     public void remove(long workflowInstanceKey)
@@ -103,6 +192,12 @@ public class PayloadCache implements AutoCloseable
     public void close()
     {
         map.close();
+
+        if (memoryUsage != null)
+        {
+            memoryUsage.close();
+            memoryUsage = null;
+        }
     }
 
 }
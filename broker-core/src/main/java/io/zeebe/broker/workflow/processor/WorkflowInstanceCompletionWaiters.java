@@ -0,0 +1,183 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import java.time.Duration;
+
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.logstreams.log.*;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.ScheduledTimer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+
+/**
+ * Keeps track of clients which created a workflow instance and wait for its completion. A waiter
+ * is answered with the final event of the instance when it completes or is canceled, and with the
+ * creation event when its timeout elapses first.
+ *
+ * <p>Waiters are only kept in memory, i.e. they are lost when the partition changes its leader. This
+ * includes the timeout of a waiter which is only part of the create request and is held here until
+ * the instance is created.
+ */
+public class WorkflowInstanceCompletionWaiters
+{
+    private final Long2ObjectHashMap<CompletionWaiter> waiters = new Long2ObjectHashMap<>();
+    private final Long2LongHashMap pendingTimeouts = new Long2LongHashMap(-1L);
+
+    private final CommandResponseWriter responseWriter;
+
+    private final WorkflowInstanceEvent createdEvent = new WorkflowInstanceEvent();
+    private LogStreamReader logStreamReader;
+
+    private ActorControl actor;
+    private int partitionId;
+
+    public WorkflowInstanceCompletionWaiters(CommandResponseWriter responseWriter)
+    {
+        this.responseWriter = responseWriter;
+    }
+
+    public void open(ActorControl actor, LogStream logStream)
+    {
+        this.actor = actor;
+        this.partitionId = logStream.getPartitionId();
+        this.logStreamReader = new BufferedLogStreamReader(logStream);
+    }
+
+    public void close()
+    {
+        for (CompletionWaiter waiter : waiters.values())
+        {
+            waiter.timer.cancel();
+        }
+        waiters.clear();
+        pendingTimeouts.clear();
+
+        if (logStreamReader != null)
+        {
+            logStreamReader.close();
+        }
+    }
+
+    /**
+     * Remembers the timeout of a create request until the instance is created.
+     *
+     * @param workflowInstanceKey the key of the workflow instance to create
+     * @param timeout the time in milliseconds the creator waits for the completion
+     */
+    public void awaitCompletion(long workflowInstanceKey, long timeout)
+    {
+        pendingTimeouts.put(workflowInstanceKey, timeout);
+    }
+
+    /**
+     * Registers a waiter for the created workflow instance if its creator awaits the completion.
+     *
+     * @param workflowInstanceKey the key of the created workflow instance
+     * @param createdEventPosition the position of the workflow instance created event which is
+     *          sent as response if the timeout elapses
+     */
+    public void register(long workflowInstanceKey, long createdEventPosition, int requestStreamId, long requestId)
+    {
+        final long timeout = pendingTimeouts.remove(workflowInstanceKey);
+
+        if (timeout > 0)
+        {
+            final CompletionWaiter waiter = new CompletionWaiter();
+            waiter.createdEventPosition = createdEventPosition;
+            waiter.requestStreamId = requestStreamId;
+            waiter.requestId = requestId;
+            waiter.timer = actor.runDelayed(Duration.ofMillis(timeout), () -> timeOut(workflowInstanceKey));
+
+            waiters.put(workflowInstanceKey, waiter);
+        }
+    }
+
+    /**
+     * Answers the waiter of the given workflow instance, if any, with the given final event.
+     *
+     * @return false if the response could not be written and should be retried
+     */
+    public boolean onWorkflowInstanceEnded(long workflowInstanceKey, long position, WorkflowInstanceEvent event)
+    {
+        final CompletionWaiter waiter = waiters.get(workflowInstanceKey);
+
+        if (waiter == null)
+        {
+            return true;
+        }
+
+        final boolean isWritten = sendResponse(waiter, workflowInstanceKey, position, event);
+
+        if (isWritten)
+        {
+            waiters.remove(workflowInstanceKey);
+            waiter.timer.cancel();
+        }
+        return isWritten;
+    }
+
+    private void timeOut(long workflowInstanceKey)
+    {
+        final CompletionWaiter waiter = waiters.remove(workflowInstanceKey);
+
+        if (waiter != null)
+        {
+            final boolean found = logStreamReader.seek(waiter.createdEventPosition);
+            if (found && logStreamReader.hasNext())
+            {
+                final LoggedEvent event = logStreamReader.next();
+
+                createdEvent.reset();
+                event.readValue(createdEvent);
+
+                actor.runUntilDone(() ->
+                {
+                    if (sendResponse(waiter, workflowInstanceKey, waiter.createdEventPosition, createdEvent))
+                    {
+                        actor.done();
+                    }
+                    else
+                    {
+                        actor.yield();
+                    }
+                });
+            }
+        }
+    }
+
+    private boolean sendResponse(CompletionWaiter waiter, long workflowInstanceKey, long position, WorkflowInstanceEvent event)
+    {
+        return responseWriter
+                .partitionId(partitionId)
+                .position(position)
+                .key(workflowInstanceKey)
+                .eventWriter(event)
+                .tryWriteResponse(waiter.requestStreamId, waiter.requestId);
+    }
+
+    private static class CompletionWaiter
+    {
+        long createdEventPosition;
+        int requestStreamId;
+        long requestId;
+        ScheduledTimer timer;
+    }
+}
@@ -27,11 +27,15 @@ import java.util.*;
 import io.zeebe.broker.incident.IncidentEventWriter;
 import io.zeebe.broker.incident.data.ErrorType;
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.broker.logstreams.processor.StateSizeAware;
+import io.zeebe.broker.system.memory.DirectMemoryAccountant;
+import io.zeebe.broker.system.memory.MemoryUsage;
 import io.zeebe.broker.system.deployment.handler.CreateWorkflowResponseSender;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.task.data.TaskHeaders;
 import io.zeebe.broker.task.data.TaskState;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.util.PayloadCompressor;
 import io.zeebe.broker.workflow.data.*;
 import io.zeebe.broker.workflow.map.*;
 import io.zeebe.broker.workflow.map.DeployedWorkflow;
@@ -40,6 +44,7 @@ import io.zeebe.logstreams.log.*;
 import io.zeebe.logstreams.log.LogStreamBatchWriter.LogEntryBuilder;
 import io.zeebe.logstreams.processor.*;
 import io.zeebe.logstreams.snapshot.ComposedSnapshot;
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
 import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.model.bpmn.BpmnAspect;
 import io.zeebe.model.bpmn.instance.*;
@@ -51,11 +56,12 @@ import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.util.metrics.Metric;
 import io.zeebe.util.metrics.MetricsManager;
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.LongArrayList;
 import org.agrona.concurrent.UnsafeBuffer;
 
-public class WorkflowInstanceStreamProcessor implements StreamProcessor
+public class WorkflowInstanceStreamProcessor implements StreamProcessor, StateSizeAware
 {
     private static final UnsafeBuffer EMPTY_TASK_TYPE = new UnsafeBuffer("".getBytes());
 
@@ -68,6 +74,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected final CancelWorkflowInstanceProcessor cancelWorkflowInstanceProcessor = new CancelWorkflowInstanceProcessor();
 
     protected final EventProcessor updatePayloadProcessor = new UpdatePayloadProcessor();
+    protected final EventProcessor workflowInstanceEndedProcessor = new WorkflowInstanceEndedProcessor();
 
     protected final EventProcessor sequenceFlowTakenEventProcessor = new ActiveWorkflowInstanceProcessor(new SequenceFlowTakenEventProcessor());
     protected final EventProcessor activityReadyEventProcessor = new ActiveWorkflowInstanceProcessor(new ActivityReadyEventProcessor());
@@ -98,6 +105,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
     protected final WorkflowEvent workflowEvent = new WorkflowEvent();
     protected final WorkflowInstanceEvent workflowInstanceEvent = new WorkflowInstanceEvent();
+    protected final CreateWorkflowInstanceRequest createWorkflowInstanceRequest = new CreateWorkflowInstanceRequest();
     protected final TaskEvent taskEvent = new TaskEvent();
 
     // internal //////////////////////////////////////
@@ -109,6 +117,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected final WorkflowDeploymentCache workflowDeploymentCache;
     protected final PayloadCache payloadCache;
 
+    protected final ComposableSnapshotSupport[] stateResources;
     protected final ComposedSnapshot composedSnapshot;
 
     protected LogStreamReader logStreamReader;
@@ -124,6 +133,13 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected final JsonConditionInterpreter conditionInterpreter = new JsonConditionInterpreter();
 
     protected final CreateWorkflowResponseSender workflowResponseSender;
+    protected final WorkflowInstanceCompletionWaiters completionWaiters;
+
+    protected final DirectMemoryAccountant memoryAccountant;
+
+    protected final boolean isPayloadCompressionEnabled;
+    protected final int payloadCompressionThreshold;
+    protected PayloadCompressor payloadCompressor;
 
     protected LogStream logStream;
 
@@ -131,9 +147,13 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             CommandResponseWriter responseWriter,
             CreateWorkflowResponseSender createWorkflowResponseSender,
             int deploymentCacheSize,
-            int payloadCacheSize)
+            int payloadCacheSize,
+            boolean isPayloadCompressionEnabled,
+            int payloadCompressionThreshold,
+            DirectMemoryAccountant memoryAccountant)
     {
         this.responseWriter = responseWriter;
+        this.memoryAccountant = memoryAccountant;
         this.logStreamReader = new BufferedLogStreamReader();
 
         this.workflowDeploymentCache = new WorkflowDeploymentCache(deploymentCacheSize, logStreamReader);
@@ -145,13 +165,19 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         this.payloadMappingProcessor = new MappingProcessor(4096);
 
         this.workflowResponseSender = createWorkflowResponseSender;
+        this.completionWaiters = new WorkflowInstanceCompletionWaiters(responseWriter);
+
+        this.isPayloadCompressionEnabled = isPayloadCompressionEnabled;
+        this.payloadCompressionThreshold = payloadCompressionThreshold;
 
-        this.composedSnapshot = new ComposedSnapshot(
+        this.stateResources = new ComposableSnapshotSupport[] {
             workflowInstanceIndex.getSnapshotSupport(),
             activityInstanceMap.getSnapshotSupport(),
             workflowDeploymentCache.getIdVersionSnapshot(),
             workflowDeploymentCache.getKeyPositionSnapshot(),
-            payloadCache.getSnapshotSupport());
+            payloadCache.getSnapshotSupport()
+        };
+        this.composedSnapshot = new ComposedSnapshot(stateResources);
 
     }
 
@@ -161,6 +187,17 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         return composedSnapshot;
     }
 
+    @Override
+    public long getStateSize()
+    {
+        long size = 0;
+        for (ComposableSnapshotSupport stateResource : stateResources)
+        {
+            size += stateResource.snapshotSize();
+        }
+        return size;
+    }
+
     @Override
     public void onOpen(StreamProcessorContext context)
     {
@@ -174,6 +211,16 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
         this.logStream = logstream;
 
+        completionWaiters.open(context.getActorControl(), logstream);
+
+        // the accountant asks to shrink or grow the cache from its own thread
+        final MemoryUsage payloadCacheMemory = memoryAccountant.register(DirectMemoryAccountant.COMPONENT_CACHE,
+            logstream.getPartitionId(),
+            "payload-cache",
+            () -> context.getActorControl().call(payloadCache::shrink),
+            () -> context.getActorControl().call(payloadCache::grow));
+        payloadCache.accountMemory(payloadCacheMemory);
+
         final MetricsManager metricsManager = context.getActorScheduler().getMetricsManager();
         final String topicName = logstream.getTopicName().getStringWithoutLengthUtf8(0, logstream.getTopicName().capacity());
         final String partitionId = Integer.toString(logstream.getPartitionId());
@@ -198,6 +245,8 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             .label("partition", partitionId)
             .label("type", "completed")
             .create();
+
+        payloadCompressor = new PayloadCompressor(isPayloadCompressionEnabled, payloadCompressionThreshold, metricsManager, topicName, partitionId);
     }
 
     @Override
@@ -208,10 +257,13 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         workflowDeploymentCache.close();
         payloadCache.close();
         logStreamReader.close();
+        completionWaiters.close();
 
         workflowInstanceEventCreate.close();
         workflowInstanceEventCanceled.close();
         workflowInstanceEventCompleted.close();
+
+        payloadCompressor.close();
     }
 
     public static MetadataFilter eventFilter()
@@ -268,6 +320,9 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         switch (workflowInstanceEvent.getState())
         {
             case CREATE_WORKFLOW_INSTANCE:
+                createWorkflowInstanceRequest.reset();
+                event.readValue(createWorkflowInstanceRequest);
+
                 eventProcessor = createWorkflowInstanceEventProcessor;
                 break;
 
@@ -281,10 +336,12 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 break;
 
             case WORKFLOW_INSTANCE_CANCELED:
+                eventProcessor = workflowInstanceEndedProcessor;
                 workflowInstanceEventCanceled.incrementOrdered();
                 break;
 
             case WORKFLOW_INSTANCE_COMPLETED:
+                eventProcessor = workflowInstanceEndedProcessor;
                 workflowInstanceEventCompleted.incrementOrdered();
                 break;
 
@@ -395,6 +452,21 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         }
     }
 
+    /**
+     * Compresses the payload of the workflow instance event if it is enabled for this topic and the payload is large enough.
+     * The payload is decompressed lazily, only when it is mapped or used for conditions.
+     */
+    protected void compressPayload()
+    {
+        final DirectBuffer payload = workflowInstanceEvent.getPayload();
+        final DirectBuffer compressedPayload = payloadCompressor.compress(payload);
+
+        if (compressedPayload != payload)
+        {
+            workflowInstanceEvent.setPayload(compressedPayload, 0, compressedPayload.capacity());
+        }
+    }
+
     protected long writeWorkflowEvent(LogStreamWriter writer)
     {
         targetEventMetadata.reset();
@@ -424,12 +496,17 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     }
 
     protected boolean sendWorkflowInstanceResponse()
+    {
+        return sendWorkflowInstanceResponse(workflowInstanceEvent);
+    }
+
+    protected boolean sendWorkflowInstanceResponse(WorkflowInstanceEvent event)
     {
         return responseWriter
                 .partitionId(logStreamPartitionId)
                 .position(eventPosition)
                 .key(eventKey)
-                .eventWriter(workflowInstanceEvent)
+                .eventWriter(event)
                 .tryWriteResponse(sourceEventMetadata.getRequestStreamId(), sourceEventMetadata.getRequestId());
     }
 
@@ -595,9 +672,15 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
     private final class CreateWorkflowInstanceEventProcessor implements EventProcessor
     {
+        private final WorkflowInstanceEvent createdEvent = new WorkflowInstanceEvent();
+
+        private boolean awaitsCompletion;
+
         @Override
         public void processEvent()
         {
+            awaitsCompletion = false;
+
             WorkflowInstanceState newEventType = WorkflowInstanceState.WORKFLOW_INSTANCE_REJECTED;
 
             long workflowKey = workflowInstanceEvent.getWorkflowKey();
@@ -629,24 +712,59 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                         .setVersion(deployedWorkflow.getVersion());
 
                     newEventType = WorkflowInstanceState.WORKFLOW_INSTANCE_CREATED;
+                    awaitsCompletion = createWorkflowInstanceRequest.getAwaitCompletionTimeout() > 0;
+
+                    compressPayload();
                 }
             }
 
-            workflowInstanceEvent
+            // copy the declared properties only so that the options of the request are not written
+            createdEvent.reset();
+            createdEvent
                     .setState(newEventType)
-                    .setWorkflowInstanceKey(eventKey);
+                    .setBpmnProcessId(workflowInstanceEvent.getBpmnProcessId())
+                    .setVersion(workflowInstanceEvent.getVersion())
+                    .setWorkflowKey(workflowInstanceEvent.getWorkflowKey())
+                    .setWorkflowInstanceKey(eventKey)
+                    .setPayload(workflowInstanceEvent.getPayload());
         }
 
         @Override
         public boolean executeSideEffects()
         {
-            return sendWorkflowInstanceResponse();
+            if (awaitsCompletion)
+            {
+                // the response is sent when the instance is completed
+                completionWaiters.awaitCompletion(eventKey, createWorkflowInstanceRequest.getAwaitCompletionTimeout());
+                return true;
+            }
+            else
+            {
+                return sendWorkflowInstanceResponse(createdEvent);
+            }
         }
 
         @Override
         public long writeEvent(LogStreamWriter writer)
         {
-            return writeWorkflowEvent(writer.key(eventKey));
+            targetEventMetadata.reset();
+            targetEventMetadata
+                    .protocolVersion(Protocol.PROTOCOL_VERSION)
+                    .eventType(WORKFLOW_INSTANCE_EVENT);
+
+            if (awaitsCompletion)
+            {
+                // the created event carries the request so that the waiter is registered when it is processed
+                targetEventMetadata
+                        .requestStreamId(sourceEventMetadata.getRequestStreamId())
+                        .requestId(sourceEventMetadata.getRequestId());
+            }
+
+            return writer
+                    .key(eventKey)
+                    .metadataWriter(targetEventMetadata)
+                    .valueWriter(createdEvent)
+                    .tryWrite();
         }
     }
 
@@ -675,6 +793,17 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             }
         }
 
+        @Override
+        public boolean executeSideEffects()
+        {
+            completionWaiters.register(
+                    eventKey,
+                    eventPosition,
+                    sourceEventMetadata.getRequestStreamId(),
+                    sourceEventMetadata.getRequestId());
+            return true;
+        }
+
         @Override
         public long writeEvent(LogStreamWriter writer)
         {
@@ -761,12 +890,14 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         private SequenceFlow getSequenceFlowWithFulfilledCondition(ExclusiveGateway exclusiveGateway)
         {
             final List<SequenceFlow> sequenceFlows = exclusiveGateway.getOutgoingSequenceFlowsWithConditions();
+            final DirectBuffer payload = payloadCompressor.decompress(workflowInstanceEvent.getPayload());
+
             for (int s = 0; s < sequenceFlows.size(); s++)
             {
                 final SequenceFlow sequenceFlow = sequenceFlows.get(s);
 
                 final CompiledJsonCondition compiledCondition = sequenceFlow.getCondition();
-                final boolean isFulFilled = conditionInterpreter.eval(compiledCondition.getCondition(), workflowInstanceEvent.getPayload());
+                final boolean isFulFilled = conditionInterpreter.eval(compiledCondition.getCondition(), payload);
 
                 if (isFulFilled)
                 {
@@ -900,9 +1031,11 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             {
                 try
                 {
-                    final int resultLen = payloadMappingProcessor.extract(sourcePayload, mappings);
+                    final int resultLen = payloadMappingProcessor.extract(payloadCompressor.decompress(sourcePayload), mappings);
                     final MutableDirectBuffer buffer = payloadMappingProcessor.getResultBuffer();
                     workflowInstanceEvent.setPayload(buffer, 0, resultLen);
+
+                    compressPayload();
                 }
                 catch (MappingException e)
                 {
@@ -1082,6 +1215,9 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
     private final class ActivityCompletingEventProcessor implements EventProcessor
     {
+        private final ExpandableArrayBuffer taskPayloadBuffer = new ExpandableArrayBuffer();
+        private final UnsafeBuffer taskPayloadView = new UnsafeBuffer(0, 0);
+
         private boolean hasIncident;
 
         @Override
@@ -1122,15 +1258,31 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 // no payload from task complete
                 workflowInstanceEvent.setPayload(workflowInstancePayload, 0, workflowInstancePayload.capacity());
             }
+            else
+            {
+                compressPayload();
+            }
         }
 
         private void mergePayload(Mapping[] mappings, final DirectBuffer workflowInstancePayload, final DirectBuffer taskPayload)
         {
             try
             {
-                final int resultLen = payloadMappingProcessor.merge(taskPayload, workflowInstancePayload, mappings);
+                DirectBuffer sourcePayload = taskPayload;
+                if (PayloadCompressor.isCompressed(taskPayload))
+                {
+                    // the compressor reuses its buffer, so the task payload is copied before the workflow instance payload is decompressed
+                    final DirectBuffer decompressedTaskPayload = payloadCompressor.decompress(taskPayload);
+                    taskPayloadBuffer.putBytes(0, decompressedTaskPayload, 0, decompressedTaskPayload.capacity());
+                    taskPayloadView.wrap(taskPayloadBuffer, 0, decompressedTaskPayload.capacity());
+                    sourcePayload = taskPayloadView;
+                }
+
+                final int resultLen = payloadMappingProcessor.merge(sourcePayload, payloadCompressor.decompress(workflowInstancePayload), mappings);
                 final MutableDirectBuffer buffer = payloadMappingProcessor.getResultBuffer();
                 workflowInstanceEvent.setPayload(buffer, 0, resultLen);
+
+                compressPayload();
             }
             catch (MappingException e)
             {
@@ -1327,6 +1479,8 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             {
                 workflowInstanceEventType = WorkflowInstanceState.PAYLOAD_UPDATED;
                 isUpdated = true;
+
+                compressPayload();
             }
             workflowInstanceEvent.setState(workflowInstanceEventType);
         }
@@ -1353,6 +1507,20 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         }
     }
 
+    private final class WorkflowInstanceEndedProcessor implements EventProcessor
+    {
+        @Override
+        public void processEvent()
+        {
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            return completionWaiters.onWorkflowInstanceEnded(eventKey, eventPosition, workflowInstanceEvent);
+        }
+    }
+
     private final class ActiveWorkflowInstanceProcessor implements EventProcessor
     {
         private final EventProcessor processor;
@@ -0,0 +1,87 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.broker.clustering.management.load.PartitionLoadMonitor.PartitionLoad;
+import org.junit.Test;
+
+public class PartitionLoadMonitorTest
+{
+    private final PartitionLoadMonitor monitor = new PartitionLoadMonitor();
+
+    @Test
+    public void shouldCalculateCommandRatePerPartition()
+    {
+        // given
+        final PartitionLoad partition1 = monitor.register(1);
+        final PartitionLoad partition2 = monitor.register(2);
+        monitor.sample(1_000);
+
+        // when
+        recordCommands(partition1, 20);
+        recordCommands(partition2, 10);
+        final long load = monitor.sample(3_000);
+
+        // then
+        assertThat(partition1.getRate()).isEqualTo(10);
+        assertThat(partition2.getRate()).isEqualTo(5);
+        assertThat(load).isEqualTo(15);
+        assertThat(monitor.getLoad()).isEqualTo(15);
+    }
+
+    @Test
+    public void shouldReturnSameLoadOnRepeatedRegistration()
+    {
+        // given
+        final PartitionLoad partitionLoad = monitor.register(1);
+
+        // when
+        final PartitionLoad registeredAgain = monitor.register(1);
+
+        // then
+        assertThat(registeredAgain).isSameAs(partitionLoad);
+        assertThat(monitor.getPartitionLoads()).hasSize(1);
+    }
+
+    @Test
+    public void shouldNotConsiderUnregisteredPartitions()
+    {
+        // given
+        final PartitionLoad partitionLoad = monitor.register(1);
+        monitor.sample(1_000);
+        recordCommands(partitionLoad, 10);
+
+        // when
+        monitor.unregister(1);
+        final long load = monitor.sample(2_000);
+
+        // then
+        assertThat(load).isEqualTo(0);
+        assertThat(monitor.getPartitionLoad(1)).isNull();
+    }
+
+    private static void recordCommands(PartitionLoad partitionLoad, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            partitionLoad.recordCommand();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.management.memberList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import io.zeebe.broker.clustering.handler.Topology;
+import io.zeebe.broker.clustering.handler.TopologyBroker;
+import io.zeebe.broker.clustering.management.ClusterManagerContext;
+import io.zeebe.raft.state.RaftState;
+import io.zeebe.transport.SocketAddress;
+import io.zeebe.util.buffer.BufferUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TopologyCreatorTest
+{
+    private final MemberListService memberListService = new MemberListService();
+
+    private TopologyCreator topologyCreator;
+
+    @Before
+    public void setUp()
+    {
+        final ClusterManagerContext context = new ClusterManagerContext();
+        context.setMemberListService(memberListService);
+
+        topologyCreator = new TopologyCreator(context, null);
+    }
+
+    @Test
+    public void shouldCreateFullTopologyForUnknownEpoch()
+    {
+        // given
+        addMember(51015);
+        addMember(51016);
+        final Topology current = topologyCreator.createTopology();
+
+        // when
+        final Topology topology = topologyCreator.createTopology(current.getEpoch() + 1, current.getVersion());
+
+        // then
+        assertThat(topology.isDelta()).isFalse();
+        assertThat(topology.getEpoch()).isEqualTo(current.getEpoch());
+        assertThat(topology.getVersion()).isEqualTo(2);
+        assertThat(ports(topology.brokers().iterator())).containsExactly(51015, 51016);
+    }
+
+    @Test
+    public void shouldCreateDeltaWithChangedMembers()
+    {
+        // given
+        addMember(51015);
+        final MemberRaftComposite member = addMember(51016);
+        final Topology known = topologyCreator.createTopology();
+
+        // when
+        member.updateRaft(1, BufferUtil.wrapString("default-topic"), RaftState.LEADER);
+        topologyCreator.onMemberChanged(member);
+
+        final Topology topology = topologyCreator.createTopology(known.getEpoch(), known.getVersion());
+
+        // then
+        assertThat(topology.isDelta()).isTrue();
+        assertThat(topology.getVersion()).isEqualTo(known.getVersion() + 1);
+        assertThat(ports(topology.brokers().iterator())).containsExactly(51016);
+        assertThat(topology.removedBrokers().iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    public void shouldCreateDeltaWithRemovedMembers()
+    {
+        // given
+        final MemberRaftComposite member = addMember(51015);
+        addMember(51016);
+        final Topology known = topologyCreator.createTopology();
+
+        // when
+        memberListService.remove(member.getMember());
+        topologyCreator.onMemberRemoved(member);
+
+        final Topology topology = topologyCreator.createTopology(known.getEpoch(), known.getVersion());
+
+        // then
+        assertThat(topology.isDelta()).isTrue();
+        assertThat(topology.brokers().iterator().hasNext()).isFalse();
+        assertThat(ports(topology.removedBrokers().iterator())).containsExactly(51015);
+    }
+
+    @Test
+    public void shouldCreateFullTopologyIfRemovalsAreNoLongerTracked()
+    {
+        // given
+        final Topology known = topologyCreator.createTopology();
+
+        // when
+        for (int i = 0; i <= TopologyCreator.MAX_TRACKED_REMOVALS; i++)
+        {
+            final MemberRaftComposite member = addMember(52000 + i);
+            memberListService.remove(member.getMember());
+            topologyCreator.onMemberRemoved(member);
+        }
+
+        final Topology topology = topologyCreator.createTopology(known.getEpoch(), known.getVersion());
+
+        // then
+        assertThat(topology.isDelta()).isFalse();
+        assertThat(topology.brokers().iterator().hasNext()).isFalse();
+    }
+
+    private MemberRaftComposite addMember(int port)
+    {
+        final SocketAddress address = new SocketAddress("localhost", port);
+        final MemberRaftComposite member = memberListService.add(address);
+        member.setClientApi(address);
+        topologyCreator.onMemberChanged(member);
+        return member;
+    }
+
+    private static List<Integer> ports(Iterator<TopologyBroker> brokers)
+    {
+        final List<Integer> ports = new ArrayList<>();
+        while (brokers.hasNext())
+        {
+            ports.add(brokers.next().getPort());
+        }
+        return ports;
+    }
+}
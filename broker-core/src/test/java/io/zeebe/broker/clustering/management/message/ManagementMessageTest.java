@@ -22,6 +22,8 @@ import static io.zeebe.util.buffer.BufferUtil.*;
 
 import java.util.Arrays;
 
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.transport.SocketAddress;
 import org.agrona.DirectBuffer;
 import org.junit.Test;
@@ -42,13 +44,35 @@ public class ManagementMessageTest
             .members(Arrays.asList(
                 new SocketAddress("localhost", 8001),
                 new SocketAddress("localhost", 8002)
-            ));
+            ))
+            .logSettings(new LogStreamSettings()
+                .logSegmentSize(64 * 1024 * 1024)
+                .writeBufferSize(4 * 1024 * 1024)
+                .compactionPolicy(LogCompactionPolicy.RETAIN));
 
         assertEqualFieldsAfterWriteAndRead(invitationRequest,
             "topicName",
             "partitionId",
             "term",
-            "members"
+            "members",
+            "logSettings"
+        );
+    }
+
+    @Test
+    public void testCreatePartitionRequest()
+    {
+        final CreatePartitionRequest createPartitionRequest = new CreatePartitionRequest()
+            .topicName(TOPIC_NAME)
+            .partitionId(111)
+            .logSettings(new LogStreamSettings()
+                .indexBlockSize(512 * 1024)
+                .compactionPolicy(LogCompactionPolicy.ARCHIVE));
+
+        assertEqualFieldsAfterWriteAndRead(createPartitionRequest,
+            "topicName",
+            "partitionId",
+            "logSettings"
         );
     }
 
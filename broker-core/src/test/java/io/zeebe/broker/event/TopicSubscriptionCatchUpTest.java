@@ -0,0 +1,106 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import io.zeebe.broker.test.EmbeddedBrokerRule;
+import io.zeebe.test.broker.protocol.clientapi.ClientApiRule;
+import io.zeebe.test.util.TestUtil;
+
+public class TopicSubscriptionCatchUpTest
+{
+    public EmbeddedBrokerRule brokerRule = new EmbeddedBrokerRule("zeebe.test.subscription-catch-up.cfg.toml");
+    public ClientApiRule apiRule = new ClientApiRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(brokerRule).around(apiRule);
+
+    @Test
+    public void shouldPushAllEventsWhenCatchingUpInBatches()
+    {
+        // given
+        final int nrOfTasks = 5;
+        createTasks(nrOfTasks);
+
+        // when
+        openSubscription();
+
+        // then
+        final int expectedNumberOfEvents = nrOfTasks * 2; // CREATE and CREATED
+
+        TestUtil.waitUntil(() -> apiRule.numSubscribedEventsAvailable() == expectedNumberOfEvents);
+
+        final List<Long> eventPositions = apiRule.subscribedEvents()
+                .limit(expectedNumberOfEvents)
+                .map((e) -> e.position())
+                .collect(Collectors.toList());
+
+        assertThat(eventPositions).isSorted();
+    }
+
+    @Test
+    public void shouldPushNewEventsAfterCatchingUp()
+    {
+        // given
+        createTasks(3);
+        openSubscription();
+        TestUtil.waitUntil(() -> apiRule.numSubscribedEventsAvailable() == 6);
+        apiRule.moveMessageStreamToTail();
+
+        // when
+        createTasks(1);
+
+        // then
+        TestUtil.waitUntil(() -> apiRule.numSubscribedEventsAvailable() == 2);
+    }
+
+    protected void openSubscription()
+    {
+        apiRule.createCmdRequest()
+            .eventTypeSubscriber()
+            .command()
+                .put("startPosition", 0)
+                .put("name", "foo")
+                .put("state", "SUBSCRIBE")
+                .put("prefetchCapacity", -1)
+                .done()
+            .sendAndAwait();
+    }
+
+    protected void createTasks(int nrOfTasks)
+    {
+        for (int i = 0; i < nrOfTasks; i++)
+        {
+            apiRule.createCmdRequest()
+                .eventTypeTask()
+                .command()
+                    .put("state", "CREATE")
+                    .put("type", "theTaskType")
+                    .done()
+                .sendAndAwait();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.zeebe.broker.logstreams.LogRetention;
+import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
+import io.zeebe.broker.transport.clientapi.BufferingServerOutput;
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
+import io.zeebe.broker.util.StreamProcessorRule;
+import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.protocol.clientapi.ExecuteCommandResponseDecoder;
+import io.zeebe.servicecontainer.ServiceContainer;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+
+public class FollowerTopicSubscriptionManagementProcessorTest
+{
+    protected static final String SUBSCRIPTION_NAME = "foo";
+    protected static final int REQUEST_STREAM_ID = 3;
+
+    @Rule
+    public StreamProcessorRule rule = new StreamProcessorRule();
+
+    protected StreamProcessorServiceFactory.Builder serviceBuilder;
+    protected ServiceContainer serviceContainer;
+
+    protected FollowerTopicSubscriptionManagementProcessor processor;
+
+    @Before
+    public void setUp()
+    {
+        // push processors are not opened, only their creation is verified
+        serviceBuilder = mock(StreamProcessorServiceFactory.Builder.class, RETURNS_SELF);
+        when(serviceBuilder.build()).thenReturn(CompletableActorFuture.completed(null));
+
+        final StreamProcessorServiceFactory serviceFactory = mock(StreamProcessorServiceFactory.class);
+        when(serviceFactory.createService(any())).thenReturn(serviceBuilder);
+        when(serviceFactory.getLogRetention(any())).thenReturn(new LogRetention());
+
+        serviceContainer = mock(ServiceContainer.class);
+        when(serviceContainer.removeService(any())).thenReturn(CompletableActorFuture.completed(null));
+
+        final BufferingServerOutput output = rule.getOutput();
+
+        processor = new FollowerTopicSubscriptionManagementProcessor(
+            new CommandResponseWriter(output),
+            new ErrorResponseWriter(output),
+            () -> mock(SubscribedEventWriter.class),
+            serviceFactory,
+            serviceContainer,
+            new SubscriptionCfg());
+
+        rule.runStreamProcessor(env -> processor);
+    }
+
+    @Test
+    public void shouldSubscribeWithoutWritingToTheLog()
+    {
+        // when
+        processor.subscribeAsync(REQUEST_STREAM_ID, 1L, subscribeCommand(SUBSCRIPTION_NAME, 0L));
+
+        // then
+        waitUntil(() -> rule.getOutput().getSentResponses().size() == 1);
+
+        final ExecuteCommandResponseDecoder response = rule.getOutput().getAsExecuteCommandResponse(0);
+        assertThat(FollowerTopicSubscriptionManagementProcessor.isFollowerSubscriberKey(response.key())).isTrue();
+
+        verify(serviceBuilder).processorName("topic-push-follower." + SUBSCRIPTION_NAME);
+        verify(serviceBuilder).readOnly(true);
+
+        assertThat(rule.events().count()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectTooLongSubscriptionName()
+    {
+        // given
+        final String name = "a-very-long-subscription-name-which-exceeds-the-limit";
+
+        // when
+        processor.subscribeAsync(REQUEST_STREAM_ID, 1L, subscribeCommand(name, 0L));
+
+        // then
+        waitUntil(() -> rule.getOutput().getSentResponses().size() == 1);
+
+        assertThat(rule.getOutput().getAsErrorResponse(0).errorData()).contains("32 characters or shorter");
+    }
+
+    @Test
+    public void shouldResumeAfterReplicatedAcknowledgement()
+    {
+        // given
+        writeSubscriptionEvent(SUBSCRIPTION_NAME, TopicSubscriptionState.ACKNOWLEDGED, 10L);
+        // commands are processed by the leader only
+        writeSubscriptionEvent(SUBSCRIPTION_NAME, TopicSubscriptionState.ACKNOWLEDGE, 100L);
+        writeSubscriptionEvent("bar", TopicSubscriptionState.ACKNOWLEDGED, 5L);
+
+        waitUntil(() -> processor.determineResumePosition(BufferUtil.wrapString("bar"), 0L, false) == 6L);
+
+        // when
+        processor.subscribeAsync(REQUEST_STREAM_ID, 1L, subscribeCommand(SUBSCRIPTION_NAME, 0L));
+
+        // then
+        waitUntil(() -> rule.getOutput().getSentResponses().size() == 1);
+
+        final ArgumentCaptor<StreamProcessor> pushProcessorCaptor = ArgumentCaptor.forClass(StreamProcessor.class);
+        verify(serviceBuilder).processor(pushProcessorCaptor.capture());
+
+        final TopicSubscriptionPushProcessor pushProcessor = (TopicSubscriptionPushProcessor) pushProcessorCaptor.getValue();
+        assertThat(pushProcessor.getStartPosition()).isEqualTo(11L);
+    }
+
+    @Test
+    public void shouldCloseAllPushProcessorsOnLeaderHandover()
+    {
+        // given
+        processor.subscribeAsync(REQUEST_STREAM_ID, 1L, subscribeCommand(SUBSCRIPTION_NAME, 0L));
+        waitUntil(() -> rule.getOutput().getSentResponses().size() == 1);
+
+        final long subscriberKey = rule.getOutput().getAsExecuteCommandResponse(0).key();
+
+        // when
+        final ActorFuture<Void> closeFuture = processor.closeAllPushProcessorsAsync();
+
+        // then
+        waitUntil(closeFuture::isDone);
+
+        final String logName = processor.getLogStream().getLogName();
+        verify(serviceContainer).removeService(LogStreamServiceNames.streamProcessorService(logName, "topic-push-follower." + SUBSCRIPTION_NAME));
+
+        // a close request of the client after the handover doesn't close the processor again
+        final ActorFuture<Void> closeSubscriptionFuture = processor.closePushProcessorAsync(subscriberKey);
+        waitUntil(closeSubscriptionFuture::isDone);
+
+        verify(serviceContainer, times(1)).removeService(any());
+    }
+
+    protected DirectBuffer subscribeCommand(String name, long startPosition)
+    {
+        final TopicSubscriberEvent event = new TopicSubscriberEvent()
+            .setName(name)
+            .setStartPosition(startPosition)
+            .setPrefetchCapacity(0)
+            .setState(TopicSubscriberState.SUBSCRIBE);
+
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[event.getEncodedLength()]);
+        event.write(buffer, 0);
+        return buffer;
+    }
+
+    protected void writeSubscriptionEvent(String name, TopicSubscriptionState state, long ackPosition)
+    {
+        final DirectBuffer nameBuffer = BufferUtil.wrapString(name);
+
+        final TopicSubscriptionEvent event = new TopicSubscriptionEvent()
+            .setName(nameBuffer, 0, nameBuffer.capacity())
+            .setAckPosition(ackPosition)
+            .setState(state);
+
+        rule.writeEvent(event);
+    }
+}
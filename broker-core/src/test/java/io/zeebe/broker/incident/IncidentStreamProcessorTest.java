@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 import org.junit.Rule;
 import org.junit.Test;
 
+import io.zeebe.broker.incident.data.ErrorType;
 import io.zeebe.broker.incident.data.IncidentEvent;
 import io.zeebe.broker.incident.data.IncidentState;
 import io.zeebe.broker.incident.processor.IncidentStreamProcessor;
@@ -129,6 +130,39 @@ public class IncidentStreamProcessorTest
                 IncidentState.DELETED);
     }
 
+    @Test
+    public void shouldDeleteTaskIncidentFromInlinedIncidentEvent()
+    {
+        // given
+        final StreamProcessorControl control = rule.runStreamProcessor(this::buildStreamProcessor);
+        control.blockAfterIncidentEvent(e -> e.getValue().getState() == IncidentState.CREATED);
+
+        final TaskEvent task = taskFailed(0);
+        final long key = rule.writeEvent(task);
+
+        waitForEventInState(IncidentState.CREATED); // stream processor is now blocked
+
+        task.setState(TaskState.RETRIES_UPDATED);
+        task.setRetries(1);
+        rule.writeEvent(key, task);
+
+        // when
+        control.unblock();
+
+        // then
+        waitForEventInState(IncidentState.DELETED);
+
+        final TypedEvent<IncidentEvent> createdEvent = rule.events().onlyIncidentEvents().inState(IncidentState.CREATED).findFirst().get();
+        final TypedEvent<IncidentEvent> deletedEvent = rule.events().onlyIncidentEvents().inState(IncidentState.DELETED).findFirst().get();
+
+        assertThat(deletedEvent.getKey()).isEqualTo(createdEvent.getKey());
+
+        final IncidentEvent deletedIncident = deletedEvent.getValue();
+        assertThat(deletedIncident.getErrorType()).isEqualTo(ErrorType.TASK_NO_RETRIES);
+        assertThat(BufferUtil.bufferAsString(deletedIncident.getErrorMessage())).isEqualTo("No more retries left.");
+        assertThat(deletedIncident.getTaskKey()).isEqualTo(key);
+    }
+
     private TaskEvent taskFailed(int retries)
     {
         final TaskEvent event = new TaskEvent();
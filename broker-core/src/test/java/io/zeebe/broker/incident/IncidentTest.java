@@ -29,6 +29,8 @@ import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.agrona.MutableDirectBuffer;
 import org.junit.Before;
@@ -680,6 +682,43 @@ public class IncidentTest
             .containsEntry("activityId", "failingTask");
     }
 
+    @Test
+    public void shouldRewriteInlinedFailureEventAfterPreviousResolvingFailed() throws Exception
+    {
+        // given
+        testClient.deploy(WORKFLOW_INPUT_MAPPING);
+
+        final long workflowInstanceKey = testClient.createWorkflowInstance("process");
+
+        final SubscribedEvent failureEvent = testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_READY"));
+        testClient.receiveSingleEvent(incidentEvents("CREATED"));
+
+        // the failure event is inlined on the first resolve attempt
+        updatePayload(workflowInstanceKey, failureEvent.key(), MsgPackHelper.EMTPY_OBJECT);
+
+        testClient.receiveSingleEvent(incidentEvents("RESOLVE_FAILED"));
+
+        // when
+        updatePayload(workflowInstanceKey, failureEvent.key(), PAYLOAD);
+
+        // then
+        testClient.receiveSingleEvent(incidentEvents("RESOLVED"));
+
+        final List<SubscribedEvent> rewrittenEvents = testClient.receiveEvents(workflowInstanceEvents("ACTIVITY_READY"))
+            .limit(3)
+            .collect(Collectors.toList());
+
+        final SubscribedEvent rewrittenEvent = rewrittenEvents.get(2);
+        assertThat(rewrittenEvent.key()).isEqualTo(failureEvent.key());
+        assertThat(rewrittenEvent.event())
+            .containsEntry("bpmnProcessId", "process")
+            .containsEntry("workflowInstanceKey", workflowInstanceKey)
+            .containsEntry("activityId", "failingTask")
+            .containsEntry("workflowKey", failureEvent.event().get("workflowKey"))
+            .containsEntry("version", failureEvent.event().get("version"))
+            .containsEntry(PROP_PAYLOAD, PAYLOAD);
+    }
+
     @Test
     public void shouldResolveMultipleIncidents() throws Exception
     {
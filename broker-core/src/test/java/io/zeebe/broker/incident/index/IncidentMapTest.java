@@ -0,0 +1,189 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.incident.index;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import io.zeebe.broker.incident.data.ErrorType;
+import io.zeebe.broker.incident.data.IncidentEvent;
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
+import io.zeebe.map.Long2BytesZbMap;
+import io.zeebe.msgpack.spec.MsgPackHelper;
+import io.zeebe.util.buffer.BufferUtil;
+
+public class IncidentMapTest
+{
+    private final IncidentMap incidentMap = new IncidentMap();
+
+    @After
+    public void close()
+    {
+        incidentMap.close();
+    }
+
+    @Test
+    public void shouldReadInlinedEvents()
+    {
+        // given
+        final WorkflowInstanceEvent failureEvent = new WorkflowInstanceEvent()
+            .setBpmnProcessId(wrapString("process"))
+            .setActivityId(wrapString("task"))
+            .setWorkflowInstanceKey(2L)
+            .setPayload(new UnsafeBuffer(MsgPackHelper.EMTPY_OBJECT));
+
+        incidentMap
+            .newIncident(1L)
+            .setState((short) 1)
+            .setIncidentEventPosition(10L)
+            .setFailureEventPosition(5L)
+            .setIncidentEvent(incidentEvent("failed"))
+            .setFailureEvent(3L, failureEvent)
+            .write();
+
+        // when
+        incidentMap.reset();
+        incidentMap.wrapIncidentKey(1L);
+
+        // then
+        final IncidentEvent incidentEvent = new IncidentEvent();
+        assertThat(incidentMap.readIncidentEvent(incidentEvent)).isTrue();
+        assertThat(incidentEvent.getErrorType()).isEqualTo(ErrorType.IO_MAPPING_ERROR);
+        assertThat(BufferUtil.bufferAsString(incidentEvent.getErrorMessage())).isEqualTo("failed");
+
+        final WorkflowInstanceEvent inlinedFailureEvent = new WorkflowInstanceEvent();
+        assertThat(incidentMap.readFailureEvent(inlinedFailureEvent)).isTrue();
+        assertThat(incidentMap.getFailureEventKey()).isEqualTo(3L);
+        assertThat(BufferUtil.bufferAsString(inlinedFailureEvent.getActivityId())).isEqualTo("task");
+        assertThat(inlinedFailureEvent.getWorkflowInstanceKey()).isEqualTo(2L);
+        assertThat(inlinedFailureEvent.getPayload()).isEqualTo(WorkflowInstanceEvent.NO_PAYLOAD);
+    }
+
+    @Test
+    public void shouldNotInlineEventWhichExceedsMaxLength()
+    {
+        // given
+        final String errorMessage = new String(new char[IncidentMap.INCIDENT_EVENT_MAX_LENGTH]).replace('\0', 'x');
+
+        incidentMap
+            .newIncident(1L)
+            .setState((short) 1)
+            .setIncidentEventPosition(10L)
+            .setIncidentEvent(incidentEvent(errorMessage))
+            .write();
+
+        // when
+        incidentMap.wrapIncidentKey(1L);
+
+        // then
+        assertThat(incidentMap.readIncidentEvent(new IncidentEvent())).isFalse();
+        assertThat(incidentMap.getIncidentEventPosition()).isEqualTo(10L);
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshot() throws Exception
+    {
+        // given
+        incidentMap
+            .newIncident(1L)
+            .setState((short) 2)
+            .setIncidentEventPosition(10L)
+            .setFailureEventPosition(5L)
+            .setIncidentEvent(incidentEvent("failed"))
+            .write();
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long snapshotSize = incidentMap.getSnapshotSupport().writeSnapshot(outputStream);
+
+        final IncidentMap recoveredMap = new IncidentMap();
+
+        try
+        {
+            // when
+            recoveredMap.getSnapshotSupport().recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+            // then
+            assertThat(snapshotSize).isEqualTo(outputStream.size());
+
+            recoveredMap.wrapIncidentKey(1L);
+            assertThat(recoveredMap.getState()).isEqualTo((short) 2);
+            assertThat(recoveredMap.getIncidentEventPosition()).isEqualTo(10L);
+            assertThat(recoveredMap.getFailureEventPosition()).isEqualTo(5L);
+
+            final IncidentEvent incidentEvent = new IncidentEvent();
+            assertThat(recoveredMap.readIncidentEvent(incidentEvent)).isTrue();
+            assertThat(BufferUtil.bufferAsString(incidentEvent.getErrorMessage())).isEqualTo("failed");
+        }
+        finally
+        {
+            recoveredMap.close();
+        }
+    }
+
+    @Test
+    public void shouldRecoverFromLegacySnapshot() throws Exception
+    {
+        // given a snapshot of the previous map which contains only the state and the positions
+        final Long2BytesZbMap legacyMap = new Long2BytesZbMap(18);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try
+        {
+            final UnsafeBuffer value = new UnsafeBuffer(new byte[18]);
+            value.putShort(0, (short) 2, LITTLE_ENDIAN);
+            value.putLong(2, 10L, LITTLE_ENDIAN);
+            value.putLong(10, 5L, LITTLE_ENDIAN);
+            legacyMap.put(1L, value);
+
+            new ZbMapSnapshotSupport<>(legacyMap).writeSnapshot(outputStream);
+        }
+        finally
+        {
+            legacyMap.close();
+        }
+
+        // when
+        incidentMap.getSnapshotSupport().recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // then
+        incidentMap.wrapIncidentKey(1L);
+        assertThat(incidentMap.getState()).isEqualTo((short) 2);
+        assertThat(incidentMap.getIncidentEventPosition()).isEqualTo(10L);
+        assertThat(incidentMap.getFailureEventPosition()).isEqualTo(5L);
+        assertThat(incidentMap.getFailureEventKey()).isEqualTo(-1L);
+
+        assertThat(incidentMap.readIncidentEvent(new IncidentEvent())).isFalse();
+        assertThat(incidentMap.readFailureEvent(new WorkflowInstanceEvent())).isFalse();
+    }
+
+    private IncidentEvent incidentEvent(String errorMessage)
+    {
+        return new IncidentEvent()
+            .setErrorType(ErrorType.IO_MAPPING_ERROR)
+            .setErrorMessage(errorMessage);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.zeebe.broker.clustering.raft.RaftPersistentFileStorage;
+
+public class LogDirectoryPlacementTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldSpreadPartitionsOverAllDirectories() throws Exception
+    {
+        // given
+        final String[] directories = newDirectories(3);
+        final LogDirectoryPlacement placement = new LogDirectoryPlacement(directories, 0);
+
+        // when
+        final String first = placement.selectDirectory();
+        final String second = placement.selectDirectory();
+        final String third = placement.selectDirectory();
+
+        // then
+        assertThat(new String[] {first, second, third}).containsExactlyInAnyOrder(directories);
+    }
+
+    @Test
+    public void shouldConsiderExistingPartitions() throws Exception
+    {
+        // given
+        final String[] directories = newDirectories(2);
+        final LogDirectoryPlacement placement = new LogDirectoryPlacement(directories, 0);
+
+        placement.registerPartition(directories[0] + File.separator + "default-topic-1");
+
+        // when
+        final String selected = placement.selectDirectory();
+
+        // then
+        assertThat(selected).isEqualTo(directories[1]);
+    }
+
+    @Test
+    public void shouldNotConsiderRemovedPartitions() throws Exception
+    {
+        // given
+        final String[] directories = newDirectories(2);
+        final LogDirectoryPlacement placement = new LogDirectoryPlacement(directories, 0);
+
+        placement.registerPartition(directories[0] + File.separator + "default-topic-1");
+        placement.registerPartition(directories[0] + File.separator + "default-topic-2");
+        placement.registerPartition(directories[1] + File.separator + "default-topic-3");
+
+        // when
+        placement.unregisterPartition(directories[0] + File.separator + "default-topic-1");
+        placement.unregisterPartition(directories[0] + File.separator + "default-topic-2");
+
+        // then
+        assertThat(placement.selectDirectory()).isEqualTo(directories[0]);
+    }
+
+    @Test
+    public void shouldSelectDirectoryIfNoneHasEnoughSpace() throws Exception
+    {
+        // given
+        final String[] directories = newDirectories(2);
+        final LogDirectoryPlacement placement = new LogDirectoryPlacement(directories, Long.MAX_VALUE);
+
+        // when
+        final String selected = placement.selectDirectory();
+
+        // then
+        assertThat(selected).isIn((Object[]) directories);
+    }
+
+    @Test
+    public void shouldMigrateLogToOtherDirectory() throws Exception
+    {
+        // given
+        final File managementDirectory = tempFolder.newFolder("management");
+        final File sourceDirectory = tempFolder.newFolder("source", "default-topic-1");
+        final File targetDirectory = tempFolder.newFolder("target");
+
+        Files.write(new File(sourceDirectory, "00.data").toPath(), new byte[] {1, 2, 3});
+
+        final String metaFile = new File(managementDirectory, "default-topic-1.meta").getAbsolutePath();
+        new RaftPersistentFileStorage(metaFile)
+            .setLogDirectory(sourceDirectory.getAbsolutePath())
+            .save();
+
+        final LogDirectoryMigration migration = new LogDirectoryMigration(managementDirectory.getAbsolutePath());
+
+        // when
+        final String newDirectory = migration.migrate("default-topic-1", targetDirectory.getAbsolutePath());
+
+        // then
+        assertThat(sourceDirectory).doesNotExist();
+        assertThat(new File(newDirectory, "00.data")).hasBinaryContent(new byte[] {1, 2, 3});
+        assertThat(new RaftPersistentFileStorage(metaFile).getLogDirectory()).isEqualTo(newDirectory);
+    }
+
+    protected String[] newDirectories(int count) throws Exception
+    {
+        final String[] directories = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            directories[i] = tempFolder.newFolder("logs-" + i).getAbsolutePath();
+        }
+        return directories;
+    }
+}
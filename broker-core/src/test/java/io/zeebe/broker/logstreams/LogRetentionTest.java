@@ -0,0 +1,143 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LogRetentionTest
+{
+    protected LogRetention retention = new LogRetention();
+
+    @Test
+    public void shouldRetainLowestPosition()
+    {
+        // when
+        retention.retain("a", 10);
+        retention.retain("b", 5);
+        retention.retain("c", 20);
+
+        // then
+        assertThat(retention.hasConsumers()).isTrue();
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldReplaceRetainedPosition()
+    {
+        // given
+        retention.retain("a", 10);
+        retention.retain("b", 5);
+
+        // when
+        retention.retain("b", 15);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldReleasePosition()
+    {
+        // given
+        retention.retain("a", 10);
+        retention.retain("b", 5);
+
+        // when
+        retention.release("b");
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldNotRetainWithoutConsumers()
+    {
+        // given
+        retention.retain("a", 10);
+
+        // when
+        retention.release("a");
+
+        // then
+        assertThat(retention.hasConsumers()).isFalse();
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldNotOverrideExistingPosition()
+    {
+        // given
+        retention.retain("a", 10);
+
+        // when
+        retention.retainIfAbsent("a", LogRetention.RETAIN_ALL);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldRetainAllForNegativePosition()
+    {
+        // when
+        retention.retain("a", -5);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(LogRetention.RETAIN_ALL);
+    }
+
+    @Test
+    public void shouldNotHaveSnapshotConsumersIfOnlySubscriptionsRetain()
+    {
+        // when
+        retention.retain("subscription", 10);
+
+        // then
+        assertThat(retention.hasConsumers()).isTrue();
+        assertThat(retention.hasSnapshotConsumers()).isFalse();
+    }
+
+    @Test
+    public void shouldHaveSnapshotConsumersIfProcessorRetainsSnapshot()
+    {
+        // given
+        retention.retain("subscription", 10);
+
+        // when
+        retention.retainSnapshot("processor", 5);
+
+        // then
+        assertThat(retention.hasSnapshotConsumers()).isTrue();
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldReleaseSnapshotConsumer()
+    {
+        // given
+        retention.retainSnapshot("processor", 5);
+
+        // when
+        retention.release("processor");
+
+        // then
+        assertThat(retention.hasSnapshotConsumers()).isFalse();
+    }
+}
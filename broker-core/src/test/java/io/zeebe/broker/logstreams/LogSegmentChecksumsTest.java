@@ -0,0 +1,176 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LogSegmentChecksumsTest
+{
+    protected static final byte UNSUPPORTED_ALGORITHM = 99;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    protected File logDirectory;
+    protected LogSegmentChecksums checksums;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        logDirectory = tempFolder.newFolder("default-topic-1");
+        checksums = new LogSegmentChecksums();
+
+        newSegment("00.data", 1024);
+        newSegment("01.data", 2048);
+        newSegment("02.data", 512);
+    }
+
+    @Test
+    public void shouldWriteChecksumsOfSealedSegments() throws Exception
+    {
+        // when
+        final int written = checksums.update(logDirectory);
+
+        // then
+        assertThat(written).isEqualTo(2);
+        assertThat(checksumFile("00.data")).exists();
+        assertThat(checksumFile("01.data")).exists();
+        assertThat(checksumFile("02.data")).doesNotExist();
+    }
+
+    @Test
+    public void shouldNotRewriteUpToDateChecksums() throws Exception
+    {
+        // given
+        checksums.update(logDirectory);
+
+        // when
+        final int written = checksums.update(logDirectory);
+
+        // then
+        assertThat(written).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldVerifyIntactSegments() throws Exception
+    {
+        // given
+        checksums.update(logDirectory);
+
+        // when
+        final List<File> corruptedSegments = checksums.verify(logDirectory);
+
+        // then
+        assertThat(corruptedSegments).isEmpty();
+    }
+
+    @Test
+    public void shouldDetectCorruptedSegment() throws Exception
+    {
+        // given
+        checksums.update(logDirectory);
+
+        final File segment = new File(logDirectory, "01.data");
+        final long lastModified = segment.lastModified();
+
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+        {
+            file.seek(100);
+            file.write(~file.read());
+        }
+        segment.setLastModified(lastModified);
+
+        // when
+        final List<File> corruptedSegments = checksums.verify(logDirectory);
+
+        // then
+        assertThat(corruptedSegments).containsExactly(segment);
+    }
+
+    @Test
+    public void shouldNotReportModifiedSegment() throws Exception
+    {
+        // given
+        checksums.update(logDirectory);
+
+        final File segment = new File(logDirectory, "00.data");
+        Files.write(segment.toPath(), new byte[16], StandardOpenOption.APPEND);
+
+        // when
+        final List<File> corruptedSegments = checksums.verify(logDirectory);
+
+        // then
+        assertThat(corruptedSegments).isEmpty();
+    }
+
+    @Test
+    public void shouldSkipChecksumOfUnsupportedAlgorithm() throws Exception
+    {
+        // given
+        checksums.update(logDirectory);
+
+        final File segment = new File(logDirectory, "01.data");
+        final long lastModified = segment.lastModified();
+
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+        {
+            file.seek(100);
+            file.write(~file.read());
+        }
+        segment.setLastModified(lastModified);
+
+        // e.g. a CRC32C checksum on a JVM without CRC32C
+        try (RandomAccessFile file = new RandomAccessFile(checksumFile("01.data"), "rw"))
+        {
+            file.writeByte(UNSUPPORTED_ALGORITHM);
+        }
+
+        // when
+        final List<File> corruptedSegments = checksums.verify(logDirectory);
+
+        // then
+        assertThat(corruptedSegments).isEmpty();
+    }
+
+    protected void newSegment(String name, int length) throws Exception
+    {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            content[i] = (byte) i;
+        }
+
+        Files.write(new File(logDirectory, name).toPath(), content);
+    }
+
+    protected File checksumFile(String segment)
+    {
+        return LogSegmentChecksums.checksumFile(new File(logDirectory, segment));
+    }
+}
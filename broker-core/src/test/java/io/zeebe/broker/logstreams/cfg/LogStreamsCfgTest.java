@@ -0,0 +1,151 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.cfg;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogStreamsCfgTest
+{
+    protected LogStreamsCfg cfg = new LogStreamsCfg();
+
+    @Before
+    public void setUp()
+    {
+        cfg.defaultLogSegmentSize = 512;
+        cfg.writeBufferSize = 16;
+
+        final TopicLogCfg topicCfg = new TopicLogCfg();
+        topicCfg.name = "audit";
+        topicCfg.logSegmentSize = 128;
+        topicCfg.indexBlockSize = 64;
+        topicCfg.compaction = "retain";
+
+        cfg.topics = new TopicLogCfg[] { topicCfg };
+    }
+
+    @Test
+    public void shouldUseDefaults()
+    {
+        // when
+        final LogStreamSettings settings = cfg.resolveSettings("orders", null);
+
+        // then
+        assertThat(settings.getLogSegmentSize()).isEqualTo(512 * 1024 * 1024);
+        assertThat(settings.getIndexBlockSize()).isEqualTo(0);
+        assertThat(settings.getWriteBufferSize()).isEqualTo(16 * 1024 * 1024);
+        assertThat(settings.getCompactionPolicy()).isEqualTo(LogCompactionPolicy.DELETE);
+    }
+
+    @Test
+    public void shouldArchiveByDefaultIfArchiveDirectoryIsConfigured()
+    {
+        // given
+        cfg.compactionArchiveDirectory = "/tmp/archive";
+
+        // when
+        final LogStreamSettings settings = cfg.resolveSettings("orders", null);
+
+        // then
+        assertThat(settings.getCompactionPolicy()).isEqualTo(LogCompactionPolicy.ARCHIVE);
+    }
+
+    @Test
+    public void shouldUseTopicConfiguration()
+    {
+        // when
+        final LogStreamSettings settings = cfg.resolveSettings("audit", null);
+
+        // then
+        assertThat(settings.getLogSegmentSize()).isEqualTo(128 * 1024 * 1024);
+        assertThat(settings.getIndexBlockSize()).isEqualTo(64 * 1024);
+        assertThat(settings.getWriteBufferSize()).isEqualTo(16 * 1024 * 1024);
+        assertThat(settings.getCompactionPolicy()).isEqualTo(LogCompactionPolicy.RETAIN);
+    }
+
+    @Test
+    public void shouldPreferRequestedSettings()
+    {
+        // given
+        final LogStreamSettings requested = new LogStreamSettings()
+            .logSegmentSize(8 * 1024 * 1024)
+            .compactionPolicy(LogCompactionPolicy.DELETE);
+
+        // when
+        final LogStreamSettings settings = cfg.resolveSettings("audit", requested);
+
+        // then
+        assertThat(settings.getLogSegmentSize()).isEqualTo(8 * 1024 * 1024);
+        assertThat(settings.getIndexBlockSize()).isEqualTo(64 * 1024);
+        assertThat(settings.getWriteBufferSize()).isEqualTo(16 * 1024 * 1024);
+        assertThat(settings.getCompactionPolicy()).isEqualTo(LogCompactionPolicy.DELETE);
+
+        // the requested settings are not modified
+        assertThat(requested.getIndexBlockSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectTopicWithIndexBlockSizeBelowMinimum()
+    {
+        // given
+        cfg.topics[0].indexBlockSize = 1;
+
+        // then
+        assertThatThrownBy(() -> cfg.validateTopics())
+            .hasMessageContaining("audit")
+            .hasMessageContaining("index block size");
+    }
+
+    @Test
+    public void shouldRejectTopicWithUnknownCompactionPolicy()
+    {
+        // given
+        cfg.topics[0].compaction = "shred";
+
+        // then
+        assertThatThrownBy(() -> cfg.validateTopics())
+            .hasMessageContaining("unknown compaction policy 'shred'");
+    }
+
+    @Test
+    public void shouldRejectTopicWithWriteBufferLargerThanLogSegment()
+    {
+        // given
+        cfg.topics[0].logSegmentSize = 4;
+        cfg.topics[0].writeBufferSize = 8;
+
+        // then
+        assertThatThrownBy(() -> cfg.validateTopics())
+            .hasMessageContaining("write buffer size must not be larger than the log segment size");
+    }
+
+    @Test
+    public void shouldAcceptValidTopics()
+    {
+        // when
+        cfg.validateTopics();
+
+        // then no exception is thrown
+        assertThat(cfg.getTopicCfg("audit")).isNotNull();
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import io.zeebe.broker.util.Checksums;
+import io.zeebe.logstreams.LogStreams;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalSnapshotSupportTest
+{
+    protected static final int BLOCK_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    protected SnapshotStorage snapshotStorage;
+    protected ByteState state;
+    protected IncrementalSnapshotSupport snapshotSupport;
+
+    @Before
+    public void setUp()
+    {
+        snapshotStorage = LogStreams.createFsSnapshotStore(tempFolder.getRoot().getAbsolutePath()).build();
+        state = new ByteState();
+        snapshotSupport = newSnapshotSupport(state);
+    }
+
+    @Test
+    public void shouldWriteFullSnapshotFirst() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+
+        // when
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.FULL_SNAPSHOT);
+        assertThat(snapshot.length).isEqualTo(IncrementalSnapshotSupport.HEADER_LENGTH);
+        assertThat(snapshotStorage.getLastSnapshot("test-base-1")).isNotNull();
+    }
+
+    @Test
+    public void shouldWriteChangedBlocksOnly() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes[BLOCK_SIZE + 1] = 2;
+        snapshotSupport.onEventProcessed();
+
+        // when
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(snapshot.length).isLessThan(state.bytes.length);
+    }
+
+    @Test
+    public void shouldWriteChangedBlockWithEqualChecksum() throws Exception
+    {
+        // given
+        final byte[][] collidingBlocks = blocksWithEqualChecksum();
+
+        state.bytes = Arrays.copyOf(collidingBlocks[0], BLOCK_SIZE * 4);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        System.arraycopy(collidingBlocks[1], 0, state.bytes, 0, BLOCK_SIZE);
+        snapshotSupport.onEventProcessed();
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        final ByteState recoveredState = new ByteState();
+        final IncrementalSnapshotSupport recoveringSnapshotSupport = newSnapshotSupport(recoveredState);
+
+        // when
+        recoveringSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(recoveredState.bytes).isEqualTo(state.bytes);
+    }
+
+    @Test
+    public void shouldNotReadBaseToWriteDelta() throws Exception
+    {
+        // given
+        snapshotStorage = spy(snapshotStorage);
+        snapshotSupport = newSnapshotSupport(state);
+
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes[BLOCK_SIZE + 1] = 2;
+        snapshotSupport.onEventProcessed();
+
+        // when
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        verify(snapshotStorage, never()).getLastSnapshot(anyString());
+    }
+
+    @Test
+    public void shouldNotSerializeStateIfNoEventWasProcessed() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        // when
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(state.writtenSnapshots).isEqualTo(1);
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.FULL_SNAPSHOT);
+        assertThat(snapshot.length).isEqualTo(IncrementalSnapshotSupport.HEADER_LENGTH);
+    }
+
+    @Test
+    public void shouldWriteFullSnapshotIfMostBlocksChanged() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 2);
+        snapshotSupport.onEventProcessed();
+        final byte[] delta = writeSnapshot(snapshotSupport);
+
+        state.bytes[0] = 3;
+        snapshotSupport.onEventProcessed();
+
+        // when
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(format(delta)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.FULL_SNAPSHOT);
+        assertThat(snapshotStorage.getLastSnapshot("test-base-0")).isNotNull();
+    }
+
+    @Test
+    public void shouldMergeBaseInBackgroundIfMostBlocksChanged() throws Exception
+    {
+        // given
+        final List<Runnable> baseWriterTasks = new ArrayList<>();
+        snapshotSupport = newSnapshotSupport(state, baseWriterTasks::add, BLOCK_SIZE * 4);
+
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 2);
+        snapshotSupport.onEventProcessed();
+        final byte[] delta = writeSnapshot(snapshotSupport);
+
+        // when
+        state.bytes[0] = 3;
+        snapshotSupport.onEventProcessed();
+        final byte[] deltaOfPendingBase = writeSnapshot(snapshotSupport);
+
+        baseWriterTasks.forEach(Runnable::run);
+
+        state.bytes[1] = 4;
+        snapshotSupport.onEventProcessed();
+        final byte[] deltaOfMergedBase = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(format(delta)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(baseWriterTasks).hasSize(1);
+
+        assertThat(format(deltaOfPendingBase)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(baseId(deltaOfPendingBase)).isEqualTo(1L);
+
+        assertThat(format(deltaOfMergedBase)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(baseId(deltaOfMergedBase)).isEqualTo(2L);
+        assertThat(deltaOfMergedBase.length).isLessThan(state.bytes.length);
+
+        final ByteState recoveredState = new ByteState();
+        newSnapshotSupport(recoveredState).recoverFromSnapshot(new ByteArrayInputStream(deltaOfMergedBase));
+        assertThat(recoveredState.bytes).isEqualTo(state.bytes);
+    }
+
+    @Test
+    public void shouldWriteFullSnapshotIfChangedBlocksExceedMemory() throws Exception
+    {
+        // given
+        snapshotSupport = newSnapshotSupport(state, Runnable::run, BLOCK_SIZE);
+
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 2);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes[0] = 3;
+        snapshotSupport.onEventProcessed();
+
+        // when
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        // then
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.FULL_SNAPSHOT);
+    }
+
+    @Test
+    public void shouldRecoverFromDeltaSnapshot() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes = Arrays.copyOf(state.bytes, BLOCK_SIZE * 5 + 3);
+        state.bytes[2] = 3;
+        snapshotSupport.onEventProcessed();
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        final ByteState recoveredState = new ByteState();
+        final IncrementalSnapshotSupport recoveringSnapshotSupport = newSnapshotSupport(recoveredState);
+
+        // when
+        recoveringSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(format(snapshot)).isEqualTo(IncrementalSnapshotSupport.DELTA_SNAPSHOT);
+        assertThat(recoveredState.bytes).isEqualTo(state.bytes);
+    }
+
+    @Test
+    public void shouldRecoverFromShrunkDeltaSnapshot() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 4, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        writeSnapshot(snapshotSupport);
+
+        state.bytes = Arrays.copyOf(state.bytes, BLOCK_SIZE * 3 + 5);
+        snapshotSupport.onEventProcessed();
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        final ByteState recoveredState = new ByteState();
+        final IncrementalSnapshotSupport recoveringSnapshotSupport = newSnapshotSupport(recoveredState);
+
+        // when
+        recoveringSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(state.bytes);
+    }
+
+    @Test
+    public void shouldRecoverFromFullSnapshot() throws Exception
+    {
+        // given
+        state.bytes = bytes(BLOCK_SIZE * 2 + 7, (byte) 1);
+        snapshotSupport.onEventProcessed();
+        final byte[] snapshot = writeSnapshot(snapshotSupport);
+
+        final ByteState recoveredState = new ByteState();
+        final IncrementalSnapshotSupport recoveringSnapshotSupport = newSnapshotSupport(recoveredState);
+
+        // when
+        recoveringSnapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(recoveredState.bytes).isEqualTo(state.bytes);
+    }
+
+    @Test
+    public void shouldRecoverFromLegacySnapshot() throws Exception
+    {
+        // given
+        final byte[] legacySnapshot = bytes(BLOCK_SIZE + 3, (byte) 5);
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(legacySnapshot));
+
+        // then
+        assertThat(state.bytes).isEqualTo(legacySnapshot);
+    }
+
+    @Test
+    public void shouldRecoverFromShortLegacySnapshot() throws Exception
+    {
+        // given
+        final byte[] legacySnapshot = new byte[] {1, 2, 3};
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(legacySnapshot));
+
+        // then
+        assertThat(state.bytes).isEqualTo(legacySnapshot);
+    }
+
+    protected IncrementalSnapshotSupport newSnapshotSupport(ByteState state)
+    {
+        return new IncrementalSnapshotSupport(state, snapshotStorage, "test", BLOCK_SIZE);
+    }
+
+    protected IncrementalSnapshotSupport newSnapshotSupport(ByteState state, Executor baseWriter, long maxChangedBlocksInMemory)
+    {
+        return new IncrementalSnapshotSupport(state, snapshotStorage, "test", BLOCK_SIZE, baseWriter, maxChangedBlocksInMemory);
+    }
+
+    protected static byte format(byte[] snapshot)
+    {
+        return snapshot[8];
+    }
+
+    protected static long baseId(byte[] snapshot) throws IOException
+    {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot, 9, 8));
+        return in.readLong();
+    }
+
+    protected static byte[] writeSnapshot(SnapshotSupport snapshotSupport) throws Exception
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshotSupport.writeSnapshot(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return two different blocks with the same checksum
+     */
+    protected static byte[][] blocksWithEqualChecksum()
+    {
+        final Random random = new Random(42);
+        final Map<Long, byte[]> blocksByChecksum = new HashMap<>();
+
+        while (true)
+        {
+            final byte[] block = new byte[BLOCK_SIZE];
+            random.nextBytes(block);
+
+            final byte[] collidingBlock = blocksByChecksum.put(Checksums.checksum(Checksums.defaultAlgorithm(), block, 0, BLOCK_SIZE), block);
+            if (collidingBlock != null && !Arrays.equals(block, collidingBlock))
+            {
+                return new byte[][] {collidingBlock, block};
+            }
+        }
+    }
+
+    protected static byte[] bytes(int length, byte value)
+    {
+        final byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    protected static class ByteState implements SnapshotSupport
+    {
+        protected byte[] bytes = new byte[0];
+        protected int writtenSnapshots;
+
+        @Override
+        public long writeSnapshot(OutputStream outputStream) throws Exception
+        {
+            writtenSnapshots++;
+            outputStream.write(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public void recoverFromSnapshot(InputStream inputStream) throws Exception
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[64];
+
+            int read;
+            while ((read = inputStream.read(buffer)) > 0)
+            {
+                out.write(buffer, 0, read);
+            }
+
+            bytes = out.toByteArray();
+        }
+
+        @Override
+        public void reset()
+        {
+            bytes = new byte[0];
+        }
+    }
+}
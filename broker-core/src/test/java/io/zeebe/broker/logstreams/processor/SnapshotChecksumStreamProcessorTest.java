@@ -0,0 +1,152 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import io.zeebe.broker.logstreams.processor.IncrementalSnapshotSupportTest.ByteState;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class SnapshotChecksumStreamProcessorTest
+{
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    protected ByteState state;
+    protected SnapshotSupport snapshotSupport;
+
+    @Before
+    public void setUp()
+    {
+        state = new ByteState();
+
+        final StreamProcessor streamProcessor = mock(StreamProcessor.class);
+        when(streamProcessor.getStateResource()).thenReturn(state);
+
+        snapshotSupport = new SnapshotChecksumStreamProcessor(streamProcessor, "test").getStateResource();
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshotWithChecksum() throws Exception
+    {
+        // given
+        state.bytes = new byte[] {1, 2, 3, 4};
+        final byte[] snapshot = writeSnapshot();
+        state.bytes = new byte[0];
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(snapshot.length).isEqualTo(4 + SnapshotChecksumStreamProcessor.TRAILER_LENGTH);
+        assertThat(state.bytes).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshotWithoutChecksum() throws Exception
+    {
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+
+        // then
+        assertThat(state.bytes).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    public void shouldRejectCorruptedSnapshot() throws Exception
+    {
+        // given
+        state.bytes = new byte[] {1, 2, 3, 4};
+        final byte[] snapshot = writeSnapshot();
+        snapshot[2] = 5;
+
+        // then
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("does not match its checksum");
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+    }
+
+    @Test
+    public void shouldRecoverFromLargeSnapshotWithChecksum() throws Exception
+    {
+        // given
+        final byte[] bytes = new byte[5 * SnapshotChecksumStreamProcessor.BUFFER_SIZE + 3];
+        new Random().nextBytes(bytes);
+
+        state.bytes = bytes;
+        final byte[] snapshot = writeSnapshot();
+        state.bytes = new byte[0];
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+
+        // then
+        assertThat(state.bytes).isEqualTo(bytes);
+    }
+
+    @Test
+    public void shouldRecoverFromLargeSnapshotWithoutChecksum() throws Exception
+    {
+        // given
+        final byte[] bytes = new byte[2 * SnapshotChecksumStreamProcessor.BUFFER_SIZE + 7];
+        new Random().nextBytes(bytes);
+
+        // when
+        snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(bytes));
+
+        // then
+        assertThat(state.bytes).isEqualTo(bytes);
+    }
+
+    @Test
+    public void shouldResetStateOfCorruptedSnapshot() throws Exception
+    {
+        // given
+        state.bytes = new byte[] {1, 2, 3, 4};
+        final byte[] snapshot = writeSnapshot();
+        snapshot[2] = 5;
+
+        // when
+        assertThatThrownBy(() -> snapshotSupport.recoverFromSnapshot(new ByteArrayInputStream(snapshot)))
+            .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(state.bytes).isEmpty();
+    }
+
+    protected byte[] writeSnapshot() throws Exception
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshotSupport.writeSnapshot(out);
+        return out.toByteArray();
+    }
+}
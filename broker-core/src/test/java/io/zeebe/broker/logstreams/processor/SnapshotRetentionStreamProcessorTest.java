@@ -0,0 +1,226 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import io.zeebe.broker.logstreams.LogRetention;
+import io.zeebe.broker.logstreams.processor.IncrementalSnapshotSupportTest.ByteState;
+import io.zeebe.logstreams.log.LogStreamReader;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.ReadableSnapshot;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapshotRetentionStreamProcessorTest
+{
+    protected static final String PROCESSOR_NAME = "test";
+    protected static final String LOG_NAME = "topic.1";
+    protected static final String SNAPSHOT_NAME = StreamProcessorServiceFactory.snapshotName(LOG_NAME, PROCESSOR_NAME);
+
+    protected LogRetention retention;
+    protected SnapshotStorage snapshotStorage;
+    protected StreamProcessorContext context;
+    protected SnapshotRetentionStreamProcessor processor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        retention = new LogRetention();
+        snapshotStorage = mock(SnapshotStorage.class);
+
+        context = mock(StreamProcessorContext.class);
+        when(context.getLogStreamReader()).thenReturn(mock(LogStreamReader.class));
+
+        processor = newProcessor(retention, LOG_NAME);
+    }
+
+    @Test
+    public void shouldRetainCompleteLogWithoutSnapshot()
+    {
+        // when
+        processor.onOpen(context);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(LogRetention.RETAIN_ALL);
+    }
+
+    @Test
+    public void shouldRetainPositionOfLastSnapshotOnOpen() throws Exception
+    {
+        // given
+        givenLastSnapshot(100L);
+
+        // when
+        processor.onOpen(context);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(100L);
+    }
+
+    @Test
+    public void shouldNotAdvanceRetentionBeforeSnapshotIsCommitted() throws Exception
+    {
+        // given
+        givenLastSnapshot(100L);
+        processor.onOpen(context);
+
+        // when
+        processor.getStateResource().writeSnapshot(new ByteArrayOutputStream());
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(100L);
+    }
+
+    @Test
+    public void shouldAdvanceRetentionWhenSnapshotIsCommitted() throws Exception
+    {
+        // given
+        givenLastSnapshot(100L);
+        processor.onOpen(context);
+        processor.getStateResource().writeSnapshot(new ByteArrayOutputStream());
+
+        // when
+        givenLastSnapshot(200L);
+        processor.onEvent(mock(LoggedEvent.class));
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(200L);
+    }
+
+    @Test
+    public void shouldRetainPositionOfLastSnapshotOnClose() throws Exception
+    {
+        // given
+        givenLastSnapshot(100L);
+        processor.onOpen(context);
+        processor.getStateResource().writeSnapshot(new ByteArrayOutputStream());
+        givenLastSnapshot(200L);
+
+        // when
+        processor.onClose();
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(200L);
+    }
+
+    @Test
+    public void shouldRetainCompleteLogWithoutSnapshotOnClose()
+    {
+        // given
+        processor.onOpen(context);
+
+        // when
+        processor.onClose();
+
+        // then
+        assertThat(retention.hasSnapshotConsumers()).isTrue();
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(LogRetention.RETAIN_ALL);
+    }
+
+    @Test
+    public void shouldReadLastSnapshotPositionBeforeProcessorIsOpened() throws Exception
+    {
+        // given
+        givenLastSnapshot(100L);
+
+        // when
+        final long position = SnapshotRetentionStreamProcessor.getLastSnapshotPosition(snapshotStorage, SNAPSHOT_NAME);
+
+        // then
+        assertThat(position).isEqualTo(100L);
+    }
+
+    @Test
+    public void shouldReadNegativeSnapshotPositionWithoutSnapshot()
+    {
+        // when
+        final long position = SnapshotRetentionStreamProcessor.getLastSnapshotPosition(snapshotStorage, SNAPSHOT_NAME);
+
+        // then
+        assertThat(position).isLessThan(0L);
+    }
+
+    @Test
+    public void shouldRetainSnapshotPositionOfOwnPartition() throws Exception
+    {
+        // given
+        final String otherLogName = "topic.2";
+        final LogRetention otherRetention = new LogRetention();
+        final SnapshotRetentionStreamProcessor otherProcessor = newProcessor(otherRetention, otherLogName);
+
+        givenLastSnapshot(SNAPSHOT_NAME, 100L);
+        givenLastSnapshot(StreamProcessorServiceFactory.snapshotName(otherLogName, PROCESSOR_NAME), 200L);
+
+        // when
+        processor.onOpen(context);
+        otherProcessor.onOpen(context);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(100L);
+        assertThat(otherRetention.getLowestRetainedPosition()).isEqualTo(200L);
+    }
+
+    @Test
+    public void shouldNotRetainSnapshotPositionOfOtherPartition() throws Exception
+    {
+        // given
+        givenLastSnapshot(StreamProcessorServiceFactory.snapshotName("topic.2", PROCESSOR_NAME), 200L);
+
+        // when
+        processor.onOpen(context);
+
+        // then
+        assertThat(retention.getLowestRetainedPosition()).isEqualTo(LogRetention.RETAIN_ALL);
+    }
+
+    protected SnapshotRetentionStreamProcessor newProcessor(LogRetention retention, String logName)
+    {
+        final StreamProcessor streamProcessor = mock(StreamProcessor.class);
+        when(streamProcessor.getStateResource()).thenReturn(new ByteState());
+
+        return new SnapshotRetentionStreamProcessor(
+                streamProcessor,
+                retention,
+                snapshotStorage,
+                PROCESSOR_NAME,
+                StreamProcessorServiceFactory.snapshotName(logName, PROCESSOR_NAME));
+    }
+
+    protected void givenLastSnapshot(long position) throws Exception
+    {
+        givenLastSnapshot(SNAPSHOT_NAME, position);
+    }
+
+    protected void givenLastSnapshot(String snapshotName, long position) throws Exception
+    {
+        final ReadableSnapshot snapshot = mock(ReadableSnapshot.class);
+        when(snapshot.getPosition()).thenReturn(position);
+        when(snapshot.getData()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+        when(snapshotStorage.getLastSnapshot(snapshotName)).thenReturn(snapshot);
+    }
+}
@@ -18,8 +18,13 @@
 package io.zeebe.broker.logstreams.processor;
 
 import static io.zeebe.test.util.TestUtil.doRepeatedly;
+import static io.zeebe.test.util.TestUtil.waitUntil;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.zeebe.servicecontainer.testing.ServiceContainerRule;
 import io.zeebe.util.sched.testing.ActorSchedulerRule;
 import org.junit.Before;
@@ -30,6 +35,8 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import io.zeebe.broker.system.deployment.data.TopicPartitions;
+import io.zeebe.broker.system.deployment.processor.PartitionCollector;
 import io.zeebe.broker.system.log.TopicEvent;
 import io.zeebe.broker.system.log.TopicState;
 import io.zeebe.broker.topic.Events;
@@ -37,6 +44,7 @@ import io.zeebe.broker.topic.StreamProcessorControl;
 import io.zeebe.broker.util.TestStreams;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.test.util.AutoCloseableRule;
 import io.zeebe.transport.ServerOutput;
@@ -106,6 +114,73 @@ public class TypedStreamProcessorTest
         assertThat(writtenEvent.getSourceEventPosition()).isEqualTo(firstEventPosition);
     }
 
+    @Test
+    public void shouldDispatchEventToAllProcessorsOfSameState()
+    {
+        // given
+        final TypedStreamEnvironment env = new TypedStreamEnvironment(streams.getLogStream(STREAM_NAME), output);
+        final CountingProcessor countingProcessor = new CountingProcessor();
+
+        final TypedStreamProcessor streamProcessor = env.newStreamProcessor()
+            .onEvent(EventType.TOPIC_EVENT, TopicState.CREATE, new BatchProcessor())
+            .onEvent(EventType.TOPIC_EVENT, TopicState.CREATE, countingProcessor)
+            .build();
+
+        final StreamProcessorControl streamProcessorControl = streams.initStreamProcessor(STREAM_NAME, STREAM_PROCESSOR_ID, () -> streamProcessor);
+        streamProcessorControl.start();
+        streams.newEvent(STREAM_NAME).event(createTopic("foo", 1)).write();
+
+        // when
+        streamProcessorControl.unblock();
+
+        // then
+        waitUntil(() -> streams.events(STREAM_NAME)
+                .filter(Events::isTopicEvent)
+                .anyMatch(e -> Events.asTopicEvent(e).getState() == TopicState.CREATE_REJECTED));
+
+        waitUntil(() -> countingProcessor.updatedStates.get() == 1);
+    }
+
+    @Test
+    public void shouldClearTopicIndexOnResetAfterRecovery() throws Exception
+    {
+        // given
+        final TypedStreamEnvironment env = new TypedStreamEnvironment(streams.getLogStream(STREAM_NAME), output);
+        final PartitionCollector partitionCollector = new PartitionCollector();
+
+        final TypedEventStreamProcessorBuilder builder = env.newStreamProcessor();
+        partitionCollector.registerWith(builder);
+        final TypedStreamProcessor streamProcessor = builder.build();
+
+        final TopicPartitions partitions = partitionCollector.getPartitions();
+        final SnapshotSupport stateResource = streamProcessor.getStateResource();
+
+        try
+        {
+            partitions.put(1, BufferUtil.wrapString("foo"), TopicPartitions.STATE_CREATED);
+
+            final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            stateResource.writeSnapshot(snapshot);
+
+            stateResource.recoverFromSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+            assertThat(partitions.isTopicCreated(BufferUtil.wrapString("foo"))).isTrue();
+
+            // when
+            stateResource.reset();
+
+            // then
+            assertThat(partitions.isTopicCreated(BufferUtil.wrapString("foo"))).isFalse();
+
+            partitions.put(1, BufferUtil.wrapString("foo"), TopicPartitions.STATE_CREATING);
+            assertThat(partitions.isTopicCreated(BufferUtil.wrapString("foo"))).isFalse();
+        }
+        finally
+        {
+            partitions.getRawMap().close();
+            partitions.getRawTopicMap().close();
+        }
+    }
+
     protected TopicEvent createTopic(String name, int partitions)
     {
         final TopicEvent event = new TopicEvent();
@@ -134,4 +209,15 @@ public class TypedStreamProcessorTest
         }
 
     }
+
+    protected static class CountingProcessor implements TypedEventProcessor<TopicEvent>
+    {
+        protected final AtomicInteger updatedStates = new AtomicInteger();
+
+        @Override
+        public void updateState(TypedEvent<TopicEvent> event)
+        {
+            updatedStates.incrementAndGet();
+        }
+    }
 }
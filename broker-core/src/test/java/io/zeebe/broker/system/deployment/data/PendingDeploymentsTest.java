@@ -0,0 +1,154 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.deployment.data;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.agrona.DirectBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
+
+public class PendingDeploymentsTest
+{
+    private static final DirectBuffer TOPIC = wrapString("foo");
+    private static final DirectBuffer OTHER_TOPIC = wrapString("bar");
+
+    private final PendingDeployments pendingDeployments = new PendingDeployments();
+
+    @After
+    public void tearDown()
+    {
+        pendingDeployments.getRawMap().close();
+        pendingDeployments.getRawTopicMap().close();
+    }
+
+    @Test
+    public void shouldHavePendingDeploymentForTopic()
+    {
+        // when
+        pendingDeployments.put(1L, 10L, TOPIC);
+
+        // then
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(TOPIC)).isTrue();
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(OTHER_TOPIC)).isFalse();
+    }
+
+    @Test
+    public void shouldHavePendingDeploymentIfResolved()
+    {
+        // given
+        pendingDeployments.put(1L, 10L, TOPIC);
+
+        // when
+        pendingDeployments.markResolved(1L);
+
+        // then
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(TOPIC)).isTrue();
+    }
+
+    @Test
+    public void shouldNotHavePendingDeploymentIfRemoved()
+    {
+        // given
+        pendingDeployments.put(1L, 10L, TOPIC);
+        pendingDeployments.put(1L, 10L, TOPIC);
+
+        // when
+        pendingDeployments.remove(1L);
+
+        // then
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(TOPIC)).isFalse();
+    }
+
+    @Test
+    public void shouldIgnoreRemovalOfUnknownDeployment()
+    {
+        // given
+        pendingDeployments.put(1L, 10L, TOPIC);
+
+        // when
+        pendingDeployments.remove(2L);
+
+        // then
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(TOPIC)).isTrue();
+    }
+
+    @Test
+    public void shouldRemoveTopicIfNoDeploymentIsPending()
+    {
+        // given
+        pendingDeployments.put(1L, 10L, TOPIC);
+        pendingDeployments.put(2L, 20L, TOPIC);
+
+        // when
+        pendingDeployments.remove(1L);
+        pendingDeployments.remove(2L);
+        pendingDeployments.remove(2L);
+
+        // then
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(TOPIC)).isFalse();
+        assertThat(pendingDeployments.getRawTopicMap().get(TOPIC, 0, TOPIC.capacity(), -1L)).isEqualTo(-1L);
+
+        // and the count starts again from zero
+        pendingDeployments.put(3L, 30L, TOPIC);
+        pendingDeployments.remove(3L);
+        assertThat(pendingDeployments.hasPendingDeploymentForTopic(TOPIC)).isFalse();
+    }
+
+    @Test
+    public void shouldRebuildTopicIndexFromRecoveredMap() throws Exception
+    {
+        // given
+        pendingDeployments.put(1L, 10L, TOPIC);
+        pendingDeployments.put(2L, 20L, TOPIC);
+        pendingDeployments.markResolved(2L);
+
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        new ZbMapSnapshotSupport<>(pendingDeployments.getRawMap()).writeSnapshot(snapshot);
+
+        final PendingDeployments recoveredDeployments = new PendingDeployments();
+        try
+        {
+            new ZbMapSnapshotSupport<>(recoveredDeployments.getRawMap()).recoverFromSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+            // when
+            recoveredDeployments.rebuildTopicIndex();
+
+            // then
+            assertThat(recoveredDeployments.hasPendingDeploymentForTopic(TOPIC)).isTrue();
+            assertThat(recoveredDeployments.hasPendingDeploymentForTopic(OTHER_TOPIC)).isFalse();
+
+            recoveredDeployments.remove(1L);
+            assertThat(recoveredDeployments.hasPendingDeploymentForTopic(TOPIC)).isTrue();
+
+            recoveredDeployments.remove(2L);
+            assertThat(recoveredDeployments.hasPendingDeploymentForTopic(TOPIC)).isFalse();
+        }
+        finally
+        {
+            recoveredDeployments.getRawMap().close();
+            recoveredDeployments.getRawTopicMap().close();
+        }
+    }
+}
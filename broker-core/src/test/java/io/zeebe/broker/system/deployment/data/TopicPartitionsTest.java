@@ -0,0 +1,127 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.deployment.data;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.agrona.DirectBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
+
+public class TopicPartitionsTest
+{
+    private static final DirectBuffer TOPIC = wrapString("foo");
+    private static final DirectBuffer OTHER_TOPIC = wrapString("bar");
+
+    private final TopicPartitions topicPartitions = new TopicPartitions();
+
+    @After
+    public void tearDown()
+    {
+        topicPartitions.getRawMap().close();
+        topicPartitions.getRawTopicMap().close();
+    }
+
+    @Test
+    public void shouldNotBeCreatedIfTopicIsUnknown()
+    {
+        assertThat(topicPartitions.isTopicCreated(TOPIC)).isFalse();
+    }
+
+    @Test
+    public void shouldNotBeCreatedIfPartitionIsCreating()
+    {
+        // given
+        topicPartitions.put(1, TOPIC, TopicPartitions.STATE_CREATED);
+        topicPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATING);
+
+        // then
+        assertThat(topicPartitions.isTopicCreated(TOPIC)).isFalse();
+    }
+
+    @Test
+    public void shouldBeCreatedIfAllPartitionsAreCreated()
+    {
+        // given
+        topicPartitions.put(1, TOPIC, TopicPartitions.STATE_CREATING);
+        topicPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATING);
+        topicPartitions.put(3, OTHER_TOPIC, TopicPartitions.STATE_CREATING);
+
+        // when
+        topicPartitions.put(1, TOPIC, TopicPartitions.STATE_CREATED);
+        topicPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATED);
+
+        // then
+        assertThat(topicPartitions.isTopicCreated(TOPIC)).isTrue();
+        assertThat(topicPartitions.isTopicCreated(OTHER_TOPIC)).isFalse();
+    }
+
+    @Test
+    public void shouldNotCountPartitionTwice()
+    {
+        // given
+        topicPartitions.put(1, TOPIC, TopicPartitions.STATE_CREATED);
+        topicPartitions.put(1, TOPIC, TopicPartitions.STATE_CREATED);
+        topicPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATING);
+
+        // when
+        topicPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATED);
+
+        // then
+        assertThat(topicPartitions.isTopicCreated(TOPIC)).isTrue();
+    }
+
+    @Test
+    public void shouldRebuildTopicIndexFromRecoveredMap() throws Exception
+    {
+        // given
+        topicPartitions.put(1, TOPIC, TopicPartitions.STATE_CREATED);
+        topicPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATING);
+        topicPartitions.put(3, OTHER_TOPIC, TopicPartitions.STATE_CREATED);
+
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        new ZbMapSnapshotSupport<>(topicPartitions.getRawMap()).writeSnapshot(snapshot);
+
+        final TopicPartitions recoveredPartitions = new TopicPartitions();
+        try
+        {
+            new ZbMapSnapshotSupport<>(recoveredPartitions.getRawMap()).recoverFromSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+            // when
+            recoveredPartitions.rebuildTopicIndex();
+
+            // then
+            assertThat(recoveredPartitions.isTopicCreated(TOPIC)).isFalse();
+            assertThat(recoveredPartitions.isTopicCreated(OTHER_TOPIC)).isTrue();
+
+            recoveredPartitions.put(2, TOPIC, TopicPartitions.STATE_CREATED);
+            assertThat(recoveredPartitions.isTopicCreated(TOPIC)).isTrue();
+        }
+        finally
+        {
+            recoveredPartitions.getRawMap().close();
+            recoveredPartitions.getRawTopicMap().close();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.deployment.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.transport.ServerResponse;
+import org.agrona.collections.IntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CreateWorkflowResponseSenderTest
+{
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int STREAM_ID = 1;
+    private static final long REQUEST_ID = 2L;
+    private static final long WORKFLOW_KEY = 3L;
+    private static final long DEPLOYMENT_KEY = 4L;
+
+    private ServerOutput output;
+    private CreateWorkflowResponseSender sender;
+
+    @Before
+    public void setUp()
+    {
+        output = mock(ServerOutput.class);
+        when(output.sendResponse(any())).thenReturn(true);
+
+        sender = new CreateWorkflowResponseSender(output, TIMEOUT);
+    }
+
+    @Test
+    public void shouldRespondWhenAllPartitionsAreCreated()
+    {
+        // given
+        sender.expectResponse(STREAM_ID, REQUEST_ID, WORKFLOW_KEY, DEPLOYMENT_KEY, partitions(1, 2));
+
+        // when
+        sender.sendCreateWorkflowResponse(1, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        // then
+        verify(output, never()).sendResponse(any(ServerResponse.class));
+
+        // when
+        sender.sendCreateWorkflowResponse(2, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        // then
+        verify(output, times(1)).sendResponse(any(ServerResponse.class));
+        assertThat(sender.getPendingResponseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRespondPartiallyWhenPartitionIsRemoved()
+    {
+        // given
+        sender.expectResponse(STREAM_ID, REQUEST_ID, WORKFLOW_KEY, DEPLOYMENT_KEY, partitions(1, 2));
+        sender.sendCreateWorkflowResponse(1, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        // when
+        sender.onPartitionRemoved(2);
+
+        // then
+        verify(output, times(1)).sendResponse(any(ServerResponse.class));
+        assertThat(sender.getPendingResponseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldKeepWaitingForOtherPartitionsWhenPartitionIsRemoved()
+    {
+        // given
+        sender.expectResponse(STREAM_ID, REQUEST_ID, WORKFLOW_KEY, DEPLOYMENT_KEY, partitions(1, 2, 3));
+        sender.sendCreateWorkflowResponse(1, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        // when
+        sender.onPartitionRemoved(2);
+
+        // then
+        verify(output, never()).sendResponse(any(ServerResponse.class));
+
+        // when
+        sender.sendCreateWorkflowResponse(3, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        // then
+        verify(output, times(1)).sendResponse(any(ServerResponse.class));
+        assertThat(sender.getPendingResponseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRespondPartiallyWhenExpired()
+    {
+        // given
+        sender.expectResponse(STREAM_ID, REQUEST_ID, WORKFLOW_KEY, DEPLOYMENT_KEY, partitions(1, 2));
+        sender.sendCreateWorkflowResponse(1, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        // when
+        sender.expirePendingResponses(System.currentTimeMillis());
+
+        // then
+        verify(output, never()).sendResponse(any(ServerResponse.class));
+
+        // when
+        sender.expirePendingResponses(System.currentTimeMillis() + TIMEOUT.toMillis());
+
+        // then
+        verify(output, times(1)).sendResponse(any(ServerResponse.class));
+        assertThat(sender.getPendingResponseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropExpiredResponseWithoutCreatedPartitions()
+    {
+        // given
+        sender.expectResponse(STREAM_ID, REQUEST_ID, WORKFLOW_KEY, DEPLOYMENT_KEY, partitions(1, 2));
+
+        // when
+        sender.expirePendingResponses(System.currentTimeMillis() + TIMEOUT.toMillis());
+
+        // then
+        verify(output, never()).sendResponse(any(ServerResponse.class));
+        assertThat(sender.getPendingResponseCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRetryExpiredResponseIfSendFails()
+    {
+        // given
+        sender.expectResponse(STREAM_ID, REQUEST_ID, WORKFLOW_KEY, DEPLOYMENT_KEY, partitions(1, 2));
+        sender.sendCreateWorkflowResponse(1, WORKFLOW_KEY, DEPLOYMENT_KEY, REQUEST_ID, STREAM_ID);
+
+        when(output.sendResponse(any())).thenReturn(false);
+
+        // when
+        sender.expirePendingResponses(System.currentTimeMillis() + TIMEOUT.toMillis());
+
+        // then
+        assertThat(sender.getPendingResponseCount()).isEqualTo(1);
+
+        // when
+        when(output.sendResponse(any())).thenReturn(true);
+        sender.expirePendingResponses(System.currentTimeMillis() + TIMEOUT.toMillis());
+
+        // then
+        verify(output, times(2)).sendResponse(any(ServerResponse.class));
+        assertThat(sender.getPendingResponseCount()).isEqualTo(0);
+    }
+
+    private static IntArrayList partitions(int... partitionIds)
+    {
+        final IntArrayList list = new IntArrayList();
+        for (int partitionId : partitionIds)
+        {
+            list.addInt(partitionId);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.deployment.message;
+
+import static io.zeebe.test.util.BufferWriterUtil.*;
+import static io.zeebe.util.buffer.BufferUtil.*;
+
+import org.agrona.collections.IntArrayList;
+import org.junit.Test;
+
+
+public class DeploymentMessageTest
+{
+
+    @Test
+    public void testCreateWorkflowRequest()
+    {
+        final IntArrayList partitionIds = new IntArrayList();
+        partitionIds.addInt(1);
+        partitionIds.addInt(2);
+        partitionIds.addInt(5);
+
+        final CreateWorkflowRequest createWorkflowRequest = new CreateWorkflowRequest()
+            .partitionIds(partitionIds)
+            .workflowKey(111)
+            .deploymentKey(222)
+            .version(3)
+            .bpmnProcessId(wrapString("process"))
+            .bpmnXml(wrapString("<xml/>"));
+
+        assertEqualFieldsAfterWriteAndRead(createWorkflowRequest,
+            "partitionIds",
+            "workflowKey",
+            "deploymentKey",
+            "version",
+            "bpmnProcessId",
+            "bpmnXml"
+        );
+    }
+
+    @Test
+    public void testCreateWorkflowResponse()
+    {
+        final IntArrayList partitionIds = new IntArrayList();
+        partitionIds.addInt(1);
+        partitionIds.addInt(2);
+        partitionIds.addInt(5);
+
+        final CreateWorkflowResponse createWorkflowResponse = new CreateWorkflowResponse()
+            .partitionIds(partitionIds)
+            .workflowKey(111)
+            .deploymentKey(222);
+
+        assertEqualFieldsAfterWriteAndRead(createWorkflowResponse,
+            "partitionIds",
+            "workflowKey",
+            "deploymentKey"
+        );
+    }
+
+}
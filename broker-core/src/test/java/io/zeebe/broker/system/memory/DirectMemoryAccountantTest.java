@@ -0,0 +1,212 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.zeebe.broker.system.memory.cfg.DirectMemoryCfg;
+import io.zeebe.util.metrics.MetricsManager;
+import org.junit.Test;
+
+public class DirectMemoryAccountantTest
+{
+    private static final long MB = 1024L * 1024L;
+
+    private final MetricsManager metricsManager = new MetricsManager("test_", new HashMap<>());
+
+    @Test
+    public void shouldSumUsages()
+    {
+        // given
+        final DirectMemoryAccountant accountant = newAccountant(new DirectMemoryCfg());
+
+        accountant.reserve(DirectMemoryAccountant.COMPONENT_DISPATCHER, DirectMemoryAccountant.NO_PARTITION, "send-buffer", 16 * MB);
+        accountant.reserve(DirectMemoryAccountant.COMPONENT_LOG_WRITE_BUFFER, 1, "default-topic-1", 8 * MB);
+        final MemoryUsage index = accountant.register(DirectMemoryAccountant.COMPONENT_INDEX, 1, "workflow-instance", null);
+
+        // when
+        index.update(2 * MB);
+
+        // then
+        assertThat(accountant.sample()).isEqualTo(26 * MB);
+    }
+
+    @Test
+    public void shouldNotCountReleasedUsage()
+    {
+        // given
+        final DirectMemoryAccountant accountant = newAccountant(new DirectMemoryCfg());
+        final MemoryUsage usage = accountant.reserve(DirectMemoryAccountant.COMPONENT_LOG_WRITE_BUFFER, 1, "default-topic-1", 8 * MB);
+
+        // when
+        usage.close();
+
+        // then
+        assertThat(accountant.sample()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldShrinkCachesOfPartitionExceedingBudget()
+    {
+        // given
+        final DirectMemoryCfg cfg = new DirectMemoryCfg();
+        cfg.partitionCacheBudget = 1;
+        final DirectMemoryAccountant accountant = newAccountant(cfg);
+
+        final AtomicInteger partition1Shrinks = new AtomicInteger();
+        final AtomicInteger partition2Shrinks = new AtomicInteger();
+
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 1, "payload-cache", partition1Shrinks::incrementAndGet).update(2 * MB);
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 2, "payload-cache", partition2Shrinks::incrementAndGet).update(MB / 2);
+
+        // when
+        accountant.sample();
+
+        // then
+        assertThat(partition1Shrinks.get()).isEqualTo(1);
+        assertThat(partition2Shrinks.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldShrinkAllCachesIfLimitIsExceeded()
+    {
+        // given
+        final DirectMemoryCfg cfg = new DirectMemoryCfg();
+        cfg.limit = 5;
+        final DirectMemoryAccountant accountant = newAccountant(cfg);
+
+        final AtomicInteger shrinks = new AtomicInteger();
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 1, "payload-cache", shrinks::incrementAndGet).update(MB);
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 2, "payload-cache", shrinks::incrementAndGet).update(MB);
+        accountant.reserve(DirectMemoryAccountant.COMPONENT_DISPATCHER, DirectMemoryAccountant.NO_PARTITION, "send-buffer", 4 * MB);
+
+        // when
+        accountant.sample();
+
+        // then
+        assertThat(shrinks.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotShrinkCachesIfReservationsExceedLimit()
+    {
+        // given
+        final DirectMemoryCfg cfg = new DirectMemoryCfg();
+        cfg.limit = 4;
+        final DirectMemoryAccountant accountant = newAccountant(cfg);
+
+        final AtomicInteger shrinks = new AtomicInteger();
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 1, "payload-cache", shrinks::incrementAndGet).update(MB);
+        accountant.reserve(DirectMemoryAccountant.COMPONENT_DISPATCHER, DirectMemoryAccountant.NO_PARTITION, "send-buffer", 8 * MB);
+
+        // when
+        accountant.sample();
+
+        // then
+        assertThat(shrinks.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldGrowCachesIfMemoryIsAvailable()
+    {
+        // given
+        final DirectMemoryCfg cfg = new DirectMemoryCfg();
+        cfg.limit = 8;
+        final DirectMemoryAccountant accountant = newAccountant(cfg);
+
+        final AtomicInteger shrinks = new AtomicInteger();
+        final AtomicInteger grows = new AtomicInteger();
+        final MemoryUsage cache = accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 1, "payload-cache", shrinks::incrementAndGet, grows::incrementAndGet);
+        accountant.reserve(DirectMemoryAccountant.COMPONENT_DISPATCHER, DirectMemoryAccountant.NO_PARTITION, "send-buffer", 4 * MB);
+
+        cache.update(6 * MB);
+        accountant.sample();
+
+        // when
+        cache.update(MB);
+        accountant.sample();
+
+        // then
+        assertThat(shrinks.get()).isEqualTo(1);
+        assertThat(grows.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotGrowCachesAboveHalfOfRemainingMemory()
+    {
+        // given
+        final DirectMemoryCfg cfg = new DirectMemoryCfg();
+        cfg.limit = 8;
+        final DirectMemoryAccountant accountant = newAccountant(cfg);
+
+        final AtomicInteger grows = new AtomicInteger();
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 1, "payload-cache", null, grows::incrementAndGet).update(3 * MB);
+        accountant.reserve(DirectMemoryAccountant.COMPONENT_DISPATCHER, DirectMemoryAccountant.NO_PARTITION, "send-buffer", 4 * MB);
+
+        // when
+        accountant.sample();
+
+        // then
+        assertThat(grows.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotGrowCachesOfPartitionNearBudget()
+    {
+        // given
+        final DirectMemoryCfg cfg = new DirectMemoryCfg();
+        cfg.partitionCacheBudget = 1;
+        final DirectMemoryAccountant accountant = newAccountant(cfg);
+
+        final AtomicInteger partition1Grows = new AtomicInteger();
+        final AtomicInteger partition2Grows = new AtomicInteger();
+
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 1, "payload-cache", null, partition1Grows::incrementAndGet).update(3 * MB / 4);
+        accountant.register(DirectMemoryAccountant.COMPONENT_CACHE, 2, "payload-cache", null, partition2Grows::incrementAndGet).update(MB / 4);
+
+        // when
+        accountant.sample();
+
+        // then
+        assertThat(partition1Grows.get()).isEqualTo(0);
+        assertThat(partition2Grows.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadMaxDirectMemoryFromJvmArguments()
+    {
+        assertThat(DirectMemoryAccountant.maxDirectMemory(Arrays.asList("-Xmx1g", "-XX:MaxDirectMemorySize=4g"), 1024)).isEqualTo(4096 * MB);
+        assertThat(DirectMemoryAccountant.maxDirectMemory(Collections.singletonList("-XX:MaxDirectMemorySize=512m"), 1024)).isEqualTo(512 * MB);
+        assertThat(DirectMemoryAccountant.maxDirectMemory(Collections.emptyList(), 1024)).isEqualTo(1024);
+    }
+
+    private DirectMemoryAccountant newAccountant(DirectMemoryCfg cfg)
+    {
+        if (cfg.limit == 0)
+        {
+            // don't depend on the memory settings of the test JVM
+            cfg.limit = 1024;
+        }
+        return new DirectMemoryAccountant(cfg, metricsManager);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import io.zeebe.protocol.clientapi.EventType;
+
+import org.junit.Test;
+
+public class EventTracerTest
+{
+    private static final EnumSet<EventType> TASK_EVENTS = EnumSet.of(EventType.TASK_EVENT);
+
+    private final HistogramManager histogramManager = new HistogramManager("test_", Collections.emptyMap());
+
+    @Test
+    public void shouldNotRegisterHistogramsIfDisabled()
+    {
+        // when
+        final EventTracer eventTracer = new EventTracer(0, histogramManager);
+
+        // then
+        assertThat(eventTracer.isEnabled()).isFalse();
+        assertThat(eventTracer.sample()).isFalse();
+        assertThat(histogramManager.getHistograms()).isEmpty();
+    }
+
+    @Test
+    public void shouldSampleEveryNthCommand()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(3, histogramManager);
+
+        // then
+        assertThat(eventTracer.sample()).isFalse();
+        assertThat(eventTracer.sample()).isFalse();
+        assertThat(eventTracer.sample()).isTrue();
+        assertThat(eventTracer.sample()).isFalse();
+    }
+
+    @Test
+    public void shouldRecordLatencyOfStages()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+
+        // when
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+        eventTracer.onCommitted(1, 100L, 5_000L);
+        eventTracer.onProcessed(1, 100L, 200L, 10_000L);
+        eventTracer.onPushed(1, 200L, 30_000L);
+
+        // then
+        assertThat(histogram("append").getSum()).isEqualTo(1_000L);
+        assertThat(histogram("commit").getSum()).isEqualTo(3_000L);
+        assertThat(histogram("process").getSum()).isEqualTo(5_000L);
+        assertThat(histogram("push").getSum()).isEqualTo(20_000L);
+    }
+
+    @Test
+    public void shouldRecordStageOnlyOnce()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+
+        // when
+        eventTracer.onCommitted(1, 100L, 5_000L);
+        eventTracer.onCommitted(1, 150L, 8_000L);
+
+        // then
+        assertThat(histogram("commit").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldIgnoreUntracedEvents()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+
+        // when
+        eventTracer.onCommitted(1, 99L, 5_000L);
+        eventTracer.onCommitted(2, 100L, 5_000L);
+        eventTracer.onPushed(1, 101L, 6_000L);
+
+        // then
+        assertThat(eventTracer.isTraced(1, 100L, TASK_EVENTS)).isTrue();
+        assertThat(eventTracer.isTraced(2, 100L, TASK_EVENTS)).isFalse();
+        assertThat(histogram("commit").getCount()).isEqualTo(0);
+        assertThat(histogram("push").getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldBeTracedOnlyByOwnerOfEventType()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+
+        // when
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+
+        // then
+        assertThat(eventTracer.isTraced(1, 100L, TASK_EVENTS)).isTrue();
+        assertThat(eventTracer.isTraced(1, 100L, EnumSet.of(EventType.WORKFLOW_INSTANCE_EVENT))).isFalse();
+        assertThat(eventTracer.isTraced(1, 100L, EnumSet.noneOf(EventType.class))).isFalse();
+    }
+
+    @Test
+    public void shouldReplaceTraceInSameSlot()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+        final long otherPosition = positionInSameSlot(1, 100L);
+
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+
+        // when
+        eventTracer.startTrace(1, otherPosition, EventType.TASK_EVENT, 3_000L, 4_000L);
+        eventTracer.onCommitted(1, otherPosition, 5_000L);
+
+        // then
+        assertThat(eventTracer.isTraced(1, 100L, TASK_EVENTS)).isFalse();
+        assertThat(eventTracer.isTraced(1, otherPosition, TASK_EVENTS)).isTrue();
+        assertThat(histogram("commit").getCount()).isEqualTo(1);
+        assertThat(histogram("commit").getSum()).isEqualTo(1_000L);
+    }
+
+    @Test
+    public void shouldKeepTracesInDifferentSlots()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+
+        long otherPosition = 101L;
+        while (EventTracer.slotOf(1, otherPosition) == EventTracer.slotOf(1, 100L))
+        {
+            otherPosition++;
+        }
+
+        // when
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+        eventTracer.startTrace(1, otherPosition, EventType.TASK_EVENT, 3_000L, 4_000L);
+
+        // then
+        assertThat(eventTracer.isTraced(1, 100L, TASK_EVENTS)).isTrue();
+        assertThat(eventTracer.isTraced(1, otherPosition, TASK_EVENTS)).isTrue();
+    }
+
+    @Test
+    public void shouldRecordPushOfFollowUpEvent()
+    {
+        // given
+        final EventTracer eventTracer = new EventTracer(1, histogramManager);
+        final long followUpPosition = positionInSameSlot(1, 100L);
+
+        eventTracer.startTrace(1, 100L, EventType.TASK_EVENT, 1_000L, 2_000L);
+        eventTracer.onProcessed(1, 100L, followUpPosition, 10_000L);
+
+        // when
+        eventTracer.onPushed(1, followUpPosition, 30_000L);
+
+        // then
+        assertThat(histogram("push").getCount()).isEqualTo(1);
+        assertThat(histogram("push").getSum()).isEqualTo(20_000L);
+    }
+
+    private Histogram histogram(String stage)
+    {
+        return histogramManager.getHistograms().stream()
+            .filter(h -> h.getLabels().contains(stage))
+            .findFirst()
+            .get();
+    }
+
+    private static long positionInSameSlot(int partitionId, long position)
+    {
+        long otherPosition = position + 1;
+        while (EventTracer.slotOf(partitionId, otherPosition) != EventTracer.slotOf(partitionId, position))
+        {
+            otherPosition++;
+        }
+        return otherPosition;
+    }
+}
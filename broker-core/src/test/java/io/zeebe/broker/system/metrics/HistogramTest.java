@@ -0,0 +1,139 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.junit.Test;
+
+public class HistogramTest
+{
+    private final HistogramManager histogramManager = new HistogramManager("test_", Collections.singletonMap("node", "foo"));
+
+    @Test
+    public void shouldRecordValuesInLogLinearBuckets()
+    {
+        // given
+        final Histogram histogram = histogramManager.newHistogram("latency_ns").create();
+
+        // when
+        histogram.recordValue(100);
+        histogram.recordValue(128);
+        histogram.recordValue(129);
+        histogram.recordValue(160);
+        histogram.recordValue(161);
+        histogram.recordValue(Long.MAX_VALUE);
+
+        // then
+        assertThat(histogram.getBucketCount(0)).isEqualTo(2);
+        assertThat(histogram.getBucketCount(1)).isEqualTo(2);
+        assertThat(histogram.getBucketCount(2)).isEqualTo(1);
+        assertThat(histogram.getBucketCount(Histogram.BUCKET_COUNT)).isEqualTo(1);
+        assertThat(histogram.getCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void shouldSplitPowersOfTwoIntoSubBuckets()
+    {
+        assertThat(Histogram.bucketUpperBound(0)).isEqualTo(128);
+        assertThat(Histogram.bucketUpperBound(1)).isEqualTo(160);
+        assertThat(Histogram.bucketUpperBound(2)).isEqualTo(192);
+        assertThat(Histogram.bucketUpperBound(3)).isEqualTo(224);
+        assertThat(Histogram.bucketUpperBound(4)).isEqualTo(256);
+        assertThat(Histogram.bucketUpperBound(5)).isEqualTo(320);
+        assertThat(Histogram.bucketUpperBound(Histogram.BUCKET_COUNT - 1)).isEqualTo(1L << 35);
+        assertThat(Histogram.bucketUpperBound(Histogram.BUCKET_COUNT)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldCountValueInBucketOfItsUpperBound()
+    {
+        for (int i = 1; i < Histogram.BUCKET_COUNT; i++)
+        {
+            final long upperBound = Histogram.bucketUpperBound(i);
+            final long previousUpperBound = Histogram.bucketUpperBound(i - 1);
+
+            assertThat(Histogram.bucketIndex(upperBound)).isEqualTo(i);
+            assertThat(Histogram.bucketIndex(previousUpperBound + 1)).isEqualTo(i);
+        }
+
+        assertThat(Histogram.bucketIndex((1L << 35) + 1)).isEqualTo(Histogram.BUCKET_COUNT);
+    }
+
+    @Test
+    public void shouldReturnValueAtPercentile()
+    {
+        // given
+        final Histogram histogram = histogramManager.newHistogram("latency_ns").create();
+
+        for (int i = 0; i < 99; i++)
+        {
+            histogram.recordValue(1_000);
+        }
+        histogram.recordValue(600_000);
+
+        // then
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(1024);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(1024);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(655_360);
+    }
+
+    @Test
+    public void shouldDumpInPrometheusFormat()
+    {
+        // given
+        final Histogram histogram = histogramManager.newHistogram("latency_ns")
+            .label("partition", "1")
+            .create();
+
+        histogram.recordValue(1000);
+        histogram.recordValue(3000);
+
+        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+
+        // when
+        final int length = histogramManager.dump(buffer, 0, 123);
+
+        // then
+        final String dump = buffer.getStringWithoutLengthAscii(0, length);
+        assertThat(dump)
+            .startsWith("# TYPE test_latency_ns histogram\n")
+            .contains("test_latency_ns_bucket{node=\"foo\",partition=\"1\",le=\"1024\"} 1 123\n")
+            .contains("test_latency_ns_bucket{node=\"foo\",partition=\"1\",le=\"2560\"} 1 123\n")
+            .contains("test_latency_ns_bucket{node=\"foo\",partition=\"1\",le=\"3072\"} 2 123\n")
+            .contains("test_latency_ns_bucket{node=\"foo\",partition=\"1\",le=\"+Inf\"} 2 123\n")
+            .contains("test_latency_ns_sum{node=\"foo\",partition=\"1\"} 4000 123\n")
+            .endsWith("test_latency_ns_count{node=\"foo\",partition=\"1\"} 2 123\n");
+    }
+
+    @Test
+    public void shouldNotDumpClosedHistogram()
+    {
+        // given
+        final Histogram histogram = histogramManager.newHistogram("latency_ns").create();
+
+        // when
+        histogram.close();
+
+        // then
+        assertThat(histogramManager.dump(new ExpandableArrayBuffer(), 0, 123)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.threads;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashMap;
+
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.clock.ControlledActorClock;
+import org.junit.Test;
+
+public class PartitionSchedulersTest
+{
+    protected final ActorScheduler sharedScheduler = mock(ActorScheduler.class);
+    protected final ControlledActorClock clock = new ControlledActorClock();
+    protected final MetricsManager metricsManager = new MetricsManager("test_", new HashMap<>());
+
+    @Test
+    public void shouldUseSharedSchedulerIfAffinityIsDisabled()
+    {
+        // given
+        final PartitionSchedulers schedulers = new PartitionSchedulers(sharedScheduler, 0, clock, metricsManager, "test");
+
+        // then
+        assertThat(schedulers.isAffinityEnabled()).isFalse();
+        assertThat(schedulers.getScheduler(0)).isSameAs(sharedScheduler);
+        assertThat(schedulers.getScheduler(5)).isSameAs(sharedScheduler);
+    }
+
+    @Test
+    public void shouldAssignPartitionsToDedicatedSchedulers()
+    {
+        // given
+        final PartitionSchedulers schedulers = new PartitionSchedulers(sharedScheduler, 2, clock, metricsManager, "test");
+
+        // then
+        assertThat(schedulers.isAffinityEnabled()).isTrue();
+        assertThat(schedulers.getScheduler(0)).isNotSameAs(sharedScheduler);
+        assertThat(schedulers.getScheduler(1)).isNotSameAs(schedulers.getScheduler(0));
+        assertThat(schedulers.getScheduler(2)).isSameAs(schedulers.getScheduler(0));
+        assertThat(schedulers.getScheduler(3)).isSameAs(schedulers.getScheduler(1));
+    }
+}
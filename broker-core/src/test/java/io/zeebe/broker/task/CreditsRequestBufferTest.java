@@ -57,6 +57,37 @@ public class CreditsRequestBufferTest implements Consumer<CreditsRequest>
         }
     }
 
+    @Test
+    public void shouldAcceptRequestsFromMultipleThreads() throws Exception
+    {
+        // given
+        final int requestsPerThread = 500;
+        final CreditsRequestBuffer creditsRequestBuffer = new CreditsRequestBuffer(2 * requestsPerThread, this);
+
+        final Runnable producer = () ->
+        {
+            for (int i = 0; i < requestsPerThread; i++)
+            {
+                creditsRequestBuffer.offerRequest(CREDITS_REQUEST);
+            }
+        };
+
+        final Thread producer1 = new Thread(producer);
+        final Thread producer2 = new Thread(producer);
+
+        // when
+        producer1.start();
+        producer2.start();
+
+        producer1.join();
+        producer2.join();
+
+        creditsRequestBuffer.handleRequests();
+
+        // then
+        assertThat(requestsProcessed).isEqualTo(2 * requestsPerThread);
+    }
+
     public void reset()
     {
         requestsProcessed = 0;
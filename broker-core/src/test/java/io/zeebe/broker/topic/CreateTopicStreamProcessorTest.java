@@ -37,6 +37,8 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import io.zeebe.broker.clustering.handler.TopologyBroker;
+import io.zeebe.broker.logstreams.LogCompactionPolicy;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
@@ -408,6 +410,45 @@ public class CreateTopicStreamProcessorTest
             SOCKET_ADDRESS1, SOCKET_ADDRESS2, SOCKET_ADDRESS1, SOCKET_ADDRESS2);
     }
 
+    @Test
+    public void shouldDistributePartitionsToBrokerWithFewerLeadingPartitions()
+    {
+        // given
+        partitionManager.addMember(SOCKET_ADDRESS1);
+        partitionManager.addMember(SOCKET_ADDRESS2);
+        partitionManager.declarePartitionLeader(SOCKET_ADDRESS1, 1);
+        partitionManager.declarePartitionLeader(SOCKET_ADDRESS1, 2);
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        // when
+        rule.writeEvent(createTopic("foo", 3));
+        waitUntil(() -> partitionEventsInState(PartitionState.CREATING).count() == 3);
+
+        // then
+        final List<PartitionRequest> requests = partitionManager.getPartitionRequests();
+        assertThat(requests).extracting(r -> r.endpoint).containsExactly(
+                SOCKET_ADDRESS2, SOCKET_ADDRESS2, SOCKET_ADDRESS1);
+    }
+
+    @Test
+    public void shouldDistributePartitionsToBrokerWithLowerLoad()
+    {
+        // given
+        partitionManager.addMember(SOCKET_ADDRESS1, 900);
+        partitionManager.addMember(SOCKET_ADDRESS2, 100);
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        // when
+        rule.writeEvent(createTopic("foo", 1));
+        waitUntil(() -> partitionEventsInState(PartitionState.CREATING).count() == 1);
+
+        // then
+        final List<PartitionRequest> requests = partitionManager.getPartitionRequests();
+        assertThat(requests).extracting(r -> r.endpoint).containsExactly(SOCKET_ADDRESS2);
+    }
+
     @Test
     public void shouldCreateNewPartitionOnExpiration()
     {
@@ -459,6 +500,98 @@ public class CreateTopicStreamProcessorTest
         assertThat(creatingEvent.getCreationTimeout()).isEqualTo(expectedExpirationTime.toEpochMilli());
     }
 
+    @Test
+    public void shouldPassLogSettingsToPartitionCreation()
+    {
+        // given
+        rule.getClock().pinCurrentTime();
+
+        partitionManager.addMember(SOCKET_ADDRESS1);
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final LogStreamSettings logSettings = new LogStreamSettings()
+            .logSegmentSize(32 * 1024 * 1024)
+            .writeBufferSize(2 * 1024 * 1024)
+            .compactionPolicy(LogCompactionPolicy.RETAIN);
+
+        final TopicEvent createTopic = createTopic("foo", 1);
+        createTopic.setLogSettings(logSettings);
+
+        // when
+        rule.writeEvent(createTopic);
+        waitUntil(() -> partitionManager.getPartitionRequests().size() == 1);
+
+        // and the creation expires
+        rule.getClock().addTime(CREATION_EXPIRATION.plusSeconds(1));
+        streamProcessor.runAsync(checkPartitionsCmd);
+        waitUntil(() -> partitionManager.getPartitionRequests().size() == 2);
+
+        // then
+        assertThat(partitionManager.getPartitionRequests())
+            .extracting(PartitionRequest::getLogSettings)
+            .containsExactly(logSettings, logSettings);
+    }
+
+    @Test
+    public void shouldRejectNegativeLogSettings()
+    {
+        // given
+        partitionManager.addMember(SOCKET_ADDRESS1);
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final TopicEvent createTopic = createTopic("foo", 1);
+        createTopic.setLogSettings(new LogStreamSettings().logSegmentSize(-1));
+
+        // when
+        rule.writeEvent(createTopic);
+
+        // then
+        waitUntil(() -> topicEventsInState(TopicState.CREATE_REJECTED).findFirst().isPresent());
+        assertThat(partitionEventsInState(PartitionState.CREATE).count()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectLogSegmentSizeBelowMinimum()
+    {
+        // given
+        partitionManager.addMember(SOCKET_ADDRESS1);
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final TopicEvent createTopic = createTopic("foo", 1);
+        createTopic.setLogSettings(new LogStreamSettings().logSegmentSize(LogStreamSettings.MIN_LOG_SEGMENT_SIZE - 1));
+
+        // when
+        rule.writeEvent(createTopic);
+
+        // then
+        waitUntil(() -> topicEventsInState(TopicState.CREATE_REJECTED).findFirst().isPresent());
+        assertThat(partitionEventsInState(PartitionState.CREATE).count()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectWriteBufferLargerThanLogSegment()
+    {
+        // given
+        partitionManager.addMember(SOCKET_ADDRESS1);
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final TopicEvent createTopic = createTopic("foo", 1);
+        createTopic.setLogSettings(new LogStreamSettings()
+            .logSegmentSize(4 * 1024 * 1024)
+            .writeBufferSize(8 * 1024 * 1024));
+
+        // when
+        rule.writeEvent(createTopic);
+
+        // then
+        waitUntil(() -> topicEventsInState(TopicState.CREATE_REJECTED).findFirst().isPresent());
+        assertThat(partitionEventsInState(PartitionState.CREATE).count()).isEqualTo(0);
+    }
+
     @Test
     public void shouldSendResponseAfterTheDefinedNumberOfPartitionsIsCreated()
     {
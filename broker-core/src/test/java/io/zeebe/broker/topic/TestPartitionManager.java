@@ -32,6 +32,7 @@ import org.agrona.DirectBuffer;
 
 import io.zeebe.broker.clustering.management.PartitionManager;
 import io.zeebe.broker.clustering.member.Member;
+import io.zeebe.broker.logstreams.LogStreamSettings;
 import io.zeebe.transport.ClientResponse;
 import io.zeebe.transport.SocketAddress;
 import io.zeebe.util.buffer.BufferUtil;
@@ -49,6 +50,11 @@ public class TestPartitionManager implements PartitionManager
 
 
     public void addMember(SocketAddress socketAddress)
+    {
+        addMember(socketAddress, 0);
+    }
+
+    public void addMember(SocketAddress socketAddress, long load)
     {
         this.currentMembers.add(new Member()
         {
@@ -63,6 +69,12 @@ public class TestPartitionManager implements PartitionManager
             {
                 return new IntListIterator(partitionsByMember.getOrDefault(socketAddress, Collections.emptyList()));
             }
+
+            @Override
+            public long getLoad()
+            {
+                return load;
+            }
         });
     }
 
@@ -82,9 +94,9 @@ public class TestPartitionManager implements PartitionManager
     }
 
     @Override
-    public ActorFuture<ClientResponse> createPartitionRemote(SocketAddress remote, DirectBuffer topicName, int partitionId)
+    public ActorFuture<ClientResponse> createPartitionRemote(SocketAddress remote, DirectBuffer topicName, int partitionId, LogStreamSettings logSettings)
     {
-        partitionRequests.add(new PartitionRequest(remote, partitionId));
+        partitionRequests.add(new PartitionRequest(remote, partitionId, logSettings));
         final ClientResponse request = mock(ClientResponse.class);
         try
         {
@@ -114,17 +126,24 @@ public class TestPartitionManager implements PartitionManager
     {
         protected final SocketAddress endpoint = new SocketAddress();
         protected final int partitionId;
+        protected final LogStreamSettings logSettings = new LogStreamSettings();
 
-        public PartitionRequest(SocketAddress endpoint, int partitionId)
+        public PartitionRequest(SocketAddress endpoint, int partitionId, LogStreamSettings logSettings)
         {
             this.endpoint.wrap(endpoint);
             this.partitionId = partitionId;
+            this.logSettings.wrap(logSettings);
         }
 
         public int getPartitionId()
         {
             return partitionId;
         }
+
+        public LogStreamSettings getLogSettings()
+        {
+            return logSettings;
+        }
     }
 
 }
@@ -28,6 +28,7 @@ import org.agrona.sbe.MessageDecoderFlyweight;
 
 import io.zeebe.protocol.clientapi.ControlMessageResponseDecoder;
 import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
+import io.zeebe.protocol.clientapi.ExecuteCommandResponseDecoder;
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
 import io.zeebe.test.broker.protocol.MsgPackHelper;
 import io.zeebe.transport.ServerOutput;
@@ -72,6 +73,11 @@ public class BufferingServerOutput implements ServerOutput
         return getAs(index, errorDecoder);
     }
 
+    public ExecuteCommandResponseDecoder getAsExecuteCommandResponse(int index)
+    {
+        return getAs(index, new ExecuteCommandResponseDecoder());
+    }
+
     protected <T extends MessageDecoderFlyweight> T getAs(int index, T decoder)
     {
         final DirectBuffer sentResponse = sentResponses.get(index);
@@ -0,0 +1,255 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import static io.zeebe.util.StringUtil.getBytes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.broker.transport.clientapi.BufferingServerOutput;
+import io.zeebe.dispatcher.FragmentHandler;
+import io.zeebe.protocol.clientapi.ControlMessageRequestEncoder;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
+import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.ActorControl;
+
+public class ControlMessageRouterTest
+{
+    private static final ControlMessageType CONTROL_MESSAGE_TYPE = ControlMessageType.ADD_TASK_SUBSCRIPTION;
+    private static final int SHARD_COUNT = 3;
+
+    private static final int REQ_STREAM_ID = 11;
+    private static final long REQ_REQUEST_ID = 13L;
+
+    private final ControlMessageRequestHeaderDescriptor requestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
+    private final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
+    private final ControlMessageRequestEncoder requestEncoder = new ControlMessageRequestEncoder();
+
+    private final List<ControlMessageHandlerManager> shards = new ArrayList<>();
+    private final List<List<String>> handledMessages = new ArrayList<>();
+
+    private BufferingServerOutput output;
+    private ControlMessageRouter router;
+
+    @Before
+    public void init()
+    {
+        output = new BufferingServerOutput();
+
+        for (int shardId = 0; shardId < SHARD_COUNT; shardId++)
+        {
+            final List<String> messagesOfShard = new ArrayList<>();
+            handledMessages.add(messagesOfShard);
+
+            final ControlMessageHandler handler = mock(ControlMessageHandler.class);
+            when(handler.getMessageType()).thenReturn(CONTROL_MESSAGE_TYPE);
+            doAnswer(invocation ->
+            {
+                final int partitionId = invocation.getArgument(1);
+                final DirectBuffer data = invocation.getArgument(2);
+
+                messagesOfShard.add(partitionId + ":" + BufferUtil.bufferAsString(data));
+                return null;
+            }).when(handler).handle(any(ActorControl.class), anyInt(), any(DirectBuffer.class), any(BrokerEventMetadata.class));
+
+            shards.add(new ControlMessageHandlerManager(output, 10_000, null, Collections.singletonList(handler), shardId));
+        }
+
+        router = new ControlMessageRouter(output, shards);
+    }
+
+    @Test
+    public void shouldRouteMessagesToShardOfPartition()
+    {
+        // when
+        for (int partitionId = 0; partitionId < 6; partitionId++)
+        {
+            route(partitionId, "foo");
+        }
+        handleRequests();
+
+        // then
+        assertThat(handledMessages.get(0)).containsExactly("0:foo", "3:foo");
+        assertThat(handledMessages.get(1)).containsExactly("1:foo", "4:foo");
+        assertThat(handledMessages.get(2)).containsExactly("2:foo", "5:foo");
+    }
+
+    @Test
+    public void shouldRouteMessagesWithoutPartitionToFirstShard()
+    {
+        // when
+        route(-1, "foo");
+        handleRequests();
+
+        // then
+        assertThat(handledMessages.get(0)).containsExactly("-1:foo");
+        assertThat(handledMessages.get(1)).isEmpty();
+        assertThat(handledMessages.get(2)).isEmpty();
+    }
+
+    @Test
+    public void shouldRouteMessagesWithNullPartitionIdToFirstShard()
+    {
+        // when
+        route(ControlMessageRequestEncoder.partitionIdNullValue(), "foo");
+        handleRequests();
+
+        // then
+        assertThat(handledMessages.get(0)).containsExactly(ControlMessageRequestEncoder.partitionIdNullValue() + ":foo");
+        assertThat(handledMessages.get(1)).isEmpty();
+        assertThat(handledMessages.get(2)).isEmpty();
+    }
+
+    @Test
+    public void shouldAssignNullPartitionIdToFirstShardForAnyShardCount()
+    {
+        final int nullPartitionId = ControlMessageRequestEncoder.partitionIdNullValue();
+
+        for (int shardCount = 1; shardCount <= 8; shardCount++)
+        {
+            assertThat(ControlMessageHandlerManager.shardFor(nullPartitionId, shardCount)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void shouldKeepOrderOfMessagesOfPartition()
+    {
+        // when
+        route(1, "a");
+        route(2, "b");
+        route(1, "c");
+        route(4, "d");
+        route(2, "e");
+        route(1, "f");
+        handleRequests();
+
+        // then
+        assertThat(handledMessages.get(1)).containsExactly("1:a", "1:c", "4:d", "1:f");
+        assertThat(handledMessages.get(2)).containsExactly("2:b", "2:e");
+    }
+
+    @Test
+    public void shouldRejectMessageWhichExceedsQueue()
+    {
+        // given
+        final String data = new String(new char[shards.get(0).getMaxRequestLength()]).replace('\0', 'x');
+
+        // when
+        final int result = route(0, data);
+
+        // then
+        assertThat(result).isEqualTo(FragmentHandler.CONSUME_FRAGMENT_RESULT);
+
+        handleRequests();
+        assertThat(handledMessages.get(0)).isEmpty();
+
+        assertThat(output.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorResponse = output.getAsErrorResponse(0);
+        assertThat(errorResponse.errorCode()).isEqualTo(ErrorCode.INVALID_MESSAGE);
+    }
+
+    @Test
+    public void shouldPostponeMessageIfQueueOfShardIsFull()
+    {
+        // given
+        final String data = new String(new char[shards.get(0).getMaxRequestLength() / 2]).replace('\0', 'x');
+
+        int result = FragmentHandler.CONSUME_FRAGMENT_RESULT;
+        int routedMessages = 0;
+        while (result == FragmentHandler.CONSUME_FRAGMENT_RESULT)
+        {
+            result = route(0, data);
+            routedMessages += 1;
+        }
+
+        // then
+        assertThat(result).isEqualTo(FragmentHandler.POSTPONE_FRAGMENT_RESULT);
+
+        // and messages of other shards are not blocked
+        assertThat(route(1, "foo")).isEqualTo(FragmentHandler.CONSUME_FRAGMENT_RESULT);
+
+        // and the message is accepted after the queue is drained
+        handleRequests();
+        assertThat(handledMessages.get(0)).hasSize(routedMessages - 1);
+        assertThat(route(0, data)).isEqualTo(FragmentHandler.CONSUME_FRAGMENT_RESULT);
+    }
+
+    private void handleRequests()
+    {
+        for (ControlMessageHandlerManager shard : shards)
+        {
+            while (shard.requestQueue.size() > 0)
+            {
+                shard.requestQueue.read(shard);
+            }
+        }
+    }
+
+    private int route(int partitionId, String data)
+    {
+        final byte[] bytes = getBytes(data);
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[bytes.length + 128]);
+
+        int offset = 0;
+
+        requestHeaderDescriptor
+            .wrap(buffer, offset)
+            .streamId(REQ_STREAM_ID)
+            .requestId(REQ_REQUEST_ID);
+
+        offset += ControlMessageRequestHeaderDescriptor.headerLength();
+
+        messageHeaderEncoder
+            .wrap(buffer, offset)
+            .blockLength(requestEncoder.sbeBlockLength())
+            .templateId(requestEncoder.sbeTemplateId())
+            .schemaId(requestEncoder.sbeSchemaId())
+            .version(requestEncoder.sbeSchemaVersion());
+
+        offset += messageHeaderEncoder.encodedLength();
+
+        requestEncoder
+            .wrap(buffer, offset)
+            .messageType(CONTROL_MESSAGE_TYPE)
+            .partitionId(partitionId)
+            .putData(bytes, 0, bytes.length);
+
+        offset += requestEncoder.encodedLength();
+
+        return router.onFragment(buffer, 0, offset, 0, false);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+import io.zeebe.util.sched.testing.ControlledActorSchedulerRule;
+
+public class ParallelismLimiterTest
+{
+    @Rule
+    public ControlledActorSchedulerRule actorSchedulerRule = new ControlledActorSchedulerRule();
+
+    protected LimitedActor limitedActor;
+
+    @Before
+    public void setUp()
+    {
+        limitedActor = new LimitedActor(2);
+        actorSchedulerRule.submitActor(limitedActor);
+        actorSchedulerRule.workUntilDone();
+    }
+
+    @Test
+    public void shouldNotRunMoreTasksThanParallelism()
+    {
+        // when
+        limitedActor.submitTasks(3);
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(limitedActor.startedTasks).hasSize(2);
+        assertThat(limitedActor.limiter.getActiveTasks()).isEqualTo(2);
+        assertThat(limitedActor.limiter.getPendingTasks()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRunPendingTaskWhenTaskIsDone()
+    {
+        // given
+        limitedActor.submitTasks(3);
+        actorSchedulerRule.workUntilDone();
+
+        // when
+        limitedActor.completeTask(0, null);
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(limitedActor.startedTasks).hasSize(3);
+        assertThat(limitedActor.results.get(0).isDone()).isTrue();
+        assertThat(limitedActor.limiter.getPendingTasks()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRunPendingTaskWhenTaskFailed()
+    {
+        // given
+        limitedActor.submitTasks(3);
+        actorSchedulerRule.workUntilDone();
+
+        // when
+        limitedActor.completeTask(0, new RuntimeException("expected"));
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(limitedActor.startedTasks).hasSize(3);
+        assertThat(limitedActor.results.get(0).isDone()).isTrue();
+        assertThatThrownBy(() -> limitedActor.results.get(0).join()).hasMessageContaining("expected");
+    }
+
+    @Test
+    public void shouldFreeSlotWhenActiveTaskIsCanceled()
+    {
+        // given
+        limitedActor.submitTasks(3);
+        actorSchedulerRule.workUntilDone();
+
+        // when
+        limitedActor.cancelTask(0);
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(limitedActor.startedTasks).hasSize(3);
+        assertThat(limitedActor.limiter.getActiveTasks()).isEqualTo(2);
+        assertThat(limitedActor.limiter.getPendingTasks()).isEqualTo(0);
+        assertThatThrownBy(() -> limitedActor.results.get(0).join()).hasMessageContaining("canceled");
+    }
+
+    @Test
+    public void shouldNotFreeSlotTwiceWhenCanceledTaskCompletes()
+    {
+        // given
+        limitedActor.submitTasks(3);
+        actorSchedulerRule.workUntilDone();
+
+        limitedActor.cancelTask(0);
+        actorSchedulerRule.workUntilDone();
+
+        // when
+        limitedActor.completeTask(0, null);
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(limitedActor.limiter.getActiveTasks()).isEqualTo(2);
+        assertThatThrownBy(() -> limitedActor.results.get(0).join()).hasMessageContaining("canceled");
+    }
+
+    @Test
+    public void shouldNotRunCanceledPendingTask()
+    {
+        // given
+        limitedActor.submitTasks(3);
+        actorSchedulerRule.workUntilDone();
+
+        limitedActor.cancelTask(2);
+        actorSchedulerRule.workUntilDone();
+
+        // when
+        limitedActor.completeTask(0, null);
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(limitedActor.startedTasks).hasSize(2);
+        assertThat(limitedActor.limiter.getActiveTasks()).isEqualTo(1);
+        assertThat(limitedActor.limiter.getPendingTasks()).isEqualTo(0);
+    }
+
+    class LimitedActor extends Actor
+    {
+        private final int parallelism;
+
+        protected ParallelismLimiter limiter;
+        protected final List<CompletableActorFuture<Void>> startedTasks = new ArrayList<>();
+        protected final List<ActorFuture<Void>> results = new ArrayList<>();
+
+        LimitedActor(int parallelism)
+        {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void onActorStarted()
+        {
+            limiter = new ParallelismLimiter(actor, parallelism);
+        }
+
+        void submitTasks(int count)
+        {
+            actor.call(() ->
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    results.add(limiter.submit(() ->
+                    {
+                        final CompletableActorFuture<Void> task = new CompletableActorFuture<>();
+                        startedTasks.add(task);
+                        return task;
+                    }));
+                }
+            });
+        }
+
+        void cancelTask(int index)
+        {
+            actor.call(() ->
+            {
+                final CompletableActorFuture<Void> result = (CompletableActorFuture<Void>) results.get(index);
+                result.completeExceptionally(new RuntimeException("canceled"));
+            });
+        }
+
+        void completeTask(int index, Throwable failure)
+        {
+            actor.call(() ->
+            {
+                final CompletableActorFuture<Void> task = startedTasks.get(index);
+                if (failure == null)
+                {
+                    task.complete(null);
+                }
+                else
+                {
+                    task.completeExceptionally(failure);
+                }
+            });
+        }
+    }
+}
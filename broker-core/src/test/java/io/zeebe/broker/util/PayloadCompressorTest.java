@@ -0,0 +1,145 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.util;
+
+import static io.zeebe.broker.test.MsgPackUtil.MSGPACK_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.MetricsManager;
+
+public class PayloadCompressorTest
+{
+    protected static final int THRESHOLD = 1024;
+
+    protected final MetricsManager metricsManager = new MetricsManager("test_", new HashMap<>());
+
+    protected PayloadCompressor compressor;
+
+    @After
+    public void tearDown()
+    {
+        if (compressor != null)
+        {
+            compressor.close();
+        }
+    }
+
+    @Test
+    public void shouldCompressAndDecompressLargePayload() throws Exception
+    {
+        // given
+        compressor = newCompressor(true);
+        final DirectBuffer payload = payloadOfSize(16 * 1024);
+
+        // when
+        final DirectBuffer compressed = BufferUtil.cloneBuffer(compressor.compress(payload));
+
+        // then
+        assertThat(PayloadCompressor.isCompressed(compressed)).isTrue();
+        assertThat(compressed.capacity()).isLessThan(payload.capacity());
+
+        final DirectBuffer decompressed = compressor.decompress(compressed);
+        assertThat(decompressed).isEqualTo(payload);
+    }
+
+    @Test
+    public void shouldNotCompressPayloadBelowThreshold() throws Exception
+    {
+        // given
+        compressor = newCompressor(true);
+        final DirectBuffer payload = payloadOfSize(THRESHOLD / 2);
+
+        // when
+        final DirectBuffer result = compressor.compress(payload);
+
+        // then
+        assertThat(result).isSameAs(payload);
+    }
+
+    @Test
+    public void shouldNotCompressIfDisabled() throws Exception
+    {
+        // given
+        compressor = newCompressor(false);
+        final DirectBuffer payload = payloadOfSize(16 * 1024);
+
+        // when
+        final DirectBuffer result = compressor.compress(payload);
+
+        // then
+        assertThat(result).isSameAs(payload);
+    }
+
+    @Test
+    public void shouldDecompressIfCompressionIsDisabled() throws Exception
+    {
+        // given
+        final PayloadCompressor enabledCompressor = newCompressor(true);
+        final DirectBuffer payload = payloadOfSize(16 * 1024);
+        final DirectBuffer compressed = BufferUtil.cloneBuffer(enabledCompressor.compress(payload));
+        enabledCompressor.close();
+
+        compressor = newCompressor(false);
+
+        // when
+        final DirectBuffer decompressed = compressor.decompress(compressed);
+
+        // then
+        assertThat(decompressed).isEqualTo(payload);
+    }
+
+    @Test
+    public void shouldNotDecompressUncompressedPayload() throws Exception
+    {
+        // given
+        compressor = newCompressor(true);
+        final DirectBuffer payload = payloadOfSize(16 * 1024);
+
+        // when
+        final DirectBuffer result = compressor.decompress(payload);
+
+        // then
+        assertThat(result).isSameAs(payload);
+    }
+
+    protected PayloadCompressor newCompressor(boolean isEnabled)
+    {
+        return new PayloadCompressor(isEnabled, THRESHOLD, metricsManager, "test-topic", "0");
+    }
+
+    protected static DirectBuffer payloadOfSize(int size) throws Exception
+    {
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < size)
+        {
+            builder.append("foo-bar-baz-");
+        }
+
+        final byte[] bytes = MSGPACK_MAPPER.writeValueAsBytes(Collections.singletonMap("value", builder.toString()));
+        return new UnsafeBuffer(bytes);
+    }
+}
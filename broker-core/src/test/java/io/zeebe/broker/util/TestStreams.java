@@ -27,6 +27,8 @@ import java.util.function.*;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import io.zeebe.broker.event.processor.TopicSubscriberEvent;
+import io.zeebe.broker.event.processor.TopicSubscriptionEvent;
 import io.zeebe.broker.incident.data.IncidentEvent;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.system.log.PartitionEvent;
@@ -63,6 +65,8 @@ public class TestStreams
         EVENT_TYPES.put(TopicEvent.class, EventType.TOPIC_EVENT);
         EVENT_TYPES.put(WorkflowEvent.class, EventType.WORKFLOW_EVENT);
         EVENT_TYPES.put(WorkflowInstanceEvent.class, EventType.WORKFLOW_INSTANCE_EVENT);
+        EVENT_TYPES.put(TopicSubscriberEvent.class, EventType.SUBSCRIBER_EVENT);
+        EVENT_TYPES.put(TopicSubscriptionEvent.class, EventType.SUBSCRIPTION_EVENT);
 
         EVENT_TYPES.put(UnpackedObject.class, EventType.NOOP_EVENT);
     }
@@ -18,6 +18,7 @@
 package io.zeebe.broker.workflow;
 
 import static io.zeebe.broker.test.MsgPackUtil.*;
+import static io.zeebe.broker.workflow.data.CreateWorkflowInstanceRequest.PROP_AWAIT_COMPLETION_TIMEOUT;
 import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_STATE;
 import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_ACTIVITY_ID;
 import static io.zeebe.broker.workflow.data.WorkflowInstanceEvent.PROP_WORKFLOW_BPMN_PROCESS_ID;
@@ -32,6 +33,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -492,4 +494,105 @@ public class CreateWorkflowInstanceTest
         assertThat(event2.event().get("bpmnProcessId")).isEqualTo("process2");
     }
 
+    @Test
+    public void shouldRespondWithCompletedEventWhenAwaitingCompletion()
+    {
+        // given
+        testClient.deploy(Bpmn.createExecutableWorkflow("process")
+                .startEvent()
+                .serviceTask("task", t -> t.taskType("test"))
+                .endEvent()
+                .done());
+
+        final ExecuteCommandRequest request = apiRule.createCmdRequest()
+                .eventTypeWorkflow()
+                .command()
+                    .put(PROP_STATE, "CREATE_WORKFLOW_INSTANCE")
+                    .put(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+                    .put(PROP_AWAIT_COMPLETION_TIMEOUT, Duration.ofMinutes(1).toMillis())
+                .done()
+                .send();
+
+        final SubscribedEvent createdEvent = testClient.receiveSingleEvent(workflowInstanceEvents("WORKFLOW_INSTANCE_CREATED"));
+
+        // when
+        testClient.completeTaskOfType("test", MSGPACK_PAYLOAD);
+
+        // then
+        final ExecuteCommandResponse resp = request.await();
+
+        assertThat(resp.key()).isEqualTo(createdEvent.key());
+        assertThat(resp.getEvent())
+            .containsEntry(PROP_STATE, "WORKFLOW_INSTANCE_COMPLETED")
+            .containsEntry(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+            .containsEntry(PROP_WORKFLOW_INSTANCE_KEY, createdEvent.key())
+            .containsEntry(PROP_WORKFLOW_PAYLOAD, MSGPACK_PAYLOAD);
+    }
+
+    @Test
+    public void shouldRespondWithCreatedEventWhenAwaitingCompletionTimesOut()
+    {
+        // given
+        brokerRule.getClock().pinCurrentTime();
+
+        testClient.deploy(Bpmn.createExecutableWorkflow("process")
+                .startEvent()
+                .serviceTask("task", t -> t.taskType("test"))
+                .endEvent()
+                .done());
+
+        final Duration timeout = Duration.ofSeconds(30);
+
+        final ExecuteCommandRequest request = apiRule.createCmdRequest()
+                .eventTypeWorkflow()
+                .command()
+                    .put(PROP_STATE, "CREATE_WORKFLOW_INSTANCE")
+                    .put(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+                    .put(PROP_AWAIT_COMPLETION_TIMEOUT, timeout.toMillis())
+                .done()
+                .send();
+
+        testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_ACTIVATED"));
+
+        // when
+        brokerRule.getClock().addTime(timeout.plusSeconds(1));
+
+        // then
+        final ExecuteCommandResponse resp = request.await();
+
+        assertThat(resp.getEvent())
+            .containsEntry(PROP_STATE, WORKFLOW_INSTANCE_CREATED.name())
+            .containsEntry(PROP_WORKFLOW_INSTANCE_KEY, resp.key())
+            .doesNotContainKey(PROP_AWAIT_COMPLETION_TIMEOUT);
+    }
+
+    @Test
+    public void shouldNotPropagateAwaitCompletionTimeout()
+    {
+        // given
+        testClient.deploy(Bpmn.createExecutableWorkflow("process")
+                .startEvent()
+                .endEvent()
+                .done());
+
+        // when
+        final ExecuteCommandResponse resp = apiRule.createCmdRequest()
+                .eventTypeWorkflow()
+                .command()
+                    .put(PROP_STATE, "CREATE_WORKFLOW_INSTANCE")
+                    .put(PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+                    .put(PROP_AWAIT_COMPLETION_TIMEOUT, Duration.ofMinutes(1).toMillis())
+                .done()
+                .sendAndAwait();
+
+        // then
+        assertThat(resp.getEvent()).containsEntry(PROP_STATE, "WORKFLOW_INSTANCE_COMPLETED");
+
+        final SubscribedEvent createdEvent = testClient.receiveSingleEvent(workflowInstanceEvents("WORKFLOW_INSTANCE_CREATED"));
+        assertThat(createdEvent.event()).doesNotContainKey(PROP_AWAIT_COMPLETION_TIMEOUT);
+
+        final SubscribedEvent startEvent = testClient.receiveSingleEvent(workflowInstanceEvents("START_EVENT_OCCURRED"));
+        assertThat(startEvent.event()).doesNotContainKey(PROP_AWAIT_COMPLETION_TIMEOUT);
+    }
+
 }
@@ -0,0 +1,298 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.zeebe.broker.incident.data.IncidentEvent;
+import io.zeebe.broker.incident.data.IncidentState;
+import io.zeebe.broker.logstreams.processor.TypedEvent;
+import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.broker.system.metrics.EventTracer;
+import io.zeebe.broker.task.TaskQueueManagerService;
+import io.zeebe.broker.task.TaskSubscriptionManager;
+import io.zeebe.broker.task.data.TaskEvent;
+import io.zeebe.broker.task.data.TaskState;
+import io.zeebe.broker.topic.StreamProcessorControl;
+import io.zeebe.broker.util.StreamProcessorRule;
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.broker.workflow.data.WorkflowInstanceState;
+import io.zeebe.util.buffer.BufferUtil;
+
+/**
+ * Runs incident, task instance and lock expiration processing through the single
+ * stream processor that is installed for a partition.
+ */
+public class PartitionPipelineTest
+{
+    @Rule
+    public StreamProcessorRule rule = new StreamProcessorRule();
+
+    @Mock
+    public TaskSubscriptionManager subscriptionManager;
+
+    @Before
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+        when(subscriptionManager.increaseSubscriptionCreditsAsync(any())).thenReturn(true);
+    }
+
+    @Test
+    public void shouldProcessTasksIncidentsAndWorkflowInstancesInOneProcessor()
+    {
+        // given
+        rule.getClock().pinCurrentTime();
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final long expiringTaskKey = 1;
+        final long failingTaskKey = 2;
+        final long workflowInstanceKey = 3;
+        final long activityInstanceKey = 4;
+
+        // when
+        rule.writeEvent(expiringTaskKey, create());
+        waitForTaskEvent(expiringTaskKey, TaskState.CREATED);
+
+        rule.writeEvent(expiringTaskKey, lock(nowPlus(Duration.ofSeconds(30))));
+        waitForTaskEvent(expiringTaskKey, TaskState.LOCKED);
+
+        rule.writeEvent(failingTaskKey, create());
+        waitForTaskEvent(failingTaskKey, TaskState.CREATED);
+
+        rule.writeEvent(failingTaskKey, lock(nowPlus(Duration.ofMinutes(5))));
+        waitForTaskEvent(failingTaskKey, TaskState.LOCKED);
+
+        rule.writeEvent(failingTaskKey, failure(0));
+        waitForTaskEvent(failingTaskKey, TaskState.FAILED);
+        waitForIncidentOfTask(failingTaskKey, IncidentState.CREATED);
+
+        rule.writeEvent(failingTaskKey, updateRetries(1));
+        waitForTaskEvent(failingTaskKey, TaskState.RETRIES_UPDATED);
+
+        final WorkflowInstanceEvent activityInstance = new WorkflowInstanceEvent();
+        activityInstance.setState(WorkflowInstanceState.ACTIVITY_READY);
+        activityInstance.setWorkflowInstanceKey(workflowInstanceKey);
+        final long activityPosition = rule.writeEvent(activityInstanceKey, activityInstance);
+
+        rule.writeEvent(activityIncident(workflowInstanceKey, activityInstanceKey, activityPosition));
+        waitForIncidentOfActivity(activityInstanceKey, IncidentState.CREATED);
+
+        activityInstance.setState(WorkflowInstanceState.ACTIVITY_TERMINATED);
+        rule.writeEvent(activityInstanceKey, activityInstance);
+
+        rule.getClock().addTime(TaskQueueManagerService.LOCK_EXPIRATION_INTERVAL.plus(Duration.ofSeconds(1)));
+
+        // then
+        waitForTaskEvent(expiringTaskKey, TaskState.LOCK_EXPIRED);
+        waitForIncidentOfTask(failingTaskKey, IncidentState.DELETED);
+        waitForIncidentOfActivity(activityInstanceKey, IncidentState.DELETED);
+
+        assertThat(taskStates(expiringTaskKey))
+            .containsExactly(
+                TaskState.CREATE,
+                TaskState.CREATED,
+                TaskState.LOCK,
+                TaskState.LOCKED,
+                TaskState.EXPIRE_LOCK,
+                TaskState.LOCK_EXPIRED);
+
+        assertThat(taskStates(failingTaskKey))
+            .containsExactly(
+                TaskState.CREATE,
+                TaskState.CREATED,
+                TaskState.LOCK,
+                TaskState.LOCKED,
+                TaskState.FAIL,
+                TaskState.FAILED,
+                TaskState.UPDATE_RETRIES,
+                TaskState.RETRIES_UPDATED);
+
+        assertThat(incidentStates(e -> e.getValue().getTaskKey() == failingTaskKey))
+            .containsExactly(
+                IncidentState.CREATE,
+                IncidentState.CREATED,
+                IncidentState.DELETE,
+                IncidentState.DELETED);
+
+        assertThat(incidentStates(e -> e.getValue().getActivityInstanceKey() == activityInstanceKey))
+            .containsExactly(
+                IncidentState.CREATE,
+                IncidentState.CREATED,
+                IncidentState.DELETE,
+                IncidentState.DELETED);
+    }
+
+    @Test
+    public void shouldRecoverStateOfAllComponentsFromSnapshot()
+    {
+        // given
+        rule.getClock().pinCurrentTime();
+        final StreamProcessorControl control = rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final long lockedTaskKey = 1;
+        final long failedTaskKey = 2;
+
+        rule.writeEvent(lockedTaskKey, create());
+        waitForTaskEvent(lockedTaskKey, TaskState.CREATED);
+
+        rule.writeEvent(lockedTaskKey, lock(nowPlus(Duration.ofSeconds(30))));
+        waitForTaskEvent(lockedTaskKey, TaskState.LOCKED);
+
+        rule.writeEvent(failedTaskKey, create());
+        waitForTaskEvent(failedTaskKey, TaskState.CREATED);
+
+        rule.writeEvent(failedTaskKey, lock(nowPlus(Duration.ofMinutes(5))));
+        waitForTaskEvent(failedTaskKey, TaskState.LOCKED);
+
+        rule.writeEvent(failedTaskKey, failure(0));
+        waitForIncidentOfTask(failedTaskKey, IncidentState.CREATED);
+
+        // when
+        control.restart();
+
+        rule.writeEvent(failedTaskKey, updateRetries(1));
+        waitForIncidentOfTask(failedTaskKey, IncidentState.DELETED);
+
+        rule.getClock().addTime(TaskQueueManagerService.LOCK_EXPIRATION_INTERVAL.plus(Duration.ofSeconds(1)));
+
+        // then
+        waitForTaskEvent(lockedTaskKey, TaskState.LOCK_EXPIRED);
+
+        assertThat(taskStates(failedTaskKey))
+            .endsWith(TaskState.UPDATE_RETRIES, TaskState.RETRIES_UPDATED);
+        assertThat(rule.events().onlyTaskEvents().inState(TaskState.LOCK_EXPIRATION_REJECTED).findFirst())
+            .isNotPresent();
+        assertThat(rule.events().onlyIncidentEvents().inState(IncidentState.DELETE_REJECTED).findFirst())
+            .isNotPresent();
+    }
+
+    private TypedStreamProcessor buildStreamProcessor(TypedStreamEnvironment env)
+    {
+        return WorkflowQueueManagerService.createPartitionPipeline(env, subscriptionManager, EventTracer.DISABLED);
+    }
+
+    private Instant nowPlus(Duration duration)
+    {
+        return rule.getClock().getCurrentTime().plus(duration);
+    }
+
+    private List<TaskState> taskStates(long key)
+    {
+        return rule.events().onlyTaskEvents()
+            .filter(e -> e.getKey() == key)
+            .map(e -> e.getValue().getState())
+            .collect(Collectors.toList());
+    }
+
+    private List<IncidentState> incidentStates(Predicate<TypedEvent<IncidentEvent>> filter)
+    {
+        return rule.events().onlyIncidentEvents()
+            .filter(filter)
+            .map(e -> e.getValue().getState())
+            .collect(Collectors.toList());
+    }
+
+    private void waitForTaskEvent(long key, TaskState state)
+    {
+        waitUntil(() -> rule.events().onlyTaskEvents().inState(state).anyMatch(e -> e.getKey() == key));
+    }
+
+    private void waitForIncidentOfTask(long taskKey, IncidentState state)
+    {
+        waitUntil(() -> rule.events().onlyIncidentEvents().inState(state).anyMatch(e -> e.getValue().getTaskKey() == taskKey));
+    }
+
+    private void waitForIncidentOfActivity(long activityInstanceKey, IncidentState state)
+    {
+        waitUntil(() -> rule.events().onlyIncidentEvents().inState(state).anyMatch(e -> e.getValue().getActivityInstanceKey() == activityInstanceKey));
+    }
+
+    private TaskEvent create()
+    {
+        final TaskEvent event = new TaskEvent();
+
+        event.setState(TaskState.CREATE);
+        event.setType(BufferUtil.wrapString("foo"));
+
+        return event;
+    }
+
+    private TaskEvent lock(Instant lockTime)
+    {
+        final TaskEvent event = new TaskEvent();
+
+        event.setState(TaskState.LOCK);
+        event.setType(BufferUtil.wrapString("foo"));
+        event.setLockOwner(BufferUtil.wrapString("bar"));
+        event.setLockTime(lockTime.toEpochMilli());
+
+        return event;
+    }
+
+    private TaskEvent failure(int retries)
+    {
+        final TaskEvent event = new TaskEvent();
+
+        event.setState(TaskState.FAIL);
+        event.setType(BufferUtil.wrapString("foo"));
+        event.setLockOwner(BufferUtil.wrapString("bar"));
+        event.setRetries(retries);
+
+        return event;
+    }
+
+    private TaskEvent updateRetries(int retries)
+    {
+        final TaskEvent event = new TaskEvent();
+
+        event.setState(TaskState.UPDATE_RETRIES);
+        event.setType(BufferUtil.wrapString("foo"));
+        event.setRetries(retries);
+
+        return event;
+    }
+
+    private IncidentEvent activityIncident(long workflowInstanceKey, long activityInstanceKey, long failureEventPosition)
+    {
+        final IncidentEvent event = new IncidentEvent();
+
+        event.setState(IncidentState.CREATE);
+        event.setWorkflowInstanceKey(workflowInstanceKey);
+        event.setActivityInstanceKey(activityInstanceKey);
+        event.setFailureEventPosition(failureEventPosition);
+
+        return event;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.zeebe.logstreams.log.LogStreamReader;
+import org.junit.After;
+import org.junit.Test;
+
+public class PayloadCacheTest
+{
+    private final PayloadCache payloadCache = new PayloadCache(64, mock(LogStreamReader.class));
+
+    @After
+    public void tearDown()
+    {
+        payloadCache.close();
+    }
+
+    @Test
+    public void shouldShrinkToMinimumSize()
+    {
+        // when
+        payloadCache.shrink();
+        payloadCache.shrink();
+        payloadCache.shrink();
+
+        // then
+        assertThat(payloadCache.getCacheSize()).isEqualTo(16);
+    }
+
+    @Test
+    public void shouldGrowToConfiguredSize()
+    {
+        // given
+        payloadCache.shrink();
+        payloadCache.shrink();
+
+        // when
+        payloadCache.grow();
+        payloadCache.grow();
+        payloadCache.grow();
+
+        // then
+        assertThat(payloadCache.getCacheSize()).isEqualTo(64);
+    }
+}
@@ -16,10 +16,10 @@
 package io.zeebe.client;
 
 import io.zeebe.client.cmd.Request;
-import io.zeebe.client.event.Event;
 import io.zeebe.client.event.PollableTopicSubscription;
 import io.zeebe.client.event.PollableTopicSubscriptionBuilder;
 import io.zeebe.client.event.TopicSubscriptionBuilder;
+import io.zeebe.client.topic.CreateTopicCommand;
 import io.zeebe.client.topic.Topics;
 
 /**
@@ -49,8 +49,10 @@ public interface TopicsClient
 
     /**
      * Creates a new topic with the given name and number of partitions.
+     *
+     * @return a command which can be used to specify the log settings of the topic's partitions
      */
-    Request<Event> create(String topicName, int partitions);
+    CreateTopicCommand create(String topicName, int partitions);
 
     /**
      * Requests all topics. Can be used to inspect which topics and partitions have been created.
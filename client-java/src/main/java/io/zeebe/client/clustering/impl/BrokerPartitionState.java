@@ -19,6 +19,7 @@ public class BrokerPartitionState
 {
 
     public static final String LEADER_STATE = "LEADER";
+    public static final String FOLLOWER_STATE = "FOLLOWER";
 
     protected String topicName;
     protected int partitionId;
@@ -62,6 +63,11 @@ public class BrokerPartitionState
         return getState().equals(LEADER_STATE);
     }
 
+    public boolean isFollower()
+    {
+        return getState().equals(FOLLOWER_STATE);
+    }
+
     @Override
     public String toString()
     {
@@ -46,12 +46,21 @@ public class ClientTopologyManager extends Actor
      */
     public static final Duration MIN_REFRESH_INTERVAL_MILLIS = Duration.ofMillis(300);
 
+    /**
+     * Time a broker may hold a watch request until the topology changes. The broker pushes
+     * changes by answering the pending request.
+     */
+    public static final Duration WATCH_TIMEOUT = Duration.ofSeconds(10);
+
+    protected static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(1);
+
     protected final ClientOutput output;
     protected final ClientTransport transport;
 
     protected final AtomicReference<TopologyImpl> topology;
     protected final List<CompletableActorFuture<Topology>> nextTopologyFutures = new ArrayList<>();
 
+    protected final ObjectMapper objectMapper;
     protected final ControlMessageRequestHandler requestWriter;
     protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
     protected final ErrorResponseDecoder errorResponseDecoder = new ErrorResponseDecoder();
@@ -59,12 +68,19 @@ public class ClientTopologyManager extends Actor
     protected int refreshAttempt = 0;
     protected long lastRefreshTime = -1;
 
+    /**
+     * The broker which provided the current topology, its versions are only known by this broker
+     */
+    protected RemoteAddress topologySource;
+    protected boolean isWatching = false;
+
     public ClientTopologyManager(ClientTransport transport, ObjectMapper objectMapper, RemoteAddress initialContact)
     {
         this.transport = transport;
         this.output = transport.getOutput();
 
         this.topology = new AtomicReference<>(new TopologyImpl(initialContact));
+        this.objectMapper = objectMapper;
         this.requestWriter = new ControlMessageRequestHandler(objectMapper, new RequestTopologyCmdImpl(null, null));
     }
 
@@ -124,21 +140,88 @@ public class ClientTopologyManager extends Actor
         {
             // TODO: not sure we should complete the refresh futures in this case,
             //   as the response could be older than the time when the future was submitted
-            onNewTopology(topology);
+            onNewTopology(topology, null);
         });
     }
 
     private void refreshTopology()
     {
-        final RemoteAddress endpoint = topology.get().getRandomBroker();
-        final ActorFuture<ClientResponse> responseFuture = output.sendRequest(endpoint, requestWriter, Duration.ofSeconds(1));
+        final RemoteAddress endpoint = selectTopologySource();
+        final ActorFuture<ClientResponse> responseFuture = sendTopologyRequest(endpoint, 0, REQUEST_TIMEOUT);
 
         refreshAttempt++;
         lastRefreshTime = ActorClock.currentTimeMillis();
-        actor.runOnCompletion(responseFuture, this::handleResponse);
+        actor.runOnCompletion(responseFuture, (response, t) ->
+        {
+            final Throwable failure = handleResponse(endpoint, response, t);
+            if (failure != null)
+            {
+                failRefreshFutures(failure);
+            }
+        });
         actor.runDelayed(MAX_REFRESH_INTERVAL_MILLIS, scheduleIdleRefresh());
     }
 
+    /**
+     * Sends a request which is answered by the broker when the topology changes. As long as the
+     * broker versions its topology, a new request is sent after each response.
+     */
+    private void watchTopology()
+    {
+        if (isWatching || topology.get().getVersion() == 0)
+        {
+            return;
+        }
+
+        isWatching = true;
+
+        final RemoteAddress endpoint = selectTopologySource();
+        final ActorFuture<ClientResponse> responseFuture = sendTopologyRequest(endpoint, WATCH_TIMEOUT.toMillis(), WATCH_TIMEOUT.plus(REQUEST_TIMEOUT));
+
+        actor.runOnCompletion(responseFuture, (response, t) ->
+        {
+            isWatching = false;
+
+            // on success, the next watch request is sent when the topology is applied
+            final Throwable failure = handleResponse(endpoint, response, t);
+            if (failure != null)
+            {
+                actor.runDelayed(MIN_REFRESH_INTERVAL_MILLIS, this::watchTopology);
+            }
+        });
+    }
+
+    private RemoteAddress selectTopologySource()
+    {
+        if (topologySource == null)
+        {
+            topologySource = topology.get().getRandomBroker();
+        }
+        return topologySource;
+    }
+
+    private ActorFuture<ClientResponse> sendTopologyRequest(RemoteAddress endpoint, long waitTimeout, Duration timeout)
+    {
+        final TopologyImpl currentTopology = topology.get();
+
+        final ControlMessageRequestHandler requestHandler;
+        if (currentTopology.getVersion() > 0)
+        {
+            final TopologyRequest request = new TopologyRequest()
+                .setEpoch(currentTopology.getEpoch())
+                .setVersion(currentTopology.getVersion())
+                .setWaitTimeout(waitTimeout);
+
+            requestHandler = new ControlMessageRequestHandler(objectMapper, new RequestTopologyCmdImpl(null, null, request));
+        }
+        else
+        {
+            requestHandler = requestWriter;
+        }
+
+        return output.sendRequest(endpoint, requestHandler, timeout);
+    }
+
     /**
      * Only schedules topology refresh if there was no refresh attempt in the last ten seconds
      */
@@ -148,38 +231,66 @@ public class ClientTopologyManager extends Actor
 
         return () ->
         {
-            // if no topology refresh attempt was made in the meantime
-            if (currentAttempt == refreshAttempt)
+            // if no topology refresh attempt was made in the meantime and the broker doesn't push changes
+            if (currentAttempt == refreshAttempt && !isWatching)
             {
                 actor.run(this::refreshTopology);
             }
         };
     }
 
-    private void handleResponse(ClientResponse response, Throwable t)
+    /**
+     * @return the failure if the request failed or the response contained no topology, otherwise null
+     */
+    private Throwable handleResponse(RemoteAddress endpoint, ClientResponse response, Throwable t)
     {
         if (t == null)
         {
             try
             {
                 final TopologyResponse topologyResponse = decodeTopology(response.getResponseBuffer());
-                onNewTopology(topologyResponse);
+                onNewTopology(topologyResponse, endpoint);
+                return null;
+            }
+            catch (final Exception e)
+            {
+                t = e;
             }
             finally
             {
                 response.close();
             }
         }
-        else
+
+        if (endpoint.equals(topologySource))
         {
-            failRefreshFutures(t);
+            // try another broker next time
+            topologySource = null;
         }
+        return t;
     }
 
-    private void onNewTopology(TopologyResponse topologyResponse)
+    private void onNewTopology(TopologyResponse topologyResponse, RemoteAddress source)
     {
-        this.topology.set(new TopologyImpl(topologyResponse, transport::registerRemoteAddress));
+        final TopologyImpl currentTopology = topology.get();
+        final boolean isSameEpoch = topologyResponse.getEpoch() == currentTopology.getEpoch();
+
+        if (topologyResponse.isDelta())
+        {
+            // a delta is only applicable to a topology from the same broker which is not newer
+            if (isSameEpoch && topologyResponse.getVersion() >= currentTopology.getVersion())
+            {
+                topology.set(new TopologyImpl(currentTopology, topologyResponse, transport::registerRemoteAddress));
+            }
+        }
+        else if (!isSameEpoch || topologyResponse.getVersion() == 0 || topologyResponse.getVersion() >= currentTopology.getVersion())
+        {
+            topology.set(new TopologyImpl(topologyResponse, transport::registerRemoteAddress));
+            topologySource = source;
+        }
+
         completeRefreshFutures();
+        watchTopology();
     }
 
     private void completeRefreshFutures()
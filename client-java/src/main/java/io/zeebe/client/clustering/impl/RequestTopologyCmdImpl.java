@@ -26,11 +26,18 @@ public class RequestTopologyCmdImpl extends ControlMessageRequest<TopologyRespon
     protected static final Object EMPTY_REQUEST = new HashMap<>();
 
     protected final ClientTopologyManager topologyListener;
+    protected final Object request;
 
     public RequestTopologyCmdImpl(RequestManager commandManager, ClientTopologyManager topologyListener)
+    {
+        this(commandManager, topologyListener, EMPTY_REQUEST);
+    }
+
+    public RequestTopologyCmdImpl(RequestManager commandManager, ClientTopologyManager topologyListener, Object request)
     {
         super(commandManager, ControlMessageType.REQUEST_TOPOLOGY, TopologyResponse.class);
         this.topologyListener = topologyListener;
+        this.request = request;
     }
 
     @Override
@@ -45,6 +52,6 @@ public class RequestTopologyCmdImpl extends ControlMessageRequest<TopologyRespon
     @Override
     public Object getRequest()
     {
-        return EMPTY_REQUEST;
+        return request;
     }
 }
@@ -17,6 +17,7 @@ package io.zeebe.client.clustering.impl;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -37,22 +38,56 @@ import io.zeebe.transport.SocketAddress;
 public class TopologyImpl implements Topology
 {
     protected final Int2ObjectHashMap<RemoteAddress> topicLeaders = new Int2ObjectHashMap<>();
+    protected final Int2ObjectHashMap<List<RemoteAddress>> topicFollowers = new Int2ObjectHashMap<>();
     protected final List<RemoteAddress> brokers = new ArrayList<>();
     protected final Map<String, IntArrayList> partitionsByTopic = new HashMap<>();
 
+    /**
+     * The brokers as received from the broker which provided the topology, required to apply deltas
+     */
+    protected final Map<SocketAddress, TopologyBroker> brokerStates = new LinkedHashMap<>();
+    protected final long version;
+    protected final long epoch;
+
     protected final Random randomBroker = new Random();
 
     public TopologyImpl(RemoteAddress endpoint)
     {
         brokers.add(endpoint);
+        version = 0;
+        epoch = 0;
     }
 
     public TopologyImpl(TopologyResponse topologyDto, Function<SocketAddress, RemoteAddress> remoteAddressProvider)
+    {
+        version = topologyDto.getVersion();
+        epoch = topologyDto.getEpoch();
+
+        topologyDto.getBrokers().forEach(b -> brokerStates.put(b.getSocketAddress(), b));
+
+        index(remoteAddressProvider);
+    }
+
+    /**
+     * Creates a new topology by applying the changes of a delta response to the given topology.
+     */
+    public TopologyImpl(TopologyImpl previous, TopologyResponse delta, Function<SocketAddress, RemoteAddress> remoteAddressProvider)
+    {
+        version = delta.getVersion();
+        epoch = delta.getEpoch();
+
+        brokerStates.putAll(previous.brokerStates);
+        delta.getRemovedBrokers().forEach(b -> brokerStates.remove(b.getSocketAddress()));
+        delta.getBrokers().forEach(b -> brokerStates.put(b.getSocketAddress(), b));
+
+        index(remoteAddressProvider);
+    }
+
+    private void index(Function<SocketAddress, RemoteAddress> remoteAddressProvider)
     {
         final Map<String, IntHashSet> partitions = new HashMap<>();
 
-        topologyDto.getBrokers()
-            .stream()
+        brokerStates.values()
             .forEach(b ->
             {
                 final RemoteAddress remoteAddress = remoteAddressProvider.apply(b.getSocketAddress());
@@ -71,6 +106,12 @@ public class TopologyImpl implements Topology
                     {
                         topicLeaders.put(partitionId, remoteAddress);
                     }
+                    else if (p.isFollower())
+                    {
+                        topicFollowers
+                            .computeIfAbsent(partitionId, id -> new ArrayList<>())
+                            .add(remoteAddress);
+                    }
                 });
             });
 
@@ -87,12 +128,45 @@ public class TopologyImpl implements Topology
         });
     }
 
+    /**
+     * @return the version of the topology, only comparable for topologies of the same epoch
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return the epoch of the broker which provided the topology, or 0 if it is unknown
+     */
+    public long getEpoch()
+    {
+        return epoch;
+    }
+
     @Override
     public RemoteAddress getLeaderForPartition(int partition)
     {
         return topicLeaders.get(partition);
     }
 
+    /**
+     * @return a random follower of the partition or the leader if the partition has no known follower
+     */
+    public RemoteAddress getFollowerOrLeaderForPartition(int partition)
+    {
+        final List<RemoteAddress> followers = topicFollowers.get(partition);
+
+        if (followers != null && !followers.isEmpty())
+        {
+            return followers.get(randomBroker.nextInt(followers.size()));
+        }
+        else
+        {
+            return getLeaderForPartition(partition);
+        }
+    }
+
     @Override
     public RemoteAddress getRandomBroker()
     {
@@ -132,7 +206,9 @@ public class TopologyImpl implements Topology
     {
         return "Topology{" +
             "topicLeaders=" + topicLeaders +
+            ", topicFollowers=" + topicFollowers +
             ", brokers=" + brokers +
+            ", version=" + version +
             '}';
     }
 
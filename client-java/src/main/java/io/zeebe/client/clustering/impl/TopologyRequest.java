@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.clustering.impl;
+
+/**
+ * Asks the broker for the changes since the given topology version. With a wait timeout, the
+ * broker responds not before the topology changed or the timeout elapsed.
+ */
+public class TopologyRequest
+{
+    private long epoch;
+    private long version;
+    private long waitTimeout;
+
+    public long getEpoch()
+    {
+        return epoch;
+    }
+
+    public TopologyRequest setEpoch(long epoch)
+    {
+        this.epoch = epoch;
+        return this;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public TopologyRequest setVersion(long version)
+    {
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * @return the time in milliseconds the broker may wait for a topology change
+     */
+    public long getWaitTimeout()
+    {
+        return waitTimeout;
+    }
+
+    public TopologyRequest setWaitTimeout(long waitTimeout)
+    {
+        this.waitTimeout = waitTimeout;
+        return this;
+    }
+}
@@ -15,11 +15,17 @@
  */
 package io.zeebe.client.clustering.impl;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TopologyResponse
 {
     private List<TopologyBroker> brokers;
+    private List<TopologyBroker> removedBrokers = new ArrayList<>();
+
+    private long version;
+    private long epoch;
+    private boolean delta;
 
     public List<TopologyBroker> getBrokers()
     {
@@ -31,10 +37,57 @@ public class TopologyResponse
         this.brokers = brokers;
     }
 
+    public List<TopologyBroker> getRemovedBrokers()
+    {
+        return removedBrokers;
+    }
+
+    public void setRemovedBrokers(List<TopologyBroker> removedBrokers)
+    {
+        this.removedBrokers = removedBrokers;
+    }
+
+    /**
+     * @return the version of the topology, or 0 if the broker does not version its topology
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public void setVersion(long version)
+    {
+        this.version = version;
+    }
+
+    public long getEpoch()
+    {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch)
+    {
+        this.epoch = epoch;
+    }
+
+    /**
+     * @return true if the response only contains the changes since the requested version
+     */
+    public boolean isDelta()
+    {
+        return delta;
+    }
+
+    public void setDelta(boolean delta)
+    {
+        this.delta = delta;
+    }
+
     @Override
     public String toString()
     {
-        return "TopologyResponse{" + "brokers=" + brokers + '}';
+        return "TopologyResponse{" + "brokers=" + brokers + ", removedBrokers=" + removedBrokers + ", version=" + version +
+            ", epoch=" + epoch + ", delta=" + delta + '}';
     }
 
 }
@@ -95,6 +95,18 @@ public interface PollableTopicSubscriptionBuilder
      */
     PollableTopicSubscriptionBuilder forcedStart();
 
+    /**
+     * <p>Prefers to receive the events from brokers which follow the partitions of the topic
+     * instead of from their leaders. This takes read load off the leaders. Events are only
+     * received once they are committed. If a partition has no available follower, its
+     * leader is used.
+     *
+     * <p>Acknowledgements of the subscription are still sent to the leaders.
+     *
+     * @return this builder
+     */
+    PollableTopicSubscriptionBuilder preferFollowers();
+
     /**
      * Opens a new topic subscription with the defined parameters.
      *
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.event;
 
+import java.util.function.Function;
+
 /**
  * <p>
  * Builder used to subscribed to all events of any kind of topic. Builds a
@@ -108,6 +110,47 @@ public interface TopicSubscriptionBuilder
      */
     TopicSubscriptionBuilder forcedStart();
 
+    /**
+     * <p>Prefers to receive the events from brokers which follow the partitions of the topic
+     * instead of from their leaders. This takes read load off the leaders. Events are only
+     * received once they are committed. If a partition has no available follower, its
+     * leader is used.
+     *
+     * <p>Acknowledgements of the subscription are still sent to the leaders.
+     *
+     * @return this builder
+     */
+    TopicSubscriptionBuilder preferFollowers();
+
+    /**
+     * <p>Handles events on the given number of worker threads instead of sequentially. Events
+     * with the same ordering key (see {@link #orderingKey(Function)}) are always handled by the same
+     * worker and in the order of their positions. Events with different keys may be handled
+     * concurrently and complete in any order.
+     *
+     * <p>The subscription only acknowledges a position once all events up to this
+     * position are handled. When the subscription is reopened, events handled after the
+     * last acknowledged position may be received again.
+     *
+     * <p>Default is <code>1</code>, i.e. all events of a partition are handled sequentially.
+     *
+     * @param workers the number of threads that handle events of this subscription
+     * @return this builder
+     */
+    TopicSubscriptionBuilder parallelism(int workers);
+
+    /**
+     * <p>Defines the key which determines the order of events when handled in parallel
+     * (see {@link #parallelism(int)}). Events with equal keys are handled sequentially.
+     *
+     * <p>By default, events are ordered by the key of the workflow instance they belong to.
+     * Events which do not belong to a workflow instance are ordered by their own key.
+     *
+     * @param keyExtractor extracts the ordering key of an event
+     * @return this builder
+     */
+    TopicSubscriptionBuilder orderingKey(Function<GeneralEvent, Object> keyExtractor);
+
     /**
      * <p>Starts subscribing at the current tails of all of the partitions belonging to the topic.
      * In particular, it is guaranteed that this subscription does not receive any event that
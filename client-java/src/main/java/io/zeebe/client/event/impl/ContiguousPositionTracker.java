@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event.impl;
+
+import java.util.ArrayDeque;
+
+/**
+ * Tracks the positions of events which are handled out of order and determines the highest
+ * position up to which all events are completed, i.e. the position that can safely be acknowledged.
+ */
+public class ContiguousPositionTracker
+{
+    protected final ArrayDeque<PendingPosition> pendingPositions = new ArrayDeque<>();
+    protected long completedPosition;
+    protected int completedEvents;
+    protected boolean failed;
+
+    public ContiguousPositionTracker(long initialPosition)
+    {
+        this.completedPosition = initialPosition;
+    }
+
+    /**
+     * Positions must be tracked in ascending order.
+     */
+    public synchronized PendingPosition track(long position)
+    {
+        final PendingPosition pendingPosition = new PendingPosition(position);
+        pendingPositions.addLast(pendingPosition);
+        return pendingPosition;
+    }
+
+    public synchronized void complete(PendingPosition pendingPosition)
+    {
+        pendingPosition.completed = true;
+
+        while (!failed && !pendingPositions.isEmpty() && pendingPositions.peekFirst().completed)
+        {
+            completedPosition = pendingPositions.removeFirst().position;
+            completedEvents++;
+        }
+    }
+
+    /**
+     * Marks the position as not handled. The completed position does not advance beyond
+     * a failed position anymore, so that the event is not acknowledged and handled again
+     * when the subscription is reopened.
+     */
+    public synchronized void fail(PendingPosition pendingPosition)
+    {
+        failed = true;
+        pendingPositions.clear();
+    }
+
+    /**
+     * @return the highest position for which this and all previously tracked positions are completed
+     */
+    public synchronized long getCompletedPosition()
+    {
+        return completedPosition;
+    }
+
+    /**
+     * @return the number of events which became part of the completed position since the last invocation
+     */
+    public synchronized int takeCompletedEvents()
+    {
+        final int events = completedEvents;
+        completedEvents = 0;
+        return events;
+    }
+
+    public static class PendingPosition
+    {
+        protected final long position;
+        protected boolean completed;
+
+        protected PendingPosition(long position)
+        {
+            this.position = position;
+        }
+
+        public long getPosition()
+        {
+            return position;
+        }
+    }
+}
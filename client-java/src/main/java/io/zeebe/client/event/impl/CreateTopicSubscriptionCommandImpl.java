@@ -21,6 +21,7 @@ import io.zeebe.client.impl.cmd.CommandImpl;
 public class CreateTopicSubscriptionCommandImpl extends CommandImpl<TopicSubscriberEvent>
 {
     protected final TopicSubscriberEvent subscription = new TopicSubscriberEvent(SubscriberEventType.SUBSCRIBE.name());
+    protected boolean preferFollowers;
 
     public CreateTopicSubscriptionCommandImpl(final RequestManager commandManager, final String topicName, final int partitionId)
     {
@@ -53,6 +54,18 @@ public class CreateTopicSubscriptionCommandImpl extends CommandImpl<TopicSubscri
         return this;
     }
 
+    public CreateTopicSubscriptionCommandImpl preferFollowers(boolean preferFollowers)
+    {
+        this.preferFollowers = preferFollowers;
+        return this;
+    }
+
+    @Override
+    public boolean prefersFollower()
+    {
+        return preferFollowers;
+    }
+
     @Override
     public EventImpl getEvent()
     {
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.event.impl;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.zeebe.client.event.GeneralEvent;
 import io.zeebe.client.event.TopicEventType;
 import io.zeebe.client.impl.data.MsgPackConverter;
@@ -25,6 +27,8 @@ public class GeneralEventImpl extends EventImpl implements GeneralEvent
 
     protected final MsgPackField content;
 
+    protected long receiveTimeNanos;
+
     public GeneralEventImpl(
             final int partitionId,
             final long key,
@@ -53,6 +57,20 @@ public class GeneralEventImpl extends EventImpl implements GeneralEvent
         return content.getMsgPack();
     }
 
+    /**
+     * @return the value of {@link System#nanoTime()} when the subscriber received the event
+     */
+    @JsonIgnore
+    public long getReceiveTimeNanos()
+    {
+        return receiveTimeNanos;
+    }
+
+    public void setReceiveTimeNanos(long receiveTimeNanos)
+    {
+        this.receiveTimeNanos = receiveTimeNanos;
+    }
+
     @Override
     public String toString()
     {
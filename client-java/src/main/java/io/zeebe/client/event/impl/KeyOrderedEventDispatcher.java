@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Dispatches event handling to a fixed number of single-threaded lanes. All events
+ * with the same ordering key are handled by the same lane and therefore in the order
+ * in which they were dispatched.
+ */
+public class KeyOrderedEventDispatcher
+{
+    protected final ExecutorService[] lanes;
+
+    public KeyOrderedEventDispatcher(String name, int parallelism)
+    {
+        lanes = new ExecutorService[parallelism];
+
+        for (int i = 0; i < parallelism; i++)
+        {
+            final String threadName = "zb-subscription-" + name + "-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r ->
+            {
+                final Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public CompletableFuture<Void> dispatch(Object orderingKey, Runnable handling)
+    {
+        final int hash = orderingKey != null ? orderingKey.hashCode() : 0;
+        final ExecutorService lane = lanes[Math.floorMod(hash, lanes.length)];
+
+        return CompletableFuture.runAsync(handling, lane);
+    }
+
+    public int getParallelism()
+    {
+        return lanes.length;
+    }
+
+    public void close()
+    {
+        for (ExecutorService lane : lanes)
+        {
+            lane.shutdown();
+        }
+    }
+}
@@ -88,4 +88,11 @@ public class PollableTopicSubscriptionBuilderImpl implements PollableTopicSubscr
         return this;
     }
 
+    @Override
+    public PollableTopicSubscriptionBuilder preferFollowers()
+    {
+        implBuilder.preferFollowers();
+        return this;
+    }
+
 }
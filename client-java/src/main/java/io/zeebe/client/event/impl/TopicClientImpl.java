@@ -16,12 +16,11 @@
 package io.zeebe.client.event.impl;
 
 import io.zeebe.client.TopicsClient;
-import io.zeebe.client.cmd.Request;
-import io.zeebe.client.event.Event;
 import io.zeebe.client.event.PollableTopicSubscriptionBuilder;
 import io.zeebe.client.event.TopicSubscriptionBuilder;
 import io.zeebe.client.impl.ZeebeClientImpl;
 import io.zeebe.client.task.impl.ControlMessageRequest;
+import io.zeebe.client.topic.CreateTopicCommand;
 import io.zeebe.client.topic.Topics;
 import io.zeebe.client.topic.impl.CreateTopicCommandImpl;
 import io.zeebe.client.topic.impl.GetPartitionsRequestImpl;
@@ -56,7 +55,7 @@ public class TopicClientImpl implements TopicsClient
     }
 
     @Override
-    public Request<Event> create(String topicName, int partitions)
+    public CreateTopicCommand create(String topicName, int partitions)
     {
         return new CreateTopicCommandImpl(client.getCommandManager(), topicName, partitions);
     }
@@ -15,9 +15,11 @@
  */
 package io.zeebe.client.event.impl;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
+import io.zeebe.client.event.impl.ContiguousPositionTracker.PendingPosition;
 import io.zeebe.client.task.impl.subscription.Subscriber;
 import io.zeebe.client.task.impl.subscription.SubscriberGroup;
 import io.zeebe.client.task.impl.subscription.SubscriptionManager;
@@ -41,6 +43,12 @@ public class TopicSubscriber extends Subscriber
 
     protected final Function<CheckedConsumer<GeneralEventImpl>, CheckedConsumer<GeneralEventImpl>> eventHandlerAdapter;
 
+    /**
+     * only set if events are handled in parallel
+     */
+    protected final KeyOrderedEventDispatcher dispatcher;
+    protected final ContiguousPositionTracker positionTracker;
+
     public TopicSubscriber(
             TopicClientImpl client,
             TopicSubscriptionSpec subscription,
@@ -48,13 +56,24 @@ public class TopicSubscriber extends Subscriber
             RemoteAddress eventSource,
             int partitionId,
             SubscriberGroup group,
-            SubscriptionManager acquisition)
+            SubscriptionManager acquisition,
+            KeyOrderedEventDispatcher dispatcher)
     {
         super(subscriberKey, partitionId, subscription.getPrefetchCapacity(), eventSource, group, acquisition);
         this.subscription = subscription;
         this.client = client;
         this.lastProcessedEventPosition = subscription.getStartPosition(partitionId);
         this.lastAcknowledgedPosition = subscription.getStartPosition(partitionId);
+        this.dispatcher = dispatcher;
+
+        if (dispatcher != null)
+        {
+            positionTracker = new ContiguousPositionTracker(lastProcessedEventPosition);
+        }
+        else
+        {
+            positionTracker = null;
+        }
 
         if (subscription.isManaged())
         {
@@ -74,7 +93,55 @@ public class TopicSubscriber extends Subscriber
 
     public int pollEvents(CheckedConsumer<GeneralEventImpl> consumer)
     {
-        return super.pollEvents(eventHandlerAdapter.apply(consumer));
+        if (dispatcher != null)
+        {
+            return pollEventsAsync(event -> dispatchEvent(consumer, event));
+        }
+        else
+        {
+            return super.pollEvents(eventHandlerAdapter.apply(consumer));
+        }
+    }
+
+    protected CompletionStage<?> dispatchEvent(CheckedConsumer<GeneralEventImpl> consumer, GeneralEventImpl event)
+    {
+        final Object orderingKey = subscription.getOrderingKeyExtractor().apply(event);
+
+        // events are polled in ascending position order, so they must be tracked before they are dispatched
+        final PendingPosition pendingPosition = positionTracker.track(event.getMetadata().getPosition());
+
+        final CheckedConsumer<GeneralEventImpl> handler = consumer
+            .andThen(e -> positionTracker.complete(pendingPosition))
+            .andOnExceptionRetry(MAX_HANDLING_RETRIES, this::logRetry)
+            .andOnException((e, exception) ->
+            {
+                positionTracker.fail(pendingPosition);
+                logExceptionAndClose(e, exception);
+            });
+
+        return dispatcher.dispatch(orderingKey, () ->
+        {
+            try
+            {
+                handler.accept(event);
+            }
+            catch (Exception e)
+            {
+                // exceptions are already handled by the handler
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * The broker frees prefetch capacity only when an event is acknowledged. If events are
+     * handled in parallel, an event can only be acknowledged when all previous events are
+     * handled as well, so its credit is returned when the completed position passes it.
+     */
+    @Override
+    protected int releaseEvent(GeneralEventImpl event)
+    {
+        return positionTracker != null ? positionTracker.takeCompletedEvents() : 1;
     }
 
     protected void logExceptionAndClose(GeneralEventImpl event, Exception e)
@@ -100,7 +167,15 @@ public class TopicSubscriber extends Subscriber
     protected ActorFuture<Void> requestSubscriptionClose()
     {
         System.out.println("Closing subscriber at partition " + partitionId);
-        return client.closeTopicSubscription(partitionId, subscriberKey).executeAsync();
+        final CloseTopicSubscriptionCommandImpl closeRequest = client.closeTopicSubscription(partitionId, subscriberKey);
+
+        if (subscription.isPreferFollowers())
+        {
+            // the subscription may be served by a follower which is not addressed by partition
+            closeRequest.targetBroker(eventSource);
+        }
+
+        return closeRequest.executeAsync();
     }
 
     @Override
@@ -114,7 +189,7 @@ public class TopicSubscriber extends Subscriber
 
         // note: it is important we read lastProcessedEventPosition only once
         //   as it can be changed concurrently by an executor thread
-        final long positionToAck = lastProcessedEventPosition;
+        final long positionToAck = positionTracker != null ? positionTracker.getCompletedPosition() : lastProcessedEventPosition;
 
         if (positionToAck > lastAcknowledgedPosition)
         {
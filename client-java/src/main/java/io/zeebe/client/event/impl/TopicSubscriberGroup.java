@@ -38,6 +38,7 @@ public class TopicSubscriberGroup extends SubscriberGroup<TopicSubscriber>
 
     protected AtomicBoolean processingFlag = new AtomicBoolean(false);
     protected final TopicSubscriptionSpec subscription;
+    protected final KeyOrderedEventDispatcher dispatcher;
 
     public TopicSubscriberGroup(
             ActorControl actor,
@@ -47,6 +48,15 @@ public class TopicSubscriberGroup extends SubscriberGroup<TopicSubscriber>
     {
         super(actor, client, acquisition, subscription.getTopic());
         this.subscription = subscription;
+
+        if (subscription.isParallel())
+        {
+            this.dispatcher = new KeyOrderedEventDispatcher(subscription.getName(), subscription.getParallelism());
+        }
+        else
+        {
+            this.dispatcher = null;
+        }
     }
 
     @Override
@@ -98,6 +108,7 @@ public class TopicSubscriberGroup extends SubscriberGroup<TopicSubscriber>
             .prefetchCapacity(subscription.getPrefetchCapacity())
             .name(subscription.getName())
             .forceStart(subscription.isForceStart())
+            .preferFollowers(subscription.isPreferFollowers())
             .executeAsync();
     }
 
@@ -111,7 +122,8 @@ public class TopicSubscriberGroup extends SubscriberGroup<TopicSubscriber>
                 result.getEventPublisher(),
                 result.getPartitionId(),
                 this,
-                subscriptionManager);
+                subscriptionManager,
+                dispatcher);
     }
 
     @Override
@@ -143,6 +155,18 @@ public class TopicSubscriberGroup extends SubscriberGroup<TopicSubscriber>
         return closeFuture;
     }
 
+    @Override
+    protected void onGroupClosed()
+    {
+        super.onGroupClosed();
+
+        if (dispatcher != null)
+        {
+            // all subscribers are closed, so no events are in processing anymore
+            dispatcher.close();
+        }
+    }
+
     @Override
     protected String describeGroup()
     {
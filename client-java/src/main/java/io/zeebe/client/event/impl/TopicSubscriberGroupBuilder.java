@@ -16,6 +16,7 @@
 package io.zeebe.client.event.impl;
 
 import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import org.agrona.collections.Long2LongHashMap;
 
@@ -31,6 +32,9 @@ public class TopicSubscriberGroupBuilder
     protected String name;
     protected final int prefetchCapacity;
     protected boolean forceStart;
+    protected boolean preferFollowers;
+    protected int parallelism = 1;
+    protected Function<GeneralEventImpl, Object> orderingKeyExtractor;
     protected long defaultStartPosition;
     protected final Long2LongHashMap startPositions = new Long2LongHashMap(-1);
 
@@ -82,6 +86,25 @@ public class TopicSubscriberGroupBuilder
         return this;
     }
 
+    public TopicSubscriberGroupBuilder preferFollowers()
+    {
+        this.preferFollowers = true;
+        return this;
+    }
+
+    public TopicSubscriberGroupBuilder parallelism(int parallelism)
+    {
+        EnsureUtil.ensureGreaterThan("parallelism", parallelism, 0);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public TopicSubscriberGroupBuilder orderingKeyExtractor(Function<GeneralEventImpl, Object> orderingKeyExtractor)
+    {
+        this.orderingKeyExtractor = orderingKeyExtractor;
+        return this;
+    }
+
     public TopicSubscriberGroupBuilder name(String name)
     {
         this.name = name;
@@ -107,7 +130,10 @@ public class TopicSubscriberGroupBuilder
                 startPositions,
                 forceStart,
                 name,
-                prefetchCapacity);
+                prefetchCapacity,
+                preferFollowers,
+                parallelism,
+                orderingKeyExtractor);
 
         return acquisition.openTopicSubscription(subscription);
     }
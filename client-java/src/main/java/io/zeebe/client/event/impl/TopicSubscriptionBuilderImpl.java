@@ -17,8 +17,10 @@ package io.zeebe.client.event.impl;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import io.zeebe.client.cmd.ClientException;
+import io.zeebe.client.event.GeneralEvent;
 import io.zeebe.client.event.IncidentEventHandler;
 import io.zeebe.client.event.RaftEventHandler;
 import io.zeebe.client.event.TaskEventHandler;
@@ -41,6 +43,7 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilder
     protected WorkflowEventHandler wfEventHandler;
     protected IncidentEventHandler incidentEventHandler;
     protected RaftEventHandler raftEventHandler;
+    protected Function<GeneralEvent, Object> orderingKeyExtractor;
 
     protected final TopicSubscriberGroupBuilder builder;
     protected final MsgPackMapper msgPackMapper;
@@ -123,6 +126,15 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilder
 
         builder.handler(this::dispatchEvent);
 
+        if (orderingKeyExtractor != null)
+        {
+            builder.orderingKeyExtractor(orderingKeyExtractor::apply);
+        }
+        else
+        {
+            builder.orderingKeyExtractor(this::extractWorkflowInstanceKey);
+        }
+
         return builder.build();
     }
 
@@ -166,6 +178,24 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilder
         }
     }
 
+    protected Object extractWorkflowInstanceKey(GeneralEventImpl event)
+    {
+        final TopicEventType eventType = event.getMetadata().getType();
+
+        if (TopicEventType.WORKFLOW_INSTANCE == eventType || TopicEventType.TASK == eventType || TopicEventType.INCIDENT == eventType)
+        {
+            // called on the poll thread, so the event is not converted
+            final long workflowInstanceKey = WorkflowInstanceKeyReader.readWorkflowInstanceKey(event.getAsMsgPack());
+
+            if (workflowInstanceKey > 0)
+            {
+                return workflowInstanceKey;
+            }
+        }
+
+        return event.getMetadata().getKey();
+    }
+
     @Override
     public TopicSubscriptionBuilder startAtPosition(int partitionId, long position)
     {
@@ -200,4 +230,25 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilder
         builder.forceStart();
         return this;
     }
+
+    @Override
+    public TopicSubscriptionBuilder preferFollowers()
+    {
+        builder.preferFollowers();
+        return this;
+    }
+
+    @Override
+    public TopicSubscriptionBuilder parallelism(int workers)
+    {
+        builder.parallelism(workers);
+        return this;
+    }
+
+    @Override
+    public TopicSubscriptionBuilder orderingKey(Function<GeneralEvent, Object> keyExtractor)
+    {
+        this.orderingKeyExtractor = keyExtractor;
+        return this;
+    }
 }
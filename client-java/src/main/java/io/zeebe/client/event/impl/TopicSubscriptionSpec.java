@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.event.impl;
 
+import java.util.function.Function;
+
 import org.agrona.collections.Long2LongHashMap;
 
 import io.zeebe.util.CheckedConsumer;
@@ -29,6 +31,9 @@ public class TopicSubscriptionSpec
     protected final int prefetchCapacity;
     protected final long defaultStartPosition;
     protected final Long2LongHashMap startPositions;
+    protected final boolean preferFollowers;
+    protected final int parallelism;
+    protected final Function<GeneralEventImpl, Object> orderingKeyExtractor;
 
     public TopicSubscriptionSpec(
             String topic,
@@ -37,7 +42,10 @@ public class TopicSubscriptionSpec
             Long2LongHashMap startPositions,
             boolean forceStart,
             String name,
-            int prefetchCapacity)
+            int prefetchCapacity,
+            boolean preferFollowers,
+            int parallelism,
+            Function<GeneralEventImpl, Object> orderingKeyExtractor)
     {
         this.topic = topic;
         this.handler = handler;
@@ -46,6 +54,9 @@ public class TopicSubscriptionSpec
         this.forceStart = forceStart;
         this.name = name;
         this.prefetchCapacity = prefetchCapacity;
+        this.preferFollowers = preferFollowers;
+        this.parallelism = parallelism;
+        this.orderingKeyExtractor = orderingKeyExtractor;
     }
 
     public String getTopic()
@@ -85,6 +96,22 @@ public class TopicSubscriptionSpec
     {
         return prefetchCapacity;
     }
+    public boolean isPreferFollowers()
+    {
+        return preferFollowers;
+    }
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+    public boolean isParallel()
+    {
+        return isManaged() && parallelism > 1;
+    }
+    public Function<GeneralEventImpl, Object> getOrderingKeyExtractor()
+    {
+        return orderingKeyExtractor;
+    }
 
     @Override
     public String toString()
@@ -104,6 +131,10 @@ public class TopicSubscriptionSpec
         builder.append(name);
         builder.append(", prefetchCapacity=");
         builder.append(prefetchCapacity);
+        builder.append(", preferFollowers=");
+        builder.append(preferFollowers);
+        builder.append(", parallelism=");
+        builder.append(parallelism);
         builder.append("]");
         return builder.toString();
     }
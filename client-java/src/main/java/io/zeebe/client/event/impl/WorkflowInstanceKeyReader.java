@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event.impl;
+
+import java.io.IOException;
+
+import io.zeebe.client.cmd.ClientException;
+import io.zeebe.client.task.TaskHeaders;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.value.ValueType;
+
+/**
+ * Reads the workflow instance key of an event directly from its msgpack document, i.e. without
+ * converting the event into an object. Workflow instance and incident events have the key as property,
+ * task events have it in their headers. The other properties are skipped.
+ */
+public class WorkflowInstanceKeyReader
+{
+    public static final String WORKFLOW_INSTANCE_KEY_PROPERTY = "workflowInstanceKey";
+    public static final String HEADERS_PROPERTY = "headers";
+
+    /**
+     * @return the workflow instance key of the event, or -1 if the event has none
+     */
+    public static long readWorkflowInstanceKey(byte[] msgPack)
+    {
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(msgPack))
+        {
+            if (!unpacker.hasNext() || unpacker.getNextFormat().getValueType() != ValueType.MAP)
+            {
+                return -1L;
+            }
+
+            long headersKey = -1L;
+
+            final int properties = unpacker.unpackMapHeader();
+            for (int i = 0; i < properties; i++)
+            {
+                final String property = readKey(unpacker);
+
+                if (WORKFLOW_INSTANCE_KEY_PROPERTY.equals(property) && isNextValue(unpacker, ValueType.INTEGER))
+                {
+                    final long key = unpacker.unpackLong();
+                    if (key > 0)
+                    {
+                        return key;
+                    }
+                }
+                else if (HEADERS_PROPERTY.equals(property) && isNextValue(unpacker, ValueType.MAP))
+                {
+                    headersKey = readHeadersKey(unpacker);
+                }
+                else
+                {
+                    unpacker.skipValue();
+                }
+            }
+
+            return headersKey;
+        }
+        catch (IOException e)
+        {
+            throw new ClientException("Failed to read the workflow instance key of the event", e);
+        }
+    }
+
+    protected static long readHeadersKey(MessageUnpacker unpacker) throws IOException
+    {
+        long key = -1L;
+
+        final int headers = unpacker.unpackMapHeader();
+        for (int i = 0; i < headers; i++)
+        {
+            final String header = readKey(unpacker);
+
+            if (TaskHeaders.WORKFLOW_INSTANCE_KEY.equals(header) && isNextValue(unpacker, ValueType.INTEGER))
+            {
+                key = unpacker.unpackLong();
+            }
+            else
+            {
+                unpacker.skipValue();
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * @return the key of the next map entry, or null if it is not a string
+     */
+    protected static String readKey(MessageUnpacker unpacker) throws IOException
+    {
+        if (isNextValue(unpacker, ValueType.STRING))
+        {
+            return unpacker.unpackString();
+        }
+        else
+        {
+            unpacker.skipValue();
+            return null;
+        }
+    }
+
+    protected static boolean isNextValue(MessageUnpacker unpacker, ValueType type) throws IOException
+    {
+        return unpacker.getNextFormat().getValueType() == type;
+    }
+}
@@ -17,7 +17,9 @@ package io.zeebe.client.impl;
 
 import static io.zeebe.protocol.clientapi.ExecuteCommandRequestEncoder.commandHeaderLength;
 
+import java.time.Duration;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
@@ -46,8 +48,10 @@ public class CommandRequestHandler implements RequestResponseHandler
     protected ExecuteCommandResponseDecoder decoder = new ExecuteCommandResponseDecoder();
 
     protected EventImpl event;
-    protected String expectedState;
+    protected Predicate<String> expectedStateFilter;
     protected BiFunction<EventImpl, EventImpl, String> errorFunction;
+    protected boolean prefersFollower;
+    protected Duration responseDelay;
 
     protected final ObjectMapper objectMapper;
 
@@ -59,8 +63,10 @@ public class CommandRequestHandler implements RequestResponseHandler
     {
         this.objectMapper = objectMapper;
         this.event = command.getEvent();
-        this.expectedState = command.getExpectedStatus();
+        this.expectedStateFilter = command::isExpectedStatus;
         this.errorFunction = command::generateError;
+        this.prefersFollower = command.prefersFollower();
+        this.responseDelay = command.getResponseDelay();
         serialize(event);
     }
 
@@ -162,7 +168,7 @@ public class CommandRequestHandler implements RequestResponseHandler
         result.setTopicName(event.getMetadata().getTopicName());
         result.setEventPosition(position);
 
-        if (expectedState != null && !expectedState.equals(result.getState()))
+        if (!expectedStateFilter.test(result.getState()))
         {
             throw new ClientCommandRejectedException(errorFunction.apply(event, result));
         }
@@ -190,6 +196,18 @@ public class CommandRequestHandler implements RequestResponseHandler
         }
     }
 
+    @Override
+    public Duration getResponseDelay()
+    {
+        return responseDelay;
+    }
+
+    @Override
+    public boolean prefersFollower()
+    {
+        return prefersFollower;
+    }
+
     @Override
     public void onSelectedPartition(int partitionId)
     {
@@ -29,6 +29,7 @@ import io.zeebe.protocol.clientapi.ControlMessageRequestEncoder;
 import io.zeebe.protocol.clientapi.ControlMessageResponseDecoder;
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
 import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
+import io.zeebe.transport.RemoteAddress;
 
 @SuppressWarnings("rawtypes")
 public class ControlMessageRequestHandler implements RequestResponseHandler
@@ -139,6 +140,12 @@ public class ControlMessageRequestHandler implements RequestResponseHandler
         return message.getTargetPartition();
     }
 
+    @Override
+    public RemoteAddress getTargetBroker()
+    {
+        return message.getTargetBroker();
+    }
+
     @Override
     public void onSelectedPartition(int partitionId)
     {
@@ -104,10 +104,11 @@ public class RequestManager extends Actor
         }
 
         final Supplier<ActorFuture<RemoteAddress>> remoteProvider = determineRemoteProvider(requestHandler);
+        final Duration timeout = requestTimeout.plus(requestHandler.getResponseDelay());
         final ActorFuture<ClientResponse> responseFuture =
-                output.sendRequestWithRetry(remoteProvider, RequestManager::shouldRetryRequest, requestHandler, requestTimeout);
+                output.sendRequestWithRetry(remoteProvider, RequestManager::shouldRetryRequest, requestHandler, timeout);
 
-        return new ResponseFuture<>(responseFuture, requestHandler, requestTimeout, concurrentRequestsSemaphore);
+        return new ResponseFuture<>(responseFuture, requestHandler, timeout, concurrentRequestsSemaphore);
     }
 
     private static boolean shouldRetryRequest(DirectBuffer responseContent)
@@ -164,8 +165,13 @@ public class RequestManager extends Actor
 
     private Supplier<ActorFuture<RemoteAddress>> determineRemoteProvider(RequestResponseHandler requestHandler)
     {
+        final RemoteAddress targetBroker = requestHandler.getTargetBroker();
 
-        if (!requestHandler.addressesSpecificTopic() && !requestHandler.addressesSpecificPartition())
+        if (targetBroker != null)
+        {
+            return new BrokerProvider((topology) -> targetBroker);
+        }
+        else if (!requestHandler.addressesSpecificTopic() && !requestHandler.addressesSpecificPartition())
         {
             return new BrokerProvider((topology) -> topology.getRandomBroker());
         }
@@ -210,7 +216,14 @@ public class RequestManager extends Actor
                 targetPartition = requestHandler.getTargetPartition();
             }
 
-            return new BrokerProvider((topology) -> topology.getLeaderForPartition(targetPartition));
+            if (requestHandler.prefersFollower())
+            {
+                return new BrokerProvider((topology) -> topology.getFollowerOrLeaderForPartition(targetPartition));
+            }
+            else
+            {
+                return new BrokerProvider((topology) -> topology.getLeaderForPartition(targetPartition));
+            }
         }
     }
 
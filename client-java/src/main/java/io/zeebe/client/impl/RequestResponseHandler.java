@@ -15,9 +15,12 @@
  */
 package io.zeebe.client.impl;
 
+import java.time.Duration;
+
 import org.agrona.DirectBuffer;
 
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.buffer.BufferWriter;
 
 public interface RequestResponseHandler extends BufferWriter
@@ -48,6 +51,30 @@ public interface RequestResponseHandler extends BufferWriter
     }
 
 
+    /**
+     * @return null if the broker is determined by topic and partition
+     */
+    default RemoteAddress getTargetBroker()
+    {
+        return null;
+    }
+
+    /**
+     * @return true if a follower of the target partition should be preferred over its leader
+     */
+    default boolean prefersFollower()
+    {
+        return false;
+    }
+
+    /**
+     * @return the time the broker may deliberately hold back the response; extends the request timeout
+     */
+    default Duration getResponseDelay()
+    {
+        return Duration.ZERO;
+    }
+
     void onSelectedPartition(int partitionId);
 
     String describeRequest();
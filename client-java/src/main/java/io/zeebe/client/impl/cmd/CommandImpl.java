@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.impl.cmd;
 
+import java.time.Duration;
+
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.Event;
 import io.zeebe.client.event.impl.EventImpl;
@@ -63,7 +65,32 @@ public abstract class CommandImpl<E extends Event> implements Request<E>
         return sb.toString();
     }
 
+    /**
+     * @return true if the command can be handled by a follower of the target partition
+     */
+    public boolean prefersFollower()
+    {
+        return false;
+    }
+
+    /**
+     * @return the time the broker may deliberately hold back the response of the command
+     */
+    public Duration getResponseDelay()
+    {
+        return Duration.ZERO;
+    }
+
     public abstract EventImpl getEvent();
 
     public abstract String getExpectedStatus();
+
+    /**
+     * @return true if the command is not rejected when the broker responds with the given state
+     */
+    public boolean isExpectedStatus(String state)
+    {
+        final String expectedStatus = getExpectedStatus();
+        return expectedStatus == null || expectedStatus.equals(state);
+    }
 }
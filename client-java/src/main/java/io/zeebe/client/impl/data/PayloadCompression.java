@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl.data;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses payloads which are compressed by the broker. A compressed payload starts with
+ * a byte which is never used by msgpack, followed by the length of the uncompressed payload
+ * and the deflated payload.
+ */
+public final class PayloadCompression
+{
+    public static final byte COMPRESSED_PAYLOAD_MARKER = (byte) 0xc1;
+
+    protected static final int HEADER_LENGTH = 5;
+
+    public static boolean isCompressed(byte[] payload)
+    {
+        return payload != null && payload.length > HEADER_LENGTH && payload[0] == COMPRESSED_PAYLOAD_MARKER;
+    }
+
+    /**
+     * @return the decompressed payload, or the given payload if it is not compressed
+     */
+    public static byte[] decompress(byte[] payload)
+    {
+        if (!isCompressed(payload))
+        {
+            return payload;
+        }
+
+        final int uncompressedLength = ByteBuffer.wrap(payload, 1, 4).getInt();
+        final byte[] uncompressed = new byte[uncompressedLength];
+
+        final Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH);
+
+            int length = 0;
+            while (length < uncompressedLength && !inflater.finished())
+            {
+                final int inflated = inflater.inflate(uncompressed, length, uncompressedLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                length += inflated;
+            }
+
+            if (length != uncompressedLength)
+            {
+                throw new RuntimeException("Failed to decompress payload. Expected " + uncompressedLength + " bytes but got " + length);
+            }
+
+            return uncompressed;
+        }
+        catch (DataFormatException e)
+        {
+            throw new RuntimeException("Failed to decompress payload", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+    private PayloadCompression()
+    {
+    }
+}
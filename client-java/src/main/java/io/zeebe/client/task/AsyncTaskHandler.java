@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task;
+
+import java.util.concurrent.CompletionStage;
+
+import io.zeebe.client.TasksClient;
+import io.zeebe.client.event.TaskEvent;
+
+/**
+ * A task handler that does not block the subscription's executor thread while
+ * working on a task. The subscription considers the task as handled when the returned
+ * stage completes and only then makes room for further tasks. Hence, the task fetch size
+ * of the subscription limits the number of tasks in flight.
+ *
+ * <p>If the stage completes exceptionally, the task is reported as failed.
+ *
+ * Implementations MUST be thread-safe.
+ */
+@FunctionalInterface
+public interface AsyncTaskHandler
+{
+
+    /**
+     * <p>Starts handling a task. Implements the work to be done
+     * whenever a task of a certain type is executed.
+     *
+     * @return a stage that completes when the task is handled
+     */
+    CompletionStage<?> handle(TasksClient client, TaskEvent task);
+
+}
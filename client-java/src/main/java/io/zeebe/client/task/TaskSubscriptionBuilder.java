@@ -16,6 +16,7 @@
 package io.zeebe.client.task;
 
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 /**
  * Builds a {@link TaskSubscription} that automatically notifies a {@link TaskHandler} whenever a task is received.
@@ -58,12 +59,35 @@ public interface TaskSubscriptionBuilder
      */
     TaskSubscriptionBuilder taskFetchSize(int numTasks);
 
+    /**
+     * Adapts the number of locked tasks to the observed task handling time and network
+     * round trip time. The subscription locks as many tasks as are required to keep the handler
+     * busy while new tasks are on their way, but avoids to lock tasks which it cannot handle
+     * within a fraction of the lock time. The task fetch size is the upper bound.
+     */
+    TaskSubscriptionBuilder adaptiveTaskFetchSize();
+
     /**
      * Sets the {@link TaskHandler} that is going to receive
      * callbacks for tasks that fulfill this subscription.
      */
     TaskSubscriptionBuilder handler(TaskHandler handler);
 
+    /**
+     * Sets the {@link TaskHandler} that is going to receive
+     * callbacks for tasks that fulfill this subscription. The handler
+     * is invoked on the given executor instead of the subscription
+     * executor threads, so that blocking handlers do not stall other subscriptions.
+     */
+    TaskSubscriptionBuilder handler(TaskHandler handler, Executor executor);
+
+    /**
+     * Sets the {@link AsyncTaskHandler} that is going to receive
+     * callbacks for tasks that fulfill this subscription. A task
+     * counts as handled when the stage returned by the handler completes.
+     */
+    TaskSubscriptionBuilder asyncHandler(AsyncTaskHandler handler);
+
     /**
      * Opens a new {@link PollableTaskSubscription}. Begins receiving
      * tasks from that point on.
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.sched.future.ActorFuture;
 
 public abstract class ControlMessageRequest<R> implements Request<R>
@@ -29,6 +30,7 @@ public abstract class ControlMessageRequest<R> implements Request<R>
     protected final String targetTopic;
     protected int targetPartition;
     protected final Class<? extends R> responseClass;
+    protected RemoteAddress targetBroker;
 
     protected final RequestManager client;
 
@@ -91,6 +93,21 @@ public abstract class ControlMessageRequest<R> implements Request<R>
         this.targetPartition = targetPartition;
     }
 
+    @JsonIgnore
+    public RemoteAddress getTargetBroker()
+    {
+        return targetBroker;
+    }
+
+    /**
+     * Sends the request to the given broker instead of the leader of the target partition
+     */
+    public ControlMessageRequest<R> targetBroker(RemoteAddress targetBroker)
+    {
+        this.targetBroker = targetBroker;
+        return this;
+    }
+
     @JsonIgnore
     public Class<? extends R> getResponseClass()
     {
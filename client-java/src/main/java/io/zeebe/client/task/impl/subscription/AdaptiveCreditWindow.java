@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task.impl.subscription;
+
+import io.zeebe.util.metrics.Metric;
+
+/**
+ * Determines the number of credits a subscriber grants its event source, similar to
+ * the congestion window of TCP.
+ *
+ * <ul>
+ * <li>If the subscriber runs out of events while credits are on their way to the event
+ * source, the window is too small to cover the round trip and grows by half.</li>
+ * <li>If events wait in the local queue for longer than a round trip (or longer than
+ * the given maximum queue time), the subscriber hoards events it cannot handle in time
+ * and the window is halved.</li>
+ * <li>If events are handled within a fraction of a round trip (or of the maximum queue time)
+ * for a whole window, the subscriber could handle more and the window grows by a quarter.
+ * Otherwise, a window that was halved once would only recover by starving.</li>
+ * </ul>
+ *
+ * The window is adjusted at most once per window of handled events. It never exceeds the
+ * capacity of the subscriber.
+ */
+public class AdaptiveCreditWindow
+{
+    private static final double EWMA_WEIGHT = 0.2d;
+    private static final int MIN_WINDOW = 1;
+
+    /**
+     * the queue time is low if it is below this fraction of the round trip or max queue time
+     */
+    private static final int LOW_QUEUE_TIME_DIVISOR = 4;
+
+    private final int maxWindow;
+    private final long maxQueueTimeNanos;
+    private final Metric windowMetric;
+
+    private volatile int window;
+
+    private double roundTripTimeNanos = -1;
+    private double queueTimeNanos = -1;
+    private int eventsSinceLastAdjustment;
+
+    public AdaptiveCreditWindow(int maxWindow, long maxQueueTimeNanos, Metric windowMetric)
+    {
+        this.maxWindow = maxWindow;
+        this.maxQueueTimeNanos = maxQueueTimeNanos;
+        this.windowMetric = windowMetric;
+
+        this.window = maxWindow;
+
+        windowMetric.setOrdered(window);
+    }
+
+    public int getWindow()
+    {
+        return window;
+    }
+
+    public synchronized void onRoundTrip(long nanos)
+    {
+        roundTripTimeNanos = average(roundTripTimeNanos, nanos);
+    }
+
+    /**
+     * @return true if the window has grown
+     */
+    public synchronized boolean onEventHandled(long queueNanos)
+    {
+        queueTimeNanos = average(queueTimeNanos, queueNanos);
+        eventsSinceLastAdjustment++;
+
+        if (canAdjust())
+        {
+            if (isHoarding())
+            {
+                setWindow(Math.max(MIN_WINDOW, window / 2));
+            }
+            else if (hasLowQueueTime() && window < maxWindow)
+            {
+                final int newWindow = window + Math.max(1, window / 4);
+                setWindow(Math.min(newWindow, maxWindow));
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return true if the window has grown
+     */
+    public synchronized boolean onStarved()
+    {
+        if (canAdjust() && window < maxWindow)
+        {
+            final int newWindow = window + Math.max(1, window / 2);
+            setWindow(Math.min(newWindow, maxWindow));
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    private boolean canAdjust()
+    {
+        return eventsSinceLastAdjustment >= window;
+    }
+
+    private boolean isHoarding()
+    {
+        final boolean exceedsRoundTrip = roundTripTimeNanos > 0 && queueTimeNanos > 2 * roundTripTimeNanos;
+        final boolean exceedsMaxQueueTime = maxQueueTimeNanos > 0 && queueTimeNanos > maxQueueTimeNanos;
+
+        return window > MIN_WINDOW && (exceedsRoundTrip || exceedsMaxQueueTime);
+    }
+
+    private boolean hasLowQueueTime()
+    {
+        if (roundTripTimeNanos > 0)
+        {
+            return queueTimeNanos < roundTripTimeNanos / LOW_QUEUE_TIME_DIVISOR;
+        }
+        else if (maxQueueTimeNanos > 0)
+        {
+            return queueTimeNanos < maxQueueTimeNanos / LOW_QUEUE_TIME_DIVISOR;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    private void setWindow(int newWindow)
+    {
+        window = newWindow;
+        eventsSinceLastAdjustment = 0;
+
+        windowMetric.setOrdered(newWindow);
+    }
+
+    public void close()
+    {
+        windowMetric.close();
+    }
+
+    private static double average(double average, long sample)
+    {
+        return average < 0 ? sample : (1 - EWMA_WEIGHT) * average + EWMA_WEIGHT * sample;
+    }
+}
@@ -18,6 +18,7 @@ package io.zeebe.client.task.impl.subscription;
 import java.io.InputStream;
 
 import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.PayloadCompression;
 
 public class MsgPackField
 {
@@ -71,10 +72,11 @@ public class MsgPackField
 
     public void setMsgPack(byte[] msgPack)
     {
-        this.msgPack = msgPack;
-        if (msgPack != null)
+        // payloads of topics with enabled compression are compressed by the broker
+        this.msgPack = PayloadCompression.decompress(msgPack);
+        if (this.msgPack != null)
         {
-            this.json = this.msgPackConverter.convertToJson(msgPack);
+            this.json = this.msgPackConverter.convertToJson(this.msgPack);
         }
         else
         {
@@ -15,6 +15,7 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
@@ -36,6 +37,8 @@ public abstract class Subscriber
     // TODO: could become configurable in the future
     public static final double REPLENISHMENT_THRESHOLD = 0.3d;
 
+    private static final ActorFuture<Void> NO_REPLENISHMENT = CompletableActorFuture.completed(null);
+
     protected final long subscriberKey;
     protected final ManyToManyConcurrentArrayQueue<GeneralEventImpl> pendingEvents;
     protected final int capacity;
@@ -48,14 +51,20 @@ public abstract class Subscriber
     protected final AtomicInteger eventsInProcessing = new AtomicInteger(0);
     protected final AtomicInteger eventsProcessedSinceLastReplenishment = new AtomicInteger(0);
 
+    // null if the subscriber always grants its full capacity
+    protected final AdaptiveCreditWindow creditWindow;
+    protected final AtomicInteger withheldCredits = new AtomicInteger(0);
+    protected final AtomicInteger replenishmentsInFlight = new AtomicInteger(0);
+    protected volatile long lastReplenishmentNanos;
+
     private final ActorCondition replenishmentTrigger;
+    private final ActorCondition eventsProcessedTrigger;
 
     private volatile int state;
 
     private static final int STATE_OPEN = 0;
     private static final int STATE_DISABLED = 1; // required to immediately disable a subscriber and stop processing further events
 
-    @SuppressWarnings("unchecked")
     public Subscriber(
             long subscriberKey,
             int partitionId,
@@ -63,6 +72,19 @@ public abstract class Subscriber
             RemoteAddress eventSource,
             SubscriberGroup group,
             SubscriptionManager acquisition)
+    {
+        this(subscriberKey, partitionId, capacity, eventSource, group, acquisition, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Subscriber(
+            long subscriberKey,
+            int partitionId,
+            int capacity,
+            RemoteAddress eventSource,
+            SubscriberGroup group,
+            SubscriptionManager acquisition,
+            AdaptiveCreditWindow creditWindow)
     {
         this.subscriberKey = subscriberKey;
         this.eventSource = eventSource;
@@ -72,7 +94,9 @@ public abstract class Subscriber
         this.acquisition = acquisition;
         this.partitionId = partitionId;
         this.state = STATE_OPEN;
+        this.creditWindow = creditWindow;
         this.replenishmentTrigger = group.buildReplenishmentTrigger(this);
+        this.eventsProcessedTrigger = group.buildEventsProcessedTrigger(this);
     }
 
     public RemoteAddress getEventSource()
@@ -90,31 +114,69 @@ public abstract class Subscriber
         return pendingEvents.size();
     }
 
+    /**
+     * @return the number of credits the subscriber currently wants to grant its event source
+     */
+    public int getCreditWindow()
+    {
+        return creditWindow != null ? creditWindow.getWindow() : capacity;
+    }
+
     private boolean shouldReplenishEventSource()
     {
         final int eventsProcessed = eventsProcessedSinceLastReplenishment.get();
-        final int remainingCapacity = capacity - eventsProcessed;
+        final int creditsInUse = capacity - withheldCredits.get() - eventsProcessed;
 
-        return remainingCapacity <= capacity * REPLENISHMENT_THRESHOLD;
+        return creditsInUse <= getCreditWindow() * REPLENISHMENT_THRESHOLD;
     }
 
     protected ActorFuture<?> replenishEventSource()
     {
         final int eventsProcessed = eventsProcessedSinceLastReplenishment.get();
+        final int withheld = withheldCredits.get();
+
+        final int returnableCredits = eventsProcessed + withheld;
+        final int creditsInUse = capacity - returnableCredits;
+        final int credits = Math.max(0, Math.min(returnableCredits, getCreditWindow() - creditsInUse));
+
+        eventsProcessedSinceLastReplenishment.addAndGet(-eventsProcessed);
+        withheldCredits.addAndGet(eventsProcessed - credits);
 
-        if (eventsProcessed > 0)
+        if (credits > 0)
         {
-            final ActorFuture<?> future = requestEventSourceReplenishment(eventsProcessed);
-            eventsProcessedSinceLastReplenishment.addAndGet(-eventsProcessed);
-            return future;
+            lastReplenishmentNanos = System.nanoTime();
+            replenishmentsInFlight.incrementAndGet();
+
+            return requestEventSourceReplenishment(credits);
         }
         else
         {
-            return CompletableActorFuture.completed(null);
+            return NO_REPLENISHMENT;
         }
 
     }
 
+    protected void onEventSourceReplenished(ActorFuture<?> replenishment)
+    {
+        if (replenishment != NO_REPLENISHMENT)
+        {
+            replenishmentsInFlight.decrementAndGet();
+
+            if (creditWindow != null)
+            {
+                creditWindow.onRoundTrip(System.nanoTime() - lastReplenishmentNanos);
+            }
+        }
+    }
+
+    protected void onClose()
+    {
+        if (creditWindow != null)
+        {
+            creditWindow.close();
+        }
+    }
+
     public long getSubscriberKey()
     {
         return subscriberKey;
@@ -124,6 +186,11 @@ public abstract class Subscriber
 
     public boolean addEvent(GeneralEventImpl event)
     {
+        if (creditWindow != null)
+        {
+            event.setReceiveTimeNanos(System.nanoTime());
+        }
+
         final boolean added = this.pendingEvents.offer(event);
 
         if (!added)
@@ -156,22 +223,44 @@ public abstract class Subscriber
     }
 
     protected int pollEvents(CheckedConsumer<GeneralEventImpl> pollHandler)
+    {
+        return pollEventsAsync(event ->
+        {
+            pollHandler.accept(event);
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #pollEvents(CheckedConsumer)} but an event is only considered as processed
+     * (i.e. its credit is returned to the event source) when the stage returned by the handler completes.
+     * A handler may return <code>null</code> if it has processed the event synchronously.
+     */
+    protected int pollEventsAsync(AsyncEventHandler pollHandler)
     {
         final int currentlyAvailableEvents = size();
         int handledEvents = 0;
 
-        GeneralEventImpl event;
+        if (currentlyAvailableEvents == 0 && creditWindow != null && isStarved())
+        {
+            if (creditWindow.onStarved())
+            {
+                replenishmentTrigger.signal();
+            }
+        }
 
         // handledTasks < currentlyAvailableTasks avoids very long cycles that we spend in this method
         // in case the broker continuously produces new tasks
         while (handledEvents < currentlyAvailableEvents && isOpen())
         {
-            event = pendingEvents.poll();
+            final GeneralEventImpl event = pendingEvents.poll();
             if (event == null)
             {
                 break;
             }
 
+            CompletionStage<?> eventCompletion = null;
+
             eventsInProcessing.incrementAndGet();
             try
             {
@@ -187,9 +276,15 @@ public abstract class Subscriber
                 handledEvents++;
                 logHandling(event);
 
+                if (creditWindow != null && creditWindow.onEventHandled(System.nanoTime() - event.getReceiveTimeNanos()))
+                {
+                    // hand out the credits which were withheld while the window was smaller
+                    replenishmentTrigger.signal();
+                }
+
                 try
                 {
-                    pollHandler.accept(event);
+                    eventCompletion = pollHandler.handle(event);
                 }
                 catch (Exception e)
                 {
@@ -198,12 +293,13 @@ public abstract class Subscriber
             }
             finally
             {
-                eventsInProcessing.decrementAndGet();
-                eventsProcessedSinceLastReplenishment.incrementAndGet();
-
-                if (shouldReplenishEventSource())
+                if (eventCompletion != null)
                 {
-                    replenishmentTrigger.signal();
+                    eventCompletion.whenComplete((result, failure) -> onEventProcessed(event));
+                }
+                else
+                {
+                    onEventProcessed(event);
                 }
             }
         }
@@ -211,6 +307,43 @@ public abstract class Subscriber
         return handledEvents;
     }
 
+    /**
+     * @return true if the subscriber has nothing to do because it waits for credits to reach the event source
+     */
+    private boolean isStarved()
+    {
+        return eventsInProcessing.get() == 0 && replenishmentsInFlight.get() > 0;
+    }
+
+    private void onEventProcessed(GeneralEventImpl event)
+    {
+        final int remainingEventsInProcessing = eventsInProcessing.decrementAndGet();
+        eventsProcessedSinceLastReplenishment.addAndGet(releaseEvent(event));
+
+        if (!isOpen())
+        {
+            // the subscriber is closing and waits until no more events are in processing
+            if (remainingEventsInProcessing == 0)
+            {
+                eventsProcessedTrigger.signal();
+            }
+        }
+        else if (shouldReplenishEventSource())
+        {
+            replenishmentTrigger.signal();
+        }
+    }
+
+    /**
+     * Invoked when the handling of an event is done.
+     *
+     * @return the number of events whose credits can be returned to the event source now;
+     *   may differ from one if the event source only releases credits in event order
+     */
+    protected int releaseEvent(GeneralEventImpl event)
+    {
+        return 1;
+    }
 
     protected void logHandling(GeneralEventImpl event)
     {
@@ -238,4 +371,10 @@ public abstract class Subscriber
     }
 
     protected abstract ActorFuture<Void> requestSubscriptionClose();
+
+    @FunctionalInterface
+    protected interface AsyncEventHandler
+    {
+        CompletionStage<?> handle(GeneralEventImpl event) throws Exception;
+    }
 }
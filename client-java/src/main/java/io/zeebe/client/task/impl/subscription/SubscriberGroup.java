@@ -15,10 +15,15 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 
@@ -35,11 +40,17 @@ import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.CheckedConsumer;
 import io.zeebe.util.sched.ActorCondition;
 import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.ScheduledTimer;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
 
 public abstract class SubscriberGroup<T extends Subscriber>
 {
+    /**
+     * How long a closing subscriber waits for its events in processing (e.g. pending stages of
+     * asynchronous handlers) before it is closed anyway.
+     */
+    public static final Duration EVENTS_IN_PROCESSING_TIMEOUT = Duration.ofSeconds(30);
 
     protected final ActorControl actor;
 
@@ -55,6 +66,9 @@ public abstract class SubscriberGroup<T extends Subscriber>
     protected CompletableActorFuture<SubscriberGroup<T>> openFuture;
     protected List<CompletableActorFuture<Void>> closeFutures = new ArrayList<>();
 
+    // disabled subscribers which wait for their events in processing before they are closed
+    private final Map<T, ScheduledTimer> drainingSubscribers = new HashMap<>();
+
     private String closeReason;
     private Throwable closeCause;
 
@@ -149,7 +163,7 @@ public abstract class SubscriberGroup<T extends Subscriber>
         // if state is OPENING, then closing is triggered once OPENING is reached,
     }
 
-    private void onGroupClosed()
+    protected void onGroupClosed()
     {
         if (openFuture != null)
         {
@@ -251,26 +265,54 @@ public abstract class SubscriberGroup<T extends Subscriber>
         subscribersList.remove(subscriber);
         subscriberState.put(subscriber.getPartitionId(), SubscriberState.UNSUBSCRIBING);
 
-        actor.runUntilDone(() ->
+        if (subscriber.hasEventsInProcessing())
+        {
+            // the subscriber signals when its last event is processed (see #buildEventsProcessedTrigger)
+            final ScheduledTimer timeout = actor.runDelayed(EVENTS_IN_PROCESSING_TIMEOUT, () -> onEventsInProcessingTimeout(subscriber));
+            drainingSubscribers.put(subscriber, timeout);
+        }
+        else
         {
-            if (!subscriber.hasEventsInProcessing())
+            requestSubscriberClose(subscriber);
+        }
+    }
+
+    private void onEventsProcessed(T subscriber)
+    {
+        if (!subscriber.hasEventsInProcessing())
+        {
+            final ScheduledTimer timeout = drainingSubscribers.remove(subscriber);
+
+            if (timeout != null)
             {
-                final ActorFuture<Void> closeSubscriberFuture = doCloseSubscriber(subscriber);
-                actor.runOnCompletionBlockingCurrentPhase(closeSubscriberFuture, (v, t) ->
-                {
-                    if (t != null)
-                    {
-                        Loggers.SUBSCRIPTION_LOGGER.error("Could not close subscriber. Ignoring.", t);
-                    }
-
-                    onSubscriberClosed(subscriber);
-                });
-                actor.done();
+                timeout.cancel();
+                requestSubscriberClose(subscriber);
             }
-            else
+        }
+    }
+
+    private void onEventsInProcessingTimeout(T subscriber)
+    {
+        if (drainingSubscribers.remove(subscriber) != null)
+        {
+            Loggers.SUBSCRIPTION_LOGGER.warn("Subscriber {} still has events in processing after {}. Closing it anyway; " +
+                    "the completion of these events is ignored.", subscriber, EVENTS_IN_PROCESSING_TIMEOUT);
+
+            requestSubscriberClose(subscriber);
+        }
+    }
+
+    private void requestSubscriberClose(T subscriber)
+    {
+        final ActorFuture<Void> closeSubscriberFuture = doCloseSubscriber(subscriber);
+        actor.runOnCompletionBlockingCurrentPhase(closeSubscriberFuture, (v, t) ->
+        {
+            if (t != null)
             {
-                actor.yield();
+                Loggers.SUBSCRIPTION_LOGGER.error("Could not close subscriber. Ignoring.", t);
             }
+
+            onSubscriberClosed(subscriber);
         });
     }
 
@@ -319,10 +361,44 @@ public abstract class SubscriberGroup<T extends Subscriber>
                 {
                     initClose("Could not replenish event source (submit ack or credits)", t);
                 }
+                else
+                {
+                    subscriber.onEventSourceReplenished(replenishmentFuture);
+                }
             });
         });
     }
 
+    /**
+     * Signalled by a disabled subscriber when it has no more events in processing.
+     */
+    public ActorCondition buildEventsProcessedTrigger(T subscriber)
+    {
+        return actor.onCondition(topic + "-events-processed", () -> onEventsProcessed(subscriber));
+    }
+
+    /**
+     * Completes the returned stage with the result of the given request, without blocking the calling thread.
+     */
+    public <R> CompletionStage<R> toCompletionStage(ActorFuture<R> request)
+    {
+        final CompletableFuture<R> stage = new CompletableFuture<>();
+
+        actor.call(() -> actor.runOnCompletion(request, (result, failure) ->
+        {
+            if (failure != null)
+            {
+                stage.completeExceptionally(failure);
+            }
+            else
+            {
+                stage.complete(result);
+            }
+        }));
+
+        return stage;
+    }
+
     private void onSubscriberOpened(EventSubscriptionCreationResult result)
     {
         final T subscriber = buildSubscriber(result);
@@ -341,6 +417,7 @@ public abstract class SubscriberGroup<T extends Subscriber>
 
     private void onSubscriberClosed(T subscriber)
     {
+        subscriber.onClose();
         subscriptionManager.removeSubscriber(subscriber);
         subscriberState.put(subscriber.getPartitionId(), SubscriberState.NOT_SUBSCRIBED);
 
@@ -15,12 +15,17 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.slf4j.Logger;
 
+import io.zeebe.client.event.TaskEvent;
 import io.zeebe.client.event.impl.TaskEventImpl;
 import io.zeebe.client.impl.Loggers;
 import io.zeebe.client.impl.TasksClientImpl;
 import io.zeebe.client.impl.data.MsgPackMapper;
+import io.zeebe.client.task.AsyncTaskHandler;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.sched.future.ActorFuture;
@@ -29,6 +34,8 @@ public class TaskSubscriber extends Subscriber
 {
     protected static final Logger LOGGER = Loggers.TASK_SUBSCRIPTION_LOGGER;
 
+    private static final CompletionStage<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
     protected final TasksClientImpl taskClient;
     protected final TaskSubscriptionSpec subscription;
 
@@ -42,9 +49,10 @@ public class TaskSubscriber extends Subscriber
             int partition,
             SubscriberGroup<TaskSubscriber> group,
             MsgPackMapper msgPackMapper,
-            SubscriptionManager acquisition)
+            SubscriptionManager acquisition,
+            AdaptiveCreditWindow creditWindow)
     {
-        super(subscriberKey, partition, subscription.getCapacity(), eventSource, group, acquisition);
+        super(subscriberKey, partition, subscription.getCapacity(), eventSource, group, acquisition, creditWindow);
         this.taskClient = client;
         this.subscription = subscription;
         this.msgPackMapper = msgPackMapper;
@@ -52,7 +60,7 @@ public class TaskSubscriber extends Subscriber
 
     public int pollEvents(TaskHandler taskHandler)
     {
-        int polledEvents = pollEvents((e) ->
+        return pollEventsAsync((e) ->
         {
             final TaskEventImpl taskEvent = msgPackMapper.convert(e.getAsMsgPack(), TaskEventImpl.class);
             taskEvent.updateMetadata(e.getMetadata());
@@ -60,26 +68,81 @@ public class TaskSubscriber extends Subscriber
             try
             {
                 taskHandler.handle(taskClient, taskEvent);
+                return null;
             }
             catch (Exception handlingException)
             {
-                LOGGER.info("An error occurred when handling task " + taskEvent.getMetadata().getKey() +
-                        ". Reporting failure to broker.", handlingException);
-                try
-                {
-                    taskClient.fail(taskEvent)
-                        .retries(taskEvent.getRetries() - 1)
-                        .execute();
-                }
-                catch (Exception failureException)
-                {
-                    LOGGER.info("Could not report failure of task " + taskEvent.getMetadata().getKey() +
-                        " to broker. Continuing with next task", failureException);
-                }
+                return reportFailure(taskEvent, handlingException);
             }
         });
+    }
 
-        return polledEvents;
+    public int pollEvents(AsyncTaskHandler taskHandler)
+    {
+        return pollEventsAsync((e) ->
+        {
+            final TaskEventImpl taskEvent = msgPackMapper.convert(e.getAsMsgPack(), TaskEventImpl.class);
+            taskEvent.updateMetadata(e.getMetadata());
+
+            final CompletionStage<?> handling;
+            try
+            {
+                handling = taskHandler.handle(taskClient, taskEvent);
+            }
+            catch (Exception handlingException)
+            {
+                return reportFailure(taskEvent, handlingException);
+            }
+
+            if (handling == null)
+            {
+                return null;
+            }
+
+            // the failure is reported before the task is considered as processed
+            return handling.handle((result, failure) -> failure)
+                .thenCompose(failure -> failure != null ? reportFailure(taskEvent, failure) : COMPLETED);
+        });
+    }
+
+    /**
+     * Sends the failure of the task to the broker without blocking the calling thread.
+     *
+     * @return a stage which completes when the broker has responded (successfully or not)
+     */
+    @SuppressWarnings("unchecked")
+    protected CompletionStage<Void> reportFailure(TaskEventImpl taskEvent, Throwable handlingException)
+    {
+        LOGGER.info("An error occurred when handling task " + taskEvent.getMetadata().getKey() +
+                ". Reporting failure to broker.", handlingException);
+
+        final ActorFuture<TaskEvent> failRequest;
+        try
+        {
+            failRequest = (ActorFuture<TaskEvent>) taskClient.fail(taskEvent)
+                .retries(taskEvent.getRetries() - 1)
+                .executeAsync();
+        }
+        catch (Exception failureException)
+        {
+            logFailureNotReported(taskEvent, failureException);
+            return COMPLETED;
+        }
+
+        return group.toCompletionStage(failRequest).handle((event, failureException) ->
+        {
+            if (failureException != null)
+            {
+                logFailureNotReported(taskEvent, failureException);
+            }
+            return null;
+        });
+    }
+
+    private void logFailureNotReported(TaskEventImpl taskEvent, Throwable failureException)
+    {
+        LOGGER.info("Could not report failure of task " + taskEvent.getMetadata().getKey() +
+            " to broker. Continuing with next task", failureException);
     }
 
     @Override
@@ -15,10 +15,14 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import java.util.concurrent.TimeUnit;
+
 import io.zeebe.client.impl.ZeebeClientImpl;
+import io.zeebe.client.task.AsyncTaskHandler;
 import io.zeebe.client.task.PollableTaskSubscription;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.client.task.TaskSubscription;
+import io.zeebe.util.metrics.Metric;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
 
@@ -41,7 +45,22 @@ public class TaskSubscriberGroup extends SubscriberGroup<TaskSubscriber> impleme
     @Override
     public int poll()
     {
-        return poll(subscription.getTaskHandler());
+        final AsyncTaskHandler asyncTaskHandler = subscription.getAsyncTaskHandler();
+
+        if (asyncTaskHandler != null)
+        {
+            int workCount = 0;
+            for (TaskSubscriber subscriber : subscribersList)
+            {
+                workCount += subscriber.pollEvents(asyncTaskHandler);
+            }
+
+            return workCount;
+        }
+        else
+        {
+            return poll(subscription.getTaskHandler());
+        }
     }
 
     @Override
@@ -76,6 +95,24 @@ public class TaskSubscriberGroup extends SubscriberGroup<TaskSubscriber> impleme
     @Override
     protected TaskSubscriber buildSubscriber(EventSubscriptionCreationResult result)
     {
+        AdaptiveCreditWindow creditWindow = null;
+
+        if (subscription.isAdaptiveCapacity())
+        {
+            final Metric windowMetric = client.getScheduler().getMetricsManager()
+                .newMetric("subscription_credit_window")
+                .type("gauge")
+                .label("topic", subscription.getTopic())
+                .label("partition", Integer.toString(result.getPartitionId()))
+                .label("taskType", subscription.getTaskType())
+                .create();
+
+            // tasks which wait longer are likely to lose their lock before they are handled
+            final long maxQueueTimeNanos = TimeUnit.MILLISECONDS.toNanos(subscription.getLockTime()) / 2;
+
+            creditWindow = new AdaptiveCreditWindow(subscription.getCapacity(), maxQueueTimeNanos, windowMetric);
+        }
+
         return new TaskSubscriber(
                 client.tasks(),
                 subscription,
@@ -84,7 +121,8 @@ public class TaskSubscriberGroup extends SubscriberGroup<TaskSubscriber> impleme
                 result.getPartitionId(),
                 this,
                 client.getMsgPackMapper(),
-                subscriptionManager);
+                subscriptionManager,
+                creditWindow);
     }
 
     @Override
@@ -18,6 +18,7 @@ package io.zeebe.client.task.impl.subscription;
 import java.util.concurrent.Future;
 
 import io.zeebe.client.ZeebeClient;
+import io.zeebe.client.task.AsyncTaskHandler;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.util.EnsureUtil;
 
@@ -29,7 +30,9 @@ public class TaskSubscriberGroupBuilder
     protected long lockTime = -1L;
     protected String lockOwner;
     protected TaskHandler taskHandler;
+    protected AsyncTaskHandler asyncTaskHandler;
     protected int taskFetchSize = DEFAULT_TASK_FETCH_SIZE;
+    protected boolean adaptiveTaskFetchSize = false;
 
     protected final ZeebeClient client;
     protected final SubscriptionManager taskAcquisition;
@@ -69,12 +72,24 @@ public class TaskSubscriberGroupBuilder
         return this;
     }
 
+    public TaskSubscriberGroupBuilder asyncTaskHandler(AsyncTaskHandler asyncTaskHandler)
+    {
+        this.asyncTaskHandler = asyncTaskHandler;
+        return this;
+    }
+
     public TaskSubscriberGroupBuilder taskFetchSize(int taskFetchSize)
     {
         this.taskFetchSize = taskFetchSize;
         return this;
     }
 
+    public TaskSubscriberGroupBuilder adaptiveTaskFetchSize(boolean adaptiveTaskFetchSize)
+    {
+        this.adaptiveTaskFetchSize = adaptiveTaskFetchSize;
+        return this;
+    }
+
     public Future<TaskSubscriberGroup> build()
     {
         EnsureUtil.ensureNotNullOrEmpty("taskType", taskType);
@@ -83,7 +98,7 @@ public class TaskSubscriberGroupBuilder
         EnsureUtil.ensureGreaterThan("taskFetchSize", taskFetchSize, 0);
 
         final TaskSubscriptionSpec subscription =
-                new TaskSubscriptionSpec(topic, taskHandler, taskType, lockTime, lockOwner, taskFetchSize);
+                new TaskSubscriptionSpec(topic, taskHandler, asyncTaskHandler, taskType, lockTime, lockOwner, taskFetchSize, adaptiveTaskFetchSize);
 
         return taskAcquisition.openTaskSubscription(subscription);
     }
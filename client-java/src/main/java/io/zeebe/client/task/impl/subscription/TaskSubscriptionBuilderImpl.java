@@ -16,19 +16,17 @@
 package io.zeebe.client.task.impl.subscription;
 
 import java.time.Duration;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.*;
 
 import io.zeebe.client.cmd.ClientException;
 import io.zeebe.client.impl.ZeebeClientImpl;
-import io.zeebe.client.task.TaskHandler;
-import io.zeebe.client.task.TaskSubscription;
-import io.zeebe.client.task.TaskSubscriptionBuilder;
+import io.zeebe.client.task.*;
 import io.zeebe.util.EnsureUtil;
 
 public class TaskSubscriptionBuilderImpl implements TaskSubscriptionBuilder
 {
     protected TaskHandler taskHandler;
+    protected AsyncTaskHandler asyncTaskHandler;
 
     protected final TaskSubscriberGroupBuilder subscriberBuilder;
 
@@ -64,6 +62,24 @@ public class TaskSubscriptionBuilderImpl implements TaskSubscriptionBuilder
     public TaskSubscriptionBuilder handler(TaskHandler handler)
     {
         this.taskHandler = handler;
+        this.asyncTaskHandler = null;
+        return this;
+    }
+
+    @Override
+    public TaskSubscriptionBuilder handler(TaskHandler handler, Executor executor)
+    {
+        EnsureUtil.ensureNotNull("taskHandler", handler);
+        EnsureUtil.ensureNotNull("executor", executor);
+
+        return asyncHandler((client, task) -> CompletableFuture.runAsync(() -> handler.handle(client, task), executor));
+    }
+
+    @Override
+    public TaskSubscriptionBuilder asyncHandler(AsyncTaskHandler handler)
+    {
+        this.asyncTaskHandler = handler;
+        this.taskHandler = null;
         return this;
     }
 
@@ -74,6 +90,13 @@ public class TaskSubscriptionBuilderImpl implements TaskSubscriptionBuilder
         return this;
     }
 
+    @Override
+    public TaskSubscriptionBuilder adaptiveTaskFetchSize()
+    {
+        subscriberBuilder.adaptiveTaskFetchSize(true);
+        return this;
+    }
+
     @Override
     public TaskSubscriptionBuilder lockOwner(String lockOwner)
     {
@@ -84,8 +107,15 @@ public class TaskSubscriptionBuilderImpl implements TaskSubscriptionBuilder
     @Override
     public TaskSubscription open()
     {
-        EnsureUtil.ensureNotNull("taskHandler", taskHandler);
-        subscriberBuilder.taskHandler(taskHandler);
+        if (asyncTaskHandler != null)
+        {
+            subscriberBuilder.asyncTaskHandler(asyncTaskHandler);
+        }
+        else
+        {
+            EnsureUtil.ensureNotNull("taskHandler", taskHandler);
+            subscriberBuilder.taskHandler(taskHandler);
+        }
 
         final Future<TaskSubscriberGroup> subscriberGroup = subscriberBuilder.build();
 
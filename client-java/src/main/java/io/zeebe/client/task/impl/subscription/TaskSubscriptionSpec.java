@@ -15,6 +15,7 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import io.zeebe.client.task.AsyncTaskHandler;
 import io.zeebe.client.task.TaskHandler;
 
 public class TaskSubscriptionSpec
@@ -22,25 +23,31 @@ public class TaskSubscriptionSpec
 
     protected final String topic;
     protected final TaskHandler taskHandler;
+    protected final AsyncTaskHandler asyncTaskHandler;
     protected final String taskType;
     protected final long lockTime;
     protected final String lockOwner;
     protected final int capacity;
+    protected final boolean adaptiveCapacity;
 
     public TaskSubscriptionSpec(
             String topic,
             TaskHandler taskHandler,
+            AsyncTaskHandler asyncTaskHandler,
             String taskType,
             long lockTime,
             String lockOwner,
-            int capacity)
+            int capacity,
+            boolean adaptiveCapacity)
     {
         this.topic = topic;
         this.taskHandler = taskHandler;
+        this.asyncTaskHandler = asyncTaskHandler;
         this.taskType = taskType;
         this.lockTime = lockTime;
         this.lockOwner = lockOwner;
         this.capacity = capacity;
+        this.adaptiveCapacity = adaptiveCapacity;
     }
 
     public String getTopic()
@@ -53,6 +60,11 @@ public class TaskSubscriptionSpec
         return taskHandler;
     }
 
+    public AsyncTaskHandler getAsyncTaskHandler()
+    {
+        return asyncTaskHandler;
+    }
+
     public String getTaskType()
     {
         return taskType;
@@ -73,9 +85,17 @@ public class TaskSubscriptionSpec
         return capacity;
     }
 
+    /**
+     * @return true if the capacity is the upper bound of an adaptive credit window
+     */
+    public boolean isAdaptiveCapacity()
+    {
+        return adaptiveCapacity;
+    }
+
     public boolean isManaged()
     {
-        return taskHandler != null;
+        return taskHandler != null || asyncTaskHandler != null;
     }
 
     @Override
@@ -85,7 +105,7 @@ public class TaskSubscriptionSpec
         builder.append("[topic=");
         builder.append(topic);
         builder.append(", taskHandler=");
-        builder.append(taskHandler);
+        builder.append(asyncTaskHandler != null ? asyncTaskHandler : taskHandler);
         builder.append(", taskType=");
         builder.append(taskType);
         builder.append(", lockTime=");
@@ -94,6 +114,8 @@ public class TaskSubscriptionSpec
         builder.append(lockOwner);
         builder.append(", capacity=");
         builder.append(capacity);
+        builder.append(", adaptiveCapacity=");
+        builder.append(adaptiveCapacity);
         builder.append("]");
         return builder.toString();
     }
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.topic;
+
+import io.zeebe.client.cmd.Request;
+import io.zeebe.client.event.Event;
+
+/**
+ * Creates a topic. The log settings of its partitions default to the configuration of the brokers.
+ */
+public interface CreateTopicCommand extends Request<Event>
+{
+    /**
+     * Set the size of the log segments in bytes.
+     */
+    CreateTopicCommand logSegmentSize(int logSegmentSize);
+
+    /**
+     * Set the number of bytes of the log which are covered by one entry of the block index.
+     * A smaller size makes reading from arbitrary positions (e.g. by topic subscriptions) faster
+     * on the expense of a larger index.
+     */
+    CreateTopicCommand indexBlockSize(int indexBlockSize);
+
+    /**
+     * Set the size of the buffer in bytes the events are written to before they are appended to the log.
+     */
+    CreateTopicCommand writeBufferSize(int writeBufferSize);
+
+    /**
+     * Set what happens to the log segments which are no longer required by the brokers.
+     */
+    CreateTopicCommand compactionPolicy(LogCompactionPolicy compactionPolicy);
+}
@@ -19,10 +19,12 @@ import io.zeebe.client.event.Event;
 import io.zeebe.client.event.impl.EventImpl;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.impl.cmd.CommandImpl;
+import io.zeebe.client.topic.CreateTopicCommand;
+import io.zeebe.client.topic.LogCompactionPolicy;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.util.EnsureUtil;
 
-public class CreateTopicCommandImpl extends CommandImpl<Event>
+public class CreateTopicCommandImpl extends CommandImpl<Event> implements CreateTopicCommand
 {
 
     protected final TopicEventImpl event;
@@ -38,6 +40,38 @@ public class CreateTopicCommandImpl extends CommandImpl<Event>
     }
 
 
+    @Override
+    public CreateTopicCommand logSegmentSize(int logSegmentSize)
+    {
+        EnsureUtil.ensureGreaterThan("logSegmentSize", logSegmentSize, 0);
+        this.event.setLogSegmentSize(logSegmentSize);
+        return this;
+    }
+
+    @Override
+    public CreateTopicCommand indexBlockSize(int indexBlockSize)
+    {
+        EnsureUtil.ensureGreaterThan("indexBlockSize", indexBlockSize, 0);
+        this.event.setIndexBlockSize(indexBlockSize);
+        return this;
+    }
+
+    @Override
+    public CreateTopicCommand writeBufferSize(int writeBufferSize)
+    {
+        EnsureUtil.ensureGreaterThan("writeBufferSize", writeBufferSize, 0);
+        this.event.setWriteBufferSize(writeBufferSize);
+        return this;
+    }
+
+    @Override
+    public CreateTopicCommand compactionPolicy(LogCompactionPolicy compactionPolicy)
+    {
+        EnsureUtil.ensureNotNull("compactionPolicy", compactionPolicy);
+        this.event.setCompactionPolicy(compactionPolicy.name());
+        return this;
+    }
+
     @Override
     public EventImpl getEvent()
     {
@@ -26,6 +26,12 @@ public class TopicEventImpl extends EventImpl
     protected final String name;
     protected final int partitions;
 
+    // not set if the broker's configuration applies
+    protected Integer logSegmentSize;
+    protected Integer indexBlockSize;
+    protected Integer writeBufferSize;
+    protected String compactionPolicy;
+
     @JsonCreator
     public TopicEventImpl(
             @JsonProperty("state") String state,
@@ -47,4 +53,44 @@ public class TopicEventImpl extends EventImpl
         return partitions;
     }
 
+    public Integer getLogSegmentSize()
+    {
+        return logSegmentSize;
+    }
+
+    public void setLogSegmentSize(Integer logSegmentSize)
+    {
+        this.logSegmentSize = logSegmentSize;
+    }
+
+    public Integer getIndexBlockSize()
+    {
+        return indexBlockSize;
+    }
+
+    public void setIndexBlockSize(Integer indexBlockSize)
+    {
+        this.indexBlockSize = indexBlockSize;
+    }
+
+    public Integer getWriteBufferSize()
+    {
+        return writeBufferSize;
+    }
+
+    public void setWriteBufferSize(Integer writeBufferSize)
+    {
+        this.writeBufferSize = writeBufferSize;
+    }
+
+    public String getCompactionPolicy()
+    {
+        return compactionPolicy;
+    }
+
+    public void setCompactionPolicy(String compactionPolicy)
+    {
+        this.compactionPolicy = compactionPolicy;
+    }
+
 }
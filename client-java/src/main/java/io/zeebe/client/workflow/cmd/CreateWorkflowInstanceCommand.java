@@ -16,6 +16,7 @@
 package io.zeebe.client.workflow.cmd;
 
 import java.io.InputStream;
+import java.time.Duration;
 
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.WorkflowInstanceEvent;
@@ -82,4 +83,21 @@ public interface CreateWorkflowInstanceCommand extends Request<WorkflowInstanceE
      * Set the payload of the command as JSON string.
      */
     CreateWorkflowInstanceCommand payload(String payload);
+
+    /**
+     * Waits until the created workflow instance has ended instead of returning
+     * as soon as it is created. The command then returns the
+     * <code>WORKFLOW_INSTANCE_COMPLETED</code> event, carrying the final
+     * payload, or the <code>WORKFLOW_INSTANCE_CANCELED</code> event.
+     *
+     * If the instance has not ended within the given timeout, the command
+     * returns the <code>WORKFLOW_INSTANCE_CREATED</code> event and the
+     * instance continues to run. The request timeout of the client is
+     * extended by the given timeout.
+     *
+     * @param timeout
+     *            the maximum time to wait for the instance to end
+     * @return the current create command
+     */
+    CreateWorkflowInstanceCommand awaitCompletion(Duration timeout);
 }
@@ -16,6 +16,7 @@
 package io.zeebe.client.workflow.impl;
 
 import java.io.InputStream;
+import java.time.Duration;
 
 import io.zeebe.client.event.WorkflowInstanceEvent;
 import io.zeebe.client.event.impl.EventImpl;
@@ -84,6 +85,25 @@ public class CreateWorkflowInstanceCommandImpl extends CommandImpl<WorkflowInsta
         return this;
     }
 
+    @Override
+    public CreateWorkflowInstanceCommand awaitCompletion(Duration timeout)
+    {
+        if (timeout.isNegative() || timeout.isZero())
+        {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+
+        this.workflowInstanceEvent.setAwaitCompletionTimeout(timeout.toMillis());
+        return this;
+    }
+
+    @Override
+    public Duration getResponseDelay()
+    {
+        final long awaitCompletionTimeout = workflowInstanceEvent.getAwaitCompletionTimeout();
+        return awaitCompletionTimeout > 0 ? Duration.ofMillis(awaitCompletionTimeout) : Duration.ZERO;
+    }
+
     @Override
     public EventImpl getEvent()
     {
@@ -96,6 +116,21 @@ public class CreateWorkflowInstanceCommandImpl extends CommandImpl<WorkflowInsta
         return WorkflowInstanceEventType.WORKFLOW_INSTANCE_CREATED.name();
     }
 
+    @Override
+    public boolean isExpectedStatus(String state)
+    {
+        if (workflowInstanceEvent.getAwaitCompletionTimeout() > 0)
+        {
+            return WorkflowInstanceEventType.WORKFLOW_INSTANCE_COMPLETED.name().equals(state)
+                    || WorkflowInstanceEventType.WORKFLOW_INSTANCE_CANCELED.name().equals(state)
+                    || WorkflowInstanceEventType.WORKFLOW_INSTANCE_CREATED.name().equals(state);
+        }
+        else
+        {
+            return super.isExpectedStatus(state);
+        }
+    }
+
     @Override
     public String generateError(WorkflowInstanceEvent request, WorkflowInstanceEvent responseEvent)
     {
@@ -36,6 +36,7 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
     protected long workflowInstanceKey = -1L;
     protected String activityId;
     protected final MsgPackField payload;
+    protected long awaitCompletionTimeout = -1L;
 
     @JsonCreator
     public WorkflowInstanceEventImpl(@JsonProperty("state") String state, @JacksonInject MsgPackConverter converter)
@@ -128,6 +129,31 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
         this.payload.setJson(json);
     }
 
+    /**
+     * @return the time in milliseconds the broker holds back the response of a create
+     *         command until the instance is completed, or -1 to respond on creation
+     */
+    @JsonIgnore
+    public long getAwaitCompletionTimeout()
+    {
+        return awaitCompletionTimeout;
+    }
+
+    /**
+     * @return the await completion timeout if it is set, i.e. only on a create command which
+     *         awaits the completion, otherwise null so that it is not written
+     */
+    @JsonProperty("awaitCompletionTimeout")
+    public Long getAwaitCompletionTimeoutIfSet()
+    {
+        return awaitCompletionTimeout > 0 ? awaitCompletionTimeout : null;
+    }
+
+    public void setAwaitCompletionTimeout(long awaitCompletionTimeout)
+    {
+        this.awaitCompletionTimeout = awaitCompletionTimeout;
+    }
+
     @Override
     public long getWorkflowKey()
     {
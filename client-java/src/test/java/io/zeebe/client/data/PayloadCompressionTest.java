@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.PayloadCompression;
+import io.zeebe.client.task.impl.subscription.MsgPackField;
+
+public class PayloadCompressionTest
+{
+    protected static final String JSON = "{\"key1\":\"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\"}";
+
+    protected MsgPackConverter converter = new MsgPackConverter();
+
+    @Test
+    public void shouldDecompressCompressedPayload()
+    {
+        // given
+        final byte[] msgPack = converter.convertToMsgPack(JSON);
+        final byte[] compressed = compress(msgPack);
+
+        // when
+        final byte[] decompressed = PayloadCompression.decompress(compressed);
+
+        // then
+        assertThat(PayloadCompression.isCompressed(compressed)).isTrue();
+        assertThat(decompressed).isEqualTo(msgPack);
+    }
+
+    @Test
+    public void shouldNotDecompressUncompressedPayload()
+    {
+        // given
+        final byte[] msgPack = converter.convertToMsgPack(JSON);
+
+        // when
+        final byte[] result = PayloadCompression.decompress(msgPack);
+
+        // then
+        assertThat(result).isSameAs(msgPack);
+    }
+
+    @Test
+    public void shouldProvideCompressedPayloadAsJson()
+    {
+        // given
+        final MsgPackField field = new MsgPackField(converter);
+        final byte[] msgPack = converter.convertToMsgPack(JSON);
+
+        // when
+        field.setMsgPack(compress(msgPack));
+
+        // then
+        assertThat(field.getAsJson()).isEqualTo(JSON);
+        assertThat(field.getMsgPack()).isEqualTo(msgPack);
+    }
+
+    protected static byte[] compress(byte[] payload)
+    {
+        final Deflater deflater = new Deflater();
+        deflater.setInput(payload);
+        deflater.finish();
+
+        final byte[] buffer = new byte[payload.length + 64];
+        final int length = deflater.deflate(buffer);
+        deflater.end();
+
+        return ByteBuffer.allocate(5 + length)
+            .put(PayloadCompression.COMPRESSED_PAYLOAD_MARKER)
+            .putInt(payload.length)
+            .put(buffer, 0, length)
+            .array();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import io.zeebe.client.event.impl.ContiguousPositionTracker;
+import io.zeebe.client.event.impl.ContiguousPositionTracker.PendingPosition;
+
+public class ContiguousPositionTrackerTest
+{
+
+    @Test
+    public void shouldStartAtInitialPosition()
+    {
+        // given
+        final ContiguousPositionTracker tracker = new ContiguousPositionTracker(5L);
+
+        // when
+        tracker.track(6L);
+
+        // then
+        assertThat(tracker.getCompletedPosition()).isEqualTo(5L);
+    }
+
+    @Test
+    public void shouldAdvanceToHighestContiguousCompletedPosition()
+    {
+        // given
+        final ContiguousPositionTracker tracker = new ContiguousPositionTracker(0L);
+
+        final PendingPosition first = tracker.track(1L);
+        final PendingPosition second = tracker.track(2L);
+        final PendingPosition third = tracker.track(3L);
+
+        // when
+        tracker.complete(third);
+        tracker.complete(second);
+
+        // then
+        assertThat(tracker.getCompletedPosition()).isEqualTo(0L);
+
+        // and when
+        tracker.complete(first);
+
+        // then
+        assertThat(tracker.getCompletedPosition()).isEqualTo(3L);
+    }
+
+    @Test
+    public void shouldNotAdvanceBeyondIncompletePosition()
+    {
+        // given
+        final ContiguousPositionTracker tracker = new ContiguousPositionTracker(0L);
+
+        final PendingPosition first = tracker.track(1L);
+        tracker.track(2L);
+        final PendingPosition third = tracker.track(3L);
+
+        // when
+        tracker.complete(first);
+        tracker.complete(third);
+
+        // then
+        assertThat(tracker.getCompletedPosition()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldCountEventsOfCompletedPosition()
+    {
+        // given
+        final ContiguousPositionTracker tracker = new ContiguousPositionTracker(0L);
+
+        final PendingPosition first = tracker.track(1L);
+        final PendingPosition second = tracker.track(2L);
+        final PendingPosition third = tracker.track(3L);
+
+        // when
+        tracker.complete(second);
+        tracker.complete(third);
+
+        // then
+        assertThat(tracker.takeCompletedEvents()).isEqualTo(0);
+
+        // and when
+        tracker.complete(first);
+
+        // then
+        assertThat(tracker.takeCompletedEvents()).isEqualTo(3);
+        assertThat(tracker.takeCompletedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotAdvanceBeyondFailedPosition()
+    {
+        // given
+        final ContiguousPositionTracker tracker = new ContiguousPositionTracker(0L);
+
+        final PendingPosition first = tracker.track(1L);
+        final PendingPosition second = tracker.track(2L);
+        final PendingPosition third = tracker.track(3L);
+
+        tracker.complete(first);
+
+        // when
+        tracker.fail(second);
+        tracker.complete(third);
+
+        // then
+        assertThat(tracker.getCompletedPosition()).isEqualTo(1L);
+    }
+}
@@ -74,7 +74,9 @@ public class PartitionedTopicSubscriptionTest
         final Topology topology = new Topology()
             .addLeader(broker1, Protocol.SYSTEM_TOPIC, Protocol.SYSTEM_PARTITION)
             .addLeader(broker1, TOPIC, PARTITION_1)
-            .addLeader(broker2, TOPIC, PARTITION_2);
+            .addLeader(broker2, TOPIC, PARTITION_2)
+            .addFollower(broker2, TOPIC, PARTITION_1)
+            .addFollower(broker1, TOPIC, PARTITION_2);
 
         broker1.setCurrentTopology(topology);
         broker2.setCurrentTopology(topology);
@@ -109,6 +111,60 @@ public class PartitionedTopicSubscriptionTest
         assertThat(request2.partitionId()).isEqualTo(PARTITION_2);
     }
 
+    @Test
+    public void shouldSubscribeToFollowersOfPartitions()
+    {
+        // given
+        broker1.stubTopicSubscriptionApi(456);
+        broker2.stubTopicSubscriptionApi(789);
+
+        // when
+        final TopicSubscription subscription = client.topics().newSubscription(TOPIC)
+            .handler(new RecordingEventHandler())
+            .name("hohoho")
+            .preferFollowers()
+            .open();
+
+        // then
+        assertThat(subscription.isOpen()).isTrue();
+
+        final List<ExecuteCommandRequest> subscribeRequestsBroker1 = getSubscribeRequests(broker1);
+        assertThat(subscribeRequestsBroker1).hasSize(1);
+        assertThat(subscribeRequestsBroker1.get(0).partitionId()).isEqualTo(PARTITION_2);
+
+        final List<ExecuteCommandRequest> subscribeRequestsBroker2 = getSubscribeRequests(broker2);
+        assertThat(subscribeRequestsBroker2).hasSize(1);
+        assertThat(subscribeRequestsBroker2.get(0).partitionId()).isEqualTo(PARTITION_1);
+    }
+
+    @Test
+    public void shouldCloseFollowerSubscriptionsAtFollowers()
+    {
+        // given
+        final int subscriberKey1 = 456;
+        broker1.stubTopicSubscriptionApi(subscriberKey1);
+        final int subscriberKey2 = 789;
+        broker2.stubTopicSubscriptionApi(subscriberKey2);
+
+        final TopicSubscription subscription = client.topics().newSubscription(TOPIC)
+                .handler(new RecordingEventHandler())
+                .name("hohoho")
+                .preferFollowers()
+                .open();
+
+        // when
+        subscription.close();
+
+        // then
+        final List<ControlMessageRequest> closeRequestsBroker1 = getCloseSubscriptionRequests(broker1);
+        assertThat(closeRequestsBroker1).hasSize(1);
+        assertThat(closeRequestsBroker1.get(0).partitionId()).isEqualTo(PARTITION_2);
+
+        final List<ControlMessageRequest> closeRequestsBroker2 = getCloseSubscriptionRequests(broker2);
+        assertThat(closeRequestsBroker2).hasSize(1);
+        assertThat(closeRequestsBroker2.get(0).partitionId()).isEqualTo(PARTITION_1);
+    }
+
     protected List<ExecuteCommandRequest> getSubscribeRequests(StubBrokerRule broker)
     {
         return broker.getReceivedCommandRequests().stream()
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -1022,6 +1023,61 @@ public class TopicSubscriptionTest
         assertThat(numCloseRequests).isEqualTo(1); // did not attempt to close more than once
     }
 
+    @Test
+    public void shouldAcknowledgeWhenSlowHeadEventCompletesWithSaturatedPrefetchCapacity() throws Exception
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger handledEvents = new AtomicInteger(0);
+
+        final TopicSubscription subscription = clientRule.topics().newSubscription(clientRule.getDefaultTopicName())
+            .startAtHeadOfTopic()
+            .handler(e ->
+            {
+                if (e.getMetadata().getPosition() == 1L)
+                {
+                    latch.await();
+                }
+                handledEvents.incrementAndGet();
+            })
+            .parallelism(2)
+            .orderingKey(e -> e.getMetadata().getPosition() == 1L ? 0 : 1)
+            .name(SUBSCRIPTION_NAME)
+            .open();
+
+        final RemoteAddress clientAddress = broker.getReceivedCommandRequests().get(0).getSource();
+        final int subscriptionCapacity = ((ZeebeClientImpl) client).getSubscriptionPrefetchCapacity();
+
+        // the slow event holds back the acknowledgement of all following events
+        for (int i = 1; i <= subscriptionCapacity; i++)
+        {
+            broker.pushTopicEvent(clientAddress, 123L, i, i);
+        }
+        waitUntil(() -> handledEvents.get() == subscriptionCapacity - 1);
+
+        Thread.sleep(500L); // waiting for potentially premature acknowledgements
+        assertThat(receivedAcknowledgements()).isEmpty();
+
+        // when
+        latch.countDown();
+
+        // then
+        waitUntil(() -> receivedAcknowledgements().stream()
+            .anyMatch(a -> ((Number) a.getCommand().get("ackPosition")).longValue() == subscriptionCapacity));
+
+        subscription.close();
+    }
+
+    protected List<ExecuteCommandRequest> receivedAcknowledgements()
+    {
+        return broker.getReceivedCommandRequests().stream()
+            .filter((c) -> c.eventType() == EventType.SUBSCRIPTION_EVENT)
+            .filter((c) -> "ACKNOWLEDGE".equals(c.getCommand().get("state")))
+            .collect(Collectors.toList());
+    }
+
     protected void assertMetadata(Event actualEvent, long expectedKey, long expectedPosition,
             TopicEventType expectedType)
     {
@@ -1119,4 +1175,86 @@ public class TopicSubscriptionTest
         }
 
     }
+
+    @Test
+    public void shouldHandleEventsWithDifferentOrderingKeysInParallel() throws Exception
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Long> handledPositions = new CopyOnWriteArrayList<>();
+
+        final TopicSubscription subscription = clientRule.topics().newSubscription(clientRule.getDefaultTopicName())
+            .startAtHeadOfTopic()
+            .handler(e ->
+            {
+                if (e.getMetadata().getKey() == 1L)
+                {
+                    latch.await();
+                }
+                handledPositions.add(e.getMetadata().getPosition());
+            })
+            .parallelism(2)
+            .orderingKey(e -> e.getMetadata().getKey())
+            .name(SUBSCRIPTION_NAME)
+            .open();
+
+        final RemoteAddress clientAddress = broker.getReceivedCommandRequests().get(0).getSource();
+
+        // when
+        broker.pushTopicEvent(clientAddress, 123L, 1L, 1L);
+        broker.pushTopicEvent(clientAddress, 123L, 2L, 2L);
+        broker.pushTopicEvent(clientAddress, 123L, 1L, 3L);
+        broker.pushTopicEvent(clientAddress, 123L, 2L, 4L);
+
+        // then
+        waitUntil(() -> handledPositions.size() == 2);
+        assertThat(handledPositions).containsExactly(2L, 4L);
+
+        // and when
+        latch.countDown();
+
+        // then
+        waitUntil(() -> handledPositions.size() == 4);
+        assertThat(handledPositions).containsExactly(2L, 4L, 1L, 3L);
+
+        subscription.close();
+    }
+
+    @Test
+    public void shouldAcknowledgeOnlyContiguouslyHandledEventsWhenHandlingInParallel()
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        final FailingHandler handler = new FailingHandler(e -> e.getMetadata().getPosition() == 2L);
+        final TopicSubscription subscription = clientRule.topics().newSubscription(clientRule.getDefaultTopicName())
+            .startAtHeadOfTopic()
+            .handler(handler)
+            .parallelism(2)
+            .orderingKey(e -> e.getMetadata().getKey())
+            .name(SUBSCRIPTION_NAME)
+            .open();
+
+        final RemoteAddress clientAddress = broker.getReceivedCommandRequests().get(0).getSource();
+
+        // when
+        broker.pushTopicEvent(clientAddress, 123L, 1L, 1L);
+        broker.pushTopicEvent(clientAddress, 123L, 2L, 2L);
+        broker.pushTopicEvent(clientAddress, 123L, 3L, 3L);
+
+        // then
+        waitUntil(() -> subscription.isClosed());
+
+        final List<ExecuteCommandRequest> acknowledgements = broker.getReceivedCommandRequests().stream()
+            .filter((c) -> c.eventType() == EventType.SUBSCRIPTION_EVENT)
+            .filter((c) -> "ACKNOWLEDGE".equals(c.getCommand().get("state")))
+            .collect(Collectors.toList());
+
+        assertThat(acknowledgements).isNotEmpty();
+
+        final ExecuteCommandRequest lastAck = acknowledgements.get(acknowledgements.size() - 1);
+        assertThat(lastAck.getCommand().get("ackPosition")).isEqualTo(1);
+    }
 }
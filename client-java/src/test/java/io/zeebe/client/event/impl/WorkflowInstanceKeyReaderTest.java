@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.event.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+
+public class WorkflowInstanceKeyReaderTest
+{
+
+    @Test
+    public void shouldReadWorkflowInstanceKeyProperty() throws Exception
+    {
+        // given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MessagePacker packer = MessagePack.newDefaultPacker(out);
+        packer.packMapHeader(3);
+        packer.packString("state").packString("ACTIVITY_READY");
+        packer.packString("payload").packBinaryHeader(3).writePayload(new byte[] {1, 2, 3});
+        packer.packString("workflowInstanceKey").packLong(42L);
+
+        // when
+        final long key = WorkflowInstanceKeyReader.readWorkflowInstanceKey(toByteArray(packer, out));
+
+        // then
+        assertThat(key).isEqualTo(42L);
+    }
+
+    @Test
+    public void shouldReadWorkflowInstanceKeyOfTaskHeaders() throws Exception
+    {
+        // given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MessagePacker packer = MessagePack.newDefaultPacker(out);
+        packer.packMapHeader(3);
+        packer.packString("headers").packMapHeader(2);
+        packer.packString("bpmnProcessId").packString("process");
+        packer.packString("workflowInstanceKey").packLong(42L);
+        packer.packString("customHeaders").packMapHeader(1);
+        packer.packString("workflowInstanceKey").packLong(13L);
+        packer.packString("retries").packInt(3);
+
+        // when
+        final long key = WorkflowInstanceKeyReader.readWorkflowInstanceKey(toByteArray(packer, out));
+
+        // then
+        assertThat(key).isEqualTo(42L);
+    }
+
+    @Test
+    public void shouldPreferWorkflowInstanceKeyPropertyOverHeaders() throws Exception
+    {
+        // given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MessagePacker packer = MessagePack.newDefaultPacker(out);
+        packer.packMapHeader(2);
+        packer.packString("headers").packMapHeader(1);
+        packer.packString("workflowInstanceKey").packLong(13L);
+        packer.packString("workflowInstanceKey").packLong(42L);
+
+        // when
+        final long key = WorkflowInstanceKeyReader.readWorkflowInstanceKey(toByteArray(packer, out));
+
+        // then
+        assertThat(key).isEqualTo(42L);
+    }
+
+    @Test
+    public void shouldReturnMissingKeyIfEventHasNone() throws Exception
+    {
+        // given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MessagePacker packer = MessagePack.newDefaultPacker(out);
+        packer.packMapHeader(2);
+        packer.packString("workflowInstanceKey").packNil();
+        packer.packString("headers").packNil();
+
+        // when
+        final long key = WorkflowInstanceKeyReader.readWorkflowInstanceKey(toByteArray(packer, out));
+
+        // then
+        assertThat(key).isEqualTo(-1L);
+    }
+
+    protected static byte[] toByteArray(MessagePacker packer, ByteArrayOutputStream out) throws IOException
+    {
+        packer.close();
+        return out.toByteArray();
+    }
+}
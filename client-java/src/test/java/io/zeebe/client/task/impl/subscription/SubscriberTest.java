@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task.impl.subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.client.event.TopicEventType;
+import io.zeebe.client.event.impl.GeneralEventImpl;
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.util.sched.ActorCondition;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+
+public class SubscriberTest
+{
+    private static final int CAPACITY = 16;
+
+    private final MsgPackConverter msgPackConverter = new MsgPackConverter();
+
+    private AdaptiveCreditWindow creditWindow;
+    private ActorCondition replenishmentTrigger;
+    private ActorCondition eventsProcessedTrigger;
+    private RecordingSubscriber subscriber;
+
+    @Before
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void setUp()
+    {
+        creditWindow = mock(AdaptiveCreditWindow.class);
+        replenishmentTrigger = mock(ActorCondition.class);
+        eventsProcessedTrigger = mock(ActorCondition.class);
+
+        final SubscriberGroup group = mock(SubscriberGroup.class);
+        when(group.buildReplenishmentTrigger(any())).thenReturn(replenishmentTrigger);
+        when(group.buildEventsProcessedTrigger(any())).thenReturn(eventsProcessedTrigger);
+
+        subscriber = new RecordingSubscriber(group, creditWindow);
+    }
+
+    @Test
+    public void shouldWithholdCreditsBeyondWindow()
+    {
+        // given
+        when(creditWindow.getWindow()).thenReturn(CAPACITY / 4);
+
+        addEvents(CAPACITY);
+        subscriber.pollEvents(e ->
+        { });
+
+        // when
+        subscriber.replenishEventSource();
+
+        // then
+        assertThat(subscriber.requestedCredits).containsExactly(CAPACITY / 4);
+        assertThat(subscriber.withheldCredits.get()).isEqualTo(CAPACITY - CAPACITY / 4);
+    }
+
+    @Test
+    public void shouldNotGrantWithheldCreditsWhileWindowIsInUse()
+    {
+        // given
+        when(creditWindow.getWindow()).thenReturn(CAPACITY / 4);
+
+        addEvents(CAPACITY);
+        subscriber.pollEvents(e ->
+        { });
+        subscriber.replenishEventSource();
+
+        // when
+        final ActorFuture<?> replenishment = subscriber.replenishEventSource();
+
+        // then
+        assertThat(replenishment.isDone()).isTrue();
+        assertThat(subscriber.requestedCredits).containsExactly(CAPACITY / 4);
+        assertThat(subscriber.withheldCredits.get()).isEqualTo(CAPACITY - CAPACITY / 4);
+    }
+
+    @Test
+    public void shouldGrantWithheldCreditsWhenWindowGrows()
+    {
+        // given
+        when(creditWindow.getWindow()).thenReturn(CAPACITY / 4);
+
+        addEvents(CAPACITY);
+        subscriber.pollEvents(e ->
+        { });
+        subscriber.replenishEventSource();
+
+        reset(replenishmentTrigger);
+
+        // when the events of the granted credits are handled quickly
+        when(creditWindow.onEventHandled(anyLong())).thenReturn(true);
+        when(creditWindow.getWindow()).thenReturn(CAPACITY);
+
+        // the events are processed asynchronously, so only the grown window can trigger a replenishment
+        final CompletableFuture<Void> processing = new CompletableFuture<>();
+
+        addEvents(CAPACITY / 4);
+        subscriber.pollEventsAsync(e -> processing);
+
+        // then
+        verify(replenishmentTrigger, atLeastOnce()).signal();
+
+        // and the withheld credits are granted
+        processing.complete(null);
+        subscriber.replenishEventSource();
+
+        assertThat(subscriber.requestedCredits).containsExactly(CAPACITY / 4, CAPACITY);
+        assertThat(subscriber.withheldCredits.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSignalWhenLastEventInProcessingCompletesAfterDisable()
+    {
+        // given
+        final CompletableFuture<Void> firstProcessing = new CompletableFuture<>();
+        final CompletableFuture<Void> secondProcessing = new CompletableFuture<>();
+
+        addEvents(1);
+        subscriber.pollEventsAsync(e -> firstProcessing);
+        addEvents(1);
+        subscriber.pollEventsAsync(e -> secondProcessing);
+
+        subscriber.disable();
+        reset(replenishmentTrigger);
+
+        // when
+        firstProcessing.complete(null);
+
+        // then
+        assertThat(subscriber.hasEventsInProcessing()).isTrue();
+        verify(eventsProcessedTrigger, never()).signal();
+
+        // when
+        secondProcessing.complete(null);
+
+        // then
+        assertThat(subscriber.hasEventsInProcessing()).isFalse();
+        verify(eventsProcessedTrigger).signal();
+        verify(replenishmentTrigger, never()).signal();
+    }
+
+    private void addEvents(int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            subscriber.addEvent(new GeneralEventImpl(0, i, i, TopicEventType.TASK, new byte[0], msgPackConverter));
+        }
+    }
+
+    private static class RecordingSubscriber extends Subscriber
+    {
+        private final List<Integer> requestedCredits = new ArrayList<>();
+
+        @SuppressWarnings("rawtypes")
+        RecordingSubscriber(SubscriberGroup group, AdaptiveCreditWindow creditWindow)
+        {
+            super(1L, 0, CAPACITY, null, group, null, creditWindow);
+        }
+
+        @Override
+        protected ActorFuture<?> requestEventSourceReplenishment(int credits)
+        {
+            requestedCredits.add(credits);
+            return CompletableActorFuture.completed(null);
+        }
+
+        @Override
+        protected ActorFuture<Void> requestSubscriptionClose()
+        {
+            return CompletableActorFuture.completed(null);
+        }
+
+        @Override
+        public String getTopicName()
+        {
+            return "test-topic";
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task.subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.client.task.impl.subscription.AdaptiveCreditWindow;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+
+public class AdaptiveCreditWindowTest
+{
+    private static final int MAX_WINDOW = 32;
+
+    private static final long ROUND_TRIP = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_QUEUE_TIME = TimeUnit.SECONDS.toNanos(1);
+
+    private Metric metric;
+    private AdaptiveCreditWindow window;
+
+    @Before
+    public void setUp()
+    {
+        metric = new MetricsManager("test_", new HashMap<>())
+            .newMetric("subscription_credit_window")
+            .type("gauge")
+            .create();
+        window = new AdaptiveCreditWindow(MAX_WINDOW, MAX_QUEUE_TIME, metric);
+    }
+
+    @Test
+    public void shouldStartWithMaxWindow()
+    {
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW);
+    }
+
+    @Test
+    public void shouldHalveWindowIfEventsWaitLongerThanRoundTrip()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+
+        // when
+        handleEvents(MAX_WINDOW, 3 * ROUND_TRIP);
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+    }
+
+    @Test
+    public void shouldHalveWindowIfEventsWaitLongerThanMaxQueueTime()
+    {
+        // when
+        handleEvents(MAX_WINDOW, 2 * MAX_QUEUE_TIME);
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+    }
+
+    @Test
+    public void shouldKeepWindowIfEventsAreHandledInTime()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+
+        // when
+        handleEvents(MAX_WINDOW * 4, ROUND_TRIP / 2);
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW);
+    }
+
+    @Test
+    public void shouldAdjustAtMostOncePerWindow()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+
+        // when
+        handleEvents(MAX_WINDOW + MAX_WINDOW / 2 - 1, 3 * ROUND_TRIP);
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+    }
+
+    @Test
+    public void shouldNotShrinkBelowOne()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+
+        // when
+        handleEvents(MAX_WINDOW * 4, 3 * ROUND_TRIP);
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldGrowWindowIfStarved()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+        handleEvents(MAX_WINDOW + MAX_WINDOW / 2, 3 * ROUND_TRIP);
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 4);
+
+        // when
+        handleEvents(MAX_WINDOW / 4, ROUND_TRIP / 2);
+        final boolean hasGrown = window.onStarved();
+
+        // then
+        assertThat(hasGrown).isTrue();
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 4 + MAX_WINDOW / 8);
+    }
+
+    @Test
+    public void shouldGrowWindowUpToMaxWindow()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+        handleEvents(MAX_WINDOW, 3 * ROUND_TRIP);
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+
+        handleEvents(MAX_WINDOW / 2, ROUND_TRIP / 2);
+        window.onStarved();
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2 + MAX_WINDOW / 4);
+
+        // when
+        handleEvents(MAX_WINDOW, ROUND_TRIP / 2);
+        window.onStarved();
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW);
+    }
+
+    @Test
+    public void shouldNotGrowBeforeWindowIsHandled()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+        handleEvents(MAX_WINDOW, 3 * ROUND_TRIP);
+
+        // when
+        final boolean hasGrown = window.onStarved();
+
+        // then
+        assertThat(hasGrown).isFalse();
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMaxWindow()
+    {
+        // given
+        handleEvents(MAX_WINDOW, 0);
+
+        // when
+        final boolean hasGrown = window.onStarved();
+
+        // then
+        assertThat(hasGrown).isFalse();
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW);
+    }
+
+    @Test
+    public void shouldGrowWindowOnSustainedLowQueueTime()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+        handleEvents(MAX_WINDOW, 3 * ROUND_TRIP);
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+
+        // when
+        final boolean hasGrown = handleEvents(MAX_WINDOW / 2, 0);
+
+        // then
+        assertThat(hasGrown).isTrue();
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2 + MAX_WINDOW / 8);
+    }
+
+    @Test
+    public void shouldRecoverToMaxWindowOnSustainedLowQueueTime()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+        handleEvents(MAX_WINDOW * 4, 3 * ROUND_TRIP);
+        assertThat(window.getWindow()).isEqualTo(1);
+
+        // when
+        handleEvents(MAX_WINDOW * 8, 0);
+
+        // then
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW);
+    }
+
+    @Test
+    public void shouldGrowOnLowQueueTimeRelativeToMaxQueueTime()
+    {
+        // given
+        handleEvents(MAX_WINDOW, 2 * MAX_QUEUE_TIME);
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+
+        // when
+        final boolean hasGrown = handleEvents(MAX_WINDOW / 2, 0);
+
+        // then
+        assertThat(hasGrown).isTrue();
+        assertThat(window.getWindow()).isGreaterThan(MAX_WINDOW / 2);
+    }
+
+    @Test
+    public void shouldNotGrowOnModerateQueueTime()
+    {
+        // given
+        window.onRoundTrip(ROUND_TRIP);
+        handleEvents(MAX_WINDOW, 3 * ROUND_TRIP);
+
+        // when
+        final boolean hasGrown = handleEvents(MAX_WINDOW * 4, ROUND_TRIP / 2);
+
+        // then
+        assertThat(hasGrown).isFalse();
+        assertThat(window.getWindow()).isEqualTo(MAX_WINDOW / 2);
+    }
+
+    /**
+     * @return true if the window has grown on any of the events
+     */
+    private boolean handleEvents(int count, long queueTime)
+    {
+        boolean hasGrown = false;
+
+        for (int i = 0; i < count; i++)
+        {
+            hasGrown |= window.onEventHandled(queueTime);
+        }
+
+        return hasGrown;
+    }
+}
@@ -26,6 +26,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -50,10 +52,12 @@ import io.zeebe.client.event.TaskEvent;
 import io.zeebe.client.impl.TasksClientImpl;
 import io.zeebe.client.impl.ZeebeClientImpl;
 import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.task.AsyncTaskHandler;
 import io.zeebe.client.task.PollableTaskSubscription;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.client.task.TaskSubscription;
 import io.zeebe.client.task.impl.subscription.Subscriber;
+import io.zeebe.client.task.impl.subscription.TaskSubscriberGroup;
 import io.zeebe.client.util.ClientRule;
 import io.zeebe.protocol.clientapi.ControlMessageType;
 import io.zeebe.protocol.clientapi.ErrorCode;
@@ -65,6 +69,7 @@ import io.zeebe.test.broker.protocol.brokerapi.ExecuteCommandRequest;
 import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
 import io.zeebe.test.util.TestUtil;
 import io.zeebe.transport.RemoteAddress;
+import io.zeebe.util.sched.future.ActorFuture;
 
 public class TaskSubscriptionTest
 {
@@ -913,6 +918,142 @@ public class TaskSubscriptionTest
         assertThat(totalReplenishedCredits).isGreaterThanOrEqualTo(tasksToHandleBeforeReplenishment + 1);
     }
 
+    @Test
+    public void shouldReplenishCreditsWhenAsyncTaskHandlingCompletes() throws InterruptedException
+    {
+        // given
+        final int subscriptionCapacity = 16;
+
+        broker.stubTaskSubscriptionApi(123L);
+
+        final List<CompletableFuture<Void>> inFlightTasks = new CopyOnWriteArrayList<>();
+        final AsyncTaskHandler handler = (c, t) ->
+        {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            inFlightTasks.add(future);
+            return future;
+        };
+
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+                .asyncHandler(handler)
+                .lockOwner("owner")
+                .lockTime(10000L)
+                .taskFetchSize(subscriptionCapacity)
+                .taskType("type")
+                .open();
+
+        final RemoteAddress clientAddress = getSubscribeRequests().findFirst().get().getSource();
+
+        // more tasks in flight than there are execution threads
+        for (int i = 0; i < subscriptionCapacity; i++)
+        {
+            broker.pushLockedTask(clientAddress, 123L, 4L + i, 5L + i, "foo", "type");
+        }
+        waitUntil(() -> inFlightTasks.size() == subscriptionCapacity);
+
+        Thread.sleep(500L); // waiting for potentially premature credit requests
+        assertThat(getCreditRequests().count()).isEqualTo(0);
+
+        // when
+        inFlightTasks.forEach(f -> f.complete(null));
+
+        // then
+        waitUntil(() -> getCreditRequests().count() >= 1);
+
+        final int replenishmentThreshold = (int) (Math.ceil(subscriptionCapacity * Subscriber.REPLENISHMENT_THRESHOLD));
+        final int totalReplenishedCredits = getCreditRequests()
+                .mapToInt(r -> (int) r.getData().get("credits"))
+                .sum();
+        assertThat(totalReplenishedCredits).isGreaterThanOrEqualTo(subscriptionCapacity - replenishmentThreshold);
+    }
+
+    @Test
+    public void shouldMarkTaskAsFailedOnExceptionalAsyncCompletion()
+    {
+        // given
+        broker.stubTaskSubscriptionApi(123L);
+        broker.onExecuteCommandRequest(isTaskFailCommand())
+            .respondWith()
+            .event()
+                .allOf(r -> r.getCommand())
+                .put("state", "FAILED")
+                .done()
+            .register();
+
+        final AsyncTaskHandler handler = (c, t) ->
+        {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new RuntimeException("expected failure"));
+            return future;
+        };
+
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+                .asyncHandler(handler)
+                .lockOwner("foo")
+                .lockTime(10000L)
+                .taskType("bar")
+                .open();
+
+        final RemoteAddress clientAddress = getSubscribeRequests().findFirst().get().getSource();
+
+        // when
+        broker.pushLockedTask(clientAddress, 123L, 4L, 5L, "foo", "bar");
+
+        // then
+        final ExecuteCommandRequest taskRequest = TestUtil.doRepeatedly(() -> broker.getReceivedCommandRequests().stream()
+                .filter(r -> r.eventType() == EventType.TASK_EVENT)
+                .findFirst())
+            .until(r -> r.isPresent())
+            .get();
+
+        assertThat(taskRequest.key()).isEqualTo(4L);
+        assertThat(taskRequest.getCommand())
+            .containsEntry("state", "FAIL")
+            .containsEntry("type", "bar");
+    }
+
+    @Test
+    public void shouldCloseSubscriptionWhenAsyncTaskHandlingCompletes() throws InterruptedException
+    {
+        // given
+        broker.stubTaskSubscriptionApi(123L);
+
+        final List<CompletableFuture<Void>> inFlightTasks = new CopyOnWriteArrayList<>();
+        final AsyncTaskHandler handler = (c, t) ->
+        {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            inFlightTasks.add(future);
+            return future;
+        };
+
+        final TaskSubscription subscription = clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+                .asyncHandler(handler)
+                .lockOwner("owner")
+                .lockTime(10000L)
+                .taskType("type")
+                .open();
+
+        final RemoteAddress clientAddress = getSubscribeRequests().findFirst().get().getSource();
+
+        broker.pushLockedTask(clientAddress, 123L, 4L, 5L, "foo", "type");
+        waitUntil(() -> inFlightTasks.size() == 1);
+
+        final ActorFuture<Void> closeFuture = ((TaskSubscriberGroup) subscription).closeAsync();
+
+        Thread.sleep(500L); // waiting for a potentially premature close request
+        assertThat(getUnsubscribeRequests().count()).isEqualTo(0);
+        assertThat(closeFuture.isDone()).isFalse();
+
+        // when
+        inFlightTasks.get(0).complete(null);
+
+        // then
+        waitUntil(() -> closeFuture.isDone());
+
+        assertThat(subscription.isClosed()).isTrue();
+        assertThat(getUnsubscribeRequests().count()).isEqualTo(1);
+    }
+
     protected void failTaskFailure()
     {
         broker.onExecuteCommandRequest(EventType.TASK_EVENT, "FAIL")
@@ -82,6 +82,52 @@ public class CreateTopicTest
         assertThat(responseEvent.getState()).isEqualTo("CREATED");
     }
 
+    @Test
+    public void shouldCreateTopicWithLogSettings()
+    {
+        // given
+        brokerRule.onExecuteCommandRequest(Protocol.SYSTEM_PARTITION, EventType.TOPIC_EVENT, "CREATE")
+            .respondWith()
+            .event()
+              .allOf((r) -> r.getCommand())
+              .put("state", "CREATED")
+              .done()
+            .register();
+
+        // when
+        clientRule.topics().create("newTopic", 2)
+            .logSegmentSize(64 * 1024 * 1024)
+            .indexBlockSize(256 * 1024)
+            .writeBufferSize(8 * 1024 * 1024)
+            .compactionPolicy(LogCompactionPolicy.RETAIN)
+            .execute();
+
+        // then
+        final ExecuteCommandRequest request = brokerRule.getReceivedCommandRequests().get(0);
+
+        assertThat(request.getCommand()).containsOnly(
+                entry("state", "CREATE"),
+                entry("name", "newTopic"),
+                entry("partitions", 2),
+                entry("logSegmentSize", 64 * 1024 * 1024),
+                entry("indexBlockSize", 256 * 1024),
+                entry("writeBufferSize", 8 * 1024 * 1024),
+                entry("compactionPolicy", "RETAIN"));
+    }
+
+    @Test
+    public void shouldValidateLogSegmentSizeGreaterThanZero()
+    {
+        // then
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("logSegmentSize must be greater than 0");
+
+        // when
+        clientRule.topics()
+            .create("newTopic", 3)
+            .logSegmentSize(0);
+    }
+
     @Test
     public void shouldValidateTopicNameNotNull()
     {
@@ -19,6 +19,7 @@ import static io.zeebe.util.StringUtil.getBytes;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
+import java.time.Duration;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -31,6 +32,7 @@ import io.zeebe.client.cmd.ClientCommandRejectedException;
 import io.zeebe.client.event.WorkflowInstanceEvent;
 import io.zeebe.client.impl.data.MsgPackConverter;
 import io.zeebe.client.util.ClientRule;
+import io.zeebe.test.broker.protocol.brokerapi.ExecuteCommandRequest;
 import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
 
 
@@ -80,6 +82,29 @@ public class CreateWorkflowInstanceTest
         assertThat(workflowInstance.getWorkflowInstanceKey()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldNotSendAwaitCompletionTimeoutIfNotAwaitingCompletion()
+    {
+        // given
+        brokerRule.onWorkflowRequestRespondWith(1L)
+                .put("state", "WORKFLOW_INSTANCE_CREATED")
+                .put("version", 1)
+                .put("workflowInstanceKey", 1)
+                .put("payload", msgPackConverter.convertToMsgPack("null"))
+                .done()
+                .register();
+
+        // when
+        clientRule.workflows()
+                .create(clientRule.getDefaultTopicName())
+                .bpmnProcessId("foo")
+                .execute();
+
+        // then
+        final ExecuteCommandRequest request = brokerRule.getReceivedCommandRequests().get(0);
+        assertThat(request.getCommand()).doesNotContainKey("awaitCompletionTimeout");
+    }
+
     @Test
     public void shouldCreateWorkflowInstanceWithPayload() throws Exception
     {
@@ -200,4 +225,54 @@ public class CreateWorkflowInstanceTest
         assertThat(workflowInstance).isNotNull();
         assertThat(workflowInstance.getWorkflowKey()).isEqualTo(2L);
     }
+
+    @Test
+    public void shouldCreateWorkflowInstanceAndAwaitCompletion()
+    {
+        // given
+        brokerRule.onWorkflowRequestRespondWith(1L)
+                .put("state", "WORKFLOW_INSTANCE_COMPLETED")
+                .put("version", 1)
+                .put("workflowInstanceKey", 1)
+                .put("payload", msgPackConverter.convertToMsgPack("{ \"bar\" : 4 }"))
+                .done()
+                .register();
+
+        // when
+        final WorkflowInstanceEvent workflowInstance = clientRule.workflows()
+                .create(clientRule.getDefaultTopicName())
+                .bpmnProcessId("foo")
+                .awaitCompletion(Duration.ofSeconds(30))
+                .execute();
+
+        // then
+        final ExecuteCommandRequest request = brokerRule.getReceivedCommandRequests().get(0);
+        assertThat(request.getCommand()).containsEntry("awaitCompletionTimeout", 30_000);
+
+        assertThat(workflowInstance.getState()).isEqualTo("WORKFLOW_INSTANCE_COMPLETED");
+        assertThat(workflowInstance.getWorkflowInstanceKey()).isEqualTo(1);
+        assertThat(workflowInstance.getPayload()).isEqualTo("{\"bar\":4}");
+    }
+
+    @Test
+    public void shouldRejectAwaitCompletionIfInstanceIsNotCreated()
+    {
+        // given
+        brokerRule.onWorkflowRequestRespondWith(1L)
+                .put("state", "WORKFLOW_INSTANCE_REJECTED")
+                .put("bpmnProcessId", "foo")
+                .put("version", 1)
+                .done()
+                .register();
+
+        // expect exception
+        expectedException.expect(ClientCommandRejectedException.class);
+
+        // when
+        clientRule.workflows()
+            .create(clientRule.getDefaultTopicName())
+            .bpmnProcessId("foo")
+            .awaitCompletion(Duration.ofSeconds(30))
+            .execute();
+    }
 }
@@ -70,6 +70,11 @@ public class Topology
         return addLeader(broker.getHost(), broker.getPort(), topic, partition);
     }
 
+    public Topology addFollower(StubBrokerRule broker, String topic, int partition)
+    {
+        return addFollower(broker.getHost(), broker.getPort(), topic, partition);
+    }
+
     public Set<TopologyBroker> getBrokers()
     {
         return new HashSet<>(brokers.values());
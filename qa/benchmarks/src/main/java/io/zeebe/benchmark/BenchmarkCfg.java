@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark;
+
+import java.util.*;
+
+/**
+ * The configuration of a benchmark run, read from the system properties:
+ *
+ * <pre>
+ * -Dbenchmark.scenario=task|workflow|subscription|mixed
+ * -Dbenchmark.broker=embedded|host:port
+ * -Dbenchmark.brokerConfig=path/to/zeebe.cfg.toml (embedded broker only)
+ * -Dbenchmark.topic=benchmark
+ * -Dbenchmark.partitions=1
+ * -Dbenchmark.warmup=10 (seconds)
+ * -Dbenchmark.duration=60 (seconds)
+ * -Dbenchmark.maxInFlightRequests=128
+ * -Dbenchmark.serviceTasks=3 (workflow scenario)
+ * -Dbenchmark.resultFile=benchmark-result.json
+ * -Dbenchmark.label=&lt;e.g. the commit id, to compare the results of runs&gt;
+ * </pre>
+ *
+ * All other system properties are passed to the client, e.g. <code>zeebe.client.maxRequests</code>.
+ */
+public class BenchmarkCfg
+{
+    public static final String PREFIX = "benchmark.";
+    public static final String EMBEDDED_BROKER = "embedded";
+
+    protected final Properties properties;
+
+    public BenchmarkCfg(Properties properties)
+    {
+        this.properties = properties;
+    }
+
+    public String getScenario()
+    {
+        return get("scenario", "task");
+    }
+
+    public String getBroker()
+    {
+        return get("broker", EMBEDDED_BROKER);
+    }
+
+    public boolean isEmbeddedBroker()
+    {
+        return EMBEDDED_BROKER.equals(getBroker());
+    }
+
+    public String getBrokerConfig()
+    {
+        return get("brokerConfig", null);
+    }
+
+    public String getTopic()
+    {
+        return get("topic", "benchmark");
+    }
+
+    public int getPartitions()
+    {
+        return Integer.parseInt(get("partitions", "1"));
+    }
+
+    public int getWarmupSeconds()
+    {
+        return Integer.parseInt(get("warmup", "10"));
+    }
+
+    public int getDurationSeconds()
+    {
+        return Integer.parseInt(get("duration", "60"));
+    }
+
+    public int getMaxInFlightRequests()
+    {
+        return Integer.parseInt(get("maxInFlightRequests", "128"));
+    }
+
+    public int getServiceTasks()
+    {
+        return Integer.parseInt(get("serviceTasks", "3"));
+    }
+
+    public String getResultFile()
+    {
+        return get("resultFile", "benchmark-result.json");
+    }
+
+    public String getLabel()
+    {
+        return get("label", "");
+    }
+
+    public Properties getClientProperties()
+    {
+        return properties;
+    }
+
+    /**
+     * @return the effective configuration, to be stored with the results
+     */
+    public Map<String, Object> toMap()
+    {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        values.put("scenario", getScenario());
+        values.put("broker", getBroker());
+        values.put("topic", getTopic());
+        values.put("partitions", getPartitions());
+        values.put("warmup", getWarmupSeconds());
+        values.put("duration", getDurationSeconds());
+        values.put("maxInFlightRequests", getMaxInFlightRequests());
+        values.put("serviceTasks", getServiceTasks());
+        return values;
+    }
+
+    protected String get(String name, String defaultValue)
+    {
+        return properties.getProperty(PREFIX + name, defaultValue);
+    }
+}
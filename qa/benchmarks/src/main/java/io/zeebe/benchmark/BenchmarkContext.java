@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark;
+
+import io.zeebe.client.ZeebeClient;
+
+public class BenchmarkContext
+{
+    protected final ZeebeClient client;
+    protected final BenchmarkCfg cfg;
+    protected final BenchmarkResults results;
+
+    protected volatile boolean isRunning = true;
+
+    public BenchmarkContext(ZeebeClient client, BenchmarkCfg cfg, BenchmarkResults results)
+    {
+        this.client = client;
+        this.cfg = cfg;
+        this.results = results;
+    }
+
+    public ZeebeClient getClient()
+    {
+        return client;
+    }
+
+    public BenchmarkCfg getCfg()
+    {
+        return cfg;
+    }
+
+    public BenchmarkResults getResults()
+    {
+        return results;
+    }
+
+    public String getTopic()
+    {
+        return cfg.getTopic();
+    }
+
+    public RequestPipeline newRequestPipeline()
+    {
+        return new RequestPipeline(results, cfg.getMaxInFlightRequests());
+    }
+
+    public boolean isRunning()
+    {
+        return isRunning;
+    }
+
+    public void stop()
+    {
+        isRunning = false;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Collects the statistics of all operations of a run and reports the throughput and the
+ * latency percentiles (in microseconds), on the console and as JSON file.
+ */
+public class BenchmarkResults
+{
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    protected final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    protected long startTime = System.nanoTime();
+    protected long endTime;
+
+    public OperationStats operation(String name)
+    {
+        return operations.computeIfAbsent(name, OperationStats::new);
+    }
+
+    /**
+     * Discards everything recorded so far, e.g. after the warmup phase.
+     */
+    public void start()
+    {
+        operations.values().forEach(OperationStats::reset);
+        startTime = System.nanoTime();
+    }
+
+    public void stop()
+    {
+        endTime = System.nanoTime();
+    }
+
+    public void print(PrintStream out)
+    {
+        final double durationSeconds = getDurationSeconds();
+
+        out.println(String.format("%-30s %10s %8s %12s %10s %10s %10s %10s %10s", "operation (µs)",
+                "count", "errors", "ops/s", "p50", "p90", "p99", "p99.9", "max"));
+
+        for (OperationStats operation : sortedOperations())
+        {
+            final Histogram latencies = operation.getLatencies();
+
+            out.print(String.format("%-30s %10d %8d %12.1f",
+                    operation.getName(),
+                    latencies.getTotalCount(),
+                    operation.getErrors(),
+                    latencies.getTotalCount() / durationSeconds));
+
+            for (double percentile : PERCENTILES)
+            {
+                out.print(String.format(" %10d", toMicros(latencies.getValueAtPercentile(percentile))));
+            }
+            out.println(String.format(" %10d", toMicros(latencies.getMaxValue())));
+        }
+    }
+
+    public void writeJson(File file, BenchmarkCfg cfg) throws IOException
+    {
+        final StringBuilder json = new StringBuilder();
+
+        json.append("{\n");
+        json.append("  \"label\": ").append(quote(cfg.getLabel())).append(",\n");
+        json.append("  \"timestamp\": ").append(quote(Instant.now().toString())).append(",\n");
+        json.append("  \"durationSeconds\": ").append(getDurationSeconds()).append(",\n");
+
+        json.append("  \"config\": {");
+        appendEntries(json, cfg.toMap());
+        json.append("},\n");
+
+        json.append("  \"operations\": {");
+        final List<OperationStats> sortedOperations = sortedOperations();
+        for (int i = 0; i < sortedOperations.size(); i++)
+        {
+            final OperationStats operation = sortedOperations.get(i);
+            final Histogram latencies = operation.getLatencies();
+
+            final Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", latencies.getTotalCount());
+            values.put("errors", operation.getErrors());
+            values.put("throughput", latencies.getTotalCount() / getDurationSeconds());
+            values.put("meanMicros", latencies.getTotalCount() > 0 ? latencies.getMean() / 1000.0 : 0.0);
+            for (double percentile : PERCENTILES)
+            {
+                values.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", "") + "Micros",
+                        toMicros(latencies.getValueAtPercentile(percentile)));
+            }
+            values.put("maxMicros", toMicros(latencies.getMaxValue()));
+
+            json.append(i > 0 ? "," : "").append("\n    ").append(quote(operation.getName())).append(": {");
+            appendEntries(json, values);
+            json.append("}");
+        }
+        json.append("\n  }\n");
+        json.append("}\n");
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))
+        {
+            writer.write(json.toString());
+        }
+    }
+
+    protected List<OperationStats> sortedOperations()
+    {
+        final List<OperationStats> sortedOperations = new ArrayList<>(operations.values());
+        sortedOperations.sort(Comparator.comparing(OperationStats::getName));
+        return sortedOperations;
+    }
+
+    protected double getDurationSeconds()
+    {
+        final long end = endTime > startTime ? endTime : System.nanoTime();
+        return Math.max(1, end - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static long toMicros(long nanos)
+    {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static void appendEntries(StringBuilder json, Map<String, Object> values)
+    {
+        boolean isFirst = true;
+        for (Map.Entry<String, Object> entry : values.entrySet())
+        {
+            json.append(isFirst ? " " : ", ");
+            json.append(quote(entry.getKey())).append(": ");
+
+            final Object value = entry.getValue();
+            json.append(value instanceof Number ? value.toString() : quote(String.valueOf(value)));
+
+            isFirst = false;
+        }
+        json.append(" ");
+    }
+
+    private static String quote(String value)
+    {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.benchmark.scenario.*;
+import io.zeebe.broker.Broker;
+import io.zeebe.client.ClientProperties;
+import io.zeebe.client.ZeebeClient;
+import io.zeebe.client.cmd.ClientCommandRejectedException;
+import io.zeebe.client.cmd.ClientException;
+import io.zeebe.client.topic.Topic;
+
+/**
+ * Runs a benchmark scenario against an embedded or a running broker, prints the throughput and
+ * the latency percentiles of each operation and writes them to a JSON file, so that runs can
+ * be compared across commits. See {@link BenchmarkCfg} for the configuration.
+ */
+public class BenchmarkRunner
+{
+    private static final long TOPIC_CREATION_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    public static void main(String[] args) throws Exception
+    {
+        final Properties properties = System.getProperties();
+        ClientProperties.setDefaults(properties);
+
+        final BenchmarkCfg cfg = new BenchmarkCfg(properties);
+        final Scenario scenario = createScenario(cfg.getScenario());
+
+        Broker broker = null;
+        if (cfg.isEmbeddedBroker())
+        {
+            System.out.println("> Starting embedded broker");
+            broker = new Broker(cfg.getBrokerConfig());
+        }
+        else
+        {
+            properties.put(ClientProperties.BROKER_CONTACTPOINT, cfg.getBroker());
+        }
+
+        try (ZeebeClient client = ZeebeClient.create(properties))
+        {
+            awaitTopic(client, cfg);
+
+            final BenchmarkResults results = new BenchmarkResults();
+            final BenchmarkContext context = new BenchmarkContext(client, cfg, results);
+
+            run(scenario, context);
+
+            System.out.println(String.format("> Results of scenario '%s' %s", cfg.getScenario(), cfg.toMap()));
+            results.print(System.out);
+
+            final File resultFile = new File(cfg.getResultFile());
+            results.writeJson(resultFile, cfg);
+            System.out.println(String.format("> Written results to %s", resultFile.getAbsolutePath()));
+        }
+        finally
+        {
+            if (broker != null)
+            {
+                broker.close();
+            }
+        }
+    }
+
+    protected static Scenario createScenario(String name)
+    {
+        switch (name)
+        {
+            case "task":
+                return new TaskScenario();
+            case "workflow":
+                return new WorkflowScenario();
+            case "subscription":
+                return new SubscriptionScenario();
+            case "mixed":
+                return new MixedScenario();
+            default:
+                throw new IllegalArgumentException(String.format("Unknown scenario '%s', expected one of: task, workflow, subscription, mixed", name));
+        }
+    }
+
+    protected static void run(Scenario scenario, BenchmarkContext context) throws InterruptedException
+    {
+        final BenchmarkCfg cfg = context.getCfg();
+
+        scenario.setUp(context);
+
+        final Thread loadGenerator = new Thread(() -> scenario.run(context), "benchmark-load-generator");
+        loadGenerator.start();
+
+        try
+        {
+            System.out.println(String.format("> Warming up for %d seconds", cfg.getWarmupSeconds()));
+            Thread.sleep(TimeUnit.SECONDS.toMillis(cfg.getWarmupSeconds()));
+
+            context.getResults().start();
+
+            System.out.println(String.format("> Running scenario '%s' for %d seconds", cfg.getScenario(), cfg.getDurationSeconds()));
+            Thread.sleep(TimeUnit.SECONDS.toMillis(cfg.getDurationSeconds()));
+        }
+        finally
+        {
+            context.stop();
+            loadGenerator.join();
+
+            context.getResults().stop();
+
+            scenario.tearDown();
+        }
+    }
+
+    /**
+     * Creates the topic, if it does not exist, and waits until it is available. The embedded broker
+     * may not accept requests right after it is started, so failed requests are retried.
+     */
+    protected static void awaitTopic(ZeebeClient client, BenchmarkCfg cfg) throws InterruptedException
+    {
+        final String topicName = cfg.getTopic();
+        final long deadline = System.currentTimeMillis() + TOPIC_CREATION_TIMEOUT;
+
+        boolean isCreated = false;
+        while (true)
+        {
+            try
+            {
+                if (!isCreated)
+                {
+                    client.topics().create(topicName, cfg.getPartitions()).execute();
+                    isCreated = true;
+                }
+            }
+            catch (ClientCommandRejectedException e)
+            {
+                // topic exists already
+                isCreated = true;
+            }
+            catch (ClientException e)
+            {
+                if (System.currentTimeMillis() > deadline)
+                {
+                    throw e;
+                }
+            }
+
+            if (isCreated && hasTopic(client, topicName))
+            {
+                return;
+            }
+            else if (System.currentTimeMillis() > deadline)
+            {
+                throw new IllegalStateException(String.format("Topic '%s' is not available after %d ms", topicName, TOPIC_CREATION_TIMEOUT));
+            }
+
+            Thread.sleep(100);
+        }
+    }
+
+    private static boolean hasTopic(ZeebeClient client, String topicName)
+    {
+        try
+        {
+            return client.topics().getTopics().execute().getTopics().stream()
+                .filter(t -> topicName.equals(t.getName()))
+                .map(Topic::getPartitions)
+                .anyMatch(partitions -> !partitions.isEmpty());
+        }
+        catch (ClientException e)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Records the latencies (in nanoseconds) and errors of one kind of operation.
+ * Values can be recorded concurrently, e.g. by the request loop and the subscription handlers.
+ */
+public class OperationStats
+{
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toNanos(1);
+
+    protected final String name;
+    protected final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_VALUE, 3);
+    protected final AtomicLong errors = new AtomicLong();
+
+    public OperationStats(String name)
+    {
+        this.name = name;
+    }
+
+    public void recordLatency(long nanos)
+    {
+        latencies.recordValue(Math.min(Math.max(0, nanos), HIGHEST_TRACKABLE_VALUE));
+    }
+
+    public void recordError()
+    {
+        errors.incrementAndGet();
+    }
+
+    public void reset()
+    {
+        latencies.reset();
+        errors.set(0);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public long getErrors()
+    {
+        return errors.get();
+    }
+
+    public Histogram getLatencies()
+    {
+        return latencies.copy();
+    }
+}
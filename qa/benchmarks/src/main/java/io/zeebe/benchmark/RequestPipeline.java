@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import io.zeebe.client.cmd.Request;
+
+/**
+ * Sends requests asynchronously while limiting the number of in-flight requests and records
+ * the latency of each request, from sending it until its response is observed. Not thread-safe,
+ * each load generating thread uses its own pipeline.
+ */
+public class RequestPipeline
+{
+    protected final BenchmarkResults results;
+    protected final int maxInFlightRequests;
+    protected final List<InFlightRequest<?>> inFlightRequests = new ArrayList<>();
+
+    public RequestPipeline(BenchmarkResults results, int maxInFlightRequests)
+    {
+        this.results = results;
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    /**
+     * Sends the request as soon as the number of in-flight requests is below the limit.
+     *
+     * @param onResponse called with the response and the time (see {@link System#nanoTime()})
+     *  the request was sent
+     */
+    public <R> void send(String operation, Request<R> request, BiConsumer<R, Long> onResponse)
+    {
+        while (inFlightRequests.size() >= maxInFlightRequests)
+        {
+            if (poll() == 0)
+            {
+                Thread.yield();
+            }
+        }
+
+        final long sendTime = System.nanoTime();
+        final Future<R> future = request.executeAsync();
+
+        inFlightRequests.add(new InFlightRequest<>(results.operation(operation), future, sendTime, onResponse));
+    }
+
+    public <R> void send(String operation, Request<R> request)
+    {
+        send(operation, request, (response, sendTime) ->
+        {
+            // only the latency is recorded
+        });
+    }
+
+    /**
+     * @return the number of completed requests
+     */
+    public int poll()
+    {
+        int completedRequests = 0;
+
+        for (int i = inFlightRequests.size() - 1; i >= 0; i--)
+        {
+            final InFlightRequest<?> request = inFlightRequests.get(i);
+            if (request.future.isDone())
+            {
+                request.complete();
+                inFlightRequests.remove(i);
+                completedRequests++;
+            }
+        }
+
+        return completedRequests;
+    }
+
+    public void awaitAll()
+    {
+        while (!inFlightRequests.isEmpty())
+        {
+            if (poll() == 0)
+            {
+                Thread.yield();
+            }
+        }
+    }
+
+    protected static class InFlightRequest<R>
+    {
+        protected final OperationStats operation;
+        protected final Future<R> future;
+        protected final long sendTime;
+        protected final BiConsumer<R, Long> onResponse;
+
+        InFlightRequest(OperationStats operation, Future<R> future, long sendTime, BiConsumer<R, Long> onResponse)
+        {
+            this.operation = operation;
+            this.future = future;
+            this.sendTime = sendTime;
+            this.onResponse = onResponse;
+        }
+
+        void complete()
+        {
+            final long latency = System.nanoTime() - sendTime;
+
+            try
+            {
+                final R response = future.get();
+
+                operation.recordLatency(latency);
+                onResponse.accept(response, sendTime);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                operation.recordError();
+            }
+            catch (ExecutionException e)
+            {
+                operation.recordError();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark.scenario;
+
+import java.util.Map;
+
+/**
+ * The benchmark passes the time a task was created in a custom header, so that the workers and
+ * subscriptions can measure the latency without keeping track of the task keys.
+ */
+public final class BenchmarkHeaders
+{
+    public static final String SEND_TIME = "benchmarkSendTime";
+
+    private BenchmarkHeaders()
+    {
+    }
+
+    /**
+     * @return the send time (see {@link System#nanoTime()}), or <code>-1</code> if the header is not set
+     */
+    public static long getSendTime(Map<String, Object> customHeaders)
+    {
+        final Object sendTime = customHeaders.get(SEND_TIME);
+        return sendTime instanceof Number ? ((Number) sendTime).longValue() : -1L;
+    }
+}
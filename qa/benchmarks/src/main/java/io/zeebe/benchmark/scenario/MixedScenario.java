@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.benchmark.BenchmarkContext;
+
+/**
+ * Runs the task, workflow and subscription scenarios at the same time, each with its own
+ * load generating thread, to measure reads and writes under a mixed workload.
+ */
+public class MixedScenario implements Scenario
+{
+    protected final List<Scenario> scenarios = new ArrayList<>();
+
+    public MixedScenario()
+    {
+        scenarios.add(new TaskScenario());
+        scenarios.add(new WorkflowScenario());
+        scenarios.add(new SubscriptionScenario());
+    }
+
+    @Override
+    public void setUp(BenchmarkContext context)
+    {
+        scenarios.forEach(s -> s.setUp(context));
+    }
+
+    @Override
+    public void run(BenchmarkContext context)
+    {
+        final List<Thread> threads = new ArrayList<>();
+
+        for (Scenario scenario : scenarios)
+        {
+            final Thread thread = new Thread(() -> scenario.run(context), "benchmark-" + scenario.getClass().getSimpleName());
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads)
+        {
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void tearDown()
+    {
+        scenarios.forEach(Scenario::tearDown);
+    }
+}
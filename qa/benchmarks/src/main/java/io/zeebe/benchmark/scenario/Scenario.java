@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark.scenario;
+
+import io.zeebe.benchmark.BenchmarkContext;
+
+/**
+ * A workload of the benchmark. The operations are recorded with
+ * {@link io.zeebe.benchmark.BenchmarkResults#operation(String)}.
+ */
+public interface Scenario
+{
+    /**
+     * Prepares the scenario, e.g. deploys workflows and opens the subscriptions of the workers.
+     */
+    void setUp(BenchmarkContext context);
+
+    /**
+     * Generates load until {@link BenchmarkContext#isRunning()} returns <code>false</code>.
+     */
+    void run(BenchmarkContext context);
+
+    /**
+     * Closes the subscriptions.
+     */
+    void tearDown();
+}
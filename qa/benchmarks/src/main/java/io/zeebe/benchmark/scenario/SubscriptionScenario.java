@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark.scenario;
+
+import io.zeebe.benchmark.*;
+import io.zeebe.client.TasksClient;
+import io.zeebe.client.event.TopicSubscription;
+
+/**
+ * Creates tasks and consumes the events of the topic by a topic subscription. Records the operations
+ * <ul>
+ * <li><code>subscription.task.create</code>: the latency of the create request and</li>
+ * <li><code>subscription.push</code>: the time from sending the create request until the
+ * created event is received by the subscription.</li>
+ * </ul>
+ */
+public class SubscriptionScenario implements Scenario
+{
+    public static final String TASK_TYPE = "benchmark-subscription-task";
+
+    protected TopicSubscription topicSubscription;
+
+    @Override
+    public void setUp(BenchmarkContext context)
+    {
+        final OperationStats push = context.getResults().operation("subscription.push");
+
+        topicSubscription = context.getClient().topics()
+            .newSubscription(context.getTopic())
+            .name("benchmark-subscription")
+            .startAtTailOfTopic()
+            .forcedStart()
+            .taskEventHandler(task ->
+            {
+                if ("CREATED".equals(task.getState()))
+                {
+                    final long sendTime = BenchmarkHeaders.getSendTime(task.getCustomHeaders());
+                    if (sendTime >= 0)
+                    {
+                        push.recordLatency(System.nanoTime() - sendTime);
+                    }
+                }
+            })
+            .open();
+    }
+
+    @Override
+    public void run(BenchmarkContext context)
+    {
+        final RequestPipeline pipeline = context.newRequestPipeline();
+        final TasksClient tasks = context.getClient().tasks();
+
+        while (context.isRunning())
+        {
+            pipeline.send("subscription.task.create", tasks.create(context.getTopic(), TASK_TYPE)
+                .addCustomHeader(BenchmarkHeaders.SEND_TIME, System.nanoTime())
+                .payload("{}"));
+        }
+
+        pipeline.awaitAll();
+    }
+
+    @Override
+    public void tearDown()
+    {
+        if (topicSubscription != null)
+        {
+            topicSubscription.close();
+        }
+    }
+}
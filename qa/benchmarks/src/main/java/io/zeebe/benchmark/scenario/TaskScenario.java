@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark.scenario;
+
+import java.time.Duration;
+
+import io.zeebe.benchmark.*;
+import io.zeebe.client.TasksClient;
+import io.zeebe.client.event.TaskEvent;
+import io.zeebe.client.task.TaskSubscription;
+
+/**
+ * Creates tasks and completes them by a task subscription. Records the operations
+ * <ul>
+ * <li><code>task.create</code>: the latency of the create request,</li>
+ * <li><code>task.complete</code>: the latency of the complete request and</li>
+ * <li><code>task.end-to-end</code>: the time from sending the create request until the task is completed.</li>
+ * </ul>
+ */
+public class TaskScenario implements Scenario
+{
+    public static final String TASK_TYPE = "benchmark-task";
+
+    protected TaskSubscription taskSubscription;
+
+    @Override
+    public void setUp(BenchmarkContext context)
+    {
+        final OperationStats complete = context.getResults().operation("task.complete");
+        final OperationStats endToEnd = context.getResults().operation("task.end-to-end");
+
+        taskSubscription = context.getClient().tasks()
+            .newTaskSubscription(context.getTopic())
+            .taskType(TASK_TYPE)
+            .lockOwner("benchmark")
+            .lockTime(Duration.ofMinutes(1))
+            .handler((client, task) -> completeTask(client, task, complete, endToEnd))
+            .open();
+    }
+
+    /**
+     * @param endToEnd records the time since the task was created, if not <code>null</code>
+     */
+    protected static void completeTask(TasksClient client, TaskEvent task, OperationStats complete, OperationStats endToEnd)
+    {
+        final long startTime = System.nanoTime();
+
+        try
+        {
+            client.complete(task).withoutPayload().execute();
+        }
+        catch (RuntimeException e)
+        {
+            complete.recordError();
+            return;
+        }
+
+        final long now = System.nanoTime();
+        complete.recordLatency(now - startTime);
+
+        if (endToEnd != null)
+        {
+            final long sendTime = BenchmarkHeaders.getSendTime(task.getCustomHeaders());
+            if (sendTime >= 0)
+            {
+                endToEnd.recordLatency(now - sendTime);
+            }
+        }
+    }
+
+    @Override
+    public void run(BenchmarkContext context)
+    {
+        final RequestPipeline pipeline = context.newRequestPipeline();
+        final TasksClient tasks = context.getClient().tasks();
+
+        while (context.isRunning())
+        {
+            pipeline.send("task.create", tasks.create(context.getTopic(), TASK_TYPE)
+                .addCustomHeader(BenchmarkHeaders.SEND_TIME, System.nanoTime())
+                .payload("{}"));
+        }
+
+        pipeline.awaitAll();
+    }
+
+    @Override
+    public void tearDown()
+    {
+        if (taskSubscription != null)
+        {
+            taskSubscription.close();
+        }
+    }
+}
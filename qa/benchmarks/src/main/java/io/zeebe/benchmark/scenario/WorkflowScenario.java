@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.benchmark.scenario;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.zeebe.benchmark.*;
+import io.zeebe.client.WorkflowsClient;
+import io.zeebe.client.event.TopicSubscription;
+import io.zeebe.client.task.TaskSubscription;
+
+/**
+ * Starts instances of a workflow with a sequence of N service tasks (<code>benchmark.serviceTasks</code>)
+ * which are completed by a task subscription. Records the operations
+ * <ul>
+ * <li><code>workflow.create</code>: the latency of the create workflow instance request,</li>
+ * <li><code>workflow.task.complete</code>: the latency of the complete task request and</li>
+ * <li><code>workflow.end-to-end</code>: the time from sending the create request until the
+ * completed event of the workflow instance is received by a topic subscription.</li>
+ * </ul>
+ */
+public class WorkflowScenario implements Scenario
+{
+    public static final String BPMN_PROCESS_ID = "benchmark-process";
+    public static final String TASK_TYPE = "benchmark-workflow-task";
+
+    protected final Map<Long, Long> sendTimeByInstanceKey = new ConcurrentHashMap<>();
+
+    protected TaskSubscription taskSubscription;
+    protected TopicSubscription topicSubscription;
+
+    @Override
+    public void setUp(BenchmarkContext context)
+    {
+        context.getClient().workflows()
+            .deploy(context.getTopic())
+            .addResourceStringUtf8(createWorkflow(context.getCfg().getServiceTasks()), "benchmark-process.bpmn")
+            .execute();
+
+        final OperationStats complete = context.getResults().operation("workflow.task.complete");
+        final OperationStats endToEnd = context.getResults().operation("workflow.end-to-end");
+
+        taskSubscription = context.getClient().tasks()
+            .newTaskSubscription(context.getTopic())
+            .taskType(TASK_TYPE)
+            .lockOwner("benchmark")
+            .lockTime(Duration.ofMinutes(1))
+            .handler((client, task) -> TaskScenario.completeTask(client, task, complete, null))
+            .open();
+
+        topicSubscription = context.getClient().topics()
+            .newSubscription(context.getTopic())
+            .name("benchmark-workflow")
+            .startAtTailOfTopic()
+            .forcedStart()
+            .workflowInstanceEventHandler(event ->
+            {
+                if ("WORKFLOW_INSTANCE_COMPLETED".equals(event.getState()))
+                {
+                    final Long sendTime = sendTimeByInstanceKey.remove(event.getWorkflowInstanceKey());
+                    // instances completed before their create response was received are not recorded
+                    if (sendTime != null)
+                    {
+                        endToEnd.recordLatency(System.nanoTime() - sendTime);
+                    }
+                }
+            })
+            .open();
+    }
+
+    @Override
+    public void run(BenchmarkContext context)
+    {
+        final RequestPipeline pipeline = context.newRequestPipeline();
+        final WorkflowsClient workflows = context.getClient().workflows();
+
+        while (context.isRunning())
+        {
+            pipeline.send("workflow.create",
+                workflows.create(context.getTopic())
+                    .bpmnProcessId(BPMN_PROCESS_ID)
+                    .latestVersion()
+                    .payload("{}"),
+                (instance, sendTime) -> sendTimeByInstanceKey.put(instance.getWorkflowInstanceKey(), sendTime));
+        }
+
+        pipeline.awaitAll();
+    }
+
+    @Override
+    public void tearDown()
+    {
+        if (taskSubscription != null)
+        {
+            taskSubscription.close();
+        }
+
+        if (topicSubscription != null)
+        {
+            topicSubscription.close();
+        }
+    }
+
+    protected static String createWorkflow(int serviceTasks)
+    {
+        final StringBuilder bpmn = new StringBuilder();
+
+        bpmn.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        bpmn.append("<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" ");
+        bpmn.append("xmlns:zeebe=\"http://camunda.org/schema/zeebe/1.0\" ");
+        bpmn.append("id=\"benchmark\" targetNamespace=\"http://bpmn.io/schema/bpmn\">\n");
+        bpmn.append("  <bpmn:process id=\"").append(BPMN_PROCESS_ID).append("\" isExecutable=\"true\">\n");
+        bpmn.append("    <bpmn:startEvent id=\"start\" />\n");
+
+        String previousElement = "start";
+        for (int i = 0; i < serviceTasks; i++)
+        {
+            final String task = "task" + i;
+
+            bpmn.append("    <bpmn:serviceTask id=\"").append(task).append("\">\n");
+            bpmn.append("      <bpmn:extensionElements>\n");
+            bpmn.append("        <zeebe:taskDefinition type=\"").append(TASK_TYPE).append("\" />\n");
+            bpmn.append("      </bpmn:extensionElements>\n");
+            bpmn.append("    </bpmn:serviceTask>\n");
+            appendSequenceFlow(bpmn, previousElement, task);
+
+            previousElement = task;
+        }
+
+        bpmn.append("    <bpmn:endEvent id=\"end\" />\n");
+        appendSequenceFlow(bpmn, previousElement, "end");
+
+        bpmn.append("  </bpmn:process>\n");
+        bpmn.append("</bpmn:definitions>\n");
+
+        return bpmn.toString();
+    }
+
+    private static void appendSequenceFlow(StringBuilder bpmn, String source, String target)
+    {
+        bpmn.append("    <bpmn:sequenceFlow id=\"").append(source).append("-").append(target)
+            .append("\" sourceRef=\"").append(source)
+            .append("\" targetRef=\"").append(target).append("\" />\n");
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.broker.it.logstreams;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import io.zeebe.broker.it.ClientRule;
+import io.zeebe.broker.it.EmbeddedBrokerRule;
+import io.zeebe.test.util.TestFileUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Long running test which writes a multiple of the bounded log size and verifies that
+ * compaction removes the log segments which are covered by snapshots.
+ */
+public class LogCompactionTest
+{
+    private static final long SEGMENT_SIZE = 1024 * 1024;
+    private static final long MAX_LOG_SIZE = 8 * SEGMENT_SIZE;
+
+    private static final int ROUNDS = 40;
+    private static final int TASKS_PER_ROUND = 250;
+
+    private static final String PAYLOAD = String.format("{\"data\": \"%s\"}", String.join("", Collections.nCopies(1024, "x")));
+
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public EmbeddedBrokerRule brokerRule = new EmbeddedBrokerRule(() -> brokerConfig(tempFolder.getRoot().getAbsolutePath()));
+
+    public ClientRule clientRule = new ClientRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain
+        .outerRule(tempFolder)
+        .around(brokerRule)
+        .around(clientRule);
+
+    @Rule
+    public Timeout testTimeout = Timeout.seconds(600);
+
+    protected static InputStream brokerConfig(String path)
+    {
+        final String canonicallySeparatedPath = path.replaceAll(Pattern.quote(File.separator), "/");
+
+        return TestFileUtil.readAsTextFileAndReplace(
+                LogCompactionTest.class.getClassLoader().getResourceAsStream("compaction-broker.cfg.toml"),
+                StandardCharsets.UTF_8,
+                Collections.singletonMap("brokerFolder", canonicallySeparatedPath));
+    }
+
+    @Test
+    public void shouldKeepLogSizeBounded()
+    {
+        // given
+        final AtomicInteger completedTasks = new AtomicInteger();
+
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopic())
+            .taskType("foo")
+            .lockOwner("test")
+            .lockTime(Duration.ofMinutes(5))
+            .handler((c, t) ->
+            {
+                c.complete(t).withoutPayload().execute();
+                completedTasks.incrementAndGet();
+            })
+            .open();
+
+        long writtenBytes = 0;
+
+        // when
+        for (int round = 1; round <= ROUNDS; round++)
+        {
+            for (int i = 0; i < TASKS_PER_ROUND; i++)
+            {
+                clientRule.tasks().create(clientRule.getDefaultTopic(), "foo")
+                    .payload(PAYLOAD)
+                    .execute();
+            }
+            writtenBytes += TASKS_PER_ROUND * PAYLOAD.length();
+
+            final int expectedCompletedTasks = round * TASKS_PER_ROUND;
+            waitUntil(() -> completedTasks.get() == expectedCompletedTasks);
+
+            // triggers the snapshots and the compaction afterwards
+            brokerRule.getClock().addTime(Duration.ofSeconds(10));
+            brokerRule.getClock().addTime(Duration.ofSeconds(10));
+
+            // then
+            waitUntil(() -> logSize() <= MAX_LOG_SIZE);
+        }
+
+        assertThat(writtenBytes).isGreaterThan(2 * MAX_LOG_SIZE);
+        assertThat(logSize()).isLessThanOrEqualTo(MAX_LOG_SIZE);
+    }
+
+    protected long logSize()
+    {
+        final File[] logDirectories = new File(tempFolder.getRoot(), "logs").listFiles(File::isDirectory);
+
+        return Arrays.stream(logDirectories)
+            .flatMap(directory -> Arrays.stream(directory.listFiles((dir, name) -> name.endsWith(".data"))))
+            .mapToLong(File::length)
+            .sum();
+    }
+}